@@ -3,15 +3,16 @@ USE spot;
 
 CREATE TABLE member
 (
-    id        BIGINT AUTO_INCREMENT PRIMARY KEY,
-    login_id  VARCHAR(255),
-    login_pwd VARCHAR(255),
-    role      VARCHAR(255),
-    name      VARCHAR(255),
-    reg_date  DATETIME DEFAULT NOW(),
-    type      VARCHAR(10),
-    mail      VARCHAR(50),
-    sns_id    BIGINT
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    login_id      VARCHAR(255),
+    login_pwd     VARCHAR(255),
+    role          VARCHAR(255),
+    name          VARCHAR(255),
+    reg_date      DATETIME DEFAULT NOW(),
+    type          VARCHAR(10),
+    mail          VARCHAR(50),
+    sns_id        BIGINT,
+    token_version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE mail_certification
@@ -27,6 +28,9 @@ CREATE TABLE member_image
     member_id        BIGINT,
     upload_file_name VARCHAR(255),
     store_file_name  VARCHAR(255),
+    thumbnail_status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    thumbnail_attempts INT NOT NULL DEFAULT 0,
+    INDEX idx_member_image_thumbnail_status (thumbnail_status, id),
     FOREIGN KEY (member_id) REFERENCES member (id)
 );
 
@@ -38,29 +42,44 @@ CREATE TABLE location
     title       VARCHAR(255),
     address     VARCHAR(255),
     description TEXT,
+    geohash     VARCHAR(12),
     reg_date    DATETIME,
-    approve     TINYINT(1) DEFAULT false
+    approve     TINYINT(1) DEFAULT false,
+    like_count  BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_location_approve_geohash (approve, geohash),
+    INDEX idx_location_approve_like_count (approve, like_count),
+    FULLTEXT INDEX ftx_location_title_description (title, description) WITH PARSER ngram
 );
 
 CREATE TABLE poster
 (
-    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
-    member_id   BIGINT,
-    location_id BIGINT,
-    title       VARCHAR(255),
-    content     VARCHAR(255),
-    reg_date    DATETIME DEFAULT NOW(),
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    member_id     BIGINT,
+    location_id   BIGINT,
+    title         VARCHAR(255),
+    content       VARCHAR(255),
+    reg_date      DATETIME DEFAULT NOW(),
+    like_count    BIGINT NOT NULL DEFAULT 0,
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_poster_location_reg_date (location_id, reg_date, id),
+    INDEX idx_poster_location_like_count (location_id, like_count, id),
+    INDEX idx_poster_member_reg_date (member_id, reg_date, id),
+    INDEX idx_poster_like_count (like_count),
+    FULLTEXT INDEX ftx_poster_title_content (title, content) WITH PARSER ngram,
     FOREIGN KEY (member_id) REFERENCES member (id),
     FOREIGN KEY (location_id) REFERENCES location (id)
 );
 
 CREATE TABLE comment
 (
-    id        BIGINT AUTO_INCREMENT PRIMARY KEY,
-    poster_id BIGINT,
-    member_id BIGINT,
-    content   VARCHAR(255),
-    reg_date  DATETIME DEFAULT NOW(),
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    poster_id  BIGINT,
+    member_id  BIGINT,
+    content    VARCHAR(255),
+    reg_date   DATETIME DEFAULT NOW(),
+    like_count BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_comment_poster_reg_date (poster_id, reg_date, id),
+    INDEX idx_comment_poster_like_count (poster_id, like_count, id),
     FOREIGN KEY (poster_id) REFERENCES poster (id),
     FOREIGN KEY (member_id) REFERENCES member (id)
 );
@@ -72,6 +91,9 @@ CREATE TABLE poster_image
     poster_id        BIGINT,
     upload_file_name VARCHAR(255),
     store_file_name  VARCHAR(255),
+    thumbnail_status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    thumbnail_attempts INT NOT NULL DEFAULT 0,
+    INDEX idx_poster_image_thumbnail_status (thumbnail_status, id),
     FOREIGN KEY (poster_id) REFERENCES poster (id)
 );
 
@@ -81,6 +103,9 @@ CREATE TABLE location_image
     location_id      BIGINT,
     upload_file_name VARCHAR(255),
     store_file_name  VARCHAR(255),
+    thumbnail_status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    thumbnail_attempts INT NOT NULL DEFAULT 0,
+    INDEX idx_location_image_thumbnail_status (thumbnail_status, id),
     FOREIGN KEY (location_id) REFERENCES location (id)
 );
 
@@ -91,6 +116,8 @@ CREATE TABLE poster_like
     member_id BIGINT,
     poster_id BIGINT,
     reg_date  DATETIME DEFAULT NOW(),
+    UNIQUE KEY uk_poster_like_poster_member (poster_id, member_id),
+    INDEX idx_poster_like_member_reg_date (member_id, reg_date, id),
     FOREIGN KEY (member_id) REFERENCES member (id),
     FOREIGN KEY (poster_id) REFERENCES poster (id)
 );
@@ -101,6 +128,8 @@ CREATE TABLE location_like
     member_id   BIGINT,
     location_id BIGINT,
     reg_date    DATETIME DEFAULT NOW(),
+    UNIQUE KEY uk_location_like_location_member (location_id, member_id),
+    INDEX idx_location_like_member_reg_date (member_id, reg_date, id),
     FOREIGN KEY (member_id) REFERENCES member (id),
     FOREIGN KEY (location_id) REFERENCES location (id)
 );
@@ -111,6 +140,27 @@ CREATE TABLE comment_like
     member_id  BIGINT,
     comment_id BIGINT,
     reg_date   DATETIME DEFAULT NOW(),
+    UNIQUE KEY uk_comment_like_comment_member (comment_id, member_id),
     FOREIGN KEY (member_id) REFERENCES member (id),
     FOREIGN KEY (comment_id) REFERENCES comment (id)
-);
\ No newline at end of file
+);
+CREATE TABLE image_delete_outbox
+(
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    object_key      VARCHAR(255) NOT NULL,
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME     NOT NULL DEFAULT NOW(),
+    reg_date        DATETIME DEFAULT NOW(),
+    INDEX idx_image_delete_outbox_next_attempt (next_attempt_at, id),
+    INDEX idx_image_delete_outbox_object_key (object_key)
+);
+CREATE TABLE image_blob
+(
+    dir          VARCHAR(20)  NOT NULL,
+    content_hash CHAR(64)     NOT NULL,
+    object_key   VARCHAR(255) NOT NULL,
+    ref_count    INT          NOT NULL,
+    reg_date     DATETIME DEFAULT NOW(),
+    PRIMARY KEY (dir, content_hash),
+    UNIQUE KEY uk_image_blob_object_key (object_key)
+);
@@ -0,0 +1,80 @@
+package com.example.spotserver.config.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.spotserver.config.auth.MemberPrincipal;
+import com.example.spotserver.domain.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인증 필터에서 토큰 검증 + 회원 조회에 드는 비용 비교.
+ * perRequest: 요청마다 알고리즘, 검증기를 새로 만드는 기존 방식 (DB 조회 비용은 제외)
+ * cached: 검증기 재사용 + 인증 정보 캐시 조회
+ * claims: 검증기 재사용 + 클레임으로 인증 정보 생성 (무효화 필터 조회 제외)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtAuthorizationFilterBenchmark {
+
+    private static final String SECRET_KEY = "benchmark-secret-key";
+
+    private String token;
+    private String claimsToken;
+    private Cache<Long, MemberPrincipal> principalCache;
+
+    @Setup
+    public void setup() {
+        new JwtProperties().setSecretKey(SECRET_KEY);
+
+        token = JWT.create()
+                .withSubject("AccessToken")
+                .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .withClaim("id", 1L)
+                .sign(JwtProperties.ALGORITHM);
+
+        claimsToken = JWT.create()
+                .withSubject("AccessToken")
+                .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .withClaim("id", 1L)
+                .withClaim("role", Role.USER.name())
+                .withClaim("ver", 0L)
+                .sign(JwtProperties.ALGORITHM);
+
+        principalCache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .build();
+        principalCache.put(1L, new MemberPrincipal(1L, Role.USER));
+    }
+
+    @Benchmark
+    public Long perRequest() {
+        return JWT.require(Algorithm.HMAC256(SECRET_KEY))
+                .build()
+                .verify(token)
+                .getClaim("id")
+                .asLong();
+    }
+
+    @Benchmark
+    public MemberPrincipal cached() {
+        Long id = JwtProperties.VERIFIER
+                .verify(token)
+                .getClaim("id")
+                .asLong();
+        return principalCache.getIfPresent(id);
+    }
+
+    @Benchmark
+    public MemberPrincipal claims() {
+        DecodedJWT decodedJWT = JwtProperties.VERIFIER.verify(claimsToken);
+        return new MemberPrincipal(decodedJWT.getClaim("id").asLong(), Role.valueOf(decodedJWT.getClaim("role").asString()));
+    }
+}
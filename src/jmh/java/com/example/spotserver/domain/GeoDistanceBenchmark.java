@@ -0,0 +1,68 @@
+package com.example.spotserver.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거리순 조회에서 후보마다 계산하는 거리 비용. (POINT_COUNT 개 기준)
+ * haversine: 모든 후보의 대원 거리 계산
+ * boundingBox: scaleDegrees 로 구한 위도, 경도 범위 밖의 후보를 먼저 거르고 안쪽만 대원 거리 계산
+ * 후보는 서울 시청 주변 약 20km 안에 고르게 흩어 놓고, 반경을 바꿔 걸러지는 비율에 따른 차이를 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeoDistanceBenchmark {
+
+    private static final int POINT_COUNT = 4096;
+    private static final double CENTER_LATITUDE = 37.5665;
+    private static final double CENTER_LONGITUDE = 126.9780;
+    private static final double SPREAD_DEGREES = 0.2;
+
+    @Param({"1000", "3000", "10000"})
+    private double radiusMeters;
+
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setup() {
+        // 항상 같은 좌표가 만들어지도록 시드를 고정한다.
+        Random random = new Random(42);
+        latitudes = new double[POINT_COUNT];
+        longitudes = new double[POINT_COUNT];
+        for (int i = 0; i < POINT_COUNT; i++) {
+            latitudes[i] = CENTER_LATITUDE + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES;
+            longitudes[i] = CENTER_LONGITUDE + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES;
+        }
+    }
+
+    // 반경 안의 후보 수
+    @Benchmark
+    public int haversine() {
+        int count = 0;
+        for (int i = 0; i < POINT_COUNT; i++) {
+            if (GeoDistance.haversine(CENTER_LATITUDE, CENTER_LONGITUDE, latitudes[i], longitudes[i]) <= radiusMeters)
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int boundingBox() {
+        // LocationService 와 같이 위도, 경도 모두 같은 범위를 쓴다.
+        double scale = GeoDistance.scaleDegrees(radiusMeters, CENTER_LATITUDE);
+
+        int count = 0;
+        for (int i = 0; i < POINT_COUNT; i++) {
+            if (Math.abs(latitudes[i] - CENTER_LATITUDE) > scale
+                    || Math.abs(longitudes[i] - CENTER_LONGITUDE) > scale)
+                continue;
+            if (GeoDistance.haversine(CENTER_LATITUDE, CENTER_LONGITUDE, latitudes[i], longitudes[i]) <= radiusMeters)
+                count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.spotserver.repository.jpa;
+
+import com.example.spotserver.domain.GeoHash;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 영역 안의 장소 조회(페이지 조회 + 개수 조회)의 위도, 경도 BETWEEN 방식과 geohash 접두사 LIKE 방식 비교.
+ * MySQL 이 필요하며 접속 정보는 시스템 프로퍼티(bench.jdbc.url, bench.jdbc.username, bench.jdbc.password)로 받는다.
+ * 서비스 테이블 대신 같은 인덱스를 가진 bench_location 테이블을 만들고, 처음 실행할 때 ROW_COUNT 행을 한반도 범위에 고르게 채운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LocationAreaSearchBenchmark {
+
+    private static final int ROW_COUNT = 1_000_000;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int PAGE_SIZE = 10;
+
+    private static final double MIN_LATITUDE = 33.0;
+    private static final double MAX_LATITUDE = 38.5;
+    private static final double MIN_LONGITUDE = 125.0;
+    private static final double MAX_LONGITUDE = 130.0;
+
+    // 서울 시청
+    private static final double LATITUDE = 37.5665;
+    private static final double LONGITUDE = 126.9780;
+
+    @Param({"0.01", "0.05", "0.2"})
+    private double scale;
+
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/spot"),
+                System.getProperty("bench.jdbc.username", "root"),
+                System.getProperty("bench.jdbc.password", ""));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS bench_location (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                    "latitude DOUBLE, " +
+                    "longitude DOUBLE, " +
+                    "title VARCHAR(255), " +
+                    "geohash VARCHAR(12), " +
+                    "reg_date DATETIME DEFAULT NOW(), " +
+                    "approve TINYINT(1) DEFAULT false, " +
+                    "INDEX idx_bench_location_approve_geohash (approve, geohash))");
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM bench_location")) {
+                resultSet.next();
+                seed(resultSet.getLong(1));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    // 기존 방식: latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?
+    @Benchmark
+    public long between() throws SQLException {
+        String where = " WHERE approve = true AND latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?";
+        return query("SELECT id, title FROM bench_location" + where + " ORDER BY reg_date DESC LIMIT " + PAGE_SIZE,
+                "SELECT COUNT(*) FROM bench_location" + where,
+                boundingBox());
+    }
+
+    // LocationRepositoryImpl.areaCondition 과 같은 형태: (geohash LIKE 'prefix%' OR ...) AND BETWEEN
+    @Benchmark
+    public long geohash() throws SQLException {
+        List<String> prefixes = GeoHash.coverBoundingBox(LATITUDE - scale, LATITUDE + scale, LONGITUDE - scale, LONGITUDE + scale);
+
+        StringBuilder where = new StringBuilder(" WHERE approve = true");
+        List<Object> params = new ArrayList<>();
+        if (!prefixes.isEmpty()) {
+            where.append(" AND (");
+            for (int i = 0; i < prefixes.size(); i++) {
+                if (i > 0)
+                    where.append(" OR ");
+                where.append("geohash LIKE ?");
+                params.add(prefixes.get(i) + "%");
+            }
+            where.append(")");
+        }
+        where.append(" AND latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?");
+        params.addAll(List.of(boundingBox()));
+
+        return query("SELECT id, title FROM bench_location" + where + " ORDER BY reg_date DESC LIMIT " + PAGE_SIZE,
+                "SELECT COUNT(*) FROM bench_location" + where,
+                params.toArray());
+    }
+
+    private Object[] boundingBox() {
+        return new Object[]{LATITUDE - scale, LATITUDE + scale, LONGITUDE - scale, LONGITUDE + scale};
+    }
+
+    private long query(String pageSql, String countSql, Object... params) throws SQLException {
+        long ids = 0;
+        try (PreparedStatement statement = connection.prepareStatement(pageSql)) {
+            bind(statement, params);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next())
+                    ids += resultSet.getLong(1);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(countSql)) {
+            bind(statement, params);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return ids + resultSet.getLong(1);
+            }
+        }
+    }
+
+    private void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++)
+            statement.setObject(i + 1, params[i]);
+    }
+
+    // 좌표를 고르게 흩어 채우고 90%를 승인 상태로 둔다. 항상 같은 데이터가 만들어지도록 시드를 고정한다.
+    private void seed(long existing) throws SQLException {
+
+        Random random = new Random(42);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO bench_location (latitude, longitude, title, geohash, approve) VALUES (?, ?, ?, ?, ?)")) {
+            for (long row = existing; row < ROW_COUNT; row++) {
+                double latitude = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
+                double longitude = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
+                statement.setDouble(1, latitude);
+                statement.setDouble(2, longitude);
+                statement.setString(3, "장소 " + row);
+                statement.setString(4, GeoHash.encode(latitude, longitude));
+                statement.setBoolean(5, random.nextInt(10) != 0);
+                statement.addBatch();
+
+                if ((row + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.spotserver.repository.jpa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 게시글 검색(페이지 조회 + 개수 조회)의 LIKE 방식과 FULLTEXT(ngram) 방식 비교.
+ * MySQL 이 필요하며 접속 정보는 시스템 프로퍼티(bench.jdbc.url, bench.jdbc.username, bench.jdbc.password)로 받는다.
+ * 서비스 테이블 대신 같은 인덱스를 가진 bench_poster 테이블을 만들고, 처음 실행할 때 ROW_COUNT 행을 채운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PosterSearchBenchmark {
+
+    private static final int ROW_COUNT = 1_000_000;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int PAGE_SIZE = 10;
+
+    private static final String[] WORDS = {
+            "서울", "부산", "제주도", "카페", "맛집", "산책", "야경", "바다", "공원", "전시회",
+            "주차", "데이트", "가족", "여행", "벚꽃", "단풍", "캠핑", "사진", "분위기", "추천"
+    };
+
+    @Param({"야경", "제주도 카페"})
+    private String search;
+
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/spot"),
+                System.getProperty("bench.jdbc.username", "root"),
+                System.getProperty("bench.jdbc.password", ""));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS bench_poster (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                    "title VARCHAR(255), " +
+                    "content VARCHAR(255), " +
+                    "reg_date DATETIME DEFAULT NOW(), " +
+                    "FULLTEXT INDEX ftx_bench_poster_title_content (title, content) WITH PARSER ngram)");
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM bench_poster")) {
+                resultSet.next();
+                seed(resultSet.getLong(1));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    // 기존 방식: title LIKE '%x%' OR content LIKE '%x%'
+    @Benchmark
+    public long like() throws SQLException {
+        String pattern = "%" + search + "%";
+        return query("SELECT id, title FROM bench_poster WHERE title LIKE ? OR content LIKE ? ORDER BY reg_date DESC LIMIT " + PAGE_SIZE,
+                "SELECT COUNT(*) FROM bench_poster WHERE title LIKE ? OR content LIKE ?",
+                pattern, pattern);
+    }
+
+    // FullTextSearch 가 만드는 조건과 같은 형태
+    @Benchmark
+    public long fullText() throws SQLException {
+        String booleanQuery = "+\"" + String.join("\" +\"", search.split(" ")) + "\"";
+        return query("SELECT id, title FROM bench_poster WHERE MATCH(title, content) AGAINST (? IN BOOLEAN MODE) > 0 ORDER BY reg_date DESC LIMIT " + PAGE_SIZE,
+                "SELECT COUNT(*) FROM bench_poster WHERE MATCH(title, content) AGAINST (? IN BOOLEAN MODE) > 0",
+                booleanQuery);
+    }
+
+    private long query(String pageSql, String countSql, String... params) throws SQLException {
+        long ids = 0;
+        try (PreparedStatement statement = connection.prepareStatement(pageSql)) {
+            bind(statement, params);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next())
+                    ids += resultSet.getLong(1);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(countSql)) {
+            bind(statement, params);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return ids + resultSet.getLong(1);
+            }
+        }
+    }
+
+    private void bind(PreparedStatement statement, String... params) throws SQLException {
+        for (int i = 0; i < params.length; i++)
+            statement.setString(i + 1, params[i]);
+    }
+
+    // 단어 몇 개를 이어 붙인 제목, 내용으로 채운다. 항상 같은 데이터가 만들어지도록 시드를 고정한다.
+    private void seed(long existing) throws SQLException {
+
+        Random random = new Random(42);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO bench_poster (title, content) VALUES (?, ?)")) {
+            for (long row = existing; row < ROW_COUNT; row++) {
+                statement.setString(1, sentence(random, 3));
+                statement.setString(2, sentence(random, 12));
+                statement.addBatch();
+
+                if ((row + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private String sentence(Random random, int wordCount) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0)
+                sentence.append(' ');
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.spotserver.repository.memory;
+
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.LocationSuggestResponse;
+import com.example.spotserver.repository.LocationRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 장소 제목 자동완성 조회 시간 분포. (SampleTime 결과의 p0.99 확인)
+ * DB 대신 getApprovedLocations 만 응답하는 LocationRepository 로 LOCATION_COUNT 개의 장소를 적재한다.
+ * 한 글자(미리 골라둔 목록), 두 글자, 초성 접두사를 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocationSuggestBenchmark {
+
+    private static final int LOCATION_COUNT = 100_000;
+    private static final int SIZE = 10;
+
+    private static final String[] WORDS = {
+            "서울", "서울숲", "부산", "제주도", "카페", "맛집", "공원", "전망대", "해수욕장", "시장",
+            "미술관", "박물관", "한옥마을", "야시장", "도서관", "수목원", "스타벅스", "brunch", "cafe", "park"
+    };
+
+    @Param({"서", "서울", "ㅅㅇ", "cafe"})
+    private String prefix;
+
+    private LocationSuggestIndex locationSuggestIndex;
+
+    @Setup
+    public void setup() {
+        List<LocationResponse> locations = locations();
+        LocationRepository locationRepository = (LocationRepository) Proxy.newProxyInstance(
+                LocationRepository.class.getClassLoader(),
+                new Class[]{LocationRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getApprovedLocations"))
+                        return locations;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        locationSuggestIndex = new LocationSuggestIndex(locationRepository);
+        locationSuggestIndex.rebuild();
+    }
+
+    @Benchmark
+    public List<LocationSuggestResponse> suggest() {
+        return locationSuggestIndex.suggest(prefix, SIZE);
+    }
+
+    // 단어 2~3개를 이어 붙인 제목. 항상 같은 데이터가 만들어지도록 시드를 고정한다.
+    private List<LocationResponse> locations() {
+        Random random = new Random(42);
+        List<LocationResponse> locations = new ArrayList<>(LOCATION_COUNT);
+        for (long id = 1; id <= LOCATION_COUNT; id++) {
+            int wordCount = 2 + random.nextInt(2);
+            StringBuilder title = new StringBuilder();
+            for (int i = 0; i < wordCount; i++) {
+                if (i > 0)
+                    title.append(' ');
+                title.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            locations.add(new LocationResponse(id, 37.5, 127.0, title.toString(), null, null, null, (long) random.nextInt(1000)));
+        }
+        return locations;
+    }
+}
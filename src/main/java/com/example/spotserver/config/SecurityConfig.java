@@ -1,9 +1,10 @@
 package com.example.spotserver.config;
 
+import com.example.spotserver.config.auth.PrincipalCache;
 import com.example.spotserver.config.jwt.JwtAccessDenyHandler;
 import com.example.spotserver.config.jwt.JwtAuthenticationEntryPoint;
 import com.example.spotserver.config.jwt.JwtAuthorizationFilter;
-import com.example.spotserver.repository.MemberRepository;
+import com.example.spotserver.config.jwt.TokenRevocationStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,7 +26,8 @@ import org.springframework.security.web.context.SecurityContextPersistenceFilter
 public class SecurityConfig {
 
     private CorsConfig corsConfig;
-    private MemberRepository memberRepository;
+    private PrincipalCache principalCache;
+    private TokenRevocationStore tokenRevocationStore;
 
 
     // 해당 메서드의 리턴되는 오브젝트를 IoC로 등록해준다.
@@ -36,9 +38,10 @@ public class SecurityConfig {
 
 
     @Autowired
-    public SecurityConfig(CorsConfig corsConfig, MemberRepository memberRepository) {
+    public SecurityConfig(CorsConfig corsConfig, PrincipalCache principalCache, TokenRevocationStore tokenRevocationStore) {
         this.corsConfig = corsConfig;
-        this.memberRepository = memberRepository;
+        this.principalCache = principalCache;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     @Bean
@@ -84,7 +87,7 @@ public class SecurityConfig {
             AuthenticationManager authenticationManager = http.getSharedObject(AuthenticationManager.class);
             http
                     .addFilter(corsConfig.corsFilter())
-                    .addFilter(new JwtAuthorizationFilter(authenticationManager, memberRepository));
+                    .addFilter(new JwtAuthorizationFilter(authenticationManager, principalCache, tokenRevocationStore));
 
         }
     }
@@ -0,0 +1,22 @@
+package com.example.spotserver.config.auth;
+
+import com.example.spotserver.domain.Member;
+import com.example.spotserver.domain.Role;
+import lombok.Getter;
+
+// 인증된 회원 정보. 접근 토큰의 클레임만으로 만들 수 있도록 id와 역할만 담는다.
+@Getter
+public final class MemberPrincipal {
+
+    private final Long id;
+    private final Role role;
+
+    public MemberPrincipal(Long id, Role role) {
+        this.id = id;
+        this.role = role;
+    }
+
+    public static MemberPrincipal from(Member member) {
+        return new MemberPrincipal(member.getId(), member.getRole());
+    }
+}
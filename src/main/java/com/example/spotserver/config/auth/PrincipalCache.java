@@ -0,0 +1,83 @@
+package com.example.spotserver.config.auth;
+
+import com.example.spotserver.event.MemberEvent;
+import com.example.spotserver.repository.MemberRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 회원 id로 인증 정보를 캐싱해서 요청마다 회원을 조회하지 않도록 한다.
+ * 회원 정보가 바뀌거나 탈퇴하면 커밋 후에 캐시를 지우고, 다른 서버에도 Redis pub/sub 으로 알린다.
+ * 알림을 놓치더라도 TTL이 지나면 다시 조회한다.
+ * 역할 클레임이 있는 토큰은 클레임으로 인증하므로, 역할 클레임이 없는 이전 형식 토큰에만 사용된다.
+ */
+@Component
+@Slf4j
+public class PrincipalCache implements MessageListener {
+
+    private static final String EVICT_CHANNEL = "principal:evict";
+
+    private MemberRepository memberRepository;
+    private StringRedisTemplate redisTemplate;
+
+    private final Cache<Long, MemberPrincipal> cache;
+
+    @Autowired
+    public PrincipalCache(MemberRepository memberRepository,
+                          StringRedisTemplate redisTemplate,
+                          RedisMessageListenerContainer listenerContainer,
+                          @Value("${spot.auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${spot.auth.principal-cache.ttl:5m}") Duration ttl) {
+        this.memberRepository = memberRepository;
+        this.redisTemplate = redisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    // 회원이 없으면 null (캐싱하지 않음)
+    public MemberPrincipal get(Long memberId) {
+        return cache.get(memberId, id -> memberRepository.findById(id)
+                .map(MemberPrincipal::from)
+                .orElse(null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberEvent(MemberEvent event) {
+        evict(event.getMemberId());
+    }
+
+    public void evict(Long memberId) {
+        cache.invalidate(memberId);
+        try {
+            redisTemplate.convertAndSend(EVICT_CHANNEL, memberId.toString());
+        } catch (RuntimeException e) {
+            log.warn("[인증 캐시] 캐시 삭제 알림 실패 memberId={}", memberId, e);
+        }
+    }
+
+    // 다른 서버(자신 포함)가 보낸 삭제 알림
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            cache.invalidate(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.warn("[인증 캐시] 잘못된 삭제 알림 무시");
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.spotserver.config.auth;
 
-import com.example.spotserver.domain.Member;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,10 +9,10 @@ import java.util.Collection;
 
 public class PrincipalDetails implements UserDetails {
 
-    private Member member;
+    private MemberPrincipal member;
 
 
-    public PrincipalDetails(Member member) {
+    public PrincipalDetails(MemberPrincipal member) {
         this.member = member;
     }
 
@@ -24,14 +23,16 @@ public class PrincipalDetails implements UserDetails {
         return collection;
     }
 
+    // 토큰으로만 인증하므로 비밀번호는 들고 있지 않는다.
     @Override
     public String getPassword() {
-        return member.getLoginPwd();
+        return null;
     }
 
+    // 토큰에는 로그인 아이디가 없으므로 회원 id를 사용한다.
     @Override
     public String getUsername() {
-        return member.getLoginId();
+        return String.valueOf(member.getId());
     }
 
     @Override
@@ -55,7 +56,7 @@ public class PrincipalDetails implements UserDetails {
     }
 
 
-    public Member getMember() {
+    public MemberPrincipal getMember() {
         return member;
     }
 }
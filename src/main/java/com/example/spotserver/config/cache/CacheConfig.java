@@ -0,0 +1,54 @@
+package com.example.spotserver.config.cache;
+
+import com.example.spotserver.dto.response.CommentResponse;
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.MemberResponse;
+import com.example.spotserver.dto.response.PosterResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 상세 조회 캐시(L1 Caffeine + L2 Redis). 무효화는 DetailCacheInvalidator가 커밋 후 이벤트로 처리한다.
+ * L1 TTL은 삭제 알림을 놓쳤을 때 다른 서버에 남는 시간이므로 L2보다 짧게 둔다.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(StringRedisTemplate redisTemplate,
+                                             RedisMessageListenerContainer listenerContainer,
+                                             ObjectMapper objectMapper,
+                                             Environment environment) {
+
+        CacheFactory factory = (name, type, ttl) -> new TwoLevelCache(name, type,
+                environment.getProperty("spot.cache." + name + ".max-size", Long.class, 10000L),
+                environment.getProperty("spot.cache." + name + ".local-ttl", Duration.class, Duration.ofMinutes(1)),
+                environment.getProperty("spot.cache." + name + ".ttl", Duration.class, ttl),
+                redisTemplate, objectMapper);
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(List.of(
+                factory.create(CacheNames.LOCATION, LocationResponse.class, Duration.ofMinutes(10)),
+                factory.create(CacheNames.POSTER, PosterResponse.class, Duration.ofMinutes(10)),
+                factory.create(CacheNames.COMMENT, CommentResponse.class, Duration.ofMinutes(10)),
+                factory.create(CacheNames.MEMBER, MemberResponse.class, Duration.ofMinutes(30)),
+                factory.create(CacheNames.PAGE_COUNT, Long.class, Duration.ofMinutes(5))));
+
+        listenerContainer.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCache.EVICT_CHANNEL));
+        return cacheManager;
+    }
+
+    @FunctionalInterface
+    private interface CacheFactory {
+        TwoLevelCache create(String name, Class<?> type, Duration ttl);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.spotserver.config.cache;
+
+// 상세 조회 캐시 이름. 캐시마다 spot.cache.{이름}.max-size, local-ttl, ttl 로 크기와 TTL을 정한다.
+public final class CacheNames {
+
+    public static final String LOCATION = "location";
+    public static final String POSTER = "poster";
+    public static final String COMMENT = "comment";
+    public static final String MEMBER = "member";
+    // 페이지 조회의 전체 개수 (CountMode.APPROX). 무효화하지 않고 TTL 동안 재사용한다.
+    public static final String PAGE_COUNT = "pageCount";
+
+    private CacheNames() {
+    }
+}
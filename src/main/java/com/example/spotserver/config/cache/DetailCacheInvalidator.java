@@ -0,0 +1,91 @@
+package com.example.spotserver.config.cache;
+
+import com.example.spotserver.event.CommentEvent;
+import com.example.spotserver.event.LikeEvent;
+import com.example.spotserver.event.LocationEvent;
+import com.example.spotserver.event.MemberEvent;
+import com.example.spotserver.event.PosterEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 변경이 커밋된 뒤에 상세 조회 캐시를 지운다. (커밋 전에 지우면 다른 요청이 이전 값을 다시 캐싱할 수 있다)
+ * 게시글 삭제는 함께 지운 댓글만 지우고, 장소 삭제와 회원 탈퇴는 게시글, 댓글을 한꺼번에 지우므로 해당 캐시를 비운다.
+ * 회원 이름, 프로필 이미지가 바뀌어도 게시글, 댓글 캐시의 작성자 정보는 TTL 동안 이전 값으로 남는다.
+ */
+@Component
+public class DetailCacheInvalidator {
+
+    private CacheManager cacheManager;
+
+    @Autowired
+    public DetailCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPosterEvent(PosterEvent event) {
+        // 새 게시글은 캐싱된 적이 없다.
+        if (event.getType() == PosterEvent.Type.ADD)
+            return;
+        evict(CacheNames.POSTER, event.getPosterId());
+        if (event.getType() == PosterEvent.Type.DELETE) {
+            for (Long commentId : event.getCommentIds())
+                evict(CacheNames.COMMENT, commentId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentEvent(CommentEvent event) {
+        evict(CacheNames.COMMENT, event.getCommentId());
+        if (event.getPosterId() != null)
+            evict(CacheNames.POSTER, event.getPosterId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeEvent(LikeEvent event) {
+        switch (event.getTarget()) {
+            case POSTER -> evict(CacheNames.POSTER, event.getTargetId());
+            case LOCATION -> evict(CacheNames.LOCATION, event.getTargetId());
+            case COMMENT -> evict(CacheNames.COMMENT, event.getTargetId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationEvent(LocationEvent event) {
+        switch (event.getType()) {
+            case APPROVE -> evict(CacheNames.LOCATION, event.getLocationId());
+            case DELETE -> {
+                evict(CacheNames.LOCATION, event.getLocationId());
+                clear(CacheNames.POSTER);
+                clear(CacheNames.COMMENT);
+            }
+            default -> {
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberEvent(MemberEvent event) {
+        switch (event.getType()) {
+            case UPDATE, REVOKE -> evict(CacheNames.MEMBER, event.getMemberId());
+            case DELETE -> {
+                evict(CacheNames.MEMBER, event.getMemberId());
+                clear(CacheNames.POSTER);
+                clear(CacheNames.COMMENT);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void evict(String cacheName, Long key) {
+        cacheManager.getCache(cacheName).evict(key);
+    }
+
+    private void clear(String cacheName) {
+        cacheManager.getCache(cacheName).clear();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.spotserver.config.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * 서버별 Caffeine(L1)과 서버 간에 공유하는 Redis(L2)를 차례로 조회하는 캐시. 값은 JSON 으로 L2에 저장한다.
+ * sync = true 인 @Cacheable 은 get(key, valueLoader)로 들어오며, Caffeine 이 키마다 한 번만 계산하므로
+ * 같은 키를 동시에 요청해도 서버마다 L2 조회, DB 조회는 한 번만 일어난다.
+ * 삭제하면 다른 서버의 L1도 지우도록 Redis pub/sub 으로 알린다. 알림을 놓쳐도 L1은 local-ttl 이 지나면 L2에서 다시 읽는다.
+ * Redis 오류는 캐시가 없는 것으로 보고 DB에서 읽는다.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    static final String EVICT_CHANNEL = "cache:evict";
+    static final String ALL_KEYS = "*";
+
+    private final String name;
+    private final Class<?> type;
+    private final Cache<String, Object> localCache;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public TwoLevelCache(String name, Class<?> type, long maxSize, Duration localTtl, Duration ttl,
+                         StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        super(false);
+        this.name = name;
+        this.type = type;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = key.toString();
+        Object value = localCache.getIfPresent(cacheKey);
+        if (value != null)
+            return value;
+
+        value = getRemote(cacheKey);
+        if (value != null)
+            localCache.put(cacheKey, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) localCache.get(key.toString(), cacheKey -> {
+            Object value = getRemote(cacheKey);
+            if (value != null)
+                return value;
+
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            putRemote(cacheKey, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null)
+            return;
+        String cacheKey = key.toString();
+        putRemote(cacheKey, value);
+        localCache.put(cacheKey, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = key.toString();
+        localCache.invalidate(cacheKey);
+        try {
+            redisTemplate.delete(redisKey(cacheKey));
+        } catch (RuntimeException e) {
+            log.warn("[캐시] L2 삭제 실패 cache={} key={}", name, cacheKey, e);
+        }
+        publish(cacheKey);
+    }
+
+    // 게시글, 댓글이 한꺼번에 지워질 때(장소 삭제, 회원 탈퇴)처럼 드물게만 사용한다.
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+        try {
+            List<String> keys = new ArrayList<>();
+            try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(redisKey(ALL_KEYS)).count(1000).build())) {
+                cursor.forEachRemaining(keys::add);
+            }
+            if (!keys.isEmpty())
+                redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            log.warn("[캐시] L2 비우기 실패 cache={}", name, e);
+        }
+        publish(ALL_KEYS);
+    }
+
+    // 다른 서버(자신 포함)가 보낸 삭제 알림
+    void evictLocal(String cacheKey) {
+        if (ALL_KEYS.equals(cacheKey))
+            localCache.invalidateAll();
+        else
+            localCache.invalidate(cacheKey);
+    }
+
+    private Object getRemote(String cacheKey) {
+        try {
+            String json = redisTemplate.opsForValue().get(redisKey(cacheKey));
+            return json == null ? null : objectMapper.readValue(json, type);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("[캐시] L2 조회 실패 cache={} key={}", name, cacheKey, e);
+            return null;
+        }
+    }
+
+    private void putRemote(String cacheKey, Object value) {
+        try {
+            redisTemplate.opsForValue().set(redisKey(cacheKey), objectMapper.writeValueAsString(value), ttl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("[캐시] L2 저장 실패 cache={} key={}", name, cacheKey, e);
+        }
+    }
+
+    private void publish(String cacheKey) {
+        try {
+            redisTemplate.convertAndSend(EVICT_CHANNEL, name + ":" + cacheKey);
+        } catch (RuntimeException e) {
+            log.warn("[캐시] 삭제 알림 실패 cache={} key={}", name, cacheKey, e);
+        }
+    }
+
+    private String redisKey(String cacheKey) {
+        return "cache:" + name + ":" + cacheKey;
+    }
+}
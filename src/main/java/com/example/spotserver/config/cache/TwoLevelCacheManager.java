@@ -0,0 +1,37 @@
+package com.example.spotserver.config.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+// 정해진 캐시만 사용하며, 다른 서버가 보낸 삭제 알림({캐시 이름}:{키})을 받아 L1에서 지운다.
+public class TwoLevelCacheManager extends AbstractCacheManager implements MessageListener {
+
+    private final List<TwoLevelCache> caches;
+
+    public TwoLevelCacheManager(List<TwoLevelCache> caches) {
+        this.caches = caches;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return caches;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(':');
+        if (index < 0)
+            return;
+
+        Cache cache = getCache(body.substring(0, index));
+        if (cache instanceof TwoLevelCache twoLevelCache)
+            twoLevelCache.evictLocal(body.substring(index + 1));
+    }
+}
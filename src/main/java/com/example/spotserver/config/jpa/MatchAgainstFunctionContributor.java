@@ -0,0 +1,21 @@
+package com.example.spotserver.config.jpa;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * JPQL(QueryDSL)에서 MySQL FULLTEXT 검색을 쓸 수 있도록 match_against(컬럼1, 컬럼2, 검색어) 함수를 등록한다.
+ * 결과는 관련도 점수(일치하지 않으면 0)이며, 두 컬럼에 걸친 FULLTEXT 인덱스가 있어야 한다.
+ * META-INF/services/org.hibernate.boot.model.FunctionContributor 로 등록된다.
+ */
+public class MatchAgainstFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                "match_against",
+                "match(?1, ?2) against (?3 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
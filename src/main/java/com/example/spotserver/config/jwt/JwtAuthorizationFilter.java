@@ -1,16 +1,16 @@
 package com.example.spotserver.config.jwt;
 
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.exceptions.SignatureVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.example.spotserver.config.auth.MemberPrincipal;
+import com.example.spotserver.config.auth.PrincipalCache;
 import com.example.spotserver.config.auth.PrincipalDetails;
 import com.example.spotserver.domain.ErrorResponse;
-import com.example.spotserver.domain.Member;
+import com.example.spotserver.domain.Role;
 import com.example.spotserver.exception.ErrorCode;
-import com.example.spotserver.repository.MemberRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -25,17 +25,20 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import java.io.IOException;
-import java.util.Optional;
 
 public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
 
 
-    private MemberRepository memberRepository;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    private PrincipalCache principalCache;
+    private TokenRevocationStore tokenRevocationStore;
 
-    public JwtAuthorizationFilter(AuthenticationManager authenticationManager, MemberRepository memberRepository) {
+
+    public JwtAuthorizationFilter(AuthenticationManager authenticationManager, PrincipalCache principalCache, TokenRevocationStore tokenRevocationStore) {
         super(authenticationManager);
-        this.memberRepository = memberRepository;
+        this.principalCache = principalCache;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     @Override
@@ -51,45 +54,56 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
         try {
 
             String jwtToken = jwtHeader.replace(JwtProperties.TOKEN_PREFIX, "");
-            Long id = JWT.require(Algorithm.HMAC256(JwtProperties.SECRET_KEY))
-                    .build()
-                    .verify(jwtToken)
-                    .getClaim("id")
-                    .asLong();
+            DecodedJWT decodedJWT = JwtProperties.VERIFIER.verify(jwtToken);
+            Long id = decodedJWT.getClaim("id").asLong();
+            String role = decodedJWT.getClaim("role").asString();
 
             // 서명이 정상적으로 됨
-            if (id != null) {
-                Member member = memberRepository.findById(id).get();
+            MemberPrincipal member = null;
+            if (id != null && role != null) {
+                Long version = decodedJWT.getClaim("ver").asLong();
+                if (tokenRevocationStore.isRevoked(id, version == null ? 0L : version)) {
+                    writeError(response, ErrorCode.JWT_REVOKED_TOKEN);
+                    return;
+                }
+                member = new MemberPrincipal(id, Role.valueOf(role));
+            } else if (id != null) {
+                // 역할 클레임이 없는 이전 형식 토큰은 만료될 때까지 회원을 조회해서 처리한다.
+                member = principalCache.get(id);
+            }
 
+            if (member != null) {
                 PrincipalDetails principalDetails = new PrincipalDetails(member);
                 Authentication authentication = new UsernamePasswordAuthenticationToken(principalDetails, null, principalDetails.getAuthorities());
 
                 // 세션에 강제 등록
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                chain.doFilter(request, response);
             }
+            chain.doFilter(request, response);
 
         } catch (Exception e) {
 
-            ErrorResponse errorResponse = null;
-
             if (e instanceof TokenExpiredException) {
-                errorResponse = new ErrorResponse(ErrorCode.JWT_EXPIRED_TOKEN);
+                writeError(response, ErrorCode.JWT_EXPIRED_TOKEN);
             } else if (e instanceof JWTDecodeException) {
-                errorResponse = new ErrorResponse(ErrorCode.JWT_DECODE_FAIL);
+                writeError(response, ErrorCode.JWT_DECODE_FAIL);
             } else if (e instanceof SignatureVerificationException) {
-                errorResponse = new ErrorResponse(ErrorCode.JWT_SIGNATURE_FAIL);
+                writeError(response, ErrorCode.JWT_SIGNATURE_FAIL);
             } else {
                 throw e;
             }
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonErrorResponse = objectMapper.writeValueAsString(errorResponse);
-
-            response.setStatus(HttpStatus.UNAUTHORIZED.value());
-            response.setCharacterEncoding("utf-8");
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            response.getWriter().write(jsonErrorResponse);
 
         }
     }
+
+    private void writeError(HttpServletResponse response, ErrorCode errorCode) throws IOException {
+
+        ErrorResponse errorResponse = new ErrorResponse(errorCode);
+        String jsonErrorResponse = objectMapper.writeValueAsString(errorResponse);
+
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setCharacterEncoding("utf-8");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(jsonErrorResponse);
+    }
 }
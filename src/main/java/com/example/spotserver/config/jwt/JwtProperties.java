@@ -1,5 +1,8 @@
 package com.example.spotserver.config.jwt;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
@@ -13,8 +16,14 @@ public class JwtProperties {
     public static Long REFRESH_TOKEN_EXPIRE_TIME = 60L * 3;
     public static String TOKEN_PREFIX = "Bearer ";
 
+    // 알고리즘과 검증기는 스레드 안전하므로 한 번만 만들어서 재사용한다.
+    public static Algorithm ALGORITHM;
+    public static JWTVerifier VERIFIER;
+
     @Value("${jwt.secrectKey}")
     public void setSecretKey(String secretKey) {
         SECRET_KEY = secretKey;
+        ALGORITHM = Algorithm.HMAC256(secretKey);
+        VERIFIER = JWT.require(ALGORITHM).build();
     }
 }
@@ -0,0 +1,227 @@
+package com.example.spotserver.config.jwt;
+
+import com.example.spotserver.domain.Member;
+import com.example.spotserver.event.MemberEvent;
+import com.example.spotserver.repository.MemberRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 만료 전에 무효화된 접근 토큰을 관리한다.
+ * Redis HASH(token:revoked)에 회원 id -> 최소 토큰 버전을 기록하고, 각 서버는 회원 id로 만든 블룸 필터를 메모리에 들고 있는다.
+ * 필터에 없는 회원(대부분의 요청)은 Redis를 조회하지 않고 통과시키고, 필터에 있을 때만 Redis에서 버전을 비교한다.
+ *
+ * 필터는 주기적으로 Redis에서 다시 만들고, 무효화가 일어나면 pub/sub 으로 다른 서버 필터에도 바로 추가한다.
+ * 접근 토큰 만료 시간이 지난 기록은 더 이상 필요 없으므로 동기화할 때 지운다.
+ */
+@Component
+@Slf4j
+public class TokenRevocationStore implements MessageListener {
+
+    private static final String REVOKED_KEY = "token:revoked";
+    private static final String REVOKED_AT_KEY = "token:revoked:at";
+    private static final String REVOKE_CHANNEL = "token:revoke";
+
+    // 서버 간 시간 차이를 고려한 여유
+    private static final long CLOCK_SKEW_MILLIS = 60_000;
+
+    private MemberRepository memberRepository;
+    private StringRedisTemplate redisTemplate;
+
+    private volatile BloomFilter bloomFilter = BloomFilter.create(0);
+
+    // 필터를 다시 만드는 동안 받은 알림을 새 필터에도 넣기 위해 받은 시각과 함께 잠시 보관한다.
+    private final Map<Long, Long> received = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenRevocationStore(MemberRepository memberRepository,
+                                StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer) {
+        this.memberRepository = memberRepository;
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOKE_CHANNEL));
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.error("[토큰 무효화] 초기 동기화 실패", e);
+        }
+    }
+
+    /**
+     * 회원의 토큰 중 버전이 minVersion 보다 작은 토큰을 무효화한다.
+     * 탈퇴처럼 모든 토큰을 무효화하려면 Long.MAX_VALUE 를 넘긴다.
+     */
+    public void revoke(Long memberId, long minVersion) {
+        String id = memberId.toString();
+        redisTemplate.opsForHash().put(REVOKED_KEY, id, String.valueOf(minVersion));
+        redisTemplate.opsForZSet().add(REVOKED_AT_KEY, id, System.currentTimeMillis());
+        bloomFilter.put(memberId);
+
+        try {
+            redisTemplate.convertAndSend(REVOKE_CHANNEL, id);
+        } catch (RuntimeException e) {
+            // 다른 서버는 다음 동기화 때 반영된다.
+            log.warn("[토큰 무효화] 알림 실패 memberId={}", memberId, e);
+        }
+    }
+
+    /**
+     * 필터에 없으면 바로 false 를 돌려준다.
+     * 필터에 있는데 Redis를 조회할 수 없으면 무효화된 토큰을 통과시키지 않도록 true 를 돌려준다.
+     */
+    public boolean isRevoked(Long memberId, long version) {
+
+        if (!bloomFilter.mightContain(memberId))
+            return false;
+
+        try {
+            Object minVersion = redisTemplate.opsForHash().get(REVOKED_KEY, memberId.toString());
+            return minVersion != null && version < Long.parseLong(minVersion.toString());
+        } catch (RuntimeException e) {
+            log.warn("[토큰 무효화] 조회 실패 memberId={}", memberId, e);
+            return true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberEvent(MemberEvent event) {
+
+        Long memberId = event.getMemberId();
+        if (event.getType() == MemberEvent.Type.DELETE) {
+            revoke(memberId, Long.MAX_VALUE);
+        } else if (event.getType() == MemberEvent.Type.REVOKE) {
+            memberRepository.findById(memberId)
+                    .map(Member::getTokenVersion)
+                    .ifPresent(tokenVersion -> revoke(memberId, tokenVersion));
+        }
+    }
+
+    // 만료된 기록을 지우고 Redis에 남은 회원 id로 필터를 다시 만든다.
+    @Scheduled(fixedDelayString = "${spot.auth.revocation-sync-delay:5000}", initialDelayString = "${spot.auth.revocation-sync-delay:5000}")
+    public void scheduledSync() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            // 기존 필터를 계속 사용한다.
+            log.error("[토큰 무효화] 동기화 실패", e);
+        }
+    }
+
+    public void sync() {
+
+        long startedAt = System.currentTimeMillis();
+
+        long expiredBefore = startedAt - JwtProperties.ACCESS_TOKEN_EXPIRE_TIME * 1000 - CLOCK_SKEW_MILLIS;
+        Set<String> expired = redisTemplate.opsForZSet().rangeByScore(REVOKED_AT_KEY, 0, expiredBefore);
+        if (expired != null && !expired.isEmpty()) {
+            redisTemplate.opsForHash().delete(REVOKED_KEY, expired.toArray());
+            redisTemplate.opsForZSet().remove(REVOKED_AT_KEY, expired.toArray());
+        }
+
+        Set<Object> memberIds = redisTemplate.opsForHash().keys(REVOKED_KEY);
+        BloomFilter next = BloomFilter.create(memberIds.size());
+        for (Object memberId : memberIds)
+            next.put(Long.valueOf(memberId.toString()));
+        bloomFilter = next;
+
+        // 동기화를 시작하기 전에 받은 알림은 이미 HASH에 기록되어 있다.
+        received.forEach((memberId, receivedAt) -> next.put(memberId));
+        received.values().removeIf(receivedAt -> receivedAt < startedAt);
+    }
+
+    // 다른 서버(자신 포함)가 보낸 무효화 알림
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Long memberId = Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8));
+            received.put(memberId, System.currentTimeMillis());
+            bloomFilter.put(memberId);
+        } catch (NumberFormatException e) {
+            log.warn("[토큰 무효화] 잘못된 알림 무시");
+        }
+    }
+
+    /**
+     * 회원 id 전용 블룸 필터. 오탐률 1% 기준으로 크기를 정한다.
+     * put 과 mightContain 이 동시에 호출될 수 있으므로 비트는 AtomicLongArray 에 저장한다.
+     */
+    private static final class BloomFilter {
+
+        private static final double FALSE_POSITIVE_RATE = 0.01;
+        private static final int MIN_EXPECTED = 1024;
+
+        private final AtomicLongArray bits;
+        private final long bitSize;
+        private final int hashCount;
+
+        private BloomFilter(long bitSize, int hashCount) {
+            this.bits = new AtomicLongArray((int) ((bitSize + 63) / 64));
+            this.bitSize = bitSize;
+            this.hashCount = hashCount;
+        }
+
+        // 동기화 사이에 추가될 회원을 고려해 두 배로 잡는다.
+        static BloomFilter create(int size) {
+            long expected = Math.max((long) size * 2, MIN_EXPECTED);
+            long bitSize = (long) Math.ceil(-expected * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+            int hashCount = Math.max(1, (int) Math.round((double) bitSize / expected * Math.log(2)));
+            return new BloomFilter(bitSize, hashCount);
+        }
+
+        void put(long value) {
+            long hash1 = mix(value);
+            long hash2 = mix(hash1);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitSize);
+                long mask = 1L << index;
+                int word = (int) (index >>> 6);
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0)
+                        break;
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(long value) {
+            long hash1 = mix(value);
+            long hash2 = mix(hash1);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitSize);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        // MurmurHash3 fmix64
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb93e53c5cb53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
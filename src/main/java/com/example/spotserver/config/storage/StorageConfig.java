@@ -0,0 +1,32 @@
+package com.example.spotserver.config.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class StorageConfig {
+
+    /**
+     * 이미지 업로드 전용 스레드 풀. 저장소 종류(S3, 로컬 디스크)와 관계없이 사용한다.
+     * 동시에 실행되는 업로드 수는 ImageStore가 세마포어로 스레드 수 이하로 제한하므로 큐가 쌓이지 않는다.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageUploadExecutor(@Value("${spot.s3.upload.max-concurrency:32}") int maxConcurrency) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.spotserver.controller;
 
+import com.example.spotserver.config.auth.MemberPrincipal;
 import com.example.spotserver.domain.Comment;
-import com.example.spotserver.domain.Member;
 import com.example.spotserver.domain.Poster;
 import com.example.spotserver.dto.request.CommentConditionRequest;
 import com.example.spotserver.dto.request.CommentRequest;
 import com.example.spotserver.dto.response.CommentResponse;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.PageResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.PermissionException;
 import com.example.spotserver.repository.PosterRepository;
@@ -40,7 +42,7 @@ public class CommentController {
     @PostMapping(value = "/posters/{posterId}/comments", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map> addComment(@PathVariable Long posterId,
                                           @Valid @RequestBody CommentRequest commentRequest,
-                                          @AuthenticationPrincipal(expression = "member") Member member) {
+                                          @AuthenticationPrincipal(expression = "member") MemberPrincipal member) {
 
 
         Comment comment = CommentRequest.toEntity(commentRequest);
@@ -74,9 +76,20 @@ public class CommentController {
                 .body(comments);
     }
 
+    @GetMapping(value = "/posters/{posterId}/comments", params = "cursor")
+    public ResponseEntity<CursorResponse<CommentResponse>> getCommentsByCursor(@PathVariable Long posterId,
+                                                                               @Valid @ModelAttribute CommentConditionRequest commentConditionRequest) throws CursorException {
+
+        CursorResponse<CommentResponse> comments = commentService.getCommentsByCursor(posterId, commentConditionRequest);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(comments);
+    }
+
     @DeleteMapping("/comments/{commentId}")
     public ResponseEntity deleteComment(@PathVariable Long commentId,
-                                        @AuthenticationPrincipal(expression = "member") Member member) throws PermissionException {
+                                        @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws PermissionException {
 
         commentService.deleteComment(commentId, member.getId());
 
@@ -88,7 +101,7 @@ public class CommentController {
     @PutMapping(value = "/comments/{commentId}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map> updateComment(@PathVariable Long commentId,
                                                          @Valid @RequestBody CommentRequest commentRequest,
-                                                         @AuthenticationPrincipal(expression = "member") Member member) throws PermissionException {
+                                                         @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws PermissionException {
 
         commentService.updateComment(commentId, commentRequest, member.getId());
         Map<String, Object> response = new HashMap<>();
@@ -100,7 +113,7 @@ public class CommentController {
 
     @PostMapping(value = "/comments/{commentId}/likes")
     public ResponseEntity addLike(@PathVariable Long commentId,
-                                  @AuthenticationPrincipal(expression = "member") Member member) throws DuplicateException {
+                                  @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws DuplicateException {
 
         commentService.addLike(commentId, member.getId());
 
@@ -111,7 +124,7 @@ public class CommentController {
 
     @DeleteMapping(value = "/comments/{commentId}/likes")
     public ResponseEntity deleteLike(@PathVariable Long commentId,
-                                     @AuthenticationPrincipal(expression = "member") Member member) {
+                                     @AuthenticationPrincipal(expression = "member") MemberPrincipal member) {
 
         commentService.deleteLike(commentId, member.getId());
 
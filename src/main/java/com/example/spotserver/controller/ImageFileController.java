@@ -3,20 +3,53 @@ package com.example.spotserver.controller;
 import com.example.spotserver.dto.response.LocationImageResponse;
 import com.example.spotserver.dto.response.PosterImageResponse;
 import com.example.spotserver.service.ImageFileService;
+import com.example.spotserver.service.ImageUrlResolver;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 public class ImageFileController {
 
+    // Tomcat 이 지원하면 파일 전송을 커넥터에 맡긴다. (sendfile, 애플리케이션 스레드에서 복사하지 않는다)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // 저장된 파일은 이름(UUID)이 바뀌지 않는다. 축소본 생성 전에는 요청 크기의 결과(원본)가 곧 바뀔 수 있으므로 짧게 캐싱한다.
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl SETTLED = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+    private static final CacheControl PENDING = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+
     private ImageFileService imageFileService;
 
 
@@ -37,9 +70,12 @@ public class ImageFileController {
     }
 
     @GetMapping("/posters/images/{posterImageId}")
-    public void getPosterImagefile(@PathVariable Long posterImageId, HttpServletResponse response) throws IOException {
-        String posterImageUrl = imageFileService.getPosterImageUrl(posterImageId);
-        response.sendRedirect(posterImageUrl);
+    public void getPosterImagefile(@PathVariable Long posterImageId,
+                                   @RequestParam(required = false) Integer size,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        ImageUrlResolver.StoredImage posterImage = imageFileService.getPosterImage(posterImageId);
+        sendImage(imageFileService.getImageKey(posterImage, size), posterImage.isSettled() ? SETTLED : PENDING, request, response);
     }
 
     @GetMapping("/locations/{locationId}/images")
@@ -53,10 +89,135 @@ public class ImageFileController {
     }
 
     @GetMapping("/locations/images/{locationImageId}")
-    public void getLocationImagefile(@PathVariable Long locationImageId, HttpServletResponse response) throws IOException {
-        String locationImageUrl = imageFileService.getLocationImageUrl(locationImageId);
-        response.sendRedirect(locationImageUrl);
+    public void getLocationImagefile(@PathVariable Long locationImageId,
+                                   @RequestParam(required = false) Integer size,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        ImageUrlResolver.StoredImage locationImage = imageFileService.getLocationImage(locationImageId);
+        sendImage(imageFileService.getImageKey(locationImage, size), locationImage.isSettled() ? SETTLED : PENDING, request, response);
     }
 
+    // 로컬 디스크 저장소의 이미지 URL(회원 프로필 이미지 등). S3 저장소일 때는 항상 404
+    @GetMapping("/files/**")
+    public void getStoredFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        String key = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        Optional<Path> file;
+        try {
+            file = imageFileService.getImageFile(key);
+        } catch (IllegalArgumentException e) {
+            throw new NoSuchElementException();
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        sendFile(file.orElseThrow(() -> new NoSuchElementException()), request, response);
+    }
+
+    // 리다이렉트 응답도 캐싱되도록 Cache-Control 을 붙인다.
+    private void sendImage(String key, CacheControl cacheControl,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        Optional<Path> file = imageFileService.getImageFile(key);
+        if (file.isEmpty()) {
+            response.sendRedirect(imageFileService.getImageUrl(key));
+            return;
+        }
+        sendFile(file.get(), request, response);
+    }
+
+    /**
+     * 파일을 직접 내려준다. ETag, Last-Modified 로 조건부 요청(304)을, Range 로 부분 요청(206, 단일 구간)을 처리한다.
+     * 여러 구간을 요청하거나 형식이 잘못된 Range 는 무시하고 전체를 보낸다.
+     */
+    private void sendFile(Path path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new NoSuchElementException();
+        }
+
+        long fileSize = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = "\"" + Long.toHexString(fileSize) + "-" + Long.toHexString(lastModified) + "\"";
+
+        // 304 이면 ETag, Last-Modified 와 상태 코드까지 설정된다.
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified))
+            return;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString());
+
+        long start = 0;
+        long end = fileSize - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && isRangeApplicable(request, etag, lastModified)) {
+
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(fileSize);
+                    end = ranges.get(0).getRangeEnd(fileSize);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileSize);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0)
+            return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        // sendfile 을 쓸 수 없으면 FileChannel.transferTo 로 파일 전체를 메모리에 올리지 않고 나눠 보낸다.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0)
+                    break;
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // If-Range 가 있으면 파일이 바뀌지 않았을 때만 Range 를 적용한다.
+    private boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified) {
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null)
+            return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+            return ifRange.equals(etag);
+
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
 }
@@ -1,12 +1,18 @@
 package com.example.spotserver.controller;
 
+import com.example.spotserver.config.auth.MemberPrincipal;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.ApproveRequest;
+import com.example.spotserver.dto.request.ClusterConditionRequest;
 import com.example.spotserver.dto.request.LocationConditionRequest;
 import com.example.spotserver.dto.request.LocationRequest;
 import com.example.spotserver.dto.response.ApproveResponse;
+import com.example.spotserver.dto.response.ClusterResponse;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.LocationSuggestResponse;
 import com.example.spotserver.dto.response.PageResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.ErrorCode;
 import com.example.spotserver.exception.FileException;
@@ -43,6 +49,55 @@ public class LocationController {
                                                                              @RequestParam("longitude") Double longitude,
                                                                              @Valid @ModelAttribute LocationConditionRequest conditionRequest) throws PermissionException {
 
+        checkApprovePermission(conditionRequest);
+
+        PageResponse<LocationResponse> pageResponse = locationService.searchLocations(latitude, longitude, conditionRequest);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(pageResponse);
+    }
+
+    @GetMapping(params = {"cursor", "sort!=distance"})
+    public ResponseEntity<CursorResponse<LocationResponse>> getLocationsByCursor(@RequestParam("latitude") Double latitude,
+                                                                                 @RequestParam("longitude") Double longitude,
+                                                                                 @Valid @ModelAttribute LocationConditionRequest conditionRequest) throws PermissionException, CursorException {
+
+        checkApprovePermission(conditionRequest);
+
+        CursorResponse<LocationResponse> cursorResponse = locationService.searchLocationsByCursor(latitude, longitude, conditionRequest);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(cursorResponse);
+    }
+
+    @GetMapping(params = "sort=distance")
+    public ResponseEntity<CursorResponse<LocationResponse>> getNearestLocations(@RequestParam("latitude") Double latitude,
+                                                                                @RequestParam("longitude") Double longitude,
+                                                                                @Valid @ModelAttribute LocationConditionRequest conditionRequest) throws PermissionException, CursorException {
+
+        checkApprovePermission(conditionRequest);
+
+        CursorResponse<LocationResponse> cursorResponse = locationService.searchNearestLocations(latitude, longitude, conditionRequest);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(cursorResponse);
+    }
+
+    @GetMapping("/clusters")
+    public ResponseEntity<List<ClusterResponse>> getClusters(@Valid @ModelAttribute ClusterConditionRequest conditionRequest) {
+
+        List<ClusterResponse> clusters = locationService.getClusters(conditionRequest);
+
+        return ResponseEntity
+                .ok(clusters);
+    }
+
+    // 승인되지 않은 장소는 관리자만 조회할 수 있다.
+    private void checkApprovePermission(LocationConditionRequest conditionRequest) throws PermissionException {
+
         Boolean approve = conditionRequest.getApprove();
         if (!approve) {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -54,21 +109,31 @@ public class LocationController {
                 throw new PermissionException(ErrorCode.FORBIDDEN_CLIENT);
             }
         }
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map> addLocation(@Valid @RequestPart LocationRequest locationRequest,
+                                           @RequestPart(required = false) List<MultipartFile> files,
+                                           @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws IOException, FileException {
 
+        Location location = LocationRequest.toEntity(locationRequest);
+        Long locationId = locationService.addLocation(location, files, locationRequest.getImageKeys(), member.getId());
 
-        PageResponse<LocationResponse> pageResponse = locationService.searchLocations(latitude, longitude, conditionRequest);
+        Map<String, Object> response = new HashMap<>();
+        response.put("locationId", locationId);
 
         return ResponseEntity
-                .status(HttpStatus.OK)
-                .body(pageResponse);
+                .status(HttpStatus.CREATED)
+                .body(response);
     }
 
-    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map> addLocation(@Valid @RequestPart LocationRequest locationRequest,
-                                           @RequestPart(required = false) List<MultipartFile> files) throws IOException, FileException {
+    // 이미지를 /uploads/locations 로 발급받은 URL에 직접 올린 경우 (imageKeys)
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map> addLocationWithUploadedImages(@Valid @RequestBody LocationRequest locationRequest,
+                                                             @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws IOException, FileException {
 
         Location location = LocationRequest.toEntity(locationRequest);
-        Long locationId = locationService.addLocation(location, files);
+        Long locationId = locationService.addLocation(location, null, locationRequest.getImageKeys(), member.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("locationId", locationId);
@@ -107,14 +172,24 @@ public class LocationController {
     }
 
     @GetMapping("/best")
-    public ResponseEntity getBestLocation() {
+    public ResponseEntity getBestLocation(@RequestParam(defaultValue = "day") String window) {
 
-        List<LocationResponse> bestLocations = locationService.getBestLocations();
+        List<LocationResponse> bestLocations = locationService.getBestLocations(window);
 
         return ResponseEntity
                 .ok(bestLocations);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<LocationSuggestResponse>> suggestLocations(@RequestParam String prefix,
+                                                                          @RequestParam(defaultValue = "10") int size) {
+
+        List<LocationSuggestResponse> suggestions = locationService.suggestLocations(prefix, size);
+
+        return ResponseEntity
+                .ok(suggestions);
+    }
+
     @GetMapping("/{locationId}/likes")
     public ResponseEntity getLikes(@PathVariable Long locationId) {
 
@@ -126,7 +201,7 @@ public class LocationController {
 
     @PostMapping("/{locationId}/likes")
     public ResponseEntity addLike(@PathVariable Long locationId,
-                                  @AuthenticationPrincipal(expression = "member") Member member) throws DuplicateException {
+                                  @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws DuplicateException {
 
         locationService.addLike(locationId, member.getId());
 
@@ -137,7 +212,7 @@ public class LocationController {
 
     @DeleteMapping("/{locationId}/likes")
     public ResponseEntity deleteLike(@PathVariable Long locationId,
-                                     @AuthenticationPrincipal(expression = "member") Member member) {
+                                     @AuthenticationPrincipal(expression = "member") MemberPrincipal member) {
 
         locationService.deleteLike(locationId, member.getId());
 
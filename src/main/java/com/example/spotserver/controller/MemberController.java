@@ -1,6 +1,7 @@
 package com.example.spotserver.controller;
 
 
+import com.example.spotserver.config.auth.MemberPrincipal;
 import com.example.spotserver.config.jwt.JwtProperties;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.*;
@@ -98,7 +99,7 @@ public class MemberController {
     }
 
     @GetMapping
-    public ResponseEntity<MemberResponse> getMyInfo(@AuthenticationPrincipal(expression = "member") Member member) {
+    public ResponseEntity<MemberResponse> getMyInfo(@AuthenticationPrincipal(expression = "member") MemberPrincipal member) {
         MemberResponse memberResponse = memberService.getMemberInfo(member.getId());
 
         return ResponseEntity
@@ -110,7 +111,7 @@ public class MemberController {
     public ResponseEntity<MemberResponse> updateMember(@PathVariable Long memberId,
                                                        @Valid @RequestPart(required = false) MemberUpdateRequest memberUpdateRequest,
                                                        @RequestPart(required = false) MultipartFile memberImg,
-                                                       @AuthenticationPrincipal(expression = "member") Member member) throws PermissionException, DuplicateException, IOException, FileException {
+                                                       @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws PermissionException, DuplicateException, IOException, FileException {
 
         if (!member.getId().equals(memberId))
             throw new PermissionException(ErrorCode.FORBIDDEN_CLIENT);
@@ -123,7 +124,7 @@ public class MemberController {
 
     @DeleteMapping(value = "/{memberId}")
     public ResponseEntity deleteMember(@PathVariable Long memberId,
-                                       @AuthenticationPrincipal(expression = "member") Member member) throws PermissionException {
+                                       @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws PermissionException {
 
         if(!memberId.equals(member.getId())) {
             throw new PermissionException(ErrorCode.FORBIDDEN_CLIENT);
@@ -148,43 +149,80 @@ public class MemberController {
     }
 
     @GetMapping("/like-posters")
-    public ResponseEntity<PageResponse<PosterResponse>> likePosters(@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : member") Member member,
-                                                                    @RequestParam(defaultValue = "1") Integer page) throws AuthenticationException {
+    public ResponseEntity<PageResponse<PosterResponse>> likePosters(@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : member") MemberPrincipal member,
+                                                                    @RequestParam(defaultValue = "1") Integer page,
+                                                                    @RequestParam(defaultValue = "exact") String count) throws AuthenticationException {
 
         if (member == null)
             throw new AuthenticationException(ErrorCode.UNAUTHORIZED_CLIENT);
 
-        PageResponse<PosterResponse> likePosters = posterService.getLikePosters(page, member.getId());
+        PageResponse<PosterResponse> likePosters = posterService.getLikePosters(page, member.getId(), CountMode.from(count));
+        return ResponseEntity
+                .ok(likePosters);
+    }
+
+    @GetMapping(value = "/like-posters", params = "cursor")
+    public ResponseEntity<CursorResponse<PosterResponse>> likePostersByCursor(@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : member") MemberPrincipal member,
+                                                                              @RequestParam String cursor) throws AuthenticationException, CursorException {
+
+        if (member == null)
+            throw new AuthenticationException(ErrorCode.UNAUTHORIZED_CLIENT);
+
+        CursorResponse<PosterResponse> likePosters = posterService.getLikePostersByCursor(cursor, member.getId());
         return ResponseEntity
                 .ok(likePosters);
     }
 
     @GetMapping("/like-locations")
-    public ResponseEntity<PageResponse<LocationResponse>> likeLocations(@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : member") Member member,
-                                                                        @RequestParam(defaultValue = "1") Integer page) throws AuthenticationException {
+    public ResponseEntity<PageResponse<LocationResponse>> likeLocations(@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : member") MemberPrincipal member,
+                                                                        @RequestParam(defaultValue = "1") Integer page,
+                                                                        @RequestParam(defaultValue = "exact") String count) throws AuthenticationException {
 
         if (member == null)
             throw new AuthenticationException(ErrorCode.UNAUTHORIZED_CLIENT);
 
-        PageResponse<LocationResponse> likeLocations = locationService.getLikeLocations(page, member.getId());
+        PageResponse<LocationResponse> likeLocations = locationService.getLikeLocations(page, member.getId(), CountMode.from(count));
+        return ResponseEntity
+                .ok(likeLocations);
+    }
+
+    @GetMapping(value = "/like-locations", params = "cursor")
+    public ResponseEntity<CursorResponse<LocationResponse>> likeLocationsByCursor(@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : member") MemberPrincipal member,
+                                                                                  @RequestParam String cursor) throws AuthenticationException, CursorException {
+
+        if (member == null)
+            throw new AuthenticationException(ErrorCode.UNAUTHORIZED_CLIENT);
+
+        CursorResponse<LocationResponse> likeLocations = locationService.getLikeLocationsByCursor(cursor, member.getId());
         return ResponseEntity
                 .ok(likeLocations);
     }
 
     @GetMapping("/{memberId}/posters")
     public ResponseEntity<PageResponse<PosterResponse>> writePosters(@PathVariable Long memberId,
-                                                                     @RequestParam(defaultValue = "1") Integer page)  {
+                                                                     @RequestParam(defaultValue = "1") Integer page,
+                                                                     @RequestParam(defaultValue = "exact") String count)  {
+
+        PageResponse<PosterResponse> writePosters = posterService.getWritePosters(page, memberId, CountMode.from(count));
+        return ResponseEntity
+                .ok(writePosters);
+    }
+
+    @GetMapping(value = "/{memberId}/posters", params = "cursor")
+    public ResponseEntity<CursorResponse<PosterResponse>> writePostersByCursor(@PathVariable Long memberId,
+                                                                               @RequestParam String cursor) throws CursorException {
 
-        PageResponse<PosterResponse> writePosters = posterService.getWritePosters(page, memberId);
+        CursorResponse<PosterResponse> writePosters = posterService.getWritePostersByCursor(cursor, memberId);
         return ResponseEntity
                 .ok(writePosters);
     }
 
     @GetMapping("/{memberId}/comments/posters")
     public ResponseEntity<PageResponse<PosterResponse>> getPostersByWriteComments(@PathVariable Long memberId,
-                                                                                  @RequestParam(defaultValue = "1") Integer page) {
+                                                                                  @RequestParam(defaultValue = "1") Integer page,
+                                                                                  @RequestParam(defaultValue = "exact") String count) {
 
-        PageResponse<PosterResponse> postersByWriteComments = posterService.getPostersByWriteComments(page, memberId);
+        PageResponse<PosterResponse> postersByWriteComments = posterService.getPostersByWriteComments(page, memberId, CountMode.from(count));
         return ResponseEntity
                 .ok(postersByWriteComments);
     }
@@ -1,10 +1,13 @@
 package com.example.spotserver.controller;
 
+import com.example.spotserver.config.auth.MemberPrincipal;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.PosterConditionRequest;
 import com.example.spotserver.dto.request.PosterRequest;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.PageResponse;
 import com.example.spotserver.dto.response.PosterResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.FileException;
 import com.example.spotserver.exception.PermissionException;
@@ -38,10 +41,27 @@ public class PosterController {
     public ResponseEntity<Map> addPoster(@Valid @RequestPart PosterRequest posterRequest,
                                          @RequestPart(required = false) List<MultipartFile> files,
                                          @PathVariable Long locationId,
-                                         @AuthenticationPrincipal(expression = "member") Member member) throws IOException, FileException {
+                                         @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws IOException, FileException {
 
         Poster poster = PosterRequest.toEntity(posterRequest);
-        Long posterId = posterService.addPoster(poster, files, locationId, member.getId());
+        Long posterId = posterService.addPoster(poster, files, posterRequest.getImageKeys(), locationId, member.getId());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posterId", posterId);
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(response);
+    }
+
+    // 이미지를 /uploads/posters 로 발급받은 URL에 직접 올린 경우 (imageKeys)
+    @PostMapping(value = "/locations/{locationId}/posters", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map> addPosterWithUploadedImages(@Valid @RequestBody PosterRequest posterRequest,
+                                                           @PathVariable Long locationId,
+                                                           @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws IOException, FileException {
+
+        Poster poster = PosterRequest.toEntity(posterRequest);
+        Long posterId = posterService.addPoster(poster, null, posterRequest.getImageKeys(), locationId, member.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("posterId", posterId);
@@ -63,6 +83,17 @@ public class PosterController {
                 .body(posters);
     }
 
+    @GetMapping(value = "/locations/{locationId}/posters", params = "cursor")
+    public ResponseEntity<CursorResponse<PosterResponse>> getLocationPostersByCursor(@PathVariable Long locationId,
+                                                                                     @Valid @ModelAttribute PosterConditionRequest conditionRequest) throws CursorException {
+
+        CursorResponse<PosterResponse> posters = posterService.getLocationPostersByCursor(locationId, conditionRequest);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(posters);
+    }
+
     @GetMapping("/posters/{posterId}")
     public ResponseEntity<PosterResponse> getPoster(@PathVariable Long posterId) {
         PosterResponse posterResponse = posterService.getPoster(posterId);
@@ -77,7 +108,7 @@ public class PosterController {
                                             @Valid @RequestPart PosterRequest posterRequest,
                                             @RequestPart(required = false) List<MultipartFile> addFiles,
                                             @RequestPart(required = false) List<Long> deleteFilesId,
-                                            @AuthenticationPrincipal(expression = "member") Member member) throws IOException, PermissionException, FileException {
+                                            @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws IOException, PermissionException, FileException {
 
         posterService.updatePoster(posterId, posterRequest, addFiles, deleteFilesId, member.getId());
 
@@ -91,7 +122,7 @@ public class PosterController {
 
     @DeleteMapping(value = "/posters/{posterId}")
     public ResponseEntity deletePoster(@PathVariable Long posterId,
-                                       @AuthenticationPrincipal(expression = "member") Member member) throws PermissionException {
+                                       @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws PermissionException {
 
         posterService.deletePoster(posterId, member.getId());
 
@@ -111,7 +142,7 @@ public class PosterController {
 
     @PostMapping(value = "/posters/{posterId}/likes")
     public ResponseEntity addLike(@PathVariable Long posterId,
-                                  @AuthenticationPrincipal(expression = "member") Member member) throws DuplicateException {
+                                  @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws DuplicateException {
 
         posterService.addLike(posterId, member.getId());
 
@@ -122,7 +153,7 @@ public class PosterController {
 
     @DeleteMapping(value = "/posters/{posterId}/likes")
     public ResponseEntity deleteLike(@PathVariable Long posterId,
-                                     @AuthenticationPrincipal(expression = "member") Member member) {
+                                     @AuthenticationPrincipal(expression = "member") MemberPrincipal member) {
 
         posterService.deleteLike(posterId, member.getId());
 
@@ -132,9 +163,9 @@ public class PosterController {
     }
 
     @GetMapping(value = "/posters/best")
-    public ResponseEntity getBestPosters() {
+    public ResponseEntity getBestPosters(@RequestParam(defaultValue = "day") String window) {
 
-        List<PosterResponse> bestPosters = posterService.getBestPosters();
+        List<PosterResponse> bestPosters = posterService.getBestPosters(window);
 
         return ResponseEntity
                 .ok(bestPosters);
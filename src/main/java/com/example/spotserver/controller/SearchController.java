@@ -0,0 +1,35 @@
+package com.example.spotserver.controller;
+
+import com.example.spotserver.dto.request.SearchConditionRequest;
+import com.example.spotserver.dto.response.SearchResponse;
+import com.example.spotserver.service.SearchService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+public class SearchController {
+
+    private SearchService searchService;
+
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // 검색어 관련도, 거리(lat, lng가 있을 때), 좋아요 수를 함께 반영한 순서
+    @GetMapping("/search")
+    public ResponseEntity<SearchResponse> search(@Valid @ModelAttribute SearchConditionRequest conditionRequest) throws IOException {
+
+        SearchResponse searchResponse = searchService.search(conditionRequest);
+
+        return ResponseEntity
+                .ok(searchResponse);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.spotserver.controller;
+
+import com.example.spotserver.config.auth.MemberPrincipal;
+import com.example.spotserver.dto.request.UploadRequest;
+import com.example.spotserver.dto.response.UploadResponse;
+import com.example.spotserver.exception.FileException;
+import com.example.spotserver.service.UploadService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/uploads")
+public class UploadController {
+
+    private UploadService uploadService;
+
+
+    @Autowired
+    public UploadController(UploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    @PostMapping(value = "/posters", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<UploadResponse>> createPosterUploads(@Valid @RequestBody UploadRequest uploadRequest,
+                                                                    @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws FileException {
+
+        List<UploadResponse> uploadResponses = uploadService.createPosterUploads(uploadRequest, member.getId());
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(uploadResponses);
+    }
+
+    @PostMapping(value = "/locations", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<UploadResponse>> createLocationUploads(@Valid @RequestBody UploadRequest uploadRequest,
+                                                                      @AuthenticationPrincipal(expression = "member") MemberPrincipal member) throws FileException {
+
+        List<UploadResponse> uploadResponses = uploadService.createLocationUploads(uploadRequest, member.getId());
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(uploadResponses);
+    }
+}
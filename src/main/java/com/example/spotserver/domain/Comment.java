@@ -29,6 +29,10 @@ public class Comment {
     @CreationTimestamp
     private LocalDateTime regDate;
 
+    // 좋아요 수는 Repository의 벌크 쿼리로만 변경한다. (엔티티 변경 감지로 덮어쓰지 않도록 updatable = false)
+    @Column(updatable = false)
+    private Long likeCount = 0L;
+
     @OneToMany(mappedBy = "comment", cascade = CascadeType.REMOVE)
     private List<CommentLike> commentLikes = new ArrayList<>();
 }
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"comment_id", "member_id"}))
 public class CommentLike {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,22 @@
+package com.example.spotserver.domain;
+
+/**
+ * 페이지 조회에서 전체 개수를 구하는 방식.
+ * EXACT 는 count 쿼리로 정확한 개수를, APPROX 는 캐싱된 개수나 미리 세어둔 개수(댓글 수 등)를 돌려주며,
+ * NONE 은 개수 없이 다음 페이지가 있는지만 돌려준다. (무한 스크롤)
+ */
+public enum CountMode {
+
+    EXACT,
+    APPROX,
+    NONE;
+
+    // 알 수 없는 값이면 EXACT
+    public static CountMode from(String value) {
+        for (CountMode countMode : values()) {
+            if (countMode.name().equalsIgnoreCase(value))
+                return countMode;
+        }
+        return EXACT;
+    }
+}
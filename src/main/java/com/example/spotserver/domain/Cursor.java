@@ -0,0 +1,78 @@
+package com.example.spotserver.domain;
+
+import com.example.spotserver.exception.CursorException;
+import com.example.spotserver.exception.ErrorCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징에서 마지막으로 응답한 데이터의 (정렬 기준 값, id)를 담는다.
+ * 클라이언트에게는 내용을 알 수 없는 문자열로 전달된다.
+ */
+@Getter
+public class Cursor {
+
+    private static final String DELIMITER = "|";
+
+    private final String key;
+    private final Long id;
+
+    private Cursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static Cursor of(Object key, Long id) {
+        return new Cursor(String.valueOf(key), id);
+    }
+
+    // 커서가 없으면 첫 페이지이므로 null을 반환한다.
+    public static Cursor decode(String cursor) throws CursorException {
+        if (cursor == null || cursor.isBlank())
+            return null;
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int delimiterIndex = decoded.lastIndexOf(DELIMITER);
+            String key = decoded.substring(0, delimiterIndex);
+            Long id = Long.valueOf(decoded.substring(delimiterIndex + 1));
+            return new Cursor(key, id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new CursorException(ErrorCode.NOT_VALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        String raw = key + DELIMITER + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Double getDoubleKey() throws CursorException {
+        try {
+            return Double.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new CursorException(ErrorCode.NOT_VALID_CURSOR);
+        }
+    }
+
+    public Long getLongKey() throws CursorException {
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new CursorException(ErrorCode.NOT_VALID_CURSOR);
+        }
+    }
+
+    public LocalDateTime getDateKey() throws CursorException {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (RuntimeException e) {
+            throw new CursorException(ErrorCode.NOT_VALID_CURSOR);
+        }
+    }
+}
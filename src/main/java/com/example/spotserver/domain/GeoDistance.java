@@ -0,0 +1,27 @@
+package com.example.spotserver.domain;
+
+public class GeoDistance {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    public static final double METERS_PER_DEGREE = EARTH_RADIUS_METERS * Math.PI / 180;
+
+    private GeoDistance() {
+    }
+
+    // 두 좌표 사이의 대원 거리(m)
+    public static double haversine(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        double sinHalfLat = Math.sin((lat2 - lat1) / 2);
+        double sinHalfLng = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+
+        double a = sinHalfLat * sinHalfLat + Math.cos(lat1) * Math.cos(lat2) * sinHalfLng * sinHalfLng;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // 반경(m)을 모두 덮는 위도, 경도 범위(도)
+    public static double scaleDegrees(double meters, double latitude) {
+        double cos = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        return meters / METERS_PER_DEGREE / cos;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.spotserver.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GeoHash {
+
+    public static final int MAX_PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    // 영역 검색시 사용할 최대 셀 개수 (셀이 많아지면 OR 조건이 길어짐)
+    private static final int MAX_COVER_CELLS = 16;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude) {
+        return encode(latitude, longitude, MAX_PRECISION);
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        return encodeIndex(latitudeIndex(latitude, precision), longitudeIndex(longitude, precision), precision);
+    }
+
+    // 셀의 위도 범위가 degrees 이하가 되는 가장 작은 precision
+    public static int precisionOf(double degrees) {
+        for (int precision = 1; precision < MAX_PRECISION; precision++) {
+            if (180.0 / (1L << latitudeBits(precision)) <= degrees)
+                return precision;
+        }
+        return MAX_PRECISION;
+    }
+
+    /**
+     * 위도, 경도 범위를 덮는 geohash 접두사 목록을 구한다.
+     * 셀 개수가 MAX_COVER_CELLS 이하인 가장 정밀한 precision 을 사용하며,
+     * 범위가 너무 넓어 precision 1로도 덮을 수 없으면 빈 목록을 반환한다.
+     */
+    public static List<String> coverBoundingBox(double minLatitude, double maxLatitude,
+                                                double minLongitude, double maxLongitude) {
+
+        for (int precision = MAX_PRECISION; precision >= 1; precision--) {
+
+            long minLatIdx = latitudeIndex(minLatitude, precision);
+            long maxLatIdx = latitudeIndex(maxLatitude, precision);
+            long minLngIdx = longitudeIndex(minLongitude, precision);
+            long maxLngIdx = longitudeIndex(maxLongitude, precision);
+
+            long cellCount = (maxLatIdx - minLatIdx + 1) * (maxLngIdx - minLngIdx + 1);
+            if (cellCount > MAX_COVER_CELLS)
+                continue;
+
+            List<String> prefixes = new ArrayList<>();
+            for (long latIdx = minLatIdx; latIdx <= maxLatIdx; latIdx++) {
+                for (long lngIdx = minLngIdx; lngIdx <= maxLngIdx; lngIdx++) {
+                    prefixes.add(encodeIndex(latIdx, lngIdx, precision));
+                }
+            }
+            return prefixes;
+        }
+
+        return new ArrayList<>();
+    }
+
+    private static int latitudeBits(int precision) {
+        return precision * 5 / 2;
+    }
+
+    private static int longitudeBits(int precision) {
+        return (precision * 5 + 1) / 2;
+    }
+
+    private static long latitudeIndex(double latitude, int precision) {
+        return cellIndex(latitude, -90, 90, latitudeBits(precision));
+    }
+
+    private static long longitudeIndex(double longitude, int precision) {
+        return cellIndex(longitude, -180, 180, longitudeBits(precision));
+    }
+
+    private static long cellIndex(double value, double min, double max, int bits) {
+        long cells = 1L << bits;
+        long index = (long) Math.floor((value - min) / (max - min) * cells);
+        return Math.max(0, Math.min(cells - 1, index));
+    }
+
+    // geohash는 경도 비트부터 시작해서 경도, 위도 비트를 번갈아 배치한다.
+    private static String encodeIndex(long latIdx, long lngIdx, int precision) {
+        int latBits = latitudeBits(precision);
+        int lngBits = longitudeBits(precision);
+
+        char[] hash = new char[precision];
+        int latPos = latBits - 1;
+        int lngPos = lngBits - 1;
+
+        for (int i = 0; i < precision; i++) {
+            int ch = 0;
+            for (int j = 0; j < 5; j++) {
+                int bitIndex = i * 5 + j;
+                long bit;
+                if (bitIndex % 2 == 0)
+                    bit = (lngIdx >> lngPos--) & 1;
+                else
+                    bit = (latIdx >> latPos--) & 1;
+                ch = (ch << 1) | (int) bit;
+            }
+            hash[i] = BASE32[ch];
+        }
+        return new String(hash);
+    }
+}
@@ -1,19 +1,32 @@
 package com.example.spotserver.domain;
 
-import com.amazonaws.services.s3.AmazonS3Client;
-import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.example.spotserver.repository.jdbc.ImageBlobRepository;
+import com.example.spotserver.repository.redis.PendingUploadRepository;
+import com.example.spotserver.repository.storage.ObjectStorage;
+import com.example.spotserver.repository.storage.StoredObject;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
 
 @Component
+@Slf4j
 public class ImageStore {
 
     private String posterImgDir = "posterImg/";
@@ -21,89 +34,402 @@ public class ImageStore {
     private String locationImgDir = "locationImg/";
 
     private String memberImgDir = "memberImg/";
-    private AmazonS3Client amazonS3Client;
+    private ObjectStorage objectStorage;
+    private PendingUploadRepository pendingUploadRepository;
+    private ImageBlobRepository imageBlobRepository;
+    private ExecutorService uploadExecutor;
 
-    @Value("${cloud.aws.s3.bucket}")
-    private String bucket;
+    // 서버 전체에서 동시에 진행되는 업로드 수 (업로드 스레드 수와 같다)
+    private Semaphore uploadPermits;
+
+    // 한 요청에서 동시에 진행되는 업로드 수
+    private int maxUploadsPerRequest;
 
     @Autowired
-    public ImageStore(AmazonS3Client amazonS3Client) {
-        this.amazonS3Client = amazonS3Client;
+    public ImageStore(ObjectStorage objectStorage,
+                      PendingUploadRepository pendingUploadRepository,
+                      ImageBlobRepository imageBlobRepository,
+                      @Qualifier("imageUploadExecutor") ExecutorService uploadExecutor,
+                      @Value("${spot.s3.upload.max-concurrency:32}") int maxConcurrency,
+                      @Value("${spot.s3.upload.max-per-request:10}") int maxUploadsPerRequest) {
+        this.objectStorage = objectStorage;
+        this.pendingUploadRepository = pendingUploadRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.uploadExecutor = uploadExecutor;
+        this.uploadPermits = new Semaphore(maxConcurrency);
+        this.maxUploadsPerRequest = maxUploadsPerRequest;
     }
 
     public List<PosterImage> storePosterImages(List<MultipartFile> images) throws IOException {
-        List<PosterImage> result = new ArrayList<>();
+        return storeImages(images, posterImgDir, PosterImage::new);
+    }
+
+    public List<LocationImage> storeLocationImages(List<MultipartFile> images) throws IOException {
+        return storeImages(images, locationImgDir, LocationImage::new);
+    }
+
+    /**
+     * 이미지를 동시에 업로드하므로 전체 시간은 가장 오래 걸리는 이미지 하나와 비슷하다.
+     * 하나라도 실패하면 남은 업로드를 시작하지 않고, 이미 올라간 이미지를 지운 뒤 예외를 던진다.
+     * 같은 내용의 이미지가 이미 있으면 올리지 않고 그 키를 쓴다.
+     */
+    private <T> List<T> storeImages(List<MultipartFile> images, String dir,
+                                    ImageFactory<T> imageFactory) throws IOException {
 
-        for (MultipartFile image : images) {
-            String uploadFileName = image.getOriginalFilename();
+        List<Future<StoredFile>> uploads = new ArrayList<>();
+        Queue<String> uploadedKeys = new ConcurrentLinkedQueue<>();
+        Semaphore requestPermits = new Semaphore(maxUploadsPerRequest);
+        Throwable failure = null;
 
-            String uuid = UUID.randomUUID().toString();
-            String ext = getFileExtension(uploadFileName);
-            String storeFileName = uuid + "." + ext;
+        try {
+            for (MultipartFile image : images) {
 
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentType(image.getContentType());
-            metadata.setContentLength(image.getSize());
-            amazonS3Client.putObject(bucket, posterImgDir + storeFileName, image.getInputStream(), metadata);
+                requestPermits.acquire();
+                if (failure == null)
+                    failure = findFailure(uploads);
+                if (failure != null) {
+                    requestPermits.release();
+                    break;
+                }
 
-            result.add(new PosterImage(uploadFileName, storeFileName));
+                uploads.add(submitUpload(dir, image, requestPermits, uploadedKeys));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = e;
         }
-        return result;
+
+        // 실패했더라도 이미 시작된 업로드가 끝날 때까지 기다려야 빠짐없이 지울 수 있다.
+        List<T> result = new ArrayList<>();
+        for (Future<StoredFile> upload : uploads) {
+            try {
+                StoredFile storedFile = upload.get();
+                result.add(imageFactory.create(storedFile.getUploadFileName(), storedFile.getStoreFileName(), storedFile.getContentHash()));
+            } catch (ExecutionException e) {
+                if (failure == null)
+                    failure = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null)
+                    failure = e;
+            }
+        }
+
+        if (failure == null)
+            return result;
+
+        for (String key : uploadedKeys) {
+            try {
+                objectStorage.delete(key);
+            } catch (RuntimeException e) {
+                log.warn("[이미지 업로드] 실패한 요청의 이미지 삭제 실패 key={}", key, e);
+            }
+        }
+
+        if (failure instanceof IOException ioException)
+            throw ioException;
+        if (failure instanceof RuntimeException runtimeException)
+            throw runtimeException;
+        throw new IOException("이미지 업로드 실패", failure);
     }
 
-    public List<LocationImage> storeLocationImages(List<MultipartFile> images) throws IOException {
-        List<LocationImage> result = new ArrayList<>();
+    // 요청별 허용 수는 호출한 쪽에서 얻어온다. 서버 전체 허용 수는 여기서 얻고, 업로드가 끝나면 둘 다 돌려준다.
+    private Future<StoredFile> submitUpload(String dir, MultipartFile image, Semaphore requestPermits,
+                                            Queue<String> uploadedKeys) throws InterruptedException {
 
-        for (MultipartFile image : images) {
-            String uploadFileName = image.getOriginalFilename();
+        try {
+            uploadPermits.acquire();
+        } catch (InterruptedException e) {
+            requestPermits.release();
+            throw e;
+        }
 
-            String uuid = UUID.randomUUID().toString();
-            String ext = getFileExtension(uploadFileName);
-            String storeFileName = uuid + "." + ext;
+        try {
+            return uploadExecutor.submit(() -> {
+                try {
+                    StoredFile storedFile = store(dir, image);
+                    if (storedFile.isUploaded())
+                        uploadedKeys.add(dir + storedFile.getStoreFileName());
+                    return storedFile;
+                } finally {
+                    uploadPermits.release();
+                    requestPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            uploadPermits.release();
+            requestPermits.release();
+            throw e;
+        }
+    }
 
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentType(image.getContentType());
-            metadata.setContentLength(image.getSize());
-            amazonS3Client.putObject(bucket, locationImgDir + storeFileName, image.getInputStream(), metadata);
-            result.add(new LocationImage(uploadFileName, storeFileName));
+    private Throwable findFailure(List<? extends Future<?>> uploads) {
+        for (Future<?> upload : uploads) {
+            if (upload.isDone()) {
+                try {
+                    upload.get();
+                } catch (ExecutionException e) {
+                    return e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return e;
+                }
+            }
         }
-        return result;
+        return null;
     }
 
-    public MemberImage storeMemberImage(MultipartFile image) throws IOException {
+    private StoredFile store(String dir, MultipartFile image) throws IOException {
+
+        String uploadFileName = image.getOriginalFilename();
+        String contentHash = hash(image);
+
+        Optional<String> reusableKey = findReusableKey(dir, contentHash);
+        if (reusableKey.isPresent())
+            return new StoredFile(uploadFileName, reusableKey.get().substring(dir.length()), contentHash, false);
+
+        String storeFileName = createStoreFileName(uploadFileName);
+        upload(dir + storeFileName, image);
+        return new StoredFile(uploadFileName, storeFileName, contentHash, true);
+    }
+
+    /**
+     * 같은 내용으로 참조 중인 키가 있으면 돌려준다.
+     * 대기 목록에 올린 뒤 한 번 더 확인하므로, 확인한 뒤에 참조가 0이 되어도 ImageDeleteWorker는 이 키를 지우지 않는다.
+     * 다시 확인했을 때 없으면 새로 올린다. (올려둔 키는 PendingImageSweeper가 대기 목록에서 뺀다)
+     */
+    private Optional<String> findReusableKey(String dir, String contentHash) {
+
+        Optional<String> key = imageBlobRepository.findObjectKey(dir, contentHash);
+        if (key.isEmpty())
+            return key;
+
+        pendingUploadRepository.add(key.get());
+        if (key.equals(imageBlobRepository.findObjectKey(dir, contentHash)))
+            return key;
+        return Optional.empty();
+    }
+
+    // 업로드 요청은 서블릿 컨테이너가 이미 받아둔 상태이므로, 올리기 전에 한 번 읽어 해시를 구해도 네트워크를 쓰지 않는다.
+    private String hash(MultipartFile image) throws IOException {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (InputStream inputStream = new DigestInputStream(image.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // 업로드 전에 대기 목록에 올려두므로, 업로드 도중 종료되어도 정리 대상에 포함된다.
+    private void upload(String key, MultipartFile image) throws IOException {
+        pendingUploadRepository.add(key);
 
-        String uploadFileName = image.getOriginalFilename();;
+        try (InputStream inputStream = image.getInputStream()) {
+            objectStorage.put(key, inputStream, image.getSize(), image.getContentType());
+        }
+    }
 
+    public static String createStoreFileName(String uploadFileName) {
         String uuid = UUID.randomUUID().toString();
         String ext = getFileExtension(uploadFileName);
-        String storeFileName = uuid + "." + ext;
+        return uuid + "." + ext;
+    }
+
+    public MemberImage storeMemberImage(MultipartFile image) throws IOException {
 
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentType(image.getContentType());
-        metadata.setContentLength(image.getSize());
-        amazonS3Client.putObject(bucket, memberImgDir + storeFileName, image.getInputStream(), metadata);
+        StoredFile storedFile = store(memberImgDir, image);
 
-        MemberImage memberImage = new MemberImage(uploadFileName, storeFileName);
+        MemberImage memberImage = new MemberImage(storedFile.getUploadFileName(), storedFile.getStoreFileName(), storedFile.getContentHash());
         return memberImage;
     }
 
+    /**
+     * 이미지 행을 저장하는 트랜잭션 안에서 호출해서 image_blob 참조 수를 늘린다.
+     * 같은 내용이 그 사이 다른 요청으로 먼저 등록되었으면 그 키로 바꾼다. 이때 올려둔 객체는 확정되지 않으므로 PendingImageSweeper가 지운다.
+     */
+    public void acquirePosterImages(List<PosterImage> posterImages) {
+        for (PosterImage posterImage : posterImages)
+            posterImage.setStoreFileName(acquire(posterImgDir, posterImage.getStoreFileName(), posterImage.getContentHash()));
+    }
+
+    public void acquireLocationImages(List<LocationImage> locationImages) {
+        for (LocationImage locationImage : locationImages)
+            locationImage.setStoreFileName(acquire(locationImgDir, locationImage.getStoreFileName(), locationImage.getContentHash()));
+    }
+
+    public void acquireMemberImage(MemberImage memberImage) {
+        memberImage.setStoreFileName(acquire(memberImgDir, memberImage.getStoreFileName(), memberImage.getContentHash()));
+    }
+
+    private String acquire(String dir, String storeFileName, String contentHash) {
+        if (contentHash == null)
+            return storeFileName;
+        return imageBlobRepository.acquire(dir, contentHash, dir + storeFileName).substring(dir.length());
+    }
+
+    /**
+     * 커밋하지 못한 요청의 이미지를 정리한다.
+     * 다른 이미지와 공유하는 키는 지우지 않고, 대기 목록에도 남겨둔다. (PendingImageSweeper가 뺀다)
+     */
+    public void discardPosterImages(List<PosterImage> posterImages) {
+        discard(posterImages.stream().map(this::getPosterImgKey).toList());
+    }
+
+    public void discardLocationImages(List<LocationImage> locationImages) {
+        discard(locationImages.stream().map(this::getLocationImgKey).toList());
+    }
+
+    public void discardMemberImage(MemberImage memberImage) {
+        discard(List.of(getMemberImgKey(memberImage)));
+    }
+
+    private void discard(List<String> keys) {
+
+        Set<String> shared = imageBlobRepository.findExisting(keys);
+        List<String> deletedKeys = new ArrayList<>();
+        for (String key : keys) {
+            if (shared.contains(key))
+                continue;
+            try {
+                deleteObjects(withVariants(key));
+                deletedKeys.add(key);
+            } catch (RuntimeException e) {
+                log.warn("[이미지 삭제] 실패한 요청의 이미지 삭제 실패 key={}", key, e);
+            }
+        }
+        pendingUploadRepository.remove(deletedKeys);
+    }
+
+    /**
+     * 업로드한 이미지가 DB에 커밋된 뒤 호출해서 대기 목록에서 뺀다.
+     * 커밋 전에 요청이 실패하면 discard 메서드로 지우고, 호출되지 못하고 남은 키는 PendingImageSweeper가 정리한다.
+     */
+    public void confirmPosterImages(List<PosterImage> posterImages) {
+        pendingUploadRepository.remove(posterImages.stream()
+                .map(posterImage -> posterImgDir + posterImage.getStoreFileName())
+                .toList());
+    }
+
+    public void confirmLocationImages(List<LocationImage> locationImages) {
+        pendingUploadRepository.remove(locationImages.stream()
+                .map(locationImage -> locationImgDir + locationImage.getStoreFileName())
+                .toList());
+    }
+
+    public void confirmMemberImage(MemberImage memberImage) {
+        pendingUploadRepository.remove(List.of(memberImgDir + memberImage.getStoreFileName()));
+    }
+
     public void deletePosterImage(PosterImage posterImage) {
         String storeFileName = posterImage.getStoreFileName();
-        amazonS3Client.deleteObject(bucket, posterImgDir + storeFileName);
+        deleteObjects(withVariants(posterImgDir + storeFileName));
     }
 
     public void deleteLocationImage(LocationImage locationImage) {
         String storeFileName = locationImage.getStoreFileName();
-        amazonS3Client.deleteObject(bucket, locationImgDir + storeFileName);
+        deleteObjects(withVariants(locationImgDir + storeFileName));
     }
 
     public void deleteMemberImage(MemberImage memberImage) {
         String storeFileName = memberImage.getStoreFileName();
-        amazonS3Client.deleteObject(bucket, memberImgDir + storeFileName);
+        deleteObjects(withVariants(memberImgDir + storeFileName));
+    }
+
+    public void deleteObject(String key) {
+        objectStorage.delete(key);
+    }
+
+    /**
+     * 여러 객체를 한 번에 지운다. (S3 제한상 최대 1000개)
+     * 지우지 못한 키를 돌려주며, 요청 자체가 실패하면 예외를 던진다.
+     */
+    public List<String> deleteObjects(List<String> keys) {
+        return objectStorage.deleteAll(keys);
+    }
+
+    // 축소본은 원본과 같은 폴더 아래 크기별 폴더에 같은 이름으로 저장한다. (posterImg/512/{uuid}.jpg)
+    public String getVariantKey(String key, ImageVariant variant) {
+        int index = key.lastIndexOf('/') + 1;
+        return key.substring(0, index) + variant.getSize() + "/" + key.substring(index);
+    }
+
+    // 원본과 모든 축소본의 키
+    public List<String> withVariants(String key) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        for (ImageVariant variant : ImageVariant.values())
+            keys.add(getVariantKey(key, variant));
+        return keys;
+    }
+
+    public InputStream openObject(String key) throws IOException {
+        return objectStorage.open(key);
+    }
+
+    public void putObject(String key, byte[] data, String contentType) throws IOException {
+        objectStorage.put(key, new ByteArrayInputStream(data), data.length, contentType);
+    }
+
+    public boolean exists(String key) {
+        return objectStorage.exists(key);
+    }
+
+    public Optional<StoredObject> headObject(String key) {
+        return objectStorage.head(key);
+    }
+
+    // 저장소가 지원하지 않으면 empty
+    public Optional<String> presignPut(String key, String contentType, long contentLength, Duration expiry) {
+        return objectStorage.presignPut(key, contentType, contentLength, expiry);
+    }
+
+    public String getUrl(String key) {
+        return objectStorage.getUrl(key);
+    }
+
+    // 로컬 디스크 저장소일 때만 값이 있다.
+    public Optional<Path> getFile(String key) {
+        return objectStorage.getFile(key);
+    }
+
+    public String getPosterImgKey(PosterImage posterImage) {
+        return posterImgDir + posterImage.getStoreFileName();
+    }
+
+    public String getLocationImgKey(LocationImage locationImage) {
+        return locationImgDir + locationImage.getStoreFileName();
+    }
+
+    public String getMemberImgKey(MemberImage memberImage) {
+        return memberImgDir + memberImage.getStoreFileName();
     }
 
     public String getMemberImgFullPath(String imageStoreFileName) {
-        return amazonS3Client.getResourceUrl(bucket, memberImgDir + imageStoreFileName);
+        return objectStorage.getUrl(memberImgDir + imageStoreFileName);
+    }
+
+    @FunctionalInterface
+    private interface ImageFactory<T> {
+        T create(String uploadFileName, String storeFileName, String contentHash);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class StoredFile {
+        private String uploadFileName;
+        private String storeFileName;
+        private String contentHash;
+
+        // false 면 같은 내용의 기존 키를 재사용했다.
+        private boolean uploaded;
     }
 
     public static String getFileExtension(String fileName) {
@@ -121,8 +447,4 @@ public class ImageStore {
     public String getMemberImgDir() {
         return memberImgDir;
     }
-
-    public String getBucket() {
-        return bucket;
-    }
 }
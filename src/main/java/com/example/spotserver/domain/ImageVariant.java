@@ -0,0 +1,27 @@
+package com.example.spotserver.domain;
+
+import lombok.Getter;
+
+// 업로드한 이미지마다 만들어두는 축소본. size는 긴 변의 픽셀 수
+@Getter
+public enum ImageVariant {
+
+    SMALL(128),
+    MEDIUM(512),
+    LARGE(1280);
+
+    private final int size;
+
+    ImageVariant(int size) {
+        this.size = size;
+    }
+
+    // 요청한 크기 이상인 가장 작은 축소본, 없으면 가장 큰 축소본
+    public static ImageVariant fit(int size) {
+        for (ImageVariant variant : values()) {
+            if (variant.size >= size)
+                return variant;
+        }
+        return LARGE;
+    }
+}
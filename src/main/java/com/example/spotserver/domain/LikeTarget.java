@@ -0,0 +1,22 @@
+package com.example.spotserver.domain;
+
+import lombok.Getter;
+
+@Getter
+public enum LikeTarget {
+
+    POSTER("poster", "poster_like", "poster_id"),
+    LOCATION("location", "location_like", "location_id"),
+    COMMENT("comment", "comment_like", "comment_id");
+
+    // 좋아요 대상 테이블 (like_count 컬럼을 가짐)
+    private final String table;
+    private final String likeTable;
+    private final String targetColumn;
+
+    LikeTarget(String table, String likeTable, String targetColumn) {
+        this.table = table;
+        this.likeTable = likeTable;
+        this.targetColumn = targetColumn;
+    }
+}
@@ -21,12 +21,19 @@ public class Location {
     private String address;
     private String description;
 
+    @Column(length = 12)
+    private String geohash;
+
     @CreationTimestamp
     private LocalDateTime regDate;
 
     @Column(columnDefinition = "TINYINT(1) DEFAULT false")
     private Boolean approve = false;
 
+    // 좋아요 수는 Repository의 벌크 쿼리로만 변경한다. (엔티티 변경 감지로 덮어쓰지 않도록 updatable = false)
+    @Column(updatable = false)
+    private Long likeCount = 0L;
+
     @OneToMany(mappedBy = "location", cascade = CascadeType.REMOVE)
     private List<LocationLike> locationLikes = new ArrayList<>();
 
@@ -35,4 +42,11 @@ public class Location {
 
     @OneToMany(mappedBy = "location", cascade = {CascadeType.REMOVE, CascadeType.PERSIST})
     private List<LocationImage> locationImages = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    public void updateGeohash() {
+        if (latitude != null && longitude != null)
+            this.geohash = GeoHash.encode(latitude, longitude);
+    }
 }
@@ -21,8 +21,26 @@ public class LocationImage {
     private String uploadFileName;
     private String storeFileName;
 
+    // 축소본 생성 작업(ThumbnailGenerator)이 JDBC로만 변경한다.
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private ThumbnailStatus thumbnailStatus = ThumbnailStatus.PENDING;
+
+    // 일시적인 오류로 축소본 생성에 실패한 횟수. 일정 횟수가 넘으면 FAILED 로 바뀐다.
+    @Column(updatable = false)
+    private int thumbnailAttempts = 0;
+
+    // 업로드할 때 계산한 SHA-256. 저장하는 트랜잭션에서 image_blob 참조 수를 늘릴 때 사용한다.
+    @Transient
+    private String contentHash;
+
     public LocationImage(String uploadFileName, String storeFileName) {
         this.uploadFileName = uploadFileName;
         this.storeFileName = storeFileName;
     }
+
+    public LocationImage(String uploadFileName, String storeFileName, String contentHash) {
+        this(uploadFileName, storeFileName);
+        this.contentHash = contentHash;
+    }
 }
@@ -36,6 +36,10 @@ public class Member {
 
     private Long snsId;
 
+    // 접근 토큰에 담기는 버전. 이전 토큰을 무효화할 때 Repository의 벌크 쿼리로만 증가시킨다.
+    @Column(updatable = false)
+    private Long tokenVersion = 0L;
+
     @OneToMany(mappedBy = "writer", cascade = {CascadeType.REMOVE})
     private List<Poster> posters;
 
@@ -8,7 +8,9 @@ public class PageInfo {
     private int page;
     private int size;
     private Long numberOfElements;
+    // 개수를 세지 않은 경우(CountMode.NONE) null
     private Long totalElements;
-    private int totalPage;
+    private Integer totalPage;
+    private boolean hasNext;
 
 }
@@ -39,6 +39,12 @@ public class Poster {
     @CreationTimestamp
     private LocalDateTime regDate;
 
+    // 좋아요, 댓글 수는 Repository의 벌크 쿼리로만 변경한다. (엔티티 변경 감지로 덮어쓰지 않도록 updatable = false)
+    @Column(updatable = false)
+    private Long likeCount = 0L;
+
+    @Column(updatable = false)
+    private Long commentCount = 0L;
 
     @OneToMany(mappedBy = "poster", cascade = CascadeType.REMOVE)
     private List<PosterLike> posterLikes = new ArrayList<>();
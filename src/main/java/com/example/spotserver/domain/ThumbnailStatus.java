@@ -0,0 +1,6 @@
+package com.example.spotserver.domain;
+
+// 축소본 생성 상태. 생성되기 전이나 실패했으면 원본을 내려준다.
+public enum ThumbnailStatus {
+    PENDING, READY, FAILED
+}
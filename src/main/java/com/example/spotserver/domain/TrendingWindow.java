@@ -0,0 +1,41 @@
+package com.example.spotserver.domain;
+
+import lombok.Getter;
+
+/**
+ * 인기 게시글, 장소를 집계하는 기간.
+ * DAY, WEEK 는 최근 hours 개의 시간 버킷을 halfLife 시간마다 절반으로 줄어드는 가중치로 합산하고,
+ * ALL 은 누적 좋아요 수 순서이다.
+ */
+@Getter
+public enum TrendingWindow {
+
+    DAY(24, 6),
+    WEEK(24 * 7, 48),
+    ALL(0, 0);
+
+    private final int hours;
+    private final double halfLife;
+
+    TrendingWindow(int hours, double halfLife) {
+        this.hours = hours;
+        this.halfLife = halfLife;
+    }
+
+    // i 시간 전 버킷의 가중치
+    public double[] getWeights() {
+        double[] weights = new double[hours];
+        for (int i = 0; i < hours; i++)
+            weights[i] = Math.pow(0.5, i / halfLife);
+        return weights;
+    }
+
+    // 알 수 없는 값이면 DAY
+    public static TrendingWindow from(String value) {
+        for (TrendingWindow window : values()) {
+            if (window.name().equalsIgnoreCase(value))
+                return window;
+        }
+        return DAY;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.spotserver.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ClusterConditionRequest {
+
+    // minLongitude, minLatitude, maxLongitude, maxLatitude
+    @NotNull(message = "bbox를 입력해주세요.")
+    @Size(min = 4, max = 4, message = "bbox는 minLongitude,minLatitude,maxLongitude,maxLatitude 형식이어야 합니다.")
+    private List<Double> bbox;
+
+    @NotNull(message = "zoom을 입력해주세요.")
+    @Min(value = 0, message = "zoom은 0이상이어야 합니다.")
+    @Max(value = 20, message = "max zoom : 20")
+    private Integer zoom;
+}
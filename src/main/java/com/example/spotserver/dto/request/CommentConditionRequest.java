@@ -8,10 +8,17 @@ import lombok.Data;
 public class CommentConditionRequest {
 
     @Max(value = 30, message = "max size : 30")
+    @Min(value = 1, message = "페이지 크기는 1이상이여야 합니다.")
     private Integer size;
 
     @Min(value = 1, message = "페이지는 1이상여야야 합니다.")
     private Integer page;
     private String sort;
 
+    // 페이지 방식의 전체 개수: exact(기본), approx(캐싱된 개수), none(개수 없이 다음 페이지 여부만)
+    private String count;
+
+    // cursor 파라미터가 있으면 커서 방식으로 조회한다. (빈 값이면 첫 페이지)
+    private String cursor;
+
 }
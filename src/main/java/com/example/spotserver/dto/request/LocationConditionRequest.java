@@ -8,12 +8,24 @@ import lombok.Data;
 public class LocationConditionRequest {
 
     @Max(value = 30, message = "max size : 30")
+    @Min(value = 1, message = "페이지 크기는 1이상이여야 합니다.")
     private Integer size;
 
     @Min(value = 1, message = "페이지는 1이상여야야 합니다.")
     private Integer page;
+    // recent, like, relevance(검색어와의 관련도 순, 페이지 방식만)
     private String sort;
     private String search;
     private Boolean approve = true;
     private Double scale;
+
+    @Min(value = 1, message = "반경은 1m 이상이어야 합니다.")
+    @Max(value = 50000, message = "max radiusMeters : 50000")
+    private Integer radiusMeters;
+
+    // 페이지 방식의 전체 개수: exact(기본), approx(캐싱된 개수), none(개수 없이 다음 페이지 여부만)
+    private String count;
+
+    // cursor 파라미터가 있으면 커서 방식으로 조회한다. (빈 값이면 첫 페이지)
+    private String cursor;
 }
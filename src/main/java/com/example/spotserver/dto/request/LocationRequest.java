@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class LocationRequest {
 
@@ -23,6 +25,8 @@ public class LocationRequest {
     @NotEmpty(message = "설명을 입력해주세요.")
     private String description;
 
+    // /uploads/locations 로 발급받아 직접 올린 이미지의 키
+    private List<String> imageKeys;
 
     public static Location toEntity(LocationRequest locationRequest) {
         Location location = new Location();
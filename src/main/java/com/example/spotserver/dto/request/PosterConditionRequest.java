@@ -16,6 +16,13 @@ public class PosterConditionRequest {
     @Min(value = 1, message = "페이지 크기는 1이상이여야 합니다.")
     private int size = 10;
 
+    // recent, like, relevance(검색어와의 관련도 순, 페이지 방식만)
     private String sort = "recent";
     private String search;
+
+    // 페이지 방식의 전체 개수: exact(기본), approx(캐싱된 개수), none(개수 없이 다음 페이지 여부만)
+    private String count;
+
+    // cursor 파라미터가 있으면 커서 방식으로 조회한다. (빈 값이면 첫 페이지)
+    private String cursor;
 }
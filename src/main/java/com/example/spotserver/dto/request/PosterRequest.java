@@ -5,6 +5,8 @@ import com.example.spotserver.domain.Poster;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class PosterRequest {
 
@@ -14,6 +16,9 @@ public class PosterRequest {
     @NotEmpty(message = "내용을 작성해주세요.")
     private String content;
 
+    // /uploads/posters 로 발급받아 직접 올린 이미지의 키
+    private List<String> imageKeys;
+
     public static Poster toEntity(PosterRequest posterRequest) {
         Poster poster = new Poster();
         poster.setTitle(posterRequest.getTitle());
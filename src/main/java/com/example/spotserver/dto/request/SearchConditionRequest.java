@@ -0,0 +1,32 @@
+package com.example.spotserver.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class SearchConditionRequest {
+
+    @NotBlank(message = "검색어를 입력해주세요.")
+    private String q;
+
+    // 둘 다 있으면 가까운 장소, 게시글일수록 점수를 높인다.
+    @DecimalMin(value = "-90", message = "위도는 -90 이상이어야 합니다.")
+    @DecimalMax(value = "90", message = "위도는 90 이하여야 합니다.")
+    private Double lat;
+
+    @DecimalMin(value = "-180", message = "경도는 -180 이상이어야 합니다.")
+    @DecimalMax(value = "180", message = "경도는 180 이하여야 합니다.")
+    private Double lng;
+
+    @Min(value = 1, message = "페이지는 1이상여야야 합니다.")
+    @Max(value = 10, message = "max page : 10")
+    private int page = 1;
+
+    @Max(value = 30, message = "페이지 크기는 30을 넘을 수 없습니다.")
+    @Min(value = 1, message = "페이지 크기는 1이상이여야 합니다.")
+    private int size = 10;
+}
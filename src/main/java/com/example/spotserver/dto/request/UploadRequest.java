@@ -0,0 +1,33 @@
+package com.example.spotserver.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UploadRequest {
+
+    @Valid
+    @NotEmpty(message = "업로드할 파일을 입력해주세요.")
+    @Size(max = 10, message = "한 번에 10개까지 업로드할 수 있습니다.")
+    private List<UploadFile> files;
+
+    @Data
+    public static class UploadFile {
+
+        @NotEmpty(message = "파일명을 입력해주세요.")
+        private String fileName;
+
+        @NotEmpty(message = "Content-Type을 입력해주세요.")
+        private String contentType;
+
+        @NotNull(message = "파일 크기를 입력해주세요.")
+        @Positive(message = "파일 크기를 입력해주세요.")
+        private Long size;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.spotserver.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClusterResponse {
+
+    private Double latitude;
+    private Double longitude;
+    private Long count;
+    private Long topLocationId;
+
+}
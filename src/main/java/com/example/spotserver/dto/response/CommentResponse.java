@@ -4,7 +4,6 @@ import com.example.spotserver.domain.Comment;
 import com.querydsl.core.annotations.QueryProjection;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.LocalDateTime;
 
@@ -29,13 +28,7 @@ public class CommentResponse {
         this.regDate = regDate;
         this.likeCnt = likeCnt;
 
+        // 저장된 파일명. 조회 후 ImageUrlResolver 가 주소로 바꾼다.
         this.memberImg = memberImg;
-        if (memberImg != null) {
-            this.memberImg = ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path("/members/" + writerId)
-                    .path("/images/" + memberImg)
-                    .toUriString();
-        } else // 기본 이미지 경로
-            this.memberImg = "";
     }
 }
@@ -0,0 +1,37 @@
+package com.example.spotserver.dto.response;
+
+import com.example.spotserver.domain.Cursor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+public class CursorResponse<T> {
+
+    private List<T> results;
+    private String nextCursor;
+    private boolean hasNext;
+
+    // size + 1개를 조회한 결과를 받아 다음 페이지 존재 여부를 판단한다.
+    public static <T> CursorResponse<T> of(List<T> fetched, int size, Function<T, Cursor> cursorOf) {
+        CursorResponse<T> cursorResponse = new CursorResponse<>();
+
+        boolean hasNext = fetched.size() > size;
+        List<T> results = hasNext ? fetched.subList(0, size) : fetched;
+
+        cursorResponse.setResults(results);
+        cursorResponse.setHasNext(hasNext);
+        if (hasNext)
+            cursorResponse.setNextCursor(cursorOf.apply(results.get(results.size() - 1)).encode());
+        return cursorResponse;
+    }
+
+    public <R> CursorResponse<R> map(Function<T, R> mapper) {
+        CursorResponse<R> cursorResponse = new CursorResponse<>();
+        cursorResponse.setResults(results.stream().map(mapper).toList());
+        cursorResponse.setNextCursor(nextCursor);
+        cursorResponse.setHasNext(hasNext);
+        return cursorResponse;
+    }
+}
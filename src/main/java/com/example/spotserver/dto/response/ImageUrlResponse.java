@@ -0,0 +1,35 @@
+package com.example.spotserver.dto.response;
+
+import com.example.spotserver.domain.ImageStore;
+import com.example.spotserver.domain.ImageVariant;
+import com.example.spotserver.domain.ThumbnailStatus;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 목록 응답에 포함되는 이미지. 리다이렉트 없이 바로 요청할 수 있는 주소를 담는다.
+@Data
+public class ImageUrlResponse {
+
+    private Long id;
+    private String url;
+
+    // 축소본 크기 -> 이미지 주소. 축소본이 아직 없으면 원본 주소
+    private Map<Integer, String> variantUrls;
+
+    public static ImageUrlResponse toDto(Long id, String key, ThumbnailStatus thumbnailStatus, ImageStore imageStore) {
+        ImageUrlResponse imageUrlResponse = new ImageUrlResponse();
+        imageUrlResponse.setId(id);
+        imageUrlResponse.setUrl(imageStore.getUrl(key));
+
+        Map<Integer, String> variantUrls = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            String url = thumbnailStatus == ThumbnailStatus.READY ?
+                    imageStore.getUrl(imageStore.getVariantKey(key, variant)) : imageUrlResponse.getUrl();
+            variantUrls.put(variant.getSize(), url);
+        }
+        imageUrlResponse.setVariantUrls(variantUrls);
+        return imageUrlResponse;
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.spotserver.dto.response;
 
 import com.example.spotserver.domain.Location;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.querydsl.core.annotations.QueryProjection;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -21,6 +23,13 @@ public class LocationResponse {
     private LocalDateTime regDate;
     private Long likeCnt;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distance;
+
+    // 조회 후 ImageUrlResolver 가 채운다.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ImageUrlResponse> images;
+
 
     @QueryProjection
     public LocationResponse(Long locationId, Double latitude, Double longitude, String title, String address, String description, LocalDateTime regDate, Long likeCnt) {
@@ -0,0 +1,16 @@
+package com.example.spotserver.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LocationSuggestResponse {
+
+    private Long locationId;
+    private String title;
+    private Long likeCnt;
+
+}
@@ -4,6 +4,7 @@ package com.example.spotserver.dto.response;
 import com.example.spotserver.domain.PageInfo;
 import lombok.Data;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -14,13 +15,18 @@ public class PageResponse<T> {
     private PageInfo pageInfo;
 
 
-    public PageResponse(Page<T> page) {
+    public PageResponse(Slice<T> page) {
         results = page.getContent();
         pageInfo = new PageInfo();
         pageInfo.setPage(page.getNumber()+1); // Page의 페이지는 0부터 시작이라 사용자를 위해 +1해서 1부터 시작하게함
         pageInfo.setSize(page.getSize());
-        pageInfo.setTotalPage(page.getTotalPages()); // 총 페이지 개수
-        pageInfo.setTotalElements(page.getTotalElements()); // 총 원소 개수
         pageInfo.setNumberOfElements((long) page.getNumberOfElements()); // 현재 페이지에서 원소 개수
+        pageInfo.setHasNext(page.hasNext());
+
+        // 개수를 세지 않고 조회했으면(Slice) 총 개수를 비워둔다.
+        if (page instanceof Page<T> totalPage) {
+            pageInfo.setTotalPage(totalPage.getTotalPages()); // 총 페이지 개수
+            pageInfo.setTotalElements(totalPage.getTotalElements()); // 총 원소 개수
+        }
     }
 }
@@ -1,19 +1,31 @@
 package com.example.spotserver.dto.response;
 
+import com.example.spotserver.domain.ImageVariant;
 import com.example.spotserver.domain.PosterImage;
 import lombok.Data;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Data
 public class PosterImageResponse {
 
     private Long id;
     private String uploadFileName;
 
+    // 축소본 크기 -> 이미지 주소. 축소본이 아직 없으면 원본으로 이동한다.
+    private Map<Integer, String> variantUrls;
+
 
     public static PosterImageResponse toDto(PosterImage posterImage) {
         PosterImageResponse posterImageResponse = new PosterImageResponse();
         posterImageResponse.setId(posterImage.getId());
         posterImageResponse.setUploadFileName(posterImage.getUploadFileName());
+
+        Map<Integer, String> variantUrls = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values())
+            variantUrls.put(variant.getSize(), "/posters/images/" + posterImage.getId() + "?size=" + variant.getSize());
+        posterImageResponse.setVariantUrls(variantUrls);
         return posterImageResponse;
     }
 }
@@ -1,10 +1,12 @@
 package com.example.spotserver.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.querydsl.core.annotations.QueryProjection;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -19,6 +21,10 @@ public class PosterResponse {
     private Long likeCnt;
     private Long commentCnt;
 
+    // 조회 후 ImageUrlResolver 가 채운다.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ImageUrlResponse> images;
+
     @QueryProjection
     public PosterResponse(Long posterId, Long writerId, String writerName, String title, String content, LocalDateTime regDate, Long likeCnt, Long commentCnt) {
         this.posterId = posterId;
@@ -0,0 +1,16 @@
+package com.example.spotserver.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponse {
+
+    private List<LocationResponse> locations;
+    private List<PosterResponse> posters;
+}
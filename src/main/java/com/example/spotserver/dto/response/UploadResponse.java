@@ -0,0 +1,19 @@
+package com.example.spotserver.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 클라이언트는 url 로 Content-Type, Content-Length 를 요청한 값 그대로 넣어 PUT 한 뒤,
+ * 게시글, 장소를 저장할 때 key 를 imageKeys 로 보낸다.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadResponse {
+    private String key;
+    private String url;
+    private String contentType;
+    private Long size;
+}
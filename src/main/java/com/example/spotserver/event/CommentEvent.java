@@ -0,0 +1,19 @@
+package com.example.spotserver.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CommentEvent {
+
+    private Type type;
+    private Long commentId;
+
+    // 게시글의 댓글 수가 바뀌는 경우(ADD, DELETE)
+    private Long posterId;
+
+    public enum Type {
+        ADD, UPDATE, DELETE
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.spotserver.event;
+
+import com.example.spotserver.domain.LikeTarget;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 좋아요 수가 DB에 반영되었다. (쓰기 지연이면 LikeFlusher가 반영한 뒤)
+@Getter
+@AllArgsConstructor
+public class LikeEvent {
+
+    private LikeTarget target;
+    private Long targetId;
+}
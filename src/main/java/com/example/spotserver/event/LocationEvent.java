@@ -0,0 +1,18 @@
+package com.example.spotserver.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LocationEvent {
+
+    private Type type;
+    private Long locationId;
+    private Double latitude;
+    private Double longitude;
+
+    public enum Type {
+        ADD, APPROVE, DELETE, LIKE, UNLIKE
+    }
+}
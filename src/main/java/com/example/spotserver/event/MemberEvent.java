@@ -0,0 +1,18 @@
+package com.example.spotserver.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MemberEvent {
+
+    private Type type;
+    private Long memberId;
+
+    public enum Type {
+        UPDATE, DELETE,
+        // 역할 변경 등으로 발급된 접근 토큰을 무효화
+        REVOKE
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.spotserver.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PosterEvent {
+
+    private Type type;
+    private Long posterId;
+
+    // 게시글과 함께 지워진 댓글 (DELETE)
+    private List<Long> commentIds;
+
+    public PosterEvent(Type type, Long posterId) {
+        this(type, posterId, List.of());
+    }
+
+    public enum Type {
+        ADD, UPDATE, DELETE
+    }
+}
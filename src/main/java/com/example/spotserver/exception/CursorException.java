@@ -0,0 +1,14 @@
+package com.example.spotserver.exception;
+
+import lombok.Getter;
+
+@Getter
+public class CursorException extends Exception {
+
+    private ErrorCode errorCode;
+
+    public CursorException(ErrorCode errorCode) {
+        super(errorCode.getMessage());
+        this.errorCode = errorCode;
+    }
+}
@@ -20,12 +20,17 @@ public enum ErrorCode {
     NOT_VALID(HttpStatus.BAD_REQUEST, "올바른 입력을 해주세요."),
     NOT_VALID_MAIL(HttpStatus.BAD_REQUEST, "올바른 이메일 형식을 입력해주세요."),
     NOT_SUPPORT_FILE(HttpStatus.BAD_REQUEST, "지원하지 않는 파일 확장자입니다."),
+    NOT_VALID_CURSOR(HttpStatus.BAD_REQUEST, "올바르지 않은 커서입니다."),
+    NOT_VALID_UPLOAD(HttpStatus.BAD_REQUEST, "발급받지 않았거나 만료된 업로드입니다."),
+    NOT_UPLOADED_FILE(HttpStatus.BAD_REQUEST, "파일이 업로드되지 않았거나 요청한 정보와 다릅니다."),
+    NOT_SUPPORTED_DIRECT_UPLOAD(HttpStatus.NOT_IMPLEMENTED, "직접 업로드를 지원하지 않습니다. 파일을 함께 전송해주세요."),
     UNAUTHORIZED_CLIENT(HttpStatus.UNAUTHORIZED, "접근 토큰이 없습니다."),
     FORBIDDEN_CLIENT(HttpStatus.FORBIDDEN, "접근 권한이 없습니다."),
     JWT_EXPIRED_TOKEN(HttpStatus.UNAUTHORIZED, "만료된 토큰입니다."),
     JWT_DECODE_FAIL(HttpStatus.UNAUTHORIZED, "올바른 토큰이 필요합니다."),
     JWT_SIGNATURE_FAIL(HttpStatus.UNAUTHORIZED, "올바른 토큰이 필요합니다."),
     JWT_LOGOUT_TOKEN(HttpStatus.UNAUTHORIZED, "이미 로그아웃된 토큰입니다."),
+    JWT_REVOKED_TOKEN(HttpStatus.UNAUTHORIZED, "더 이상 사용할 수 없는 토큰입니다. 다시 로그인해주세요."),
     NOT_SUPPORTED_CONTENT_TYPE(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "올바른 Content-Type으로 요청해주세요."),
     NO_SUCH_ELEMENT(HttpStatus.NOT_FOUND, "존재하지 않는 데이터입니다.");
 
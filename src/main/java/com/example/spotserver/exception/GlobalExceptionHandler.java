@@ -87,6 +87,15 @@ public class GlobalExceptionHandler {
                 .body(errorResponse);
     }
 
+    @ExceptionHandler(value = CursorException.class)
+    public ResponseEntity<ErrorResponse> cursorException(CursorException e) {
+        ErrorCode errorCode = e.getErrorCode();
+        ErrorResponse errorResponse = new ErrorResponse(errorCode);
+        return ResponseEntity
+                .status(errorCode.getHttpStatus())
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(value = MissingServletRequestPartException.class)
     public ResponseEntity<ErrorResponse> multiPartException(MissingServletRequestPartException e) {
         ErrorResponse errorResponse = new ErrorResponse(ErrorCode.NOT_VALID);
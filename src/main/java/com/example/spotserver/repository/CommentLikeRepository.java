@@ -10,6 +10,5 @@ import java.util.Optional;
 
 @Repository
 public interface CommentLikeRepository extends JpaRepository<CommentLike, Long> {
-    boolean existsByCommentAndMember(Comment comment, Member member);
     Optional<CommentLike> findByCommentAndMember(Comment comment, Member member);
 }
@@ -4,7 +4,11 @@ import com.example.spotserver.domain.Comment;
 import com.example.spotserver.domain.Poster;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +17,23 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
     List<Comment> findByPoster(Poster poster);
+
+    // 회원 탈퇴시 회원이 누른 좋아요 수만큼 감소
+    @Modifying
+    @Query(value = "UPDATE comment c JOIN comment_like cl ON cl.comment_id = c.id " +
+            "SET c.like_count = GREATEST(c.like_count - 1, 0) " +
+            "WHERE cl.member_id = :memberId", nativeQuery = true)
+    int subtractLikeCountByMember(@Param("memberId") Long memberId);
+
+    // id 범위의 좋아요 수를 실제 개수와 맞춘다.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE comment c " +
+            "SET c.like_count = (SELECT COUNT(*) FROM comment_like cl WHERE cl.comment_id = c.id) " +
+            "WHERE c.id BETWEEN :fromId AND :toId " +
+            "AND c.like_count <> (SELECT COUNT(*) FROM comment_like cl WHERE cl.comment_id = c.id)", nativeQuery = true)
+    int reconcileCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("select coalesce(max(c.id), 0) from Comment c")
+    Long findMaxId();
 }
@@ -1,12 +1,16 @@
 package com.example.spotserver.repository;
 
+import com.example.spotserver.domain.Cursor;
 import com.example.spotserver.dto.request.CommentConditionRequest;
 import com.example.spotserver.dto.response.CommentResponse;
-import org.springframework.data.domain.Page;
+import com.example.spotserver.dto.response.CursorResponse;
+import com.example.spotserver.exception.CursorException;
+import org.springframework.data.domain.Slice;
 
 public interface CommentRepositoryCustom {
 
-    Page<CommentResponse> getComments(Long posterId, CommentConditionRequest commentConditionRequest);
+    Slice<CommentResponse> getComments(Long posterId, CommentConditionRequest commentConditionRequest);
+    CursorResponse<CommentResponse> getCommentsByCursor(Long posterId, CommentConditionRequest commentConditionRequest, Cursor cursor) throws CursorException;
     CommentResponse getCommentById(Long commentId);
 
 }
@@ -9,8 +9,6 @@ import java.util.Optional;
 @Repository
 public interface LocationLikeRepository extends JpaRepository<LocationLike, Long> {
 
-    boolean existsLocationLikeByLocationAndMember(Location location, Member member);
     Optional<LocationLike> findByLocationAndMember(Location location, Member member);
-    Long countByLocation(Location location);
 
 }
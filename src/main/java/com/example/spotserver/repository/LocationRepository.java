@@ -1,7 +1,12 @@
 package com.example.spotserver.repository;
 
 import com.example.spotserver.domain.Location;
+import org.springframework.data.domain.Pageable;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +14,24 @@ import java.util.List;
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long>, LocationRepositoryCustom {
     List<Location> findByLatitudeBetweenAndLongitudeBetween(double latitudeMinValue, double latitudeMaxValue, double longitudeMinValue, double longitudeMaxValue);
+    List<Location> findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull(Pageable pageable);
+
+    // 회원 탈퇴시 회원이 누른 좋아요 수만큼 감소
+    @Modifying
+    @Query(value = "UPDATE location l JOIN location_like ll ON ll.location_id = l.id " +
+            "SET l.like_count = GREATEST(l.like_count - 1, 0) " +
+            "WHERE ll.member_id = :memberId", nativeQuery = true)
+    int subtractLikeCountByMember(@Param("memberId") Long memberId);
+
+    // id 범위의 좋아요 수를 실제 개수와 맞춘다.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE location l " +
+            "SET l.like_count = (SELECT COUNT(*) FROM location_like ll WHERE ll.location_id = l.id) " +
+            "WHERE l.id BETWEEN :fromId AND :toId " +
+            "AND l.like_count <> (SELECT COUNT(*) FROM location_like ll WHERE ll.location_id = l.id)", nativeQuery = true)
+    int reconcileCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("select coalesce(max(l.id), 0) from Location l")
+    Long findMaxId();
 }
@@ -1,19 +1,30 @@
 package com.example.spotserver.repository;
 
 
+import com.example.spotserver.domain.CountMode;
+import com.example.spotserver.domain.Cursor;
 import com.example.spotserver.dto.request.LocationConditionRequest;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.dto.response.PosterResponse;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface LocationRepositoryCustom {
 
-    List<LocationResponse> getBestLocations();
-    Page<LocationResponse> searchLocations(Double latitude, Double longitude, LocationConditionRequest conditionRequest);
+    List<LocationResponse> getBestLocations(int size);
+    List<LocationResponse> getApprovedLocationsByIds(Collection<Long> locationIds);
+    Slice<LocationResponse> searchLocations(Double latitude, Double longitude, LocationConditionRequest conditionRequest);
+    CursorResponse<LocationResponse> searchLocationsByCursor(Double latitude, Double longitude, LocationConditionRequest conditionRequest, Cursor cursor) throws CursorException;
+    List<LocationResponse> searchLocationsInArea(Double latitude, Double longitude, Double scale, Boolean approve, String search);
     Optional<LocationResponse> getLocationById(Long locationId);
-    Page<LocationResponse> getLikeLocations(Long memberId, Pageable pageable);
+    Slice<LocationResponse> getLikeLocations(Long memberId, Pageable pageable, CountMode countMode);
+    CursorResponse<LocationResponse> getLikeLocationsByCursor(Long memberId, Cursor cursor, int size) throws CursorException;
+    List<LocationResponse> getApprovedLocations();
+    Optional<LocationResponse> getApprovedLocationById(Long locationId);
 }
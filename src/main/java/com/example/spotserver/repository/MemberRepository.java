@@ -3,6 +3,9 @@ package com.example.spotserver.repository;
 import com.example.spotserver.domain.Member;
 import com.example.spotserver.domain.MemberType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -17,4 +20,8 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByLoginId(String loginId);
     Optional<Member> findByTypeAndSnsId(MemberType memberType, Long id);
 
+    @Modifying(clearAutomatically = true)
+    @Query("update Member m set m.tokenVersion = m.tokenVersion + 1 where m.id = :memberId")
+    int increaseTokenVersion(@Param("memberId") Long memberId);
+
 }
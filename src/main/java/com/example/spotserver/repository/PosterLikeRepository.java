@@ -9,8 +9,5 @@ import java.util.Optional;
 
 public interface PosterLikeRepository extends JpaRepository<PosterLike, Long> {
 
-    boolean existsPosterLikeByPosterAndMember(Poster poster, Member member);
     Optional<PosterLike> findByPosterAndMember(Poster poster, Member member);
-
-    Long countByPoster(Poster poster);
 }
@@ -4,7 +4,11 @@ import com.example.spotserver.domain.Location;
 import com.example.spotserver.domain.Poster;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +18,34 @@ public interface PosterRepository extends JpaRepository<Poster, Long>, PosterRep
 
     List<Poster> findByLocation(Location location);
 
+    @Modifying
+    @Query(value = "UPDATE poster SET comment_count = GREATEST(comment_count + :delta, 0) WHERE id = :posterId", nativeQuery = true)
+    int addCommentCount(@Param("posterId") Long posterId, @Param("delta") long delta);
+
+    // 회원 탈퇴시 회원이 누른 좋아요, 작성한 댓글 수만큼 감소
+    @Modifying
+    @Query(value = "UPDATE poster p JOIN poster_like pl ON pl.poster_id = p.id " +
+            "SET p.like_count = GREATEST(p.like_count - 1, 0) " +
+            "WHERE pl.member_id = :memberId", nativeQuery = true)
+    int subtractLikeCountByMember(@Param("memberId") Long memberId);
+
+    @Modifying
+    @Query(value = "UPDATE poster p JOIN (SELECT poster_id, COUNT(*) AS cnt FROM comment WHERE member_id = :memberId GROUP BY poster_id) c ON c.poster_id = p.id " +
+            "SET p.comment_count = GREATEST(p.comment_count - c.cnt, 0)", nativeQuery = true)
+    int subtractCommentCountByMember(@Param("memberId") Long memberId);
+
+    // id 범위의 좋아요, 댓글 수를 실제 개수와 맞춘다.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE poster p " +
+            "SET p.like_count = (SELECT COUNT(*) FROM poster_like pl WHERE pl.poster_id = p.id), " +
+            "p.comment_count = (SELECT COUNT(*) FROM comment c WHERE c.poster_id = p.id) " +
+            "WHERE p.id BETWEEN :fromId AND :toId " +
+            "AND (p.like_count <> (SELECT COUNT(*) FROM poster_like pl WHERE pl.poster_id = p.id) " +
+            "OR p.comment_count <> (SELECT COUNT(*) FROM comment c WHERE c.poster_id = p.id))", nativeQuery = true)
+    int reconcileCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("select coalesce(max(p.id), 0) from Poster p")
+    Long findMaxId();
+
 }
@@ -1,19 +1,28 @@
 package com.example.spotserver.repository;
 
 
+import com.example.spotserver.domain.CountMode;
+import com.example.spotserver.domain.Cursor;
 import com.example.spotserver.dto.request.PosterConditionRequest;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.PosterResponse;
-import org.springframework.data.domain.Page;
+import com.example.spotserver.exception.CursorException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PosterRepositoryCustom {
 
-    Page<PosterResponse> searchPosters(Long locationId, PosterConditionRequest conditionRequest);
-    Page<PosterResponse> getLikePosters(Long memberId, Pageable pageable);
+    Slice<PosterResponse> searchPosters(Long locationId, PosterConditionRequest conditionRequest);
+    CursorResponse<PosterResponse> searchPostersByCursor(Long locationId, PosterConditionRequest conditionRequest, Cursor cursor) throws CursorException;
+    Slice<PosterResponse> getLikePosters(Long memberId, Pageable pageable, CountMode countMode);
+    CursorResponse<PosterResponse> getLikePostersByCursor(Long memberId, Cursor cursor, int size) throws CursorException;
     Optional<PosterResponse> getPosterById(Long posterId);
-    List<PosterResponse> getBestPosters();
-    Page<PosterResponse> getWritePosters(Long memberId, Pageable pageable);
-    Page<PosterResponse> getPostersByWriteComments(Long memberId, Pageable pageable);
+    List<PosterResponse> getBestPosters(int size);
+    List<PosterResponse> getPostersByIds(Collection<Long> posterIds);
+    Slice<PosterResponse> getWritePosters(Long memberId, Pageable pageable, CountMode countMode);
+    CursorResponse<PosterResponse> getWritePostersByCursor(Long memberId, Cursor cursor, int size) throws CursorException;
+    Slice<PosterResponse> getPostersByWriteComments(Long memberId, Pageable pageable, CountMode countMode);
 }
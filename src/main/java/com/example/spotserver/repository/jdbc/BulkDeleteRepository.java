@@ -0,0 +1,140 @@
+package com.example.spotserver.repository.jdbc;
+
+import com.example.spotserver.domain.ImageStore;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 장소, 게시글, 회원과 딸린 행들을 엔티티로 읽지 않고 삭제한다.
+ * 삭제할 id를 몇 번의 조회로 모은 뒤 외래 키 순서(좋아요 -> 댓글 -> 이미지 -> 게시글 ...)대로 IN 절로 1000개씩 지운다.
+ * 지운 이미지의 S3 키를 돌려주므로 호출한 쪽에서 outbox 에 넣으면 된다. 게시글 삭제는 지운 댓글 id도 함께 돌려준다.
+ *
+ * JPA를 거치지 않으므로 실행 전에 영속성 컨텍스트를 flush 하고, 실행 후에는 지워진 엔티티가 남지 않도록 clear 한다.
+ */
+@Repository
+public class BulkDeleteRepository {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private EntityManager em;
+    private ImageStore imageStore;
+
+    @Autowired
+    public BulkDeleteRepository(NamedParameterJdbcTemplate jdbcTemplate, EntityManager em, ImageStore imageStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.em = em;
+        this.imageStore = imageStore;
+    }
+
+    @Transactional
+    public List<String> deleteLocation(Long locationId) {
+
+        em.flush();
+
+        MapSqlParameterSource param = new MapSqlParameterSource("locationId", locationId);
+        List<Long> posterIds = jdbcTemplate.queryForList("SELECT id FROM poster WHERE location_id = :locationId", param, Long.class);
+        List<String> imageKeys = deletePosterRows(posterIds).getImageKeys();
+
+        imageKeys.addAll(prefix(imageStore.getLocationImgDir(),
+                jdbcTemplate.queryForList("SELECT store_file_name FROM location_image WHERE location_id = :locationId", param, String.class)));
+        jdbcTemplate.update("DELETE FROM location_image WHERE location_id = :locationId", param);
+        jdbcTemplate.update("DELETE FROM location_like WHERE location_id = :locationId", param);
+        jdbcTemplate.update("DELETE FROM location WHERE id = :locationId", param);
+
+        em.clear();
+        return imageKeys;
+    }
+
+    @Transactional
+    public DeletedPosters deletePosters(List<Long> posterIds) {
+
+        em.flush();
+        DeletedPosters deletedPosters = deletePosterRows(posterIds);
+        em.clear();
+        return deletedPosters;
+    }
+
+    /**
+     * 회원이 작성한 게시글, 다른 게시글에 단 댓글, 누른 좋아요, 프로필 이미지와 회원을 지운다.
+     * 다른 게시글, 장소, 댓글의 카운터는 호출하기 전에 감소시켜야 한다.
+     */
+    @Transactional
+    public List<String> deleteMember(Long memberId) {
+
+        em.flush();
+
+        MapSqlParameterSource param = new MapSqlParameterSource("memberId", memberId);
+        List<Long> posterIds = jdbcTemplate.queryForList("SELECT id FROM poster WHERE member_id = :memberId", param, Long.class);
+        List<String> imageKeys = deletePosterRows(posterIds).getImageKeys();
+
+        List<Long> commentIds = jdbcTemplate.queryForList("SELECT id FROM comment WHERE member_id = :memberId", param, Long.class);
+        for (List<Long> chunk : chunk(commentIds)) {
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids", chunk);
+            jdbcTemplate.update("DELETE FROM comment_like WHERE comment_id IN (:ids)", ids);
+            jdbcTemplate.update("DELETE FROM comment WHERE id IN (:ids)", ids);
+        }
+
+        jdbcTemplate.update("DELETE FROM comment_like WHERE member_id = :memberId", param);
+        jdbcTemplate.update("DELETE FROM poster_like WHERE member_id = :memberId", param);
+        jdbcTemplate.update("DELETE FROM location_like WHERE member_id = :memberId", param);
+
+        imageKeys.addAll(prefix(imageStore.getMemberImgDir(),
+                jdbcTemplate.queryForList("SELECT store_file_name FROM member_image WHERE member_id = :memberId", param, String.class)));
+        jdbcTemplate.update("DELETE FROM member_image WHERE member_id = :memberId", param);
+        jdbcTemplate.update("DELETE FROM member WHERE id = :memberId", param);
+
+        em.clear();
+        return imageKeys;
+    }
+
+    // 댓글 좋아요 -> 댓글 -> 게시글 좋아요 -> 게시글 이미지 -> 게시글 순으로 지운다.
+    private DeletedPosters deletePosterRows(List<Long> posterIds) {
+
+        List<String> imageKeys = new ArrayList<>();
+        List<Long> commentIds = new ArrayList<>();
+        for (List<Long> chunk : chunk(posterIds)) {
+
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids", chunk);
+            commentIds.addAll(jdbcTemplate.queryForList("SELECT id FROM comment WHERE poster_id IN (:ids)", ids, Long.class));
+            jdbcTemplate.update("DELETE cl FROM comment_like cl JOIN comment c ON c.id = cl.comment_id WHERE c.poster_id IN (:ids)", ids);
+            jdbcTemplate.update("DELETE FROM comment WHERE poster_id IN (:ids)", ids);
+            jdbcTemplate.update("DELETE FROM poster_like WHERE poster_id IN (:ids)", ids);
+
+            imageKeys.addAll(prefix(imageStore.getPosterImgDir(),
+                    jdbcTemplate.queryForList("SELECT store_file_name FROM poster_image WHERE poster_id IN (:ids)", ids, String.class)));
+            jdbcTemplate.update("DELETE FROM poster_image WHERE poster_id IN (:ids)", ids);
+            jdbcTemplate.update("DELETE FROM poster WHERE id IN (:ids)", ids);
+        }
+        return new DeletedPosters(imageKeys, commentIds);
+    }
+
+    private List<String> prefix(String dir, List<String> storeFileNames) {
+        return storeFileNames.stream()
+                .map(storeFileName -> dir + storeFileName)
+                .toList();
+    }
+
+    private List<List<Long>> chunk(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE)
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        return chunks;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class DeletedPosters {
+        private List<String> imageKeys;
+        private List<Long> commentIds;
+    }
+}
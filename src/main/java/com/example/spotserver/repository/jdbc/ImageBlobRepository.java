@@ -0,0 +1,122 @@
+package com.example.spotserver.repository.jdbc;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 내용(SHA-256)이 같은 이미지를 폴더별로 하나의 객체로 저장하기 위한 참조 수 테이블.
+ * 이미지 행을 저장, 삭제하는 트랜잭션에서 참조 수를 함께 바꾸고, 0이 된 행은 바로 지운 뒤 키를 outbox 로 넘긴다.
+ * 객체 키는 업로드마다 새로 만들므로(UUID), 삭제 중인 키에 같은 내용이 다시 올라가는 일은 없다.
+ */
+@Repository
+public class ImageBlobRepository {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public ImageBlobRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    // 참조 중인 같은 내용의 객체 키
+    public Optional<String> findObjectKey(String dir, String contentHash) {
+        return jdbcTemplate.queryForList(
+                        "SELECT object_key FROM image_blob WHERE dir = ? AND content_hash = ? AND ref_count > 0",
+                        String.class, dir, contentHash)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * 참조 수를 1 늘리고 이 내용에 쓸 객체 키를 돌려준다. 호출한 쪽의 트랜잭션에 참여한다.
+     * 행이 없으면 objectKey 로 만들고, 다른 요청이 먼저 만들었으면 그 키를 돌려준다. (행이 잠기므로 커밋 전에는 지워지지 않는다)
+     * 업로드 전에 찾은 키의 참조가 그 사이 0이 되어 outbox 에 들어갔다면 outbox 에서 뺀다.
+     * 업로드 중인 키는 대기 목록에 있어 ImageDeleteWorker가 지우지 않으므로 객체는 아직 남아있다.
+     */
+    public String acquire(String dir, String contentHash, String objectKey) {
+
+        jdbcTemplate.update(
+                "INSERT INTO image_blob (dir, content_hash, object_key, ref_count) VALUES (?, ?, ?, 1) " +
+                        "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1",
+                dir, contentHash, objectKey);
+
+        String acquiredKey = jdbcTemplate.queryForObject(
+                "SELECT object_key FROM image_blob WHERE dir = ? AND content_hash = ?",
+                String.class, dir, contentHash);
+
+        if (objectKey.equals(acquiredKey))
+            jdbcTemplate.update("DELETE FROM image_delete_outbox WHERE object_key = ?", objectKey);
+        return acquiredKey;
+    }
+
+    /**
+     * 지운 이미지 행의 키마다 참조 수를 줄이고, 저장소에서 지워야 할 키를 돌려준다. 호출한 쪽의 트랜잭션에 참여한다.
+     * 참조 수가 0이 된 키와, 중복 제거 이전에 올라가 image_blob 에 없는 키가 대상이다.
+     */
+    public List<String> release(Collection<String> objectKeys) {
+
+        if (objectKeys.isEmpty())
+            return List.of();
+
+        Map<String, Long> counts = objectKeys.stream()
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()));
+        List<String> keys = new ArrayList<>(counts.keySet());
+
+        Set<String> tracked = findExisting(keys);
+        List<String> released = new ArrayList<>();
+        for (String key : keys) {
+            if (!tracked.contains(key))
+                released.add(key);
+        }
+
+        jdbcTemplate.batchUpdate("UPDATE image_blob SET ref_count = ref_count - ? WHERE object_key = ?",
+                new ArrayList<>(tracked), CHUNK_SIZE,
+                (ps, key) -> {
+                    ps.setLong(1, counts.get(key));
+                    ps.setString(2, key);
+                });
+
+        for (List<String> chunk : chunk(new ArrayList<>(tracked))) {
+            MapSqlParameterSource param = new MapSqlParameterSource("keys", chunk);
+            List<String> unreferenced = namedParameterJdbcTemplate.queryForList(
+                    "SELECT object_key FROM image_blob WHERE object_key IN (:keys) AND ref_count <= 0", param, String.class);
+            if (unreferenced.isEmpty())
+                continue;
+
+            namedParameterJdbcTemplate.update("DELETE FROM image_blob WHERE object_key IN (:keys)",
+                    new MapSqlParameterSource("keys", unreferenced));
+            released.addAll(unreferenced);
+        }
+        return released;
+    }
+
+    // image_blob 이 관리하는(다른 이미지와 공유될 수 있는) 키
+    public Set<String> findExisting(Collection<String> objectKeys) {
+
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : chunk(new ArrayList<>(new LinkedHashSet<>(objectKeys)))) {
+            existing.addAll(namedParameterJdbcTemplate.queryForList(
+                    "SELECT object_key FROM image_blob WHERE object_key IN (:keys)",
+                    new MapSqlParameterSource("keys", chunk), String.class));
+        }
+        return existing;
+    }
+
+    private List<List<String>> chunk(List<String> keys) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE)
+            chunks.add(keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size())));
+        return chunks;
+    }
+}
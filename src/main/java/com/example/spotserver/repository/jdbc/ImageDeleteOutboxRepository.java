@@ -0,0 +1,94 @@
+package com.example.spotserver.repository.jdbc;
+
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 삭제할 S3 객체 키를 보관하는 outbox.
+ * 행 삭제와 같은 트랜잭션에서 키를 기록하고, ImageDeleteWorker가 커밋된 키를 꺼내 S3에서 지운다.
+ */
+@Repository
+public class ImageDeleteOutboxRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public ImageDeleteOutboxRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    // 호출한 쪽의 트랜잭션에 참여한다.
+    public void enqueue(Collection<String> objectKeys) {
+        if (objectKeys.isEmpty())
+            return;
+        jdbcTemplate.batchUpdate("INSERT INTO image_delete_outbox (object_key) VALUES (?)",
+                objectKeys, BATCH_SIZE, (ps, objectKey) -> ps.setString(1, objectKey));
+    }
+
+    /**
+     * 처리할 때가 된 키를 최대 limit 개 가져오면서 leaseSeconds 동안 다른 서버가 가져가지 못하게 한다.
+     * 처리 중 서버가 종료되면 lease 가 끝난 뒤 다시 처리된다.
+     */
+    @Transactional
+    public List<Entry> claim(int limit, long leaseSeconds) {
+
+        List<Entry> entries = jdbcTemplate.query(
+                "SELECT id, object_key, attempts FROM image_delete_outbox " +
+                        "WHERE next_attempt_at <= NOW() ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new Entry(rs.getLong("id"), rs.getString("object_key"), rs.getInt("attempts")),
+                limit);
+
+        if (!entries.isEmpty()) {
+            namedParameterJdbcTemplate.update(
+                    "UPDATE image_delete_outbox SET attempts = attempts + 1, " +
+                            "next_attempt_at = NOW() + INTERVAL :lease SECOND WHERE id IN (:ids)",
+                    new MapSqlParameterSource("lease", leaseSeconds)
+                            .addValue("ids", entries.stream().map(Entry::getId).toList()));
+        }
+        return entries;
+    }
+
+    public void deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return;
+        namedParameterJdbcTemplate.update("DELETE FROM image_delete_outbox WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    // 실패 횟수에 따라 2^n 초(최대 maxBackoffSeconds) 뒤에 다시 시도한다.
+    public void retryLater(Collection<Long> ids, long maxBackoffSeconds) {
+        if (ids.isEmpty())
+            return;
+        namedParameterJdbcTemplate.update(
+                "UPDATE image_delete_outbox " +
+                        "SET next_attempt_at = NOW() + INTERVAL LEAST(POW(2, LEAST(attempts, 20)), :max) SECOND " +
+                        "WHERE id IN (:ids)",
+                new MapSqlParameterSource("max", maxBackoffSeconds).addValue("ids", ids));
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM image_delete_outbox", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private Long id;
+        private String objectKey;
+        private int attempts;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.spotserver.repository.jdbc;
+
+import com.example.spotserver.domain.ThumbnailStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 이미지 주소를 만드는 데 필요한 컬럼만 조회한다. (엔티티의 ManyToOne 을 함께 읽지 않는다)
+ * 목록 응답에서는 게시글, 장소 id를 IN 절로 모아 한 번에 조회한다.
+ */
+@Repository
+public class ImageLookupRepository {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final RowMapper<Image> IMAGE_ROW_MAPPER = (rs, rowNum) -> new Image(
+            rs.getLong("id"),
+            rs.getLong("owner_id"),
+            rs.getString("store_file_name"),
+            ThumbnailStatus.valueOf(rs.getString("thumbnail_status")));
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ImageLookupRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Image> findPosterImage(Long id) {
+        return findById("poster_image", "poster_id", id);
+    }
+
+    public Optional<Image> findLocationImage(Long id) {
+        return findById("location_image", "location_id", id);
+    }
+
+    public List<Image> findPosterImages(Collection<Long> posterIds) {
+        return findByOwnerIds("poster_image", "poster_id", posterIds);
+    }
+
+    public List<Image> findLocationImages(Collection<Long> locationIds) {
+        return findByOwnerIds("location_image", "location_id", locationIds);
+    }
+
+    private Optional<Image> findById(String table, String ownerColumn, Long id) {
+        List<Image> images = jdbcTemplate.query(
+                "SELECT id, " + ownerColumn + " AS owner_id, store_file_name, thumbnail_status FROM " + table + " WHERE id = :id",
+                new MapSqlParameterSource("id", id), IMAGE_ROW_MAPPER);
+        return images.stream().findFirst();
+    }
+
+    // 올린 순서(id 순)로 돌려준다.
+    private List<Image> findByOwnerIds(String table, String ownerColumn, Collection<Long> ownerIds) {
+
+        List<Long> ids = ownerIds.stream().distinct().toList();
+        List<Image> images = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            images.addAll(jdbcTemplate.query(
+                    "SELECT id, " + ownerColumn + " AS owner_id, store_file_name, thumbnail_status FROM " + table +
+                            " WHERE " + ownerColumn + " IN (:ids) ORDER BY id",
+                    new MapSqlParameterSource("ids", ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()))),
+                    IMAGE_ROW_MAPPER));
+        }
+        return images;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Image {
+        private Long id;
+        private Long ownerId;
+        private String storeFileName;
+        private ThumbnailStatus thumbnailStatus;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.spotserver.repository.jdbc;
+
+import com.example.spotserver.domain.LikeTarget;
+import com.example.spotserver.repository.redis.LikeBuffer;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Repository
+public class LikeJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public LikeJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean existsTarget(LikeTarget target, Long targetId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + target.getTable() + " WHERE id = ?", Integer.class, targetId);
+        return count != null && count > 0;
+    }
+
+    public List<Long> findMemberIds(LikeTarget target, Long targetId) {
+        return jdbcTemplate.queryForList(
+                "SELECT member_id FROM " + target.getLikeTable() + " WHERE " + target.getTargetColumn() + " = ?",
+                Long.class, targetId);
+    }
+
+    public List<Long> findTargetIds(LikeTarget target, Long memberId) {
+        return jdbcTemplate.queryForList(
+                "SELECT " + target.getTargetColumn() + " FROM " + target.getLikeTable() + " WHERE member_id = ?",
+                Long.class, memberId);
+    }
+
+    // 추가되었으면 1, 이미 좋아요를 눌렀거나 대상이 없으면 0
+    @Transactional
+    public int insertLike(LikeTarget target, Long targetId, Long memberId) {
+        int inserted = jdbcTemplate.update(insertLikeSql(target), memberId, targetId, Timestamp.valueOf(LocalDateTime.now()));
+        if (inserted > 0)
+            addLikeCount(target, targetId, inserted);
+        return inserted;
+    }
+
+    // 삭제되었으면 1, 좋아요를 누르지 않았으면 0
+    @Transactional
+    public int deleteLike(LikeTarget target, Long targetId, Long memberId) {
+        int deleted = jdbcTemplate.update(deleteLikeSql(target), memberId, targetId);
+        if (deleted > 0)
+            addLikeCount(target, targetId, -deleted);
+        return deleted;
+    }
+
+    public Optional<Long> findLikeCount(LikeTarget target, Long targetId) {
+        return jdbcTemplate.queryForList("SELECT like_count FROM " + target.getTable() + " WHERE id = ?", Long.class, targetId)
+                .stream()
+                .findFirst();
+    }
+
+    private void addLikeCount(LikeTarget target, Long targetId, long delta) {
+        jdbcTemplate.update("UPDATE " + target.getTable() + " SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?",
+                delta, targetId);
+    }
+
+    /**
+     * 버퍼에 쌓인 좋아요, 좋아요 취소를 배치로 반영하고 실제로 바뀐 행 수만큼 like_count를 갱신한다.
+     * 이미 반영된 변경을 다시 반영해도 결과가 같으므로, 반영 후 버퍼를 지우기 전에 종료되어도 다시 실행하면 된다.
+     * 대상이나 회원이 그 사이 삭제되었으면 외래 키 때문에 아무것도 추가되지 않는다.
+     */
+    @Transactional
+    public void apply(List<LikeBuffer.Operation> operations) {
+
+        Map<LikeTarget, List<LikeBuffer.Operation>> byTarget = operations.stream()
+                .collect(Collectors.groupingBy(LikeBuffer.Operation::getTarget));
+
+        for (Map.Entry<LikeTarget, List<LikeBuffer.Operation>> entry : byTarget.entrySet()) {
+
+            LikeTarget target = entry.getKey();
+            List<LikeBuffer.Operation> likes = new ArrayList<>();
+            List<LikeBuffer.Operation> unlikes = new ArrayList<>();
+            for (LikeBuffer.Operation operation : entry.getValue()) {
+                if (operation.isLiked())
+                    likes.add(operation);
+                else
+                    unlikes.add(operation);
+            }
+
+            Map<Long, Long> deltas = new HashMap<>();
+            Set<Long> unknown = new HashSet<>();
+            collect(likes, insertLikes(target, likes), 1, deltas, unknown);
+            collect(unlikes, deleteLikes(target, unlikes), -1, deltas, unknown);
+
+            updateLikeCounts(target, deltas, unknown);
+        }
+    }
+
+    private int[] insertLikes(LikeTarget target, List<LikeBuffer.Operation> likes) {
+        return batchUpdate(insertLikeSql(target), likes, (ps, like) -> {
+            ps.setLong(1, like.getMemberId());
+            ps.setLong(2, like.getTargetId());
+            ps.setTimestamp(3, Timestamp.valueOf(like.getRegDate()));
+        });
+    }
+
+    private int[] deleteLikes(LikeTarget target, List<LikeBuffer.Operation> unlikes) {
+        return batchUpdate(deleteLikeSql(target), unlikes, (ps, unlike) -> {
+            ps.setLong(1, unlike.getMemberId());
+            ps.setLong(2, unlike.getTargetId());
+        });
+    }
+
+    /**
+     * (대상, 회원) 유니크 키에 걸리거나 대상, 회원이 없어 외래 키에 걸리면 무시되고 0 행이 추가된다.
+     * ON DUPLICATE KEY UPDATE 는 드라이버 기본 설정(useAffectedRows=false)에서 중복이어도 1을 돌려주므로 INSERT IGNORE 를 쓴다.
+     */
+    private String insertLikeSql(LikeTarget target) {
+        return "INSERT IGNORE INTO " + target.getLikeTable() + " (member_id, " + target.getTargetColumn() + ", reg_date) " +
+                "VALUES (?, ?, ?)";
+    }
+
+    private String deleteLikeSql(LikeTarget target) {
+        return "DELETE FROM " + target.getLikeTable() +
+                " WHERE member_id = ? AND " + target.getTargetColumn() + " = ?";
+    }
+
+    // 드라이버가 배치 결과 행 수를 알려주지 않으면(SUCCESS_NO_INFO) 해당 대상은 다시 센다.
+    private void collect(List<LikeBuffer.Operation> operations, int[] results, long sign,
+                         Map<Long, Long> deltas, Set<Long> unknown) {
+        for (int i = 0; i < operations.size(); i++) {
+            Long targetId = operations.get(i).getTargetId();
+            if (results[i] == Statement.SUCCESS_NO_INFO)
+                unknown.add(targetId);
+            else if (results[i] > 0)
+                deltas.merge(targetId, sign * results[i], Long::sum);
+        }
+    }
+
+    private void updateLikeCounts(LikeTarget target, Map<Long, Long> deltas, Set<Long> unknown) {
+
+        String table = target.getTable();
+
+        List<Map.Entry<Long, Long>> changed = deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0 && !unknown.contains(delta.getKey()))
+                .toList();
+        batchUpdate("UPDATE " + table + " SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?",
+                changed, (ps, delta) -> {
+                    ps.setLong(1, delta.getValue());
+                    ps.setLong(2, delta.getKey());
+                });
+
+        List<Long> recount = new ArrayList<>(unknown);
+        batchUpdate("UPDATE " + table + " t SET t.like_count = " +
+                        "(SELECT COUNT(*) FROM " + target.getLikeTable() + " l WHERE l." + target.getTargetColumn() + " = t.id) " +
+                        "WHERE t.id = ?",
+                recount, (ps, targetId) -> ps.setLong(1, targetId));
+    }
+
+    private <T> int[] batchUpdate(String sql, List<T> items, ParameterizedPreparedStatementSetter<T> setter) {
+
+        if (items.isEmpty())
+            return new int[0];
+
+        int[][] results = jdbcTemplate.batchUpdate(sql, items, BATCH_SIZE, setter);
+        return Arrays.stream(results)
+                .flatMapToInt(Arrays::stream)
+                .toArray();
+    }
+}
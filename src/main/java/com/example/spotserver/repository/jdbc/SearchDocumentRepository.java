@@ -0,0 +1,96 @@
+package com.example.spotserver.repository.jdbc;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+// 검색 인덱스(SearchIndex)에 넣을 장소, 게시글을 읽는다. 게시글에는 위치 검색을 위해 장소의 좌표를 함께 읽는다.
+@Repository
+public class SearchDocumentRepository {
+
+    private static final String LOCATION_SELECT =
+            "SELECT id, title, description, address, latitude, longitude, like_count FROM location WHERE approve = true";
+
+    private static final String POSTER_SELECT =
+            "SELECT p.id, p.title, p.content, p.location_id, p.member_id, p.like_count, l.latitude, l.longitude " +
+                    "FROM poster p LEFT JOIN location l ON l.id = p.location_id";
+
+    private static final RowMapper<LocationDocument> LOCATION_MAPPER = (rs, rowNum) -> new LocationDocument(
+            rs.getLong("id"),
+            rs.getString("title"),
+            rs.getString("description"),
+            rs.getString("address"),
+            rs.getObject("latitude", Double.class),
+            rs.getObject("longitude", Double.class),
+            rs.getLong("like_count"));
+
+    private static final RowMapper<PosterDocument> POSTER_MAPPER = (rs, rowNum) -> new PosterDocument(
+            rs.getLong("id"),
+            rs.getString("title"),
+            rs.getString("content"),
+            rs.getObject("location_id", Long.class),
+            rs.getObject("member_id", Long.class),
+            rs.getLong("like_count"),
+            rs.getObject("latitude", Double.class),
+            rs.getObject("longitude", Double.class));
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SearchDocumentRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 승인되지 않았거나 없는 장소면 empty
+    public Optional<LocationDocument> findLocation(Long locationId) {
+        return jdbcTemplate.query(LOCATION_SELECT + " AND id = ?", LOCATION_MAPPER, locationId)
+                .stream()
+                .findFirst();
+    }
+
+    // 승인된 장소를 afterId 다음부터 id 순으로
+    public List<LocationDocument> findLocations(long afterId, int limit) {
+        return jdbcTemplate.query(LOCATION_SELECT + " AND id > ? ORDER BY id LIMIT ?", LOCATION_MAPPER, afterId, limit);
+    }
+
+    public Optional<PosterDocument> findPoster(Long posterId) {
+        return jdbcTemplate.query(POSTER_SELECT + " WHERE p.id = ?", POSTER_MAPPER, posterId)
+                .stream()
+                .findFirst();
+    }
+
+    public List<PosterDocument> findPosters(long afterId, int limit) {
+        return jdbcTemplate.query(POSTER_SELECT + " WHERE p.id > ? ORDER BY p.id LIMIT ?", POSTER_MAPPER, afterId, limit);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class LocationDocument {
+        private Long id;
+        private String title;
+        private String description;
+        private String address;
+        private Double latitude;
+        private Double longitude;
+        private long likeCount;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class PosterDocument {
+        private Long id;
+        private String title;
+        private String content;
+        private Long locationId;
+        private Long memberId;
+        private long likeCount;
+        private Double latitude;
+        private Double longitude;
+    }
+}
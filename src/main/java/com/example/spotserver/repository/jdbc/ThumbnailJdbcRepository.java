@@ -0,0 +1,47 @@
+package com.example.spotserver.repository.jdbc;
+
+import com.example.spotserver.domain.ThumbnailStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// 이미지 테이블(poster_image, location_image, member_image)의 축소본 생성 상태를 조회, 변경한다.
+@Repository
+public class ThumbnailJdbcRepository {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ThumbnailJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 상태가 PENDING 인 이미지를 afterId 다음부터 id 순으로
+    public List<Image> findPending(String table, long afterId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, store_file_name, thumbnail_attempts FROM " + table + " WHERE thumbnail_status = ? AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new Image(rs.getLong("id"), rs.getString("store_file_name"), rs.getInt("thumbnail_attempts")),
+                ThumbnailStatus.PENDING.name(), afterId, limit);
+    }
+
+    public void updateStatus(String table, Long id, ThumbnailStatus status) {
+        jdbcTemplate.update("UPDATE " + table + " SET thumbnail_status = ? WHERE id = ?", status.name(), id);
+    }
+
+    public void updateAttempts(String table, Long id, int attempts, ThumbnailStatus status) {
+        jdbcTemplate.update("UPDATE " + table + " SET thumbnail_attempts = ?, thumbnail_status = ? WHERE id = ?",
+                attempts, status.name(), id);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Image {
+        private Long id;
+        private String storeFileName;
+        private int attempts;
+    }
+}
@@ -1,27 +1,31 @@
 package com.example.spotserver.repository.jpa;
 
+import com.example.spotserver.domain.CountMode;
+import com.example.spotserver.domain.Cursor;
 import com.example.spotserver.domain.QComment;
-import com.example.spotserver.domain.QCommentLike;
 import com.example.spotserver.domain.QMember;
 import com.example.spotserver.domain.QMemberImage;
+import com.example.spotserver.domain.QPoster;
 import com.example.spotserver.dto.request.CommentConditionRequest;
 import com.example.spotserver.dto.response.CommentResponse;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.QCommentResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.repository.CommentRepositoryCustom;
-import com.querydsl.core.types.dsl.Expressions;
-import com.querydsl.core.types.dsl.StringPath;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 
 @Repository
@@ -30,23 +34,22 @@ public class CommentRepositoryImpl implements CommentRepositoryCustom {
 
     private EntityManager entityManager;
     private JPAQueryFactory jpaQueryFactory;
+    private PageCounter pageCounter;
 
     @Autowired
-    public CommentRepositoryImpl(EntityManager entityManager) {
+    public CommentRepositoryImpl(EntityManager entityManager, PageCounter pageCounter) {
         this.entityManager = entityManager;
         this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+        this.pageCounter = pageCounter;
     }
 
     @Override
-    public Page<CommentResponse> getComments(Long posterId, CommentConditionRequest commentConditionRequest) {
+    public Slice<CommentResponse> getComments(Long posterId, CommentConditionRequest commentConditionRequest) {
 
-        QCommentLike commentLike = QCommentLike.commentLike;
         QComment comment = QComment.comment;
         QMember member = QMember.member;
         QMemberImage memberImage = QMemberImage.memberImage;
 
-        StringPath likeCount = Expressions.stringPath("like_count");
-
         JPAQuery<CommentResponse> commentQuery = jpaQueryFactory
                 .select(new QCommentResponse(
                         comment.id,
@@ -55,13 +58,11 @@ public class CommentRepositoryImpl implements CommentRepositoryCustom {
                         memberImage.storeFileName,
                         comment.content,
                         comment.regDate,
-                        commentLike.count().as("like_count")))
+                        comment.likeCount))
                 .from(comment)
                 .join(member).on(member.id.eq(comment.writer.id))
                 .leftJoin(memberImage).on(memberImage.member.id.eq(member.id))
-                .leftJoin(commentLike).on(commentLike.comment.id.eq(comment.id))
-                .where(comment.poster.id.eq(posterId))
-                .groupBy(comment.id, memberImage.storeFileName);
+                .where(comment.poster.id.eq(posterId));
 
         JPAQuery<Long> countQuery = jpaQueryFactory
                 .select(comment.count())
@@ -83,26 +84,84 @@ public class CommentRepositoryImpl implements CommentRepositoryCustom {
 
         commentQuery
                 .offset(pageable.getOffset())
-                .limit(pageable.getPageSize());
+                .limit(pageable.getPageSize() + 1);
 
         if (sort == null || sort.equals("recent"))
             commentQuery.orderBy(comment.regDate.desc());
         else if (sort.equals("like"))
-            commentQuery.orderBy(likeCount.desc());
+            commentQuery.orderBy(comment.likeCount.desc());
         else
             commentQuery.orderBy(comment.regDate.desc());
 
         List<CommentResponse> comments = commentQuery.fetch();
 
-        return PageableExecutionUtils.getPage(comments, pageable, countQuery::fetchOne);
+        // 대략적인 개수는 게시글에 세어둔 댓글 수를 읽는다.
+        QPoster poster = QPoster.poster;
+        JPAQuery<Long> commentCountQuery = jpaQueryFactory
+                .select(poster.commentCount)
+                .from(poster)
+                .where(poster.id.eq(posterId));
+
+        return pageCounter.getPage(comments, pageable, CountMode.from(commentConditionRequest.getCount()),
+                countQuery::fetchOne, () -> Optional.ofNullable(commentCountQuery.fetchOne()).orElse(0L));
+
+    }
+
+    @Override
+    public CursorResponse<CommentResponse> getCommentsByCursor(Long posterId, CommentConditionRequest commentConditionRequest, Cursor cursor) throws CursorException {
+
+        QComment comment = QComment.comment;
+        QMember member = QMember.member;
+        QMemberImage memberImage = QMemberImage.memberImage;
+
+        Integer size = commentConditionRequest.getSize();
+        if (size == null)
+            size = 5;
+
+        JPAQuery<CommentResponse> commentQuery = jpaQueryFactory
+                .select(new QCommentResponse(
+                        comment.id,
+                        member.id,
+                        member.name,
+                        memberImage.storeFileName,
+                        comment.content,
+                        comment.regDate,
+                        comment.likeCount))
+                .from(comment)
+                .join(member).on(member.id.eq(comment.writer.id))
+                .leftJoin(memberImage).on(memberImage.member.id.eq(member.id))
+                .where(comment.poster.id.eq(posterId))
+                .limit(size + 1);
+
+        boolean likeSort = "like".equals(commentConditionRequest.getSort());
+        if (likeSort) {
+            commentQuery.orderBy(comment.likeCount.desc(), comment.id.desc());
+            if (cursor != null) {
+                Long lastLikeCnt = cursor.getLongKey();
+                commentQuery.where(comment.likeCount.lt(lastLikeCnt)
+                        .or(comment.likeCount.eq(lastLikeCnt).and(comment.id.lt(cursor.getId()))));
+            }
+        } else {
+            commentQuery.orderBy(comment.regDate.desc(), comment.id.desc());
+            if (cursor != null) {
+                LocalDateTime lastRegDate = cursor.getDateKey();
+                commentQuery.where(comment.regDate.lt(lastRegDate)
+                        .or(comment.regDate.eq(lastRegDate).and(comment.id.lt(cursor.getId()))));
+            }
+        }
+
+        Function<CommentResponse, Cursor> cursorOf = likeSort ?
+                commentResponse -> Cursor.of(commentResponse.getLikeCnt(), commentResponse.getCommentId()) :
+                commentResponse -> Cursor.of(commentResponse.getRegDate(), commentResponse.getCommentId());
 
+        List<CommentResponse> comments = commentQuery.fetch();
+        return CursorResponse.of(comments, size, cursorOf);
     }
 
     @Override
     public CommentResponse getCommentById(Long commentId) {
 
         QComment comment = QComment.comment;
-        QCommentLike commentLike = QCommentLike.commentLike;
 
         CommentResponse commentResponse = jpaQueryFactory
                 .select(new QCommentResponse(
@@ -112,10 +171,8 @@ public class CommentRepositoryImpl implements CommentRepositoryCustom {
                         comment.writer.memberImg.storeFileName,
                         comment.content,
                         comment.regDate,
-                        commentLike.count()))
+                        comment.likeCount))
                 .from(comment)
-                .leftJoin(commentLike).on(commentLike.comment.id.eq(comment.id))
-                .groupBy(comment.id, comment.writer.memberImg.storeFileName)
                 .where(comment.id.eq(commentId))
                 .fetchOne();
         return commentResponse;
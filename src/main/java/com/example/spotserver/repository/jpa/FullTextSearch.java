@@ -0,0 +1,78 @@
+package com.example.spotserver.repository.jpa;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberTemplate;
+import com.querydsl.core.types.dsl.StringPath;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * 두 컬럼(제목, 본문)에 대한 검색 조건.
+ * 검색어를 공백으로 나눠 모든 단어를 포함하는 행을 MySQL FULLTEXT(ngram) 인덱스로 찾는다. (MATCH ... AGAINST, BOOLEAN MODE)
+ * ngram 토큰보다 짧은 단어가 있으면 인덱스로 찾을 수 없으므로 기존처럼 LIKE 로 찾는다.
+ * FULLTEXT 인덱스는 커밋된 행만 반영하므로, 같은 트랜잭션에서 저장한 행은 LIKE 로만 찾을 수 있다.
+ */
+class FullTextSearch {
+
+    // MySQL ngram_token_size 기본값
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
+    // BOOLEAN MODE 연산자는 검색어에서 지운다.
+    private static final String OPERATORS = "[+\\-<>()~*\"@]";
+
+    private final StringPath first;
+    private final StringPath second;
+    private final String search;
+
+    // LIKE 로 찾아야 하면 null
+    private final String booleanQuery;
+
+    private FullTextSearch(StringPath first, StringPath second, String search, String booleanQuery) {
+        this.first = first;
+        this.second = second;
+        this.search = search;
+        this.booleanQuery = booleanQuery;
+    }
+
+    static FullTextSearch of(StringPath first, StringPath second, String search) {
+
+        String[] words = Arrays.stream(search.trim().split("\\s+"))
+                .map(word -> word.replaceAll(OPERATORS, ""))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+
+        boolean indexable = words.length > 0 &&
+                Arrays.stream(words).allMatch(word -> word.codePointCount(0, word.length()) >= NGRAM_TOKEN_SIZE);
+        if (!indexable)
+            return new FullTextSearch(first, second, search, null);
+
+        // ngram 파서는 단어를 연속된 토큰의 구문 검색으로 바꾸므로 LIKE '%단어%' 와 거의 같은 결과를 찾는다.
+        String booleanQuery = Arrays.stream(words)
+                .map(word -> "+\"" + word + "\"")
+                .collect(Collectors.joining(" "));
+        return new FullTextSearch(first, second, search, booleanQuery);
+    }
+
+    boolean isFullText() {
+        return booleanQuery != null;
+    }
+
+    BooleanExpression condition() {
+        if (!isFullText())
+            return first.contains(search).or(second.contains(search));
+        return score().gt(0.0);
+    }
+
+    // 관련도가 높은 순. LIKE 검색이면 null
+    OrderSpecifier<Double> relevance() {
+        return isFullText() ? score().desc() : null;
+    }
+
+    private NumberTemplate<Double> score() {
+        return Expressions.numberTemplate(Double.class, "function('match_against', {0}, {1}, {2})",
+                first, second, Expressions.constant(booleanQuery));
+    }
+}
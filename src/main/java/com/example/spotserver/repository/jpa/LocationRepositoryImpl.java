@@ -1,32 +1,38 @@
 package com.example.spotserver.repository.jpa;
 
+import com.example.spotserver.domain.CountMode;
+import com.example.spotserver.domain.Cursor;
+import com.example.spotserver.domain.GeoHash;
 import com.example.spotserver.domain.QLocation;
 import com.example.spotserver.domain.QLocationLike;
-import com.example.spotserver.domain.QMember;
 import com.example.spotserver.dto.request.LocationConditionRequest;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.LocationResponse;
-import com.example.spotserver.dto.response.PosterResponse;
 import com.example.spotserver.dto.response.QLocationResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.repository.LocationRepositoryCustom;
-import com.querydsl.core.types.ExpressionUtils;
-import com.querydsl.core.types.Projections;
-import com.querydsl.core.types.dsl.Expressions;
-import com.querydsl.core.types.dsl.StringPath;
-import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.DateTimePath;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 
 @Repository
@@ -35,20 +41,19 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
 
     private EntityManager entityManager;
     private JPAQueryFactory jpaQueryFactory;
+    private PageCounter pageCounter;
 
     @Autowired
-    public LocationRepositoryImpl(EntityManager entityManager) {
+    public LocationRepositoryImpl(EntityManager entityManager, PageCounter pageCounter) {
         this.entityManager = entityManager;
         this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+        this.pageCounter = pageCounter;
     }
 
     @Override
-    public List<LocationResponse> getBestLocations() {
-
-        StringPath likeCount = Expressions.stringPath("like_count");
+    public List<LocationResponse> getBestLocations(int size) {
 
         QLocation location = QLocation.location;
-        QLocationLike locationLike = QLocationLike.locationLike;
 
         List<LocationResponse> bestLocations = jpaQueryFactory
                 .select(new QLocationResponse(
@@ -59,21 +64,44 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
                         location.address,
                         location.description,
                         location.regDate,
-                        locationLike.count().as("like_count")
+                        location.likeCount
                 ))
                 .from(location)
-                .leftJoin(locationLike).on(locationLike.location.id.eq(location.id))
                 .where(location.approve.isTrue())
-                .groupBy(location.id)
-                .orderBy(likeCount.desc())
-                .limit(5)
+                .orderBy(location.likeCount.desc())
+                .limit(size)
                 .fetch();
 
         return bestLocations;
     }
 
     @Override
-    public Page<LocationResponse> searchLocations(Double latitude,
+    public List<LocationResponse> getApprovedLocationsByIds(Collection<Long> locationIds) {
+
+        if (locationIds.isEmpty())
+            return new ArrayList<>();
+
+        QLocation location = QLocation.location;
+
+        return jpaQueryFactory
+                .select(new QLocationResponse(
+                        location.id,
+                        location.latitude,
+                        location.longitude,
+                        location.title,
+                        location.address,
+                        location.description,
+                        location.regDate,
+                        location.likeCount
+                ))
+                .from(location)
+                .where(location.id.in(locationIds),
+                        location.approve.isTrue())
+                .fetch();
+    }
+
+    @Override
+    public Slice<LocationResponse> searchLocations(Double latitude,
                                                   Double longitude,
                                                   LocationConditionRequest conditionRequest) {
 
@@ -82,9 +110,6 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
         Double scale = conditionRequest.getScale() == null ? 0.01 : conditionRequest.getScale();
 
         QLocation location = QLocation.location;
-        QLocationLike locationLike = QLocationLike.locationLike;
-
-        StringPath likeCount = Expressions.stringPath("like_count");
 
         Pageable pageable = null;
 
@@ -94,6 +119,8 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
         String search = conditionRequest.getSearch();
         Boolean approve = conditionRequest.getApprove();
 
+        BooleanBuilder areaCondition = areaCondition(latitude, longitude, scale);
+
         JPAQuery<LocationResponse> searchQuery = jpaQueryFactory
                 .select(new QLocationResponse(
                         location.id,
@@ -103,20 +130,16 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
                         location.address,
                         location.description,
                         location.regDate,
-                        locationLike.count().as("like_count")))
+                        location.likeCount))
                 .from(location)
-                .leftJoin(locationLike).on(locationLike.location.id.eq(location.id))
-                .where(location.latitude.between(latitude - scale, latitude + scale)
-                        .and(location.longitude.between(longitude - scale, longitude + scale))
-                        .and(location.approve.eq(approve)))
-                .groupBy(location.id);
+                .where(areaCondition,
+                        location.approve.eq(approve));
 
         JPAQuery<Long> countQuery = jpaQueryFactory
                 .select(location.count())
                 .from(location)
-                .where(location.latitude.between(latitude - scale, latitude + scale)
-                        .and(location.longitude.between(longitude - scale, longitude + scale))
-                        .and(location.approve.eq(approve)));
+                .where(areaCondition,
+                        location.approve.eq(approve));
 
         if (page != null || size != null || sort != null || search != null) {
 
@@ -127,39 +150,162 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
 
             pageable = PageRequest.of(page - 1, size);
             searchQuery
-                    .limit(pageable.getPageSize())
+                    .limit(pageable.getPageSize() + 1)
                     .offset(pageable.getOffset());
 
         }
 
+        FullTextSearch fullTextSearch = search == null ? null : FullTextSearch.of(location.title, location.description, search);
+        if (fullTextSearch != null) {
+            searchQuery.where(fullTextSearch.condition());
+            countQuery.where(fullTextSearch.condition());
+        }
+
         if (sort == null || sort.equals("recent"))
             searchQuery.orderBy(location.regDate.desc());
         else if (sort.equals("like"))
-            searchQuery.orderBy(likeCount.desc());
+            searchQuery.orderBy(location.likeCount.desc());
+        else if (sort.equals("relevance") && fullTextSearch != null && fullTextSearch.isFullText())
+            searchQuery.orderBy(fullTextSearch.relevance(), location.id.desc());
         else
             searchQuery.orderBy(location.regDate.desc());
 
-        if (search != null) {
-            searchQuery
-                    .where(location.title.contains(search)
-                            .or(location.description.contains(search)));
-            countQuery
-                    .where(location.title.contains(search)
-                            .or(location.description.contains(search)));
+        List<LocationResponse> locations = searchQuery.fetch();
+
+        if (pageable == null)
+            return new PageImpl<>(locations);
+
+        return pageCounter.getPage(locations, pageable, CountMode.from(conditionRequest.getCount()),
+                countQuery::fetchOne,
+                pageCounter.cached(countQuery::fetchOne, "location:area", areaCell(latitude, longitude, scale),
+                        scaleBucket(scale), approve, search));
+    }
+
+    // 지도를 조금 움직이거나 확대할 때마다 개수 캐시 키가 달라지지 않도록 중심은 반경의 1/4 이하인 geohash 셀로,
+    // 반경은 2^(1/8)(약 9%) 단위로 묶는다. 같은 키의 개수는 처음 조회한 영역의 개수로 근사한다. (CountMode.APPROX)
+    private String areaCell(Double latitude, Double longitude, Double scale) {
+        return GeoHash.encode(latitude, longitude, GeoHash.precisionOf(scale / 4));
+    }
+
+    private long scaleBucket(Double scale) {
+        return Math.round(Math.log(scale) / Math.log(2) * 8);
+    }
+
+    @Override
+    public CursorResponse<LocationResponse> searchLocationsByCursor(Double latitude,
+                                                                    Double longitude,
+                                                                    LocationConditionRequest conditionRequest,
+                                                                    Cursor cursor) throws CursorException {
+
+        int defaultSize = 10;
+        Double scale = conditionRequest.getScale() == null ? 0.01 : conditionRequest.getScale();
+        int size = conditionRequest.getSize() == null ? defaultSize : conditionRequest.getSize();
+
+        QLocation location = QLocation.location;
+
+        String search = conditionRequest.getSearch();
+        Boolean approve = conditionRequest.getApprove();
+
+        JPAQuery<LocationResponse> searchQuery = jpaQueryFactory
+                .select(new QLocationResponse(
+                        location.id,
+                        location.latitude,
+                        location.longitude,
+                        location.title,
+                        location.address,
+                        location.description,
+                        location.regDate,
+                        location.likeCount))
+                .from(location)
+                .where(areaCondition(latitude, longitude, scale),
+                        location.approve.eq(approve))
+                .limit(size + 1);
+
+        boolean likeSort = "like".equals(conditionRequest.getSort());
+        if (likeSort) {
+            searchQuery.orderBy(location.likeCount.desc(), location.id.desc());
+            if (cursor != null) {
+                Long lastLikeCnt = cursor.getLongKey();
+                searchQuery.where(location.likeCount.lt(lastLikeCnt)
+                        .or(location.likeCount.eq(lastLikeCnt).and(location.id.lt(cursor.getId()))));
+            }
+        } else {
+            searchQuery.orderBy(location.regDate.desc(), location.id.desc());
+            if (cursor != null)
+                searchQuery.where(afterRecent(location.regDate, location.id, cursor));
         }
 
+        // 관련도 순은 커서로 이어서 조회할 수 없으므로 최신순으로 조회한다.
+        if (search != null)
+            searchQuery.where(FullTextSearch.of(location.title, location.description, search).condition());
+
+        Function<LocationResponse, Cursor> cursorOf = likeSort ?
+                locationResponse -> Cursor.of(locationResponse.getLikeCnt(), locationResponse.getLocationId()) :
+                locationResponse -> Cursor.of(locationResponse.getRegDate(), locationResponse.getLocationId());
+
         List<LocationResponse> locations = searchQuery.fetch();
+        return CursorResponse.of(locations, size, cursorOf);
+    }
+
+    @Override
+    public List<LocationResponse> searchLocationsInArea(Double latitude,
+                                                        Double longitude,
+                                                        Double scale,
+                                                        Boolean approve,
+                                                        String search) {
+
+        QLocation location = QLocation.location;
+
+        JPAQuery<LocationResponse> searchQuery = jpaQueryFactory
+                .select(new QLocationResponse(
+                        location.id,
+                        location.latitude,
+                        location.longitude,
+                        location.title,
+                        location.address,
+                        location.description,
+                        location.regDate,
+                        location.likeCount))
+                .from(location)
+                .where(areaCondition(latitude, longitude, scale),
+                        location.approve.eq(approve));
 
-        return pageable != null ?
-                PageableExecutionUtils.getPage(locations, pageable, countQuery::fetchOne) :
-                new PageImpl<>(locations);
+        if (search != null)
+            searchQuery.where(FullTextSearch.of(location.title, location.description, search).condition());
+
+        return searchQuery.fetch();
+    }
+
+    // geohash 접두사로 인덱스 범위 검색 후 위도, 경도 범위로 정확히 거른다.
+    private BooleanBuilder areaCondition(Double latitude, Double longitude, Double scale) {
+
+        QLocation location = QLocation.location;
+
+        double minLatitude = latitude - scale;
+        double maxLatitude = latitude + scale;
+        double minLongitude = longitude - scale;
+        double maxLongitude = longitude + scale;
+
+        BooleanBuilder areaCondition = new BooleanBuilder();
+
+        List<String> prefixes = GeoHash.coverBoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        if (!prefixes.isEmpty()) {
+            BooleanBuilder geohashCondition = new BooleanBuilder();
+            for (String prefix : prefixes) {
+                geohashCondition.or(location.geohash.startsWith(prefix));
+            }
+            areaCondition.and(geohashCondition.getValue());
+        }
+
+        return areaCondition
+                .and(location.latitude.between(minLatitude, maxLatitude))
+                .and(location.longitude.between(minLongitude, maxLongitude));
     }
 
     @Override
     public Optional<LocationResponse> getLocationById(Long locationId) {
 
         QLocation location = QLocation.location;
-        QLocationLike locationLike = QLocationLike.locationLike;
 
         LocationResponse locationResponse = jpaQueryFactory
                 .select(new QLocationResponse(
@@ -170,11 +316,9 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
                         location.address,
                         location.description,
                         location.regDate,
-                        locationLike.count().as("like_count")
+                        location.likeCount
                 ))
                 .from(location)
-                .leftJoin(locationLike).on(locationLike.location.id.eq(location.id))
-                .groupBy(location.id)
                 .where(location.id.eq(locationId))
                 .fetchOne();
 
@@ -184,7 +328,7 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
 
 
     @Override
-    public Page<LocationResponse> getLikeLocations(Long memberId, Pageable pageable) {
+    public Slice<LocationResponse> getLikeLocations(Long memberId, Pageable pageable, CountMode countMode) {
 
         QLocation location = QLocation.location;
         QLocationLike locationLike = QLocationLike.locationLike;
@@ -198,17 +342,13 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
                         location.address,
                         location.description,
                         location.regDate,
-                        ExpressionUtils.as(
-                                JPAExpressions
-                                        .select(locationLike.count())
-                                        .from(locationLike)
-                                        .where(locationLike.location.id.eq(location.id)), "like_count")
+                        location.likeCount
                 ))
                 .from(locationLike)
                 .leftJoin(location).on(location.id.eq(locationLike.location.id))
                 .where(locationLike.member.id.eq(memberId))
                 .orderBy(locationLike.regDate.desc())
-                .limit(pageable.getPageSize())
+                .limit(pageable.getPageSize() + 1)
                 .offset(pageable.getOffset())
                 .fetch();
 
@@ -218,6 +358,91 @@ public class LocationRepositoryImpl implements LocationRepositoryCustom {
                 .leftJoin(location).on(location.id.eq(locationLike.location.id))
                 .where(locationLike.member.id.eq(memberId));
 
-        return PageableExecutionUtils.getPage(locations, pageable, countQuery::fetchOne);
+        return pageCounter.getPage(locations, pageable, countMode,
+                countQuery::fetchOne, pageCounter.cached(countQuery::fetchOne, "location:like", memberId));
+    }
+
+    @Override
+    public CursorResponse<LocationResponse> getLikeLocationsByCursor(Long memberId, Cursor cursor, int size) throws CursorException {
+
+        QLocation location = QLocation.location;
+        QLocationLike locationLike = QLocationLike.locationLike;
+
+        JPAQuery<Tuple> searchQuery = jpaQueryFactory
+                .select(new QLocationResponse(
+                                location.id,
+                                location.latitude,
+                                location.longitude,
+                                location.title,
+                                location.address,
+                                location.description,
+                                location.regDate,
+                                location.likeCount),
+                        locationLike.regDate,
+                        locationLike.id)
+                .from(locationLike)
+                .leftJoin(location).on(location.id.eq(locationLike.location.id))
+                .where(locationLike.member.id.eq(memberId))
+                .orderBy(locationLike.regDate.desc(), locationLike.id.desc())
+                .limit(size + 1);
+
+        if (cursor != null)
+            searchQuery.where(afterRecent(locationLike.regDate, locationLike.id, cursor));
+
+        // 좋아요를 누른 시점 순서이므로 커서는 location_like의 (reg_date, id)로 만든다.
+        List<Tuple> tuples = searchQuery.fetch();
+        return CursorResponse.of(tuples, size, tuple -> Cursor.of(tuple.get(locationLike.regDate), tuple.get(locationLike.id)))
+                .map(tuple -> tuple.get(0, LocationResponse.class));
+    }
+
+    @Override
+    public List<LocationResponse> getApprovedLocations() {
+
+        QLocation location = QLocation.location;
+
+        return jpaQueryFactory
+                .select(new QLocationResponse(
+                        location.id,
+                        location.latitude,
+                        location.longitude,
+                        location.title,
+                        location.address,
+                        location.description,
+                        location.regDate,
+                        location.likeCount))
+                .from(location)
+                .where(location.approve.isTrue())
+                .fetch();
+    }
+
+    @Override
+    public Optional<LocationResponse> getApprovedLocationById(Long locationId) {
+
+        QLocation location = QLocation.location;
+
+        LocationResponse locationResponse = jpaQueryFactory
+                .select(new QLocationResponse(
+                        location.id,
+                        location.latitude,
+                        location.longitude,
+                        location.title,
+                        location.address,
+                        location.description,
+                        location.regDate,
+                        location.likeCount))
+                .from(location)
+                .where(location.id.eq(locationId),
+                        location.approve.isTrue())
+                .fetchOne();
+
+        return Optional
+                .ofNullable(locationResponse);
+    }
+
+    // (reg_date, id) 내림차순에서 커서 다음에 오는 데이터
+    private BooleanExpression afterRecent(DateTimePath<LocalDateTime> regDate, NumberPath<Long> id, Cursor cursor) throws CursorException {
+        LocalDateTime lastRegDate = cursor.getDateKey();
+        return regDate.lt(lastRegDate)
+                .or(regDate.eq(lastRegDate).and(id.lt(cursor.getId())));
     }
 }
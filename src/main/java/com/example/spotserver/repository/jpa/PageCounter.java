@@ -0,0 +1,68 @@
+package com.example.spotserver.repository.jpa;
+
+import com.example.spotserver.config.cache.CacheNames;
+import com.example.spotserver.domain.CountMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이지 크기보다 하나 더 조회한 결과로 다음 페이지 여부를 판단하고, CountMode 에 따라 전체 개수를 붙인다.
+ * 마지막 페이지는 전체 개수를 바로 알 수 있으므로 어떤 방식이든 count 쿼리를 실행하지 않는다.
+ */
+@Component
+public class PageCounter {
+
+    private Cache cache;
+
+    @Autowired
+    public PageCounter(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheNames.PAGE_COUNT);
+    }
+
+    /**
+     * content 는 pageable 의 크기보다 하나 더 조회한 결과이다.
+     * NONE 이면 전체 개수가 없는 Slice, 아니면 Page 를 돌려준다.
+     * APPROX 의 개수가 현재 페이지보다 작으면(캐싱된 뒤에 늘어난 경우) 현재 페이지까지의 개수로 보정한다.
+     */
+    public <T> Slice<T> getPage(List<T> content, Pageable pageable, CountMode countMode,
+                                LongSupplier exactCount, LongSupplier approxCount) {
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        List<T> pageContent = hasNext ? content.subList(0, pageable.getPageSize()) : content;
+
+        if (countMode == CountMode.NONE)
+            return new SliceImpl<>(pageContent, pageable, hasNext);
+
+        long minTotal = pageable.getOffset() + content.size();
+        if (!hasNext && (!content.isEmpty() || pageable.getOffset() == 0))
+            return new PageImpl<>(pageContent, pageable, minTotal);
+
+        long total = countMode == CountMode.EXACT ? exactCount.getAsLong() : approxCount.getAsLong();
+        return new PageImpl<>(pageContent, pageable, Math.max(total, minTotal));
+    }
+
+    // count 결과를 key 로 캐싱해 spot.cache.pageCount.ttl 동안 재사용한다.
+    public LongSupplier cached(LongSupplier count, Object... key) {
+        String cacheKey = key(key);
+        return () -> cache.get(cacheKey, count::getAsLong);
+    }
+
+    private String key(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            if (key.length() > 0)
+                key.append(':');
+            key.append(part);
+        }
+        return key.toString();
+    }
+}
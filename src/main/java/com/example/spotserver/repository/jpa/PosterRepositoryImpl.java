@@ -2,27 +2,32 @@ package com.example.spotserver.repository.jpa;
 
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.PosterConditionRequest;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.PosterResponse;
 import com.example.spotserver.dto.response.QPosterResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.repository.PosterRepositoryCustom;
-import com.querydsl.core.types.ExpressionUtils;
-import com.querydsl.core.types.dsl.Expressions;
-import com.querydsl.core.types.dsl.StringPath;
-import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.DateTimePath;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import static com.querydsl.jpa.JPAExpressions.select;
+import java.util.function.Function;
+
 
 
 @Repository
@@ -31,21 +36,19 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
 
     private final EntityManager entityManager;
     private final JPAQueryFactory jpaQueryFactory;
+    private final PageCounter pageCounter;
 
     @Autowired
-    public PosterRepositoryImpl(EntityManager entityManager) {
+    public PosterRepositoryImpl(EntityManager entityManager, PageCounter pageCounter) {
         this.entityManager = entityManager;
         this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+        this.pageCounter = pageCounter;
     }
 
     @Override
-    public Page<PosterResponse> searchPosters(Long locationId, PosterConditionRequest conditionRequest) {
+    public Slice<PosterResponse> searchPosters(Long locationId, PosterConditionRequest conditionRequest) {
 
         QPoster poster = QPoster.poster;
-        QComment comment = QComment.comment;
-        QPosterLike posterLike = QPosterLike.posterLike;
-
-        StringPath likeCount = Expressions.stringPath("like_count");
 
         Integer page = conditionRequest.getPage();
         if (page == null)
@@ -64,53 +67,94 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                         poster.title,
                         poster.content,
                         poster.regDate,
-                        ExpressionUtils.as(
-                                select(posterLike.count())
-                                        .from(posterLike)
-                                        .where(posterLike.poster.id.eq(poster.id)), "like_count"),
-                        ExpressionUtils.as(
-                                select(comment.count())
-                                        .from(comment)
-                                        .where(comment.poster.id.eq(poster.id)), "comment_count")
+                        poster.likeCount,
+                        poster.commentCount
                 ))
                 .from(poster)
                 .where(poster.location.id.eq(locationId))
                 .offset(pageable.getOffset())
-                .limit(pageable.getPageSize());
+                .limit(pageable.getPageSize() + 1);
 
         JPAQuery<Long> countQuery = jpaQueryFactory
                 .select(poster.count())
                 .from(poster)
                 .where(poster.location.id.eq(locationId));
 
+        String search = conditionRequest.getSearch();
+        FullTextSearch fullTextSearch = search == null ? null : FullTextSearch.of(poster.title, poster.content, search);
+        if (fullTextSearch != null) {
+            searchQuery.where(fullTextSearch.condition());
+            countQuery.where(fullTextSearch.condition());
+        }
+
         String sort = conditionRequest.getSort();
         if (sort.equals("recent"))
             searchQuery.orderBy(poster.regDate.desc());
         else if (sort.equals("like"))
-            searchQuery.orderBy(likeCount.desc());
+            searchQuery.orderBy(poster.likeCount.desc());
+        else if (sort.equals("relevance") && fullTextSearch != null && fullTextSearch.isFullText())
+            searchQuery.orderBy(fullTextSearch.relevance(), poster.id.desc());
         else
             searchQuery.orderBy(poster.regDate.desc());
 
-        String search = conditionRequest.getSearch();
-        if (search != null) {
-            searchQuery
-                    .where(poster.title.contains(search)
-                            .or(poster.content.contains(search)));
-            countQuery
-                    .where(poster.title.contains(search)
-                            .or(poster.content.contains(search)));
+        List<PosterResponse> posters = searchQuery.fetch();
+        return pageCounter.getPage(posters, pageable, CountMode.from(conditionRequest.getCount()),
+                countQuery::fetchOne, pageCounter.cached(countQuery::fetchOne, "poster:location", locationId, search));
+    }
+
+    @Override
+    public CursorResponse<PosterResponse> searchPostersByCursor(Long locationId, PosterConditionRequest conditionRequest, Cursor cursor) throws CursorException {
+
+        QPoster poster = QPoster.poster;
+
+        int size = conditionRequest.getSize();
+
+        JPAQuery<PosterResponse> searchQuery = jpaQueryFactory
+                .select(new QPosterResponse(
+                        poster.id,
+                        poster.writer.id,
+                        poster.writer.name,
+                        poster.title,
+                        poster.content,
+                        poster.regDate,
+                        poster.likeCount,
+                        poster.commentCount
+                ))
+                .from(poster)
+                .where(poster.location.id.eq(locationId))
+                .limit(size + 1);
+
+        boolean likeSort = "like".equals(conditionRequest.getSort());
+        if (likeSort) {
+            searchQuery.orderBy(poster.likeCount.desc(), poster.id.desc());
+            if (cursor != null) {
+                Long lastLikeCnt = cursor.getLongKey();
+                searchQuery.where(poster.likeCount.lt(lastLikeCnt)
+                        .or(poster.likeCount.eq(lastLikeCnt).and(poster.id.lt(cursor.getId()))));
+            }
+        } else {
+            searchQuery.orderBy(poster.regDate.desc(), poster.id.desc());
+            if (cursor != null)
+                searchQuery.where(afterRecent(poster.regDate, poster.id, cursor));
         }
 
+        // 관련도 순은 커서로 이어서 조회할 수 없으므로 최신순으로 조회한다.
+        String search = conditionRequest.getSearch();
+        if (search != null)
+            searchQuery.where(FullTextSearch.of(poster.title, poster.content, search).condition());
+
+        Function<PosterResponse, Cursor> cursorOf = likeSort ?
+                posterResponse -> Cursor.of(posterResponse.getLikeCnt(), posterResponse.getPosterId()) :
+                posterResponse -> Cursor.of(posterResponse.getRegDate(), posterResponse.getPosterId());
+
         List<PosterResponse> posters = searchQuery.fetch();
-        return PageableExecutionUtils.getPage(posters, pageable, countQuery::fetchOne);
+        return CursorResponse.of(posters, size, cursorOf);
     }
 
     @Override
     public Optional<PosterResponse> getPosterById(Long posterId) {
 
         QPoster poster = QPoster.poster;
-        QComment comment = QComment.comment;
-        QPosterLike posterLike = QPosterLike.posterLike;
 
         PosterResponse posterResponse = jpaQueryFactory
                 .select(new QPosterResponse(
@@ -120,12 +164,8 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                         poster.title,
                         poster.content,
                         poster.regDate,
-                        select(posterLike.count())
-                                .from(posterLike)
-                                .where(posterLike.poster.id.eq(posterId)),
-                        select(comment.count())
-                                .from(comment)
-                                .where(comment.poster.id.eq(posterId))
+                        poster.likeCount,
+                        poster.commentCount
                 ))
                 .from(poster)
                 .where(poster.id.eq(posterId))
@@ -136,12 +176,8 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
     }
 
     @Override
-    public List<PosterResponse> getBestPosters() {
+    public List<PosterResponse> getBestPosters(int size) {
         QPoster poster = QPoster.poster;
-        QComment comment = QComment.comment;
-        QPosterLike posterLike = QPosterLike.posterLike;
-
-        StringPath likeCount = Expressions.stringPath("like_count");
 
         List<PosterResponse> bestPosters = jpaQueryFactory
                 .select(new QPosterResponse(
@@ -151,28 +187,45 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                         poster.title,
                         poster.content,
                         poster.regDate,
-                        ExpressionUtils.as(
-                                select(posterLike.count())
-                                        .from(posterLike)
-                                        .where(posterLike.poster.id.eq(poster.id)), "like_count"),
-                        ExpressionUtils.as(
-                                select(comment.count())
-                                        .from(comment)
-                                        .where(comment.poster.id.eq(poster.id)), "comment_count")
+                        poster.likeCount,
+                        poster.commentCount
                 ))
                 .from(poster)
-                .orderBy(likeCount.desc())
-                .limit(5)
+                .orderBy(poster.likeCount.desc())
+                .limit(size)
                 .fetch();
 
         return bestPosters;
     }
 
     @Override
-    public Page<PosterResponse> getLikePosters(Long memberId, Pageable pageable) {
+    public List<PosterResponse> getPostersByIds(Collection<Long> posterIds) {
+
+        if (posterIds.isEmpty())
+            return new ArrayList<>();
+
+        QPoster poster = QPoster.poster;
+
+        return jpaQueryFactory
+                .select(new QPosterResponse(
+                        poster.id,
+                        poster.writer.id,
+                        poster.writer.name,
+                        poster.title,
+                        poster.content,
+                        poster.regDate,
+                        poster.likeCount,
+                        poster.commentCount
+                ))
+                .from(poster)
+                .where(poster.id.in(posterIds))
+                .fetch();
+    }
+
+    @Override
+    public Slice<PosterResponse> getLikePosters(Long memberId, Pageable pageable, CountMode countMode) {
 
         QPoster poster = QPoster.poster;
-        QComment comment = QComment.comment;
         QPosterLike posterLike = QPosterLike.posterLike;
 
         List<PosterResponse> posters = jpaQueryFactory
@@ -183,20 +236,14 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                         poster.title,
                         poster.content,
                         poster.regDate,
-                        ExpressionUtils.as(
-                                select(posterLike.count())
-                                        .from(posterLike)
-                                        .where(posterLike.poster.id.eq(poster.id)), "like_count"),
-                        ExpressionUtils.as(
-                                select(comment.count())
-                                        .from(comment)
-                                        .where(comment.poster.id.eq(poster.id)), "comment_count")
+                        poster.likeCount,
+                        poster.commentCount
                 ))
                 .from(posterLike)
                 .leftJoin(poster).on(poster.id.eq(posterLike.poster.id))
                 .where(posterLike.member.id.eq(memberId))
                 .orderBy(posterLike.regDate.desc())
-                .limit(pageable.getPageSize())
+                .limit(pageable.getPageSize() + 1)
                 .offset(pageable.getOffset())
                 .fetch();
 
@@ -206,15 +253,47 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                 .leftJoin(poster).on(poster.id.eq(posterLike.poster.id))
                 .where(posterLike.member.id.eq(memberId));
 
-        return PageableExecutionUtils.getPage(posters, pageable, countQuery::fetchOne);
+        return pageCounter.getPage(posters, pageable, countMode,
+                countQuery::fetchOne, pageCounter.cached(countQuery::fetchOne, "poster:like", memberId));
     }
 
     @Override
-    public Page<PosterResponse> getWritePosters(Long memberId, Pageable pageable) {
+    public CursorResponse<PosterResponse> getLikePostersByCursor(Long memberId, Cursor cursor, int size) throws CursorException {
 
         QPoster poster = QPoster.poster;
         QPosterLike posterLike = QPosterLike.posterLike;
-        QComment comment = QComment.comment;
+
+        JPAQuery<Tuple> searchQuery = jpaQueryFactory
+                .select(new QPosterResponse(
+                                poster.id,
+                                poster.writer.id,
+                                poster.writer.name,
+                                poster.title,
+                                poster.content,
+                                poster.regDate,
+                                poster.likeCount,
+                                poster.commentCount),
+                        posterLike.regDate,
+                        posterLike.id)
+                .from(posterLike)
+                .leftJoin(poster).on(poster.id.eq(posterLike.poster.id))
+                .where(posterLike.member.id.eq(memberId))
+                .orderBy(posterLike.regDate.desc(), posterLike.id.desc())
+                .limit(size + 1);
+
+        if (cursor != null)
+            searchQuery.where(afterRecent(posterLike.regDate, posterLike.id, cursor));
+
+        // 좋아요를 누른 시점 순서이므로 커서는 poster_like의 (reg_date, id)로 만든다.
+        List<Tuple> tuples = searchQuery.fetch();
+        return CursorResponse.of(tuples, size, tuple -> Cursor.of(tuple.get(posterLike.regDate), tuple.get(posterLike.id)))
+                .map(tuple -> tuple.get(0, PosterResponse.class));
+    }
+
+    @Override
+    public Slice<PosterResponse> getWritePosters(Long memberId, Pageable pageable, CountMode countMode) {
+
+        QPoster poster = QPoster.poster;
 
         List<PosterResponse> posters = jpaQueryFactory
                 .select(new QPosterResponse(
@@ -224,19 +303,13 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                         poster.title,
                         poster.content,
                         poster.regDate,
-                        ExpressionUtils.as(
-                                select(posterLike.count())
-                                        .from(posterLike)
-                                        .where(posterLike.poster.id.eq(poster.id)), "like_count"),
-                        ExpressionUtils.as(
-                                select(comment.count())
-                                        .from(comment)
-                                        .where(comment.poster.id.eq(poster.id)), "comment_count")
+                        poster.likeCount,
+                        poster.commentCount
                 ))
                 .from(poster)
                 .where(poster.writer.id.eq(memberId))
                 .orderBy(poster.regDate.desc())
-                .limit(pageable.getPageSize())
+                .limit(pageable.getPageSize() + 1)
                 .offset(pageable.getOffset())
                 .fetch();
 
@@ -245,14 +318,43 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                 .from(poster)
                 .where(poster.writer.id.eq(memberId));
 
-        return PageableExecutionUtils.getPage(posters, pageable, countQuery::fetchOne);
+        return pageCounter.getPage(posters, pageable, countMode,
+                countQuery::fetchOne, pageCounter.cached(countQuery::fetchOne, "poster:write", memberId));
     }
 
     @Override
-    public Page<PosterResponse> getPostersByWriteComments(Long memberId, Pageable pageable) {
+    public CursorResponse<PosterResponse> getWritePostersByCursor(Long memberId, Cursor cursor, int size) throws CursorException {
+
+        QPoster poster = QPoster.poster;
+
+        JPAQuery<PosterResponse> searchQuery = jpaQueryFactory
+                .select(new QPosterResponse(
+                        poster.id,
+                        poster.writer.id,
+                        poster.writer.name,
+                        poster.title,
+                        poster.content,
+                        poster.regDate,
+                        poster.likeCount,
+                        poster.commentCount
+                ))
+                .from(poster)
+                .where(poster.writer.id.eq(memberId))
+                .orderBy(poster.regDate.desc(), poster.id.desc())
+                .limit(size + 1);
+
+        if (cursor != null)
+            searchQuery.where(afterRecent(poster.regDate, poster.id, cursor));
+
+        List<PosterResponse> posters = searchQuery.fetch();
+        return CursorResponse.of(posters, size,
+                posterResponse -> Cursor.of(posterResponse.getRegDate(), posterResponse.getPosterId()));
+    }
+
+    @Override
+    public Slice<PosterResponse> getPostersByWriteComments(Long memberId, Pageable pageable, CountMode countMode) {
 
         QPoster poster = QPoster.poster;
-        QPosterLike posterLike = QPosterLike.posterLike;
         QComment comment = QComment.comment;
 
         // DISTINCT -> ORDER BY -> OFFSET, LIMIT
@@ -265,20 +367,14 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                         poster.title,
                         poster.content,
                         poster.regDate,
-                        ExpressionUtils.as(
-                                select(posterLike.count())
-                                        .from(posterLike)
-                                        .where(posterLike.poster.id.eq(poster.id)), "like_count"),
-                        ExpressionUtils.as(
-                                select(comment.count())
-                                        .from(comment)
-                                        .where(comment.poster.id.eq(poster.id)), "comment_count")))
+                        poster.likeCount,
+                        poster.commentCount))
                 .from(poster)
                 .leftJoin(comment).on(comment.poster.id.eq(poster.id))
                 .where(comment.writer.id.eq(memberId))
                 .groupBy(poster.id)
                 .orderBy(comment.regDate.max().desc())
-                .limit(pageable.getPageSize())
+                .limit(pageable.getPageSize() + 1)
                 .offset(pageable.getOffset())
                 .fetch();
 
@@ -287,6 +383,14 @@ public class PosterRepositoryImpl implements PosterRepositoryCustom {
                 .from(comment)
                 .where(comment.writer.id.eq(memberId));
 
-        return PageableExecutionUtils.getPage(posters, pageable, countQuery::fetchOne);
+        return pageCounter.getPage(posters, pageable, countMode,
+                countQuery::fetchOne, pageCounter.cached(countQuery::fetchOne, "poster:comment", memberId));
+    }
+
+    // (reg_date, id) 내림차순에서 커서 다음에 오는 데이터
+    private BooleanExpression afterRecent(DateTimePath<LocalDateTime> regDate, NumberPath<Long> id, Cursor cursor) throws CursorException {
+        LocalDateTime lastRegDate = cursor.getDateKey();
+        return regDate.lt(lastRegDate)
+                .or(regDate.eq(lastRegDate).and(id.lt(cursor.getId())));
     }
-}
\ No newline at end of file
+}
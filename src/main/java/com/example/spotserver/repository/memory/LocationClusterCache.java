@@ -0,0 +1,218 @@
+package com.example.spotserver.repository.memory;
+
+import com.example.spotserver.dto.response.ClusterResponse;
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.event.LocationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 줌 레벨별로 지도를 타일로 나누고, 타일 안의 장소들을 격자 칸 단위로 묶은 클러스터를 보관한다.
+ * 타일은 처음 조회될 때 LocationSpatialIndex 로부터 계산되며, 장소가 승인되거나 삭제되면 그 장소가 속한 타일만 버린다.
+ * 타일 한 변은 360 / 2^zoom 도(웹 지도의 256px 타일), 클러스터 칸은 타일을 CELLS_PER_TILE 등분한 크기이다.
+ */
+@Repository
+@Slf4j
+public class LocationClusterCache {
+
+    public static final int MAX_ZOOM = 20;
+
+    // 낮은 줌은 모든 요청이 같은 타일을 보므로 미리 계산해둔다.
+    private static final int WARM_ZOOM = 4;
+    private static final int CELLS_PER_TILE = 4;
+    private static final int MAX_TILES_PER_REQUEST = 64;
+    private static final int MAX_CACHED_TILES = 50_000;
+
+    private static final ClusterResponse[] EMPTY = new ClusterResponse[0];
+
+    private LocationSpatialIndex locationSpatialIndex;
+
+    private final Map<Long, ClusterResponse[]> tiles = new ConcurrentHashMap<>();
+    private volatile long generation = -1;
+
+    @Autowired
+    public LocationClusterCache(LocationSpatialIndex locationSpatialIndex) {
+        this.locationSpatialIndex = locationSpatialIndex;
+    }
+
+    /**
+     * bbox 안의 클러스터를 조회한다.
+     * bbox가 너무 넓어 타일이 MAX_TILES_PER_REQUEST 개를 넘으면 줌을 낮춰 응답 크기를 제한한다.
+     */
+    public List<ClusterResponse> getClusters(double minLatitude, double maxLatitude,
+                                             double minLongitude, double maxLongitude, int zoom) {
+
+        checkGeneration();
+
+        zoom = Math.min(zoom, MAX_ZOOM);
+        while (zoom > 0 && tileCount(minLatitude, maxLatitude, minLongitude, maxLongitude, zoom) > MAX_TILES_PER_REQUEST)
+            zoom--;
+
+        long minX = tileX(minLongitude, zoom);
+        long maxX = tileX(maxLongitude, zoom);
+        long minY = tileY(minLatitude, zoom);
+        long maxY = tileY(maxLatitude, zoom);
+
+        List<ClusterResponse> clusters = new ArrayList<>();
+        for (long y = minY; y <= maxY; y++) {
+            for (long x = minX; x <= maxX; x++) {
+                for (ClusterResponse cluster : getTile(zoom, x, y)) {
+                    if (cluster.getLatitude() >= minLatitude && cluster.getLatitude() <= maxLatitude
+                            && cluster.getLongitude() >= minLongitude && cluster.getLongitude() <= maxLongitude)
+                        clusters.add(copy(cluster));
+                }
+            }
+        }
+        return clusters;
+    }
+
+    // 좋아요 수 변화는 다음에 타일이 다시 계산될 때 대표 장소에 반영된다.
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationEvent(LocationEvent event) {
+        if (event.getLatitude() == null || event.getLongitude() == null)
+            return;
+
+        switch (event.getType()) {
+            case APPROVE, DELETE -> invalidate(event.getLatitude(), event.getLongitude());
+        }
+    }
+
+    private void invalidate(double latitude, double longitude) {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            tiles.remove(tileKey(zoom, tileX(longitude, zoom), tileY(latitude, zoom)));
+        }
+    }
+
+    // 인덱스가 새로 만들어졌으면 타일을 모두 버리고 낮은 줌을 다시 계산한다.
+    private void checkGeneration() {
+        long indexGeneration = locationSpatialIndex.getGeneration();
+        if (generation == indexGeneration)
+            return;
+
+        synchronized (this) {
+            if (generation == indexGeneration)
+                return;
+            tiles.clear();
+            warm();
+            generation = indexGeneration;
+        }
+    }
+
+    private void warm() {
+        List<LocationResponse> locations = locationSpatialIndex.findLocations(-90, 90, -180, 180);
+        for (int zoom = 0; zoom <= WARM_ZOOM; zoom++) {
+            Map<Long, List<LocationResponse>> tileLocations = new HashMap<>();
+            for (LocationResponse location : locations) {
+                long key = tileKey(zoom, tileX(location.getLongitude(), zoom), tileY(location.getLatitude(), zoom));
+                tileLocations.computeIfAbsent(key, k -> new ArrayList<>()).add(location);
+            }
+            for (Map.Entry<Long, List<LocationResponse>> entry : tileLocations.entrySet()) {
+                tiles.put(entry.getKey(), cluster(entry.getValue(), zoom));
+            }
+        }
+        log.info("[장소 클러스터] 줌 0~{} 타일 {}개 계산", WARM_ZOOM, tiles.size());
+    }
+
+    private ClusterResponse[] getTile(int zoom, long x, long y) {
+        if (!locationSpatialIndex.isReady())
+            return EMPTY;
+
+        if (tiles.size() > MAX_CACHED_TILES)
+            tiles.clear();
+
+        // 계산 중에 invalidate 되면 remove가 계산이 끝나기를 기다리므로 오래된 타일이 남지 않는다.
+        return tiles.computeIfAbsent(tileKey(zoom, x, y), key -> computeTile(zoom, x, y));
+    }
+
+    private ClusterResponse[] computeTile(int zoom, long x, long y) {
+        double tileSize = tileSize(zoom);
+        double minLatitude = y * tileSize - 90;
+        double minLongitude = x * tileSize - 180;
+
+        List<LocationResponse> locations = new ArrayList<>();
+        for (LocationResponse location : locationSpatialIndex.findLocations(
+                minLatitude, minLatitude + tileSize, minLongitude, minLongitude + tileSize)) {
+            // 타일 경계에 걸친 장소가 두 타일에 중복되지 않도록 한다.
+            if (tileX(location.getLongitude(), zoom) == x && tileY(location.getLatitude(), zoom) == y)
+                locations.add(location);
+        }
+        return cluster(locations, zoom);
+    }
+
+    private ClusterResponse[] cluster(List<LocationResponse> locations, int zoom) {
+        if (locations.isEmpty())
+            return EMPTY;
+
+        double cellSize = tileSize(zoom) / CELLS_PER_TILE;
+        Map<Long, Aggregate> cells = new HashMap<>();
+        for (LocationResponse location : locations) {
+            long cellX = Math.min((long) Math.floor((location.getLongitude() + 180) / cellSize), ((long) CELLS_PER_TILE << zoom) - 1);
+            long cellY = (long) Math.floor((location.getLatitude() + 90) / cellSize);
+            cells.computeIfAbsent(cellY * ((long) CELLS_PER_TILE << MAX_ZOOM) + cellX, key -> new Aggregate())
+                    .add(location);
+        }
+
+        return cells.values()
+                .stream()
+                .map(Aggregate::toResponse)
+                .toArray(ClusterResponse[]::new);
+    }
+
+    private static ClusterResponse copy(ClusterResponse cluster) {
+        return new ClusterResponse(cluster.getLatitude(), cluster.getLongitude(), cluster.getCount(), cluster.getTopLocationId());
+    }
+
+    private static long tileCount(double minLatitude, double maxLatitude,
+                                  double minLongitude, double maxLongitude, int zoom) {
+        return (tileX(maxLongitude, zoom) - tileX(minLongitude, zoom) + 1)
+                * (tileY(maxLatitude, zoom) - tileY(minLatitude, zoom) + 1);
+    }
+
+    private static double tileSize(int zoom) {
+        return 360.0 / (1L << zoom);
+    }
+
+    private static long tileX(double longitude, int zoom) {
+        long maxX = (1L << zoom) - 1;
+        long x = (long) Math.floor((longitude + 180) / tileSize(zoom));
+        return Math.max(0, Math.min(maxX, x));
+    }
+
+    private static long tileY(double latitude, int zoom) {
+        long maxY = (long) Math.ceil(180 / tileSize(zoom)) - 1;
+        long y = (long) Math.floor((latitude + 90) / tileSize(zoom));
+        return Math.max(0, Math.min(maxY, y));
+    }
+
+    private static long tileKey(int zoom, long x, long y) {
+        return ((long) zoom << 48) | (x << 24) | y;
+    }
+
+    private static class Aggregate {
+
+        private long count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private LocationResponse top;
+
+        private void add(LocationResponse location) {
+            count++;
+            latitudeSum += location.getLatitude();
+            longitudeSum += location.getLongitude();
+            if (top == null || location.getLikeCnt() > top.getLikeCnt()
+                    || (location.getLikeCnt().equals(top.getLikeCnt()) && location.getLocationId() > top.getLocationId()))
+                top = location;
+        }
+
+        private ClusterResponse toResponse() {
+            return new ClusterResponse(latitudeSum / count, longitudeSum / count, count, top.getLocationId());
+        }
+    }
+}
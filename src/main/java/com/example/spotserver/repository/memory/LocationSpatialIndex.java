@@ -0,0 +1,472 @@
+package com.example.spotserver.repository.memory;
+
+import com.example.spotserver.domain.Cursor;
+import com.example.spotserver.domain.GeoDistance;
+import com.example.spotserver.dto.request.LocationConditionRequest;
+import com.example.spotserver.dto.response.CursorResponse;
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.event.LocationEvent;
+import com.example.spotserver.exception.CursorException;
+import com.example.spotserver.repository.LocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 승인된 장소들을 위도, 경도 격자로 나누어 메모리에 보관한다.
+ * 격자 한 칸의 배열은 수정시 새로 만들어 한 번에 교체(copy-on-write)하므로 조회는 락 없이 수행되며, 수정 중인 장소가 조회에서 빠지지 않는다.
+ * 이 서버의 변경은 커밋 후 이벤트로 바로 반영하고, 다른 서버의 변경은 주기적으로 DB 전체를 다시 읽을 때 반영한다.
+ */
+@Repository
+@Slf4j
+public class LocationSpatialIndex {
+
+    // 격자 한 칸의 크기 (0.01도 = 약 1km)
+    private static final double CELL_SIZE = 0.01;
+    private static final long LONGITUDE_CELLS = (long) Math.ceil(360 / CELL_SIZE) + 1;
+    private static final double CELL_METERS = CELL_SIZE * GeoDistance.METERS_PER_DEGREE;
+
+    private static final Spot[] EMPTY = new Spot[0];
+
+    private LocationRepository locationRepository;
+
+    private volatile Grid grid = new Grid();
+    private volatile boolean ready = false;
+    private volatile long generation = 0;
+
+    @Autowired
+    public LocationSpatialIndex(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+        log.info("[장소 인덱스] 승인된 장소 {}개 적재", grid.spots.size());
+    }
+
+    @Scheduled(fixedDelayString = "${spot.location.index.rebuild-delay:600000}", initialDelayString = "${spot.location.index.rebuild-delay:600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("[장소 인덱스] 다시 만들기 실패", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        Grid newGrid = new Grid();
+        for (LocationResponse locationResponse : locationRepository.getApprovedLocations()) {
+            put(newGrid, Spot.of(locationResponse));
+        }
+        grid = newGrid;
+        generation++;
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // rebuild 할 때마다 증가하며, 인덱스를 바탕으로 만든 캐시가 오래되었는지 판단하는데 사용한다.
+    public long getGeneration() {
+        return generation;
+    }
+
+    public boolean supports(LocationConditionRequest conditionRequest) {
+        return ready
+                && Boolean.TRUE.equals(conditionRequest.getApprove())
+                && conditionRequest.getSearch() == null;
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationEvent(LocationEvent event) {
+        Long locationId = event.getLocationId();
+        switch (event.getType()) {
+            case ADD, APPROVE -> refresh(locationId);
+            case DELETE -> remove(locationId);
+            case LIKE -> addLikeCnt(locationId, 1);
+            case UNLIKE -> addLikeCnt(locationId, -1);
+        }
+    }
+
+    public Page<LocationResponse> searchLocations(Double latitude,
+                                                  Double longitude,
+                                                  LocationConditionRequest conditionRequest) {
+
+        int defaultSize = 10;
+        int defaultPage = 1;
+        Double scale = conditionRequest.getScale() == null ? 0.01 : conditionRequest.getScale();
+
+        Integer page = conditionRequest.getPage();
+        Integer size = conditionRequest.getSize();
+        String sort = conditionRequest.getSort();
+
+        List<Spot> spots = findInArea(latitude - scale, latitude + scale, longitude - scale, longitude + scale);
+
+        if (sort != null && sort.equals("like"))
+            spots.sort(Spot.LIKE_ORDER);
+        else
+            spots.sort(Spot.RECENT_ORDER);
+
+        if (page == null && size == null && sort == null)
+            return new PageImpl<>(toResponses(spots));
+
+        if (page == null)
+            page = defaultPage;
+        if (size == null)
+            size = defaultSize;
+
+        Pageable pageable = PageRequest.of(page - 1, size);
+        int from = (int) Math.min(pageable.getOffset(), spots.size());
+        int to = Math.min(from + pageable.getPageSize(), spots.size());
+
+        return new PageImpl<>(toResponses(spots.subList(from, to)), pageable, spots.size());
+    }
+
+    public CursorResponse<LocationResponse> searchLocationsByCursor(Double latitude,
+                                                                    Double longitude,
+                                                                    LocationConditionRequest conditionRequest,
+                                                                    Cursor cursor) throws CursorException {
+
+        int defaultSize = 10;
+        Double scale = conditionRequest.getScale() == null ? 0.01 : conditionRequest.getScale();
+        int size = conditionRequest.getSize() == null ? defaultSize : conditionRequest.getSize();
+
+        boolean likeSort = "like".equals(conditionRequest.getSort());
+        Comparator<Spot> order = likeSort ? Spot.LIKE_ORDER : Spot.RECENT_ORDER;
+
+        // 커서 위치에 가상의 장소를 두고 정렬 순서상 그 뒤에 오는 장소만 남긴다.
+        Spot last = null;
+        if (cursor != null) {
+            last = likeSort ?
+                    new Spot(cursor.getId(), null, null, null, null, null, null, cursor.getLongKey()) :
+                    new Spot(cursor.getId(), null, null, null, null, null, cursor.getDateKey(), 0);
+        }
+
+        List<Spot> spots = new ArrayList<>();
+        for (Spot spot : findInArea(latitude - scale, latitude + scale, longitude - scale, longitude + scale)) {
+            if (last == null || order.compare(spot, last) > 0)
+                spots.add(spot);
+        }
+        spots.sort(order);
+
+        Function<LocationResponse, Cursor> cursorOf = likeSort ?
+                locationResponse -> Cursor.of(locationResponse.getLikeCnt(), locationResponse.getLocationId()) :
+                locationResponse -> Cursor.of(locationResponse.getRegDate(), locationResponse.getLocationId());
+
+        return CursorResponse.of(toResponses(spots.subList(0, Math.min(size + 1, spots.size()))), size, cursorOf);
+    }
+
+    public List<LocationResponse> findLocations(double minLatitude, double maxLatitude,
+                                                double minLongitude, double maxLongitude) {
+        return toResponses(findInArea(minLatitude, maxLatitude, minLongitude, maxLongitude));
+    }
+
+    /**
+     * 반경 안에서 (거리, id) 순으로 가까운 장소를 limit개까지 찾는다.
+     * 중심 칸부터 고리 모양으로 칸을 넓혀가며, 남은 고리의 최소 거리가 찾은 장소들보다 멀어지면 멈춘다.
+     * lastDistance, lastId가 있으면 그 이후의 장소만 찾으며, 그보다 가까운 고리는 건너뛴다.
+     */
+    public List<LocationResponse> findNearest(double latitude, double longitude, double radiusMeters,
+                                              Double lastDistance, Long lastId, int limit) {
+
+        Grid grid = this.grid;
+        List<Nearby> candidates = new ArrayList<>();
+
+        int maxRing = 0;
+        while (ringMinDistance(maxRing + 1, latitude) <= radiusMeters)
+            maxRing++;
+
+        // 반경 안의 칸 수가 채워진 칸 수보다 많으면 전체를 훑는다.
+        long ringCells = (2L * maxRing + 1) * (2L * maxRing + 1);
+        if (ringCells > grid.cells.size()) {
+            for (Spot[] cell : grid.cells.values()) {
+                addNearby(cell, candidates, latitude, longitude, radiusMeters, lastDistance, lastId);
+            }
+            candidates.sort(Nearby.ORDER);
+            return toNearbyResponses(candidates, limit);
+        }
+
+        long centerLatIdx = latitudeIndex(latitude);
+        long centerLngIdx = longitudeIndex(longitude);
+
+        int startRing = 0;
+        if (lastDistance != null)
+            startRing = (int) Math.max(0, Math.ceil(lastDistance / (CELL_METERS * Math.sqrt(2))) - 1);
+
+        for (int ring = startRing; ring <= maxRing; ring++) {
+
+            for (long latIdx = centerLatIdx - ring; latIdx <= centerLatIdx + ring; latIdx++) {
+                boolean edgeRow = latIdx == centerLatIdx - ring || latIdx == centerLatIdx + ring;
+                long step = edgeRow ? 1 : 2L * ring;
+                for (long lngIdx = centerLngIdx - ring; lngIdx <= centerLngIdx + ring; lngIdx += step) {
+                    if (latIdx < 0 || lngIdx < 0 || lngIdx >= LONGITUDE_CELLS)
+                        continue;
+                    Spot[] cell = grid.cells.get(cellKey(latIdx, lngIdx));
+                    if (cell != null)
+                        addNearby(cell, candidates, latitude, longitude, radiusMeters, lastDistance, lastId);
+                }
+            }
+
+            if (candidates.size() >= limit) {
+                candidates.sort(Nearby.ORDER);
+                candidates.subList(limit, candidates.size()).clear();
+                if (candidates.get(limit - 1).distance <= ringMinDistance(ring + 1, latitude))
+                    break;
+            }
+        }
+
+        candidates.sort(Nearby.ORDER);
+        return toNearbyResponses(candidates, limit);
+    }
+
+    private void addNearby(Spot[] cell, List<Nearby> candidates,
+                           double latitude, double longitude, double radiusMeters,
+                           Double lastDistance, Long lastId) {
+        for (Spot spot : cell) {
+            double distance = GeoDistance.haversine(latitude, longitude, spot.latitude, spot.longitude);
+            if (distance > radiusMeters)
+                continue;
+            if (lastDistance != null) {
+                int compare = Double.compare(distance, lastDistance);
+                if (compare < 0 || (compare == 0 && spot.id <= lastId))
+                    continue;
+            }
+            candidates.add(new Nearby(spot, distance));
+        }
+    }
+
+    private List<LocationResponse> toNearbyResponses(List<Nearby> candidates, int limit) {
+        List<LocationResponse> responses = new ArrayList<>();
+        for (Nearby nearby : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            LocationResponse locationResponse = nearby.spot.toResponse();
+            locationResponse.setDistance(nearby.distance);
+            responses.add(locationResponse);
+        }
+        return responses;
+    }
+
+    // 중심 칸에서 ring 번째 고리에 있는 장소까지의 최소 거리(m). 경도 방향 칸이 더 좁으므로 그 폭을 기준으로 한다.
+    private static double ringMinDistance(int ring, double latitude) {
+        if (ring <= 1)
+            return 0;
+        double maxLatitude = Math.min(89.9, Math.abs(latitude) + (ring + 1) * CELL_SIZE);
+        return (ring - 1) * CELL_METERS * Math.cos(Math.toRadians(maxLatitude));
+    }
+
+    private List<Spot> findInArea(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+        Grid grid = this.grid;
+        List<Spot> result = new ArrayList<>();
+
+        long minLatIdx = latitudeIndex(minLatitude);
+        long maxLatIdx = latitudeIndex(maxLatitude);
+        long minLngIdx = longitudeIndex(minLongitude);
+        long maxLngIdx = longitudeIndex(maxLongitude);
+
+        long cellCount = (maxLatIdx - minLatIdx + 1) * (maxLngIdx - minLngIdx + 1);
+
+        // 범위가 넓으면 범위 안의 칸을 모두 보는 것보다 채워진 칸만 보는 것이 빠르다.
+        if (cellCount > grid.cells.size()) {
+            for (Spot[] cell : grid.cells.values()) {
+                addInArea(cell, result, minLatitude, maxLatitude, minLongitude, maxLongitude);
+            }
+            return result;
+        }
+
+        for (long latIdx = minLatIdx; latIdx <= maxLatIdx; latIdx++) {
+            for (long lngIdx = minLngIdx; lngIdx <= maxLngIdx; lngIdx++) {
+                Spot[] cell = grid.cells.get(cellKey(latIdx, lngIdx));
+                if (cell != null)
+                    addInArea(cell, result, minLatitude, maxLatitude, minLongitude, maxLongitude);
+            }
+        }
+        return result;
+    }
+
+    private void addInArea(Spot[] cell, List<Spot> result,
+                           double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        for (Spot spot : cell) {
+            if (spot.latitude >= minLatitude && spot.latitude <= maxLatitude
+                    && spot.longitude >= minLongitude && spot.longitude <= maxLongitude)
+                result.add(spot);
+        }
+    }
+
+    private List<LocationResponse> toResponses(List<Spot> spots) {
+        List<LocationResponse> responses = new ArrayList<>(spots.size());
+        for (Spot spot : spots) {
+            responses.add(spot.toResponse());
+        }
+        return responses;
+    }
+
+    // 같은 장소의 변경이 연달아 커밋되어도 마지막에 읽은 값이 남도록 락 안에서 읽는다.
+    private synchronized void refresh(Long locationId) {
+        Optional<LocationResponse> locationResponse = locationRepository.getApprovedLocationById(locationId);
+        if (locationResponse.isPresent())
+            put(grid, Spot.of(locationResponse.get()));
+        else
+            remove(grid, locationId);
+    }
+
+    private synchronized void remove(Long locationId) {
+        remove(grid, locationId);
+    }
+
+    private synchronized void addLikeCnt(Long locationId, long delta) {
+        Spot spot = grid.spots.get(locationId);
+        if (spot != null)
+            put(grid, spot.withLikeCnt(Math.max(0, spot.likeCnt + delta)));
+    }
+
+    private static void put(Grid grid, Spot spot) {
+        if (spot.latitude == null || spot.longitude == null) {
+            remove(grid, spot.id);
+            return;
+        }
+
+        Spot old = grid.spots.put(spot.id, spot);
+        long cellKey = cellKey(spot);
+
+        // 같은 칸이면 한 번의 교체로 바꾼다.
+        // 칸이 바뀌면 새 칸에 먼저 넣고 이전 칸에서 뺀다. (잠깐 두 칸에 모두 보일 수는 있어도 빠지지는 않는다)
+        grid.cells.compute(cellKey, (key, cell) -> replaceInCell(cell, spot));
+        if (old != null && cellKey(old) != cellKey)
+            removeFromCell(grid, old);
+    }
+
+    // 칸에 같은 장소가 있으면 바꾸고, 없으면 끝에 추가한 새 배열
+    private static Spot[] replaceInCell(Spot[] cell, Spot spot) {
+        Spot[] base = cell == null ? EMPTY : cell;
+        for (int i = 0; i < base.length; i++) {
+            if (base[i].id.equals(spot.id)) {
+                Spot[] newCell = base.clone();
+                newCell[i] = spot;
+                return newCell;
+            }
+        }
+        Spot[] newCell = Arrays.copyOf(base, base.length + 1);
+        newCell[base.length] = spot;
+        return newCell;
+    }
+
+    private static void remove(Grid grid, Long locationId) {
+        Spot old = grid.spots.remove(locationId);
+        if (old != null)
+            removeFromCell(grid, old);
+    }
+
+    private static void removeFromCell(Grid grid, Spot spot) {
+        grid.cells.computeIfPresent(cellKey(spot), (key, cell) -> {
+            Spot[] newCell = Arrays.stream(cell)
+                    .filter(s -> !s.id.equals(spot.id))
+                    .toArray(Spot[]::new);
+            return newCell.length == 0 ? null : newCell;
+        });
+    }
+
+    private static long cellKey(Spot spot) {
+        return cellKey(latitudeIndex(spot.latitude), longitudeIndex(spot.longitude));
+    }
+
+    private static long cellKey(long latIdx, long lngIdx) {
+        return latIdx * LONGITUDE_CELLS + lngIdx;
+    }
+
+    private static long latitudeIndex(double latitude) {
+        return (long) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / CELL_SIZE);
+    }
+
+    private static long longitudeIndex(double longitude) {
+        return (long) Math.floor((Math.max(-180, Math.min(180, longitude)) + 180) / CELL_SIZE);
+    }
+
+    private static class Grid {
+        private final Map<Long, Spot> spots = new ConcurrentHashMap<>();
+        private final Map<Long, Spot[]> cells = new ConcurrentHashMap<>();
+    }
+
+    private static class Nearby {
+
+        private static final Comparator<Nearby> ORDER = Comparator
+                .comparingDouble((Nearby nearby) -> nearby.distance)
+                .thenComparing(nearby -> nearby.spot.id);
+
+        private final Spot spot;
+        private final double distance;
+
+        private Nearby(Spot spot, double distance) {
+            this.spot = spot;
+            this.distance = distance;
+        }
+    }
+
+    private static class Spot {
+
+        private static final Comparator<Spot> RECENT_ORDER = Comparator
+                .comparing((Spot spot) -> spot.regDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(spot -> spot.id, Comparator.reverseOrder());
+
+        private static final Comparator<Spot> LIKE_ORDER = Comparator
+                .comparingLong((Spot spot) -> spot.likeCnt).reversed()
+                .thenComparing(spot -> spot.id, Comparator.reverseOrder());
+
+        private final Long id;
+        private final Double latitude;
+        private final Double longitude;
+        private final String title;
+        private final String address;
+        private final String description;
+        private final LocalDateTime regDate;
+        private final long likeCnt;
+
+        private Spot(Long id, Double latitude, Double longitude, String title, String address, String description, LocalDateTime regDate, long likeCnt) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.title = title;
+            this.address = address;
+            this.description = description;
+            this.regDate = regDate;
+            this.likeCnt = likeCnt;
+        }
+
+        private static Spot of(LocationResponse locationResponse) {
+            Long likeCnt = locationResponse.getLikeCnt();
+            return new Spot(
+                    locationResponse.getLocationId(),
+                    locationResponse.getLatitude(),
+                    locationResponse.getLongitude(),
+                    locationResponse.getTitle(),
+                    locationResponse.getAddress(),
+                    locationResponse.getDescription(),
+                    locationResponse.getRegDate(),
+                    likeCnt == null ? 0 : likeCnt);
+        }
+
+        private Spot withLikeCnt(long likeCnt) {
+            return new Spot(id, latitude, longitude, title, address, description, regDate, likeCnt);
+        }
+
+        private LocationResponse toResponse() {
+            return new LocationResponse(id, latitude, longitude, title, address, description, regDate, likeCnt);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.spotserver.repository.memory;
+
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.LocationSuggestResponse;
+import com.example.spotserver.event.LocationEvent;
+import com.example.spotserver.repository.LocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * 승인된 장소 제목의 자동완성 인덱스.
+ * 제목을 소문자로 바꾸고 공백을 지운 문자열과 각 단어부터 시작하는 뒷부분, 그리고 그 초성(ㅅㅇㅅ)을 키로 하여 정렬된 배열에 담고,
+ * 이분 탐색으로 접두사가 같은 키의 범위를 찾아 좋아요 수가 많은 순으로 돌려준다.
+ * 승인, 삭제는 바로 반영하고 좋아요 수는 주기적으로 DB 전체를 다시 읽을 때 반영한다. (다른 서버의 승인, 삭제도 이때 반영)
+ * 배열은 수정시 새로 만들어 교체(copy-on-write)하므로 조회는 락 없이 수행된다.
+ */
+@Repository
+@Slf4j
+public class LocationSuggestIndex {
+
+    public static final int MAX_SIZE = 20;
+
+    private static final char[] CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ".toCharArray();
+    private static final char HANGUL_BEGIN = '가';
+    private static final char HANGUL_END = '힣';
+    private static final int SYLLABLES_PER_CHOSEONG = 21 * 28;
+
+    private LocationRepository locationRepository;
+
+    // 승인된 장소 id -> 제목, 좋아요 수. 수정은 synchronized 안에서만 한다.
+    private Map<Long, Suggestion> suggestions = new HashMap<>();
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    @Autowired
+    public LocationSuggestIndex(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+        log.info("[자동완성 인덱스] 승인된 장소 {}개 적재", snapshot.suggestions.length);
+    }
+
+    @Scheduled(fixedDelayString = "${spot.location.suggest.rebuild-delay:600000}", initialDelayString = "${spot.location.suggest.rebuild-delay:600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("[자동완성 인덱스] 다시 만들기 실패", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        Map<Long, Suggestion> newSuggestions = new HashMap<>();
+        for (LocationResponse locationResponse : locationRepository.getApprovedLocations()) {
+            Suggestion suggestion = Suggestion.of(locationResponse);
+            if (suggestion != null)
+                newSuggestions.put(suggestion.id, suggestion);
+        }
+        suggestions = newSuggestions;
+        snapshot = Snapshot.build(newSuggestions.values());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationEvent(LocationEvent event) {
+        switch (event.getType()) {
+            case ADD, APPROVE -> refresh(event.getLocationId());
+            case DELETE -> remove(event.getLocationId());
+            // 좋아요마다 배열을 다시 만들지 않도록 좋아요 수는 주기적으로만 반영한다.
+            case LIKE, UNLIKE -> {
+            }
+        }
+    }
+
+    /**
+     * 제목이 prefix 로 시작하거나, 제목 중간의 단어가 prefix 로 시작하는 장소를 좋아요 수가 많은 순으로 size 개(최대 MAX_SIZE)까지 찾는다.
+     * prefix 가 초성으로만 이루어져 있으면 제목의 초성과 비교한다.
+     */
+    public List<LocationSuggestResponse> suggest(String prefix, int size) {
+
+        Snapshot snapshot = this.snapshot;
+        String key = normalize(prefix);
+        if (key.isEmpty() || size < 1)
+            return new ArrayList<>();
+
+        int limit = Math.min(size, MAX_SIZE);
+        int[] ranks = key.length() == 1 ? snapshot.firstCharTop.get(key.charAt(0)) : snapshot.top(key, limit);
+
+        List<LocationSuggestResponse> responses = new ArrayList<>();
+        if (ranks == null)
+            return responses;
+        for (int i = 0; i < ranks.length && i < limit; i++) {
+            responses.add(snapshot.suggestions[ranks[i]].toResponse());
+        }
+        return responses;
+    }
+
+    // 조회도 락 안에서 해야 먼저 읽은 이전 값이 나중에 반영되어 삭제, 다시 만들기 결과를 덮어쓰지 않는다.
+    private synchronized void refresh(Long locationId) {
+        Suggestion suggestion = locationRepository.getApprovedLocationById(locationId)
+                .map(Suggestion::of)
+                .orElse(null);
+        Suggestion old = suggestion == null ? suggestions.remove(locationId) : suggestions.put(locationId, suggestion);
+        if (suggestion != null || old != null)
+            snapshot = Snapshot.build(suggestions.values());
+    }
+
+    private synchronized void remove(Long locationId) {
+        if (suggestions.remove(locationId) != null)
+            snapshot = Snapshot.build(suggestions.values());
+    }
+
+    // 소문자로 바꾸고 공백을 지운다.
+    private static String normalize(String text) {
+        if (text == null)
+            return "";
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c))
+                normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    // 한글 음절은 초성으로 바꾸고 나머지 문자는 그대로 둔다.
+    private static String choseong(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= HANGUL_BEGIN && chars[i] <= HANGUL_END)
+                chars[i] = CHOSEONG[(chars[i] - HANGUL_BEGIN) / SYLLABLES_PER_CHOSEONG];
+        }
+        return new String(chars);
+    }
+
+    // 정규화한 제목 전체와 두 번째 단어부터 시작하는 뒷부분들, 그리고 각각의 초성
+    private static Set<String> keys(String title) {
+        Set<String> keys = new LinkedHashSet<>();
+        String[] words = title.trim().split("\\s+");
+        for (int i = 0; i < words.length; i++) {
+            String key = normalize(String.join("", Arrays.asList(words).subList(i, words.length)));
+            if (key.isEmpty())
+                continue;
+            keys.add(key);
+            keys.add(choseong(key));
+        }
+        return keys;
+    }
+
+    private static class Snapshot {
+
+        // 좋아요 수가 많은 순으로 정렬되어 있으며, 배열의 위치(순위)가 작을수록 앞에 온다.
+        private final Suggestion[] suggestions;
+        // 키 순으로 정렬된 키와 그 키를 가진 장소의 순위
+        private final String[] keys;
+        private final int[] ranks;
+        // 한 글자 접두사는 범위가 넓으므로 미리 MAX_SIZE 개를 골라둔다.
+        private final Map<Character, int[]> firstCharTop;
+
+        private Snapshot(Suggestion[] suggestions, String[] keys, int[] ranks, Map<Character, int[]> firstCharTop) {
+            this.suggestions = suggestions;
+            this.keys = keys;
+            this.ranks = ranks;
+            this.firstCharTop = firstCharTop;
+        }
+
+        private static Snapshot build(Collection<Suggestion> values) {
+
+            Suggestion[] suggestions = values.toArray(new Suggestion[0]);
+            Arrays.sort(suggestions, Suggestion.ORDER);
+
+            List<String> keyList = new ArrayList<>();
+            List<Integer> rankList = new ArrayList<>();
+            for (int rank = 0; rank < suggestions.length; rank++) {
+                for (String key : keys(suggestions[rank].title)) {
+                    keyList.add(key);
+                    rankList.add(rank);
+                }
+            }
+
+            // (키, 순위) 순으로 정렬한다.
+            Integer[] order = new Integer[keyList.size()];
+            for (int i = 0; i < order.length; i++)
+                order[i] = i;
+            Arrays.sort(order, Comparator.comparing((Integer i) -> keyList.get(i)).thenComparing(rankList::get));
+
+            String[] keys = new String[order.length];
+            int[] ranks = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = keyList.get(order[i]);
+                ranks[i] = rankList.get(order[i]);
+            }
+
+            // 순위 순으로 보면서 첫 글자마다 MAX_SIZE 개까지 담는다.
+            Map<Character, List<Integer>> firstCharRanks = new HashMap<>();
+            for (int rank = 0; rank < suggestions.length; rank++) {
+                Set<Character> firstChars = new HashSet<>();
+                for (String key : keys(suggestions[rank].title))
+                    firstChars.add(key.charAt(0));
+                for (Character firstChar : firstChars) {
+                    List<Integer> top = firstCharRanks.computeIfAbsent(firstChar, c -> new ArrayList<>());
+                    if (top.size() < MAX_SIZE)
+                        top.add(rank);
+                }
+            }
+            Map<Character, int[]> firstCharTop = new HashMap<>();
+            firstCharRanks.forEach((firstChar, top) -> firstCharTop.put(firstChar, top.stream().mapToInt(Integer::intValue).toArray()));
+
+            return new Snapshot(suggestions, keys, ranks, firstCharTop);
+        }
+
+        // prefix 로 시작하는 키의 범위에서 순위가 작은 장소를 중복 없이 limit 개까지 고른다.
+        private int[] top(String prefix, int limit) {
+
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+
+            int[] top = new int[limit];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int rank = ranks[i];
+                if (count == limit && rank >= top[count - 1])
+                    continue;
+
+                // 순위 순으로 정렬된 상태를 유지하며 끼워 넣는다.
+                int pos = Arrays.binarySearch(top, 0, count, rank);
+                if (pos >= 0)
+                    continue;
+                pos = -pos - 1;
+                int length = Math.min(count, limit - 1) - pos;
+                System.arraycopy(top, pos, top, pos + 1, length);
+                top[pos] = rank;
+                count = Math.min(count + 1, limit);
+            }
+            return Arrays.copyOf(top, count);
+        }
+
+        // key 보다 작지 않은 첫 키의 위치
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+    }
+
+    private static class Suggestion {
+
+        private static final Comparator<Suggestion> ORDER = Comparator
+                .comparingLong((Suggestion suggestion) -> suggestion.likeCnt).reversed()
+                .thenComparing(suggestion -> suggestion.id, Comparator.reverseOrder());
+
+        private final Long id;
+        private final String title;
+        private final long likeCnt;
+
+        private Suggestion(Long id, String title, long likeCnt) {
+            this.id = id;
+            this.title = title;
+            this.likeCnt = likeCnt;
+        }
+
+        // 제목이 없으면 찾을 수 없으므로 담지 않는다.
+        private static Suggestion of(LocationResponse locationResponse) {
+            String title = locationResponse.getTitle();
+            if (title == null || normalize(title).isEmpty())
+                return null;
+            Long likeCnt = locationResponse.getLikeCnt();
+            return new Suggestion(locationResponse.getLocationId(), title, likeCnt == null ? 0 : likeCnt);
+        }
+
+        private LocationSuggestResponse toResponse() {
+            return new LocationSuggestResponse(id, title, likeCnt);
+        }
+    }
+}
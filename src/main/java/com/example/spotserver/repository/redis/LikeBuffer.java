@@ -0,0 +1,218 @@
+package com.example.spotserver.repository.redis;
+
+import com.example.spotserver.domain.LikeTarget;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 좋아요를 Redis에 먼저 기록하고 MySQL에는 LikeFlusher가 모아서 반영한다.
+ * 대상별 좋아요 회원 목록은 like:{대상}:{id} SET 으로 보관하며, DB에서 읽어온 SET 에는 SENTINEL 이 들어있다.
+ * 아직 DB에 반영되지 않은 변경은 like:pending HASH 에 {대상}:{id}:{회원 id} 필드로 쌓이고,
+ * 반영 중인 변경은 like:flushing 으로 이름을 바꿔 보관하므로 서버가 중간에 종료되어도 다시 반영할 수 있다.
+ */
+@Repository
+@Slf4j
+public class LikeBuffer {
+
+    public static final long NOT_LOADED = -1;
+
+    // 회원 id는 1부터 시작하므로 0을 "DB에서 읽어온 SET" 표시로 사용한다.
+    private static final String SENTINEL = "0";
+    private static final String PENDING_KEY = "like:pending";
+    private static final String FLUSHING_KEY = "like:flushing";
+    private static final String LOCK_KEY = "like:flush:lock";
+    private static final String UNLIKE = "-";
+
+    // 변경이 있을 때마다 만료 시간을 갱신하므로, 반영 주기보다 충분히 길기만 하면 된다.
+    private static final long SET_TTL_SECONDS = TimeUnit.DAYS.toSeconds(1);
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    // SET이 없으면 NOT_LOADED, 새로 추가(삭제)되면 1, 이미 있으면(없으면) 0
+    private static final RedisScript<Long> LIKE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+                    "local changed = redis.call('SADD', KEYS[1], ARGV[1]) " +
+                    "redis.call('EXPIRE', KEYS[1], ARGV[4]) " +
+                    "if changed == 1 then redis.call('HSET', KEYS[2], ARGV[2], ARGV[3]) end " +
+                    "return changed", Long.class);
+
+    private static final RedisScript<Long> UNLIKE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+                    "local changed = redis.call('SREM', KEYS[1], ARGV[1]) " +
+                    "redis.call('EXPIRE', KEYS[1], ARGV[4]) " +
+                    "if changed == 1 then redis.call('HSET', KEYS[2], ARGV[2], ARGV[3]) end " +
+                    "return changed", Long.class);
+
+    // 잠금 값(토큰)이 자신의 것일 때만 지우거나 만료 시간을 늘린다. (만료 후 다른 서버가 잡은 잠금을 건드리지 않도록)
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+                    "return 0", Long.class);
+
+    private static final RedisScript<Long> EXTEND_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+                    "return 0", Long.class);
+
+    private static final RedisScript<Long> FINISH_FLUSH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+                    "redis.call('DEL', KEYS[2]) " +
+                    "return 1", Long.class);
+
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    public LikeBuffer(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public long like(LikeTarget target, Long targetId, Long memberId) {
+        return redisTemplate.execute(LIKE_SCRIPT,
+                List.of(setKey(target, targetId), PENDING_KEY),
+                memberId.toString(), field(target, targetId, memberId),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(SET_TTL_SECONDS));
+    }
+
+    public long unlike(LikeTarget target, Long targetId, Long memberId) {
+        return redisTemplate.execute(UNLIKE_SCRIPT,
+                List.of(setKey(target, targetId), PENDING_KEY),
+                memberId.toString(), field(target, targetId, memberId),
+                UNLIKE, String.valueOf(SET_TTL_SECONDS));
+    }
+
+    // SET이 없으면 NOT_LOADED
+    public long count(LikeTarget target, Long targetId) {
+        Long size = redisTemplate.opsForSet().size(setKey(target, targetId));
+        return size == null || size == 0 ? NOT_LOADED : size - 1;
+    }
+
+    /**
+     * DB에서 읽은 좋아요 회원 목록으로 SET을 만든다.
+     * 임시 키에 채운 뒤 RENAMENX로 옮기므로 다른 요청이 절반만 채워진 SET을 볼 일이 없고,
+     * 동시에 여러 요청이 읽어와도 먼저 만들어진 SET만 남는다.
+     */
+    public void load(LikeTarget target, Long targetId, List<Long> memberIds) {
+
+        String key = setKey(target, targetId);
+        String tempKey = key + ":loading:" + UUID.randomUUID();
+
+        redisTemplate.opsForSet().add(tempKey, SENTINEL);
+        for (int from = 0; from < memberIds.size(); from += LOAD_CHUNK_SIZE) {
+            String[] chunk = memberIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, memberIds.size()))
+                    .stream()
+                    .map(String::valueOf)
+                    .toArray(String[]::new);
+            redisTemplate.opsForSet().add(tempKey, chunk);
+        }
+
+        if (Boolean.TRUE.equals(redisTemplate.renameIfAbsent(tempKey, key)))
+            redisTemplate.expire(key, SET_TTL_SECONDS, TimeUnit.SECONDS);
+        else
+            redisTemplate.delete(tempKey);
+    }
+
+    // 대상이 삭제되면 SET도 버린다. (남아있는 변경은 반영 시 대상이 없으므로 무시된다.)
+    public void evict(LikeTarget target, Long targetId) {
+        redisTemplate.delete(setKey(target, targetId));
+    }
+
+    public void removeMember(LikeTarget target, List<Long> targetIds, Long memberId) {
+        for (Long targetId : targetIds) {
+            redisTemplate.opsForSet().remove(setKey(target, targetId), memberId.toString());
+        }
+    }
+
+    // 잠금을 얻으면 unlock, extendLock, finishFlush 에 넘길 토큰을, 얻지 못하면 null
+    public String tryLock(long timeoutMillis) {
+        String token = UUID.randomUUID().toString();
+        boolean locked = Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, token, timeoutMillis, TimeUnit.MILLISECONDS));
+        return locked ? token : null;
+    }
+
+    // 잠금이 이미 만료되어 다른 서버가 잡았으면 false
+    public boolean extendLock(String token, long timeoutMillis) {
+        Long extended = redisTemplate.execute(EXTEND_LOCK_SCRIPT, List.of(LOCK_KEY), token, String.valueOf(timeoutMillis));
+        return extended != null && extended == 1;
+    }
+
+    public void unlock(String token) {
+        redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), token);
+    }
+
+    /**
+     * 반영할 변경 목록을 가져온다.
+     * 이전 반영이 끝나지 못하고 남은 like:flushing 이 있으면 그것부터, 없으면 like:pending 을 like:flushing 으로 옮겨서 가져온다.
+     * 반영이 끝나면 finishFlush()로 like:flushing 을 지워야 한다.
+     */
+    public List<Operation> beginFlush() {
+
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(FLUSHING_KEY))) {
+            if (!Boolean.TRUE.equals(redisTemplate.renameIfAbsent(PENDING_KEY, FLUSHING_KEY)))
+                return new ArrayList<>();
+        }
+
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(FLUSHING_KEY);
+        List<Operation> operations = new ArrayList<>(entries.size());
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            Operation operation = parse((String) entry.getKey(), (String) entry.getValue());
+            if (operation != null)
+                operations.add(operation);
+        }
+        return operations;
+    }
+
+    /**
+     * 잠금을 아직 가지고 있을 때만 like:flushing 을 지운다.
+     * 반영하는 동안 잠금이 만료되어 다른 서버가 잡았으면 false 이며, like:flushing 은 그 서버가 다시 반영한 뒤 지운다. (반영은 여러 번 해도 결과가 같다)
+     */
+    public boolean finishFlush(String token) {
+        Long finished = redisTemplate.execute(FINISH_FLUSH_SCRIPT, List.of(LOCK_KEY, FLUSHING_KEY), token);
+        return finished != null && finished == 1;
+    }
+
+    private Operation parse(String field, String value) {
+        try {
+            String[] parts = field.split(":");
+            LikeTarget target = LikeTarget.valueOf(parts[0]);
+            Long targetId = Long.valueOf(parts[1]);
+            Long memberId = Long.valueOf(parts[2]);
+
+            if (UNLIKE.equals(value))
+                return new Operation(target, targetId, memberId, false, null);
+
+            LocalDateTime regDate = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(value)), ZoneId.systemDefault());
+            return new Operation(target, targetId, memberId, true, regDate);
+        } catch (RuntimeException e) {
+            log.warn("[좋아요 버퍼] 잘못된 항목 무시 field={}, value={}", field, value);
+            return null;
+        }
+    }
+
+    private String setKey(LikeTarget target, Long targetId) {
+        return "like:" + target.name() + ":" + targetId;
+    }
+
+    private String field(LikeTarget target, Long targetId, Long memberId) {
+        return target.name() + ":" + targetId + ":" + memberId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Operation {
+        private LikeTarget target;
+        private Long targetId;
+        private Long memberId;
+        private boolean liked;
+        private LocalDateTime regDate;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.spotserver.repository.redis;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * 업로드는 되었지만 아직 DB에 반영이 확정되지 않은 객체 키를 image:pending ZSET 에 올린 시각과 함께 보관한다.
+ * 요청이 중간에 실패하거나 서버가 종료되어 남은 키는 PendingImageSweeper가 정리한다.
+ */
+@Repository
+public class PendingUploadRepository {
+
+    private static final String PENDING_KEY = "image:pending";
+
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    public PendingUploadRepository(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void add(String key) {
+        redisTemplate.opsForZSet().add(PENDING_KEY, key, System.currentTimeMillis());
+    }
+
+    public void remove(Collection<String> keys) {
+        if (keys.isEmpty())
+            return;
+        redisTemplate.opsForZSet().remove(PENDING_KEY, keys.toArray());
+    }
+
+    // 대기 목록에 있는 키. 업로드, 재사용 중인 키는 ImageDeleteWorker가 지우지 않는다.
+    public Set<String> findPending(List<String> keys) {
+        if (keys.isEmpty())
+            return Set.of();
+
+        List<Double> scores = redisTemplate.opsForZSet().score(PENDING_KEY, keys.toArray());
+        Set<String> pending = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (scores != null && scores.get(i) != null)
+                pending.add(keys.get(i));
+        }
+        return pending;
+    }
+
+    // uploadedBefore(밀리초) 이전에 올라간 키를 오래된 순으로 최대 limit 개
+    public List<String> findUploadedBefore(long uploadedBefore, int limit) {
+        Set<String> keys = redisTemplate.opsForZSet().rangeByScore(PENDING_KEY, 0, uploadedBefore, 0, limit);
+        return keys == null ? List.of() : new ArrayList<>(keys);
+    }
+}
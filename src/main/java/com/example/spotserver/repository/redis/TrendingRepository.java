@@ -0,0 +1,107 @@
+package com.example.spotserver.repository.redis;
+
+import com.example.spotserver.domain.LikeTarget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * 게시글, 장소의 인기 점수를 한 시간 단위 ZSET(trending:{대상}:{yyyyMMddHH})에 쌓는다.
+ * 버킷은 가장 긴 집계 기간(일주일)보다 오래 보관한 뒤 만료되며, 조회할 때는 버킷마다 가중치를 곱해 합산한다.
+ */
+@Repository
+public class TrendingRepository {
+
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final Duration BUCKET_TTL = Duration.ofDays(8);
+    private static final int MAX_BUCKETS = 24 * 8;
+
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    public TrendingRepository(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    // 현재 시간 버킷의 점수를 더한다. (음수면 뺀다)
+    public void increment(LikeTarget target, Long targetId, double score) {
+        String key = bucketKey(target, currentHour());
+        redisTemplate.opsForZSet().incrementScore(key, targetId.toString(), score);
+        redisTemplate.expire(key, BUCKET_TTL);
+    }
+
+    /**
+     * weights[i] 를 i 시간 전 버킷의 가중치로 합산해 점수가 높은 순으로 최대 limit 개의 id를 돌려준다.
+     * 합산 결과는 임시 키에 만들었다가 바로 지운다. 점수가 0 이하인 대상은 제외한다.
+     */
+    public List<Long> findTop(LikeTarget target, double[] weights, int limit) {
+
+        List<String> keys = bucketKeys(target, weights.length);
+        String unionKey = "trending:" + target.getTable() + ":union:" + UUID.randomUUID();
+
+        try {
+            redisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()), unionKey,
+                    Aggregate.SUM, Weights.of(weights));
+
+            Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet().reverseRangeWithScores(unionKey, 0, limit - 1);
+            List<Long> ids = new ArrayList<>();
+            if (tuples == null)
+                return ids;
+
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                if (tuple.getScore() == null || tuple.getScore() <= 0)
+                    break;
+                ids.add(Long.valueOf(tuple.getValue()));
+            }
+            return ids;
+        } finally {
+            redisTemplate.delete(unionKey);
+        }
+    }
+
+    // 삭제된 대상을 남아있는 모든 버킷에서 뺀다.
+    public void remove(LikeTarget target, Collection<Long> targetIds) {
+
+        if (targetIds.isEmpty())
+            return;
+
+        byte[][] members = targetIds.stream()
+                .map(id -> id.toString().getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        List<String> keys = bucketKeys(target, MAX_BUCKETS);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) (RedisConnection connection) -> {
+            for (String key : keys)
+                connection.zSetCommands().zRem(key.getBytes(StandardCharsets.UTF_8), members);
+            return null;
+        });
+    }
+
+    private List<String> bucketKeys(LikeTarget target, int hours) {
+        LocalDateTime hour = currentHour();
+        List<String> keys = new ArrayList<>(hours);
+        for (int i = 0; i < hours; i++)
+            keys.add(bucketKey(target, hour.minusHours(i)));
+        return keys;
+    }
+
+    private LocalDateTime currentHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private String bucketKey(LikeTarget target, LocalDateTime hour) {
+        return "trending:" + target.getTable() + ":" + hour.format(BUCKET_FORMAT);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.spotserver.repository.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 직접 업로드 URL을 발급한 객체 키를 upload:{키} 해시에 발급한 회원, 크기, Content-Type, 업로드 파일명과 함께 보관한다.
+ * 게시글, 장소를 저장할 때 한 번만 꺼내 쓸 수 있고, 쓰지 않으면 만료된다.
+ */
+@Repository
+public class UploadTicketRepository {
+
+    private static final String PREFIX = "upload:";
+
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    public UploadTicketRepository(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void save(Ticket ticket, Duration ttl) {
+        String key = PREFIX + ticket.getObjectKey();
+        redisTemplate.opsForHash().putAll(key, Map.of(
+                "memberId", String.valueOf(ticket.getMemberId()),
+                "contentLength", String.valueOf(ticket.getContentLength()),
+                "contentType", ticket.getContentType(),
+                "uploadFileName", ticket.getUploadFileName()));
+        redisTemplate.expire(key, ttl);
+    }
+
+    public Optional<Ticket> find(String objectKey) {
+
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(PREFIX + objectKey);
+        if (entries.isEmpty())
+            return Optional.empty();
+
+        return Optional.of(new Ticket(objectKey,
+                Long.valueOf((String) entries.get("memberId")),
+                Long.parseLong((String) entries.get("contentLength")),
+                (String) entries.get("contentType"),
+                (String) entries.get("uploadFileName")));
+    }
+
+    // 동시에 같은 키를 쓰려는 요청 중 하나만 true
+    public boolean remove(String objectKey) {
+        return Boolean.TRUE.equals(redisTemplate.delete(PREFIX + objectKey));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Ticket {
+        private String objectKey;
+        private Long memberId;
+        private long contentLength;
+        private String contentType;
+        private String uploadFileName;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.spotserver.repository.search;
+
+import com.example.spotserver.repository.jdbc.SearchDocumentRepository.LocationDocument;
+import com.example.spotserver.repository.jdbc.SearchDocumentRepository.PosterDocument;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 장소(제목, 설명, 주소, 좌표)와 게시글(제목, 내용, 장소 좌표)의 Lucene 검색 인덱스. 로컬 디스크(MMapDirectory)에 둔다.
+ * 변경은 IndexWriter 에 바로 반영하고, 검색은 refresh() 로 다시 연 NRT 리더로 수행한다.
+ * 검색 점수는 한국어 형태소(nori) 기준 문장 관련도에 거리, 좋아요 수 점수를 더한 값이다.
+ */
+@Repository
+public class SearchIndex {
+
+    public static final String LOCATION = "location";
+    public static final String POSTER = "poster";
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String LOCATION_ID = "locationId";
+    private static final String MEMBER_ID = "memberId";
+    private static final String POINT = "point";
+    private static final String FEATURES = "features";
+    private static final String LIKES = "likes";
+
+    // 필드별 관련도 가중치
+    private static final Map<String, Float> LOCATION_FIELDS = Map.of("title", 3f, "address", 1.5f, "description", 1f);
+    private static final Map<String, Float> POSTER_FIELDS = Map.of("title", 3f, "content", 1f);
+
+    // 거리 점수는 pivot 거리에서 weight 의 절반, 좋아요 점수는 pivot 개에서 weight 의 절반이 된다.
+    private static final float DISTANCE_WEIGHT = 2f;
+    private static final double DISTANCE_PIVOT_METERS = 5_000;
+    private static final float LIKE_WEIGHT = 1f;
+    private static final float LIKE_PIVOT = 10f;
+
+    private final Analyzer analyzer = new KoreanAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    @Autowired
+    public SearchIndex(@Value("${spot.search.index-dir:./search-index}") String indexDir) throws IOException {
+        this.directory = new MMapDirectory(Path.of(indexDir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    // 닫을 때 커밋된다.
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    public boolean isEmpty() {
+        return writer.getDocStats().numDocs == 0;
+    }
+
+    public void indexLocation(LocationDocument location) throws IOException {
+
+        Document document = new Document();
+        document.add(new StringField(KEY, key(LOCATION, location.getId()), Field.Store.NO));
+        document.add(new StringField(TYPE, LOCATION, Field.Store.NO));
+        document.add(new StoredField(ID, location.getId()));
+        addText(document, "title", location.getTitle());
+        addText(document, "description", location.getDescription());
+        addText(document, "address", location.getAddress());
+        addPoint(document, location.getLatitude(), location.getLongitude());
+        addLikes(document, location.getLikeCount());
+
+        writer.updateDocument(new Term(KEY, key(LOCATION, location.getId())), document);
+    }
+
+    public void indexPoster(PosterDocument poster) throws IOException {
+
+        Document document = new Document();
+        document.add(new StringField(KEY, key(POSTER, poster.getId()), Field.Store.NO));
+        document.add(new StringField(TYPE, POSTER, Field.Store.NO));
+        document.add(new StoredField(ID, poster.getId()));
+        if (poster.getLocationId() != null)
+            document.add(new StringField(LOCATION_ID, poster.getLocationId().toString(), Field.Store.NO));
+        if (poster.getMemberId() != null)
+            document.add(new StringField(MEMBER_ID, poster.getMemberId().toString(), Field.Store.NO));
+        addText(document, "title", poster.getTitle());
+        addText(document, "content", poster.getContent());
+        addPoint(document, poster.getLatitude(), poster.getLongitude());
+        addLikes(document, poster.getLikeCount());
+
+        writer.updateDocument(new Term(KEY, key(POSTER, poster.getId())), document);
+    }
+
+    public void deleteLocation(Long locationId) throws IOException {
+        writer.deleteDocuments(new Term(KEY, key(LOCATION, locationId)));
+    }
+
+    // 장소가 삭제되면 그 장소의 게시글도 함께 지워진다.
+    public void deletePostersByLocation(Long locationId) throws IOException {
+        writer.deleteDocuments(new Term(LOCATION_ID, locationId.toString()));
+    }
+
+    public void deletePoster(Long posterId) throws IOException {
+        writer.deleteDocuments(new Term(KEY, key(POSTER, posterId)));
+    }
+
+    public void deletePostersByMember(Long memberId) throws IOException {
+        writer.deleteDocuments(new Term(MEMBER_ID, memberId.toString()));
+    }
+
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    // 마지막으로 연 뒤에 바뀐 내용이 있으면 검색용 리더를 다시 연다.
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    public void commit() throws IOException {
+        writer.commit();
+    }
+
+    /**
+     * 점수가 높은 순으로 offset 부터 limit 개의 id를 돌려준다.
+     * 검색어가 분석 후 아무 토큰도 남지 않으면(조사, 기호만 있는 경우 등) 빈 목록
+     */
+    public List<Long> search(String type, String text, Double latitude, Double longitude,
+                             int offset, int limit) throws IOException {
+
+        Query textQuery = textQuery(LOCATION.equals(type) ? LOCATION_FIELDS : POSTER_FIELDS, text);
+        if (textQuery == null)
+            return new ArrayList<>();
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.FILTER)
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(FeatureField.newSaturationQuery(FEATURES, LIKES, LIKE_WEIGHT, LIKE_PIVOT), BooleanClause.Occur.SHOULD);
+        if (latitude != null && longitude != null) {
+            query.add(LatLonPoint.newDistanceFeatureQuery(POINT, DISTANCE_WEIGHT, latitude, longitude, DISTANCE_PIVOT_METERS),
+                    BooleanClause.Occur.SHOULD);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            ScoreDoc[] scoreDocs = searcher.search(query.build(), offset + limit).scoreDocs;
+            StoredFields storedFields = searcher.storedFields();
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = offset; i < scoreDocs.length; i++)
+                ids.add(storedFields.document(scoreDocs[i].doc).getField(ID).numericValue().longValue());
+            return ids;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // 필드마다 검색어의 토큰 중 하나라도 포함하면 찾고, 많이 포함할수록 점수가 높다.
+    private Query textQuery(Map<String, Float> fields, String text) {
+
+        QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+        BooleanQuery.Builder textQuery = new BooleanQuery.Builder();
+        boolean empty = true;
+        for (Map.Entry<String, Float> field : fields.entrySet()) {
+            Query query = queryBuilder.createBooleanQuery(field.getKey(), text);
+            if (query == null)
+                continue;
+            textQuery.add(new BoostQuery(query, field.getValue()), BooleanClause.Occur.SHOULD);
+            empty = false;
+        }
+        return empty ? null : textQuery.build();
+    }
+
+    private void addText(Document document, String field, String value) {
+        if (value != null)
+            document.add(new TextField(field, value, Field.Store.NO));
+    }
+
+    // 거리 점수 계산에 doc values 가 필요하다.
+    private void addPoint(Document document, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null)
+            return;
+        document.add(new LatLonPoint(POINT, latitude, longitude));
+        document.add(new LatLonDocValuesField(POINT, latitude, longitude));
+    }
+
+    // FeatureField 는 양수만 저장할 수 있으므로 좋아요가 없으면 넣지 않는다. (점수 0)
+    private void addLikes(Document document, long likeCount) {
+        if (likeCount > 0)
+            document.add(new FeatureField(FEATURES, LIKES, likeCount));
+    }
+
+    private String key(String type, Long id) {
+        return type + ":" + id;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.spotserver.repository.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 로컬 디스크 저장소. 온프레미스 환경이나 S3 없이 테스트할 때 사용한다.
+ * 한 폴더에 파일이 너무 많아지지 않도록 파일명(UUID) 앞 4글자로 두 단계 폴더를 나눈다. (posterImg/ab/cd/abcd....jpg)
+ * 임시 파일에 쓴 뒤 이동하므로 쓰는 도중인 파일이 읽히지 않는다.
+ * 클라이언트가 직접 올리는 URL(presigned)은 지원하지 않으므로 이미지는 multipart 로만 받는다.
+ */
+@Repository
+@ConditionalOnProperty(name = "spot.storage.type", havingValue = "local")
+@Slf4j
+public class LocalObjectStorage implements ObjectStorage {
+
+    private Path root;
+    private String baseUrl;
+
+    public LocalObjectStorage(@Value("${spot.storage.local.root:./storage}") String root,
+                              @Value("${spot.storage.local.base-url:/files}") String baseUrl) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl;
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public void put(String key, InputStream inputStream, long contentLength, String contentType) throws IOException {
+
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<String> deleteAll(List<String> keys) {
+        List<String> failed = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException e) {
+                log.warn("[로컬 저장소] 삭제 실패 key={}", key, e);
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public Optional<StoredObject> head(String key) {
+        Path path = resolve(key);
+        try {
+            String contentType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                    .toString();
+            return Optional.of(new StoredObject(Files.size(path), contentType));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return baseUrl + "/" + key;
+    }
+
+    @Override
+    public Optional<Path> getFile(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    // 키가 저장소 폴더 밖을 가리키지 않도록 확인한다.
+    private Path resolve(String key) {
+
+        int index = key.lastIndexOf('/') + 1;
+        String dir = key.substring(0, index);
+        String fileName = key.substring(index);
+        String shard = fileName.length() < 4 ? "" : fileName.substring(0, 2) + "/" + fileName.substring(2, 4) + "/";
+
+        Path path = root.resolve(dir + shard + fileName).normalize();
+        if (fileName.isEmpty() || !path.startsWith(root))
+            throw new IllegalArgumentException("잘못된 키: " + key);
+        return path;
+    }
+}
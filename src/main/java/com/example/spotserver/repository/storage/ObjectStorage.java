@@ -0,0 +1,45 @@
+package com.example.spotserver.repository.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 이미지 원본, 축소본을 키(posterImg/{uuid}.jpg 등)로 저장하는 저장소.
+ * spot.storage.type 으로 S3(기본값)와 로컬 디스크(local) 중에서 고른다.
+ */
+public interface ObjectStorage {
+
+    void put(String key, InputStream inputStream, long contentLength, String contentType) throws IOException;
+
+    // 객체가 없으면 NoSuchFileException
+    InputStream open(String key) throws IOException;
+
+    boolean exists(String key);
+
+    // 크기와 Content-Type. 객체가 없으면 empty
+    Optional<StoredObject> head(String key);
+
+    void delete(String key);
+
+    // 지우지 못한 키를 돌려준다.
+    List<String> deleteAll(List<String> keys);
+
+    String getUrl(String key);
+
+    // 로컬 디스크에 저장하는 경우 파일을 바로 내려줄 수 있도록 경로를 돌려준다.
+    default Optional<Path> getFile(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * 클라이언트가 서버를 거치지 않고 바로 올릴 수 있는 PUT URL. Content-Type 과 크기(Content-Length)를 서명에 포함한다.
+     * 지원하지 않는 저장소면 empty
+     */
+    default Optional<String> presignPut(String key, String contentType, long contentLength, Duration expiry) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.spotserver.repository.storage;
+
+import com.amazonaws.HttpMethod;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@ConditionalOnProperty(name = "spot.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStorage implements ObjectStorage {
+
+    private AmazonS3Client amazonS3Client;
+
+    @Value("${cloud.aws.s3.bucket}")
+    private String bucket;
+
+    @Autowired
+    public S3ObjectStorage(AmazonS3Client amazonS3Client) {
+        this.amazonS3Client = amazonS3Client;
+    }
+
+    @Override
+    public void put(String key, InputStream inputStream, long contentLength, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        metadata.setContentLength(contentLength);
+        amazonS3Client.putObject(bucket, key, inputStream, metadata);
+    }
+
+    @Override
+    public InputStream open(String key) throws NoSuchFileException {
+        try {
+            return amazonS3Client.getObject(bucket, key).getObjectContent();
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404)
+                throw new NoSuchFileException(key);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return amazonS3Client.doesObjectExist(bucket, key);
+    }
+
+    @Override
+    public Optional<StoredObject> head(String key) {
+        try {
+            ObjectMetadata metadata = amazonS3Client.getObjectMetadata(bucket, key);
+            return Optional.of(new StoredObject(metadata.getContentLength(), metadata.getContentType()));
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404)
+                return Optional.empty();
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        amazonS3Client.deleteObject(bucket, key);
+    }
+
+    // 한 번의 요청으로 여러 객체를 지운다. (S3 제한상 최대 1000개)
+    @Override
+    public List<String> deleteAll(List<String> keys) {
+
+        if (keys.isEmpty())
+            return List.of();
+
+        DeleteObjectsRequest request = new DeleteObjectsRequest(bucket)
+                .withKeys(keys.toArray(new String[0]))
+                .withQuiet(true);
+        try {
+            amazonS3Client.deleteObjects(request);
+            return List.of();
+        } catch (MultiObjectDeleteException e) {
+            return e.getErrors().stream()
+                    .map(MultiObjectDeleteException.DeleteError::getKey)
+                    .toList();
+        }
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return amazonS3Client.getResourceUrl(bucket, key);
+    }
+
+    // 서명에 포함된 헤더와 다른 값으로 올리면 S3가 거부한다.
+    @Override
+    public Optional<String> presignPut(String key, String contentType, long contentLength, Duration expiry) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucket, key, HttpMethod.PUT)
+                .withContentType(contentType)
+                .withExpiration(new Date(System.currentTimeMillis() + expiry.toMillis()));
+        request.putCustomRequestHeader(Headers.CONTENT_LENGTH, String.valueOf(contentLength));
+        return Optional.of(amazonS3Client.generatePresignedUrl(request).toString());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.spotserver.repository.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StoredObject {
+    private long contentLength;
+    private String contentType;
+}
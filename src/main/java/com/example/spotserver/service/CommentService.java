@@ -1,24 +1,30 @@
 package com.example.spotserver.service;
 
 
+import com.example.spotserver.config.cache.CacheNames;
 import com.example.spotserver.domain.Comment;
-import com.example.spotserver.domain.CommentLike;
+import com.example.spotserver.domain.Cursor;
+import com.example.spotserver.domain.LikeTarget;
 import com.example.spotserver.domain.Member;
 import com.example.spotserver.domain.Poster;
 import com.example.spotserver.dto.request.CommentConditionRequest;
 import com.example.spotserver.dto.request.CommentRequest;
 import com.example.spotserver.dto.response.CommentResponse;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.PageResponse;
+import com.example.spotserver.event.CommentEvent;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.ErrorCode;
 import com.example.spotserver.exception.PermissionException;
-import com.example.spotserver.repository.CommentLikeRepository;
 import com.example.spotserver.repository.CommentRepository;
 import com.example.spotserver.repository.MemberRepository;
 import com.example.spotserver.repository.PosterRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -29,15 +35,19 @@ import java.util.NoSuchElementException;
 public class CommentService {
     private CommentRepository commentRepository;
     private PosterRepository posterRepository;
-    private CommentLikeRepository commentLikeRepository;
+    private LikeService likeService;
     private MemberRepository memberRepository;
+    private ImageUrlResolver imageUrlResolver;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CommentService(CommentRepository commentRepository, PosterRepository posterRepository, CommentLikeRepository commentLikeRepository, MemberRepository memberRepository) {
+    public CommentService(CommentRepository commentRepository, PosterRepository posterRepository, LikeService likeService, MemberRepository memberRepository, ImageUrlResolver imageUrlResolver, ApplicationEventPublisher eventPublisher) {
         this.commentRepository = commentRepository;
         this.posterRepository = posterRepository;
-        this.commentLikeRepository = commentLikeRepository;
+        this.likeService = likeService;
         this.memberRepository = memberRepository;
+        this.imageUrlResolver = imageUrlResolver;
+        this.eventPublisher = eventPublisher;
     }
 
     public Long addComment(Long posterId, Comment comment, Long memberId) {
@@ -53,19 +63,31 @@ public class CommentService {
         comment.setWriter(member);
 
         commentRepository.save(comment);
+        posterRepository.addCommentCount(posterId, 1);
+        eventPublisher.publishEvent(new CommentEvent(CommentEvent.Type.ADD, comment.getId(), posterId));
         return comment.getId();
     }
 
     public PageResponse<CommentResponse> getComments(Long posterId, CommentConditionRequest commentConditionRequest) {
-        Page<CommentResponse> comments = commentRepository.getComments(posterId, commentConditionRequest);
+        Slice<CommentResponse> comments = commentRepository.getComments(posterId, commentConditionRequest);
+        imageUrlResolver.fillMemberImages(comments.getContent());
         PageResponse<CommentResponse> pageResponse = new PageResponse<>(comments);
         return pageResponse;
     }
 
+    public CursorResponse<CommentResponse> getCommentsByCursor(Long posterId, CommentConditionRequest commentConditionRequest) throws CursorException {
+        Cursor cursor = Cursor.decode(commentConditionRequest.getCursor());
+        CursorResponse<CommentResponse> cursorResponse = commentRepository.getCommentsByCursor(posterId, commentConditionRequest, cursor);
+        imageUrlResolver.fillMemberImages(cursorResponse.getResults());
+        return cursorResponse;
+    }
+
+    @Cacheable(cacheNames = CacheNames.COMMENT, key = "#commentId", sync = true)
     public CommentResponse getComment(Long commentId) {
         CommentResponse commentResponse = commentRepository.getCommentById(commentId);
         if(commentResponse==null)
             throw new NoSuchElementException();
+        imageUrlResolver.fillMemberImages(List.of(commentResponse));
         return commentResponse;
     }
 
@@ -82,6 +104,11 @@ public class CommentService {
         // writer.hashCode()랑 member.hashCode()가 일치함!
         if (commentWriter.getId().equals(member.getId())) {
             commentRepository.delete(comment);
+            likeService.evict(LikeTarget.COMMENT, commentId);
+            Long posterId = comment.getPoster() == null ? null : comment.getPoster().getId();
+            if (posterId != null)
+                posterRepository.addCommentCount(posterId, -1);
+            eventPublisher.publishEvent(new CommentEvent(CommentEvent.Type.DELETE, commentId, posterId));
         } else {
             throw new PermissionException(ErrorCode.FORBIDDEN_CLIENT);
         }
@@ -99,39 +126,22 @@ public class CommentService {
 
         if (commentWriter.getId().equals(member.getId())) {
             comment.setContent(commentRequest.getContent());
+            eventPublisher.publishEvent(new CommentEvent(CommentEvent.Type.UPDATE, commentId, null));
         } else {
             throw new PermissionException(ErrorCode.FORBIDDEN_CLIENT);
         }
 
     }
 
+    // 좋아요는 Redis 버퍼에만 기록하므로 DB 트랜잭션을 새로 열지 않는다.
+    @Transactional(Transactional.TxType.SUPPORTS)
     public void addLike(Long commentId, Long memberId) throws DuplicateException {
-
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new NoSuchElementException());
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        if (commentLikeRepository.existsByCommentAndMember(comment, member))
-            throw new DuplicateException(ErrorCode.DUPLICATE_LIKE);
-
-        CommentLike commentLike = new CommentLike();
-        commentLike.setMember(member);
-        commentLike.setComment(comment);
-        commentLikeRepository.save(commentLike);
+        likeService.addLike(LikeTarget.COMMENT, commentId, memberId);
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public void deleteLike(Long commentId, Long memberId) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        CommentLike commentLike = commentLikeRepository.findByCommentAndMember(comment, member)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        commentLikeRepository.delete(commentLike);
+        likeService.deleteLike(LikeTarget.COMMENT, commentId, memberId);
     }
 
 }
@@ -0,0 +1,58 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.repository.CommentRepository;
+import com.example.spotserver.repository.LocationRepository;
+import com.example.spotserver.repository.PosterRepository;
+import com.example.spotserver.repository.memory.LocationSpatialIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BiFunction;
+
+// 좋아요, 댓글 수 카운터가 실제 개수와 어긋난 경우 주기적으로 맞춘다.
+// 한 번에 테이블 전체를 잠그지 않도록 id 범위 단위로 나눠서 갱신한다.
+@Component
+@Slf4j
+public class CounterReconciler {
+
+    private static final long BATCH_SIZE = 1000;
+
+    private PosterRepository posterRepository;
+    private LocationRepository locationRepository;
+    private CommentRepository commentRepository;
+    private LocationSpatialIndex locationSpatialIndex;
+
+    @Autowired
+    public CounterReconciler(PosterRepository posterRepository, LocationRepository locationRepository, CommentRepository commentRepository, LocationSpatialIndex locationSpatialIndex) {
+        this.posterRepository = posterRepository;
+        this.locationRepository = locationRepository;
+        this.commentRepository = commentRepository;
+        this.locationSpatialIndex = locationSpatialIndex;
+    }
+
+    @Scheduled(cron = "${spot.counter.reconcile-cron:0 0 4 * * *}")
+    public void reconcile() {
+
+        int posters = reconcile(posterRepository.findMaxId(), posterRepository::reconcileCounts);
+        int locations = reconcile(locationRepository.findMaxId(), locationRepository::reconcileCounts);
+        int comments = reconcile(commentRepository.findMaxId(), commentRepository::reconcileCounts);
+
+        // 메모리 인덱스의 좋아요 수도 DB 값으로 다시 맞춘다.
+        if (locations > 0)
+            locationSpatialIndex.rebuild();
+
+        if (posters + locations + comments > 0)
+            log.info("[카운터 보정] 게시글 {}개, 장소 {}개, 댓글 {}개 갱신", posters, locations, comments);
+    }
+
+    private int reconcile(Long maxId, BiFunction<Long, Long, Integer> reconcileCounts) {
+
+        int total = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += BATCH_SIZE) {
+            total += reconcileCounts.apply(fromId, fromId + BATCH_SIZE - 1);
+        }
+        return total;
+    }
+}
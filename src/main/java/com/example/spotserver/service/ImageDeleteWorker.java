@@ -0,0 +1,121 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.ImageStore;
+import com.example.spotserver.domain.ImageVariant;
+import com.example.spotserver.repository.jdbc.ImageDeleteOutboxRepository;
+import com.example.spotserver.repository.redis.PendingUploadRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * image_delete_outbox 에 쌓인 키를 축소본과 함께 S3 다중 객체 삭제로 1000개씩 지운다.
+ * 실패한 키는 시도 횟수에 따라 늦춰서 다시 시도하고, 남은 키 수는 image.delete.queue 게이지로 노출한다.
+ * 같은 내용의 새 업로드가 재사용하려고 대기 목록에 올린 키는 지우지 않고 미룬다. (커밋되면 image_blob 이 outbox 에서 뺀다)
+ */
+@Component
+@Slf4j
+public class ImageDeleteWorker {
+
+    // S3 DeleteObjects 한 번에 지울 수 있는 최대 키 수. 원본마다 축소본도 함께 지운다.
+    private static final int MAX_KEYS = 1000;
+    private static final int BATCH_SIZE = MAX_KEYS / (ImageVariant.values().length + 1);
+    private static final int MAX_ROUNDS = 10;
+    private static final long LEASE_SECONDS = 300;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private ImageDeleteOutboxRepository outboxRepository;
+    private ImageStore imageStore;
+    private PendingUploadRepository pendingUploadRepository;
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private Counter deletedCounter;
+    private Counter failedCounter;
+
+    @Autowired
+    public ImageDeleteWorker(ImageDeleteOutboxRepository outboxRepository, ImageStore imageStore, PendingUploadRepository pendingUploadRepository, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.imageStore = imageStore;
+        this.pendingUploadRepository = pendingUploadRepository;
+
+        Gauge.builder("image.delete.queue", queueDepth, AtomicLong::get)
+                .description("삭제 대기 중인 이미지 수")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("image.delete.deleted").register(meterRegistry);
+        this.failedCounter = Counter.builder("image.delete.failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${spot.s3.delete-delay:5000}", initialDelayString = "${spot.s3.delete-delay:5000}")
+    public void scheduledDrain() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            // 가져간 키는 lease 가 끝나면 다시 처리된다.
+            log.error("[이미지 삭제] 실패", e);
+        } finally {
+            queueDepth.set(outboxRepository.count());
+        }
+    }
+
+    // 한 번에 너무 오래 잡고 있지 않도록 최대 MAX_ROUNDS 배치까지만 처리한다.
+    public int drain() {
+
+        int total = 0;
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+
+            List<ImageDeleteOutboxRepository.Entry> entries = outboxRepository.claim(BATCH_SIZE, LEASE_SECONDS);
+            if (entries.isEmpty())
+                break;
+
+            Set<String> pendingKeys = pendingUploadRepository.findPending(entries.stream()
+                    .map(ImageDeleteOutboxRepository.Entry::getObjectKey)
+                    .distinct()
+                    .toList());
+
+            List<String> keys = entries.stream()
+                    .map(ImageDeleteOutboxRepository.Entry::getObjectKey)
+                    .distinct()
+                    .filter(key -> !pendingKeys.contains(key))
+                    .flatMap(key -> imageStore.withVariants(key).stream())
+                    .toList();
+
+            Set<String> failedKeys = new HashSet<>(imageStore.deleteObjects(keys));
+
+            List<Long> deletedIds = new ArrayList<>();
+            List<Long> failedIds = new ArrayList<>();
+            List<Long> deferredIds = new ArrayList<>();
+            for (ImageDeleteOutboxRepository.Entry entry : entries) {
+                if (pendingKeys.contains(entry.getObjectKey())) {
+                    deferredIds.add(entry.getId());
+                    continue;
+                }
+                List<String> entryKeys = imageStore.withVariants(entry.getObjectKey());
+                if (entryKeys.stream().anyMatch(failedKeys::contains))
+                    failedIds.add(entry.getId());
+                else
+                    deletedIds.add(entry.getId());
+            }
+
+            outboxRepository.deleteByIds(deletedIds);
+            outboxRepository.retryLater(failedIds, MAX_BACKOFF_SECONDS);
+            outboxRepository.retryLater(deferredIds, MAX_BACKOFF_SECONDS);
+
+            deletedCounter.increment(deletedIds.size());
+            failedCounter.increment(failedIds.size());
+            if (!failedIds.isEmpty())
+                log.warn("[이미지 삭제] {}건 실패, 나중에 다시 시도", failedIds.size());
+
+            total += deletedIds.size();
+            if (entries.size() < BATCH_SIZE)
+                break;
+        }
+        return total;
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.spotserver.service;
 
-import com.amazonaws.services.s3.AmazonS3Client;
 import com.example.spotserver.domain.ImageStore;
 import com.example.spotserver.domain.PosterImage;
 import com.example.spotserver.domain.LocationImage;
@@ -9,16 +8,11 @@ import com.example.spotserver.dto.response.PosterImageResponse;
 import com.example.spotserver.repository.PosterImageRepository;
 import com.example.spotserver.repository.LocationImageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.net.MalformedURLException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.Optional;
 
 @Service
@@ -27,17 +21,14 @@ public class ImageFileService {
     private PosterImageRepository posterImageRepository;
     private LocationImageRepository locationImageRepository;
     private ImageStore imageStore;
-    private AmazonS3Client amazonS3Client;
-
-    @Value("${cloud.aws.s3.bucket}")
-    private String bucket;
+    private ImageUrlResolver imageUrlResolver;
 
     @Autowired
-    public ImageFileService(PosterImageRepository posterImageRepository, LocationImageRepository locationImageRepository, ImageStore imageStore, AmazonS3Client amazonS3Client) {
+    public ImageFileService(PosterImageRepository posterImageRepository, LocationImageRepository locationImageRepository, ImageStore imageStore, ImageUrlResolver imageUrlResolver) {
         this.posterImageRepository = posterImageRepository;
         this.locationImageRepository = locationImageRepository;
         this.imageStore = imageStore;
-        this.amazonS3Client = amazonS3Client;
+        this.imageUrlResolver = imageUrlResolver;
     }
 
     public List<PosterImageResponse> getPosterImageList(Long posterId) {
@@ -60,20 +51,27 @@ public class ImageFileService {
         return locationImageResponseList;
     }
 
-    public String getLocationImageUrl(Long locationImageId) {
-        LocationImage locationImage = locationImageRepository.findById(locationImageId)
-                .orElseThrow(() -> new NoSuchElementException());
-        String imagefileName = locationImage.getStoreFileName();
-        String imageUrl = amazonS3Client.getResourceUrl(bucket, imageStore.getLocationImgDir() + imagefileName);
-        return imageUrl;
+    // id -> 키는 ImageUrlResolver 에 캐싱되므로 반복 요청은 DB를 조회하지 않는다.
+    public ImageUrlResolver.StoredImage getLocationImage(Long locationImageId) {
+        return imageUrlResolver.getLocationImage(locationImageId);
+    }
+
+    public ImageUrlResolver.StoredImage getPosterImage(Long posterImageId) {
+        return imageUrlResolver.getPosterImage(posterImageId);
+    }
+
+    // size를 주면 그 크기 이상인 가장 작은 축소본, 축소본이 아직 없으면 원본
+    public String getImageKey(ImageUrlResolver.StoredImage image, Integer size) {
+        return imageUrlResolver.getKey(image, size);
+    }
+
+    public String getImageUrl(String key) {
+        return imageStore.getUrl(key);
     }
 
-    public String getPosterImageUrl(Long posterImageId) {
-        PosterImage posterImage = posterImageRepository.findById(posterImageId)
-                .orElseThrow(() -> new NoSuchElementException());
-        String imagefileName = posterImage.getStoreFileName();
-        String imageUrl = amazonS3Client.getResourceUrl(bucket, imageStore.getPosterImgDir() + imagefileName);
-        return imageUrl;
+    // 로컬 디스크 저장소일 때는 리다이렉트하지 않고 파일을 직접 내려준다.
+    public Optional<Path> getImageFile(String key) {
+        return imageStore.getFile(key);
     }
 
 }
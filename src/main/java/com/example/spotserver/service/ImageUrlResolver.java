@@ -0,0 +1,201 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.ImageStore;
+import com.example.spotserver.domain.ImageVariant;
+import com.example.spotserver.domain.ThumbnailStatus;
+import com.example.spotserver.dto.response.CommentResponse;
+import com.example.spotserver.dto.response.ImageUrlResponse;
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.PosterResponse;
+import com.example.spotserver.event.LocationEvent;
+import com.example.spotserver.event.PosterEvent;
+import com.example.spotserver.repository.jdbc.ImageLookupRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 이미지 id를 저장소 키로 바꾸고, 목록 응답에 바로 쓸 수 있는 이미지 주소를 채운다.
+ * 축소본 생성이 끝난 이미지는 키가 더 이상 바뀌지 않으므로 id -> 키를 오래 캐싱한다.
+ * 삭제된 이미지가 캐시에 남아도 저장소에서 이미 지워졌으므로 결과는 같다. (404)
+ * 목록 응답의 이미지는 게시글, 장소 id -> 이미지 목록으로 캐싱하고 없는 id만 DB에서 읽는다.
+ * 게시글 수정, 삭제와 장소 삭제는 커밋 후 지우고, 다른 서버에서의 변경은 spot.image.owner-cache.ttl 동안 이전 목록으로 남는다.
+ */
+@Component
+public class ImageUrlResolver {
+
+    private ImageLookupRepository imageLookupRepository;
+    private ImageStore imageStore;
+
+    private final Cache<Long, StoredImage> posterImageCache;
+    private final Cache<Long, StoredImage> locationImageCache;
+    // 게시글, 장소 id -> 이미지 목록 (id 순). 축소본 생성이 끝난 목록만 담는다.
+    private final Cache<Long, List<ImageLookupRepository.Image>> posterOwnerCache;
+    private final Cache<Long, List<ImageLookupRepository.Image>> locationOwnerCache;
+
+    @Autowired
+    public ImageUrlResolver(ImageLookupRepository imageLookupRepository, ImageStore imageStore,
+                            @Value("${spot.image.url-cache.max-size:50000}") long maxSize,
+                            @Value("${spot.image.url-cache.ttl:1d}") Duration ttl,
+                            @Value("${spot.image.owner-cache.ttl:5m}") Duration ownerTtl) {
+        this.imageLookupRepository = imageLookupRepository;
+        this.imageStore = imageStore;
+        this.posterImageCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.locationImageCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.posterOwnerCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ownerTtl)
+                .build();
+        this.locationOwnerCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ownerTtl)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPosterEvent(PosterEvent event) {
+        if (event.getType() != PosterEvent.Type.ADD)
+            posterOwnerCache.invalidate(event.getPosterId());
+    }
+
+    // 장소 이미지는 등록할 때 함께 저장되고 이후 바뀌지 않는다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationEvent(LocationEvent event) {
+        if (event.getType() == LocationEvent.Type.DELETE)
+            locationOwnerCache.invalidate(event.getLocationId());
+    }
+
+    public StoredImage getPosterImage(Long posterImageId) {
+        return get(posterImageCache, posterImageId, imageLookupRepository::findPosterImage, imageStore.getPosterImgDir());
+    }
+
+    public StoredImage getLocationImage(Long locationImageId) {
+        return get(locationImageCache, locationImageId, imageLookupRepository::findLocationImage, imageStore.getLocationImgDir());
+    }
+
+    // size를 주면 그 크기 이상인 가장 작은 축소본, 축소본이 아직 없으면 원본
+    public String getKey(StoredImage image, Integer size) {
+        if (size == null || image.getThumbnailStatus() != ThumbnailStatus.READY)
+            return image.getKey();
+        return imageStore.getVariantKey(image.getKey(), ImageVariant.fit(size));
+    }
+
+    // 게시글마다 이미지 주소 목록을 채운다. 캐시에 없는 게시글만 모아 한 번 조회한다.
+    public void fillPosterImages(List<PosterResponse> posters) {
+        if (posters.isEmpty())
+            return;
+
+        Map<Long, List<ImageUrlResponse>> images = findImages(
+                posters.stream().map(PosterResponse::getPosterId).toList(), imageLookupRepository::findPosterImages,
+                imageStore.getPosterImgDir(), posterImageCache, posterOwnerCache);
+        for (PosterResponse poster : posters)
+            poster.setImages(images.getOrDefault(poster.getPosterId(), List.of()));
+    }
+
+    public void fillLocationImages(List<LocationResponse> locations) {
+        if (locations.isEmpty())
+            return;
+
+        Map<Long, List<ImageUrlResponse>> images = findImages(
+                locations.stream().map(LocationResponse::getLocationId).toList(), imageLookupRepository::findLocationImages,
+                imageStore.getLocationImgDir(), locationImageCache, locationOwnerCache);
+        for (LocationResponse location : locations)
+            location.setImages(images.getOrDefault(location.getLocationId(), List.of()));
+    }
+
+    // 작성자 프로필 이미지는 파일명만으로 주소를 만들 수 있으므로 조회하지 않는다.
+    public void fillMemberImages(List<CommentResponse> comments) {
+        for (CommentResponse comment : comments) {
+            String storeFileName = comment.getMemberImg();
+            if (storeFileName != null && !storeFileName.isEmpty())
+                comment.setMemberImg(imageStore.getMemberImgFullPath(storeFileName));
+            else // 기본 이미지 경로
+                comment.setMemberImg("");
+        }
+    }
+
+    private StoredImage get(Cache<Long, StoredImage> cache, Long id,
+                            Function<Long, Optional<ImageLookupRepository.Image>> finder, String dir) {
+
+        StoredImage cached = cache.getIfPresent(id);
+        if (cached != null)
+            return cached;
+
+        StoredImage image = finder.apply(id)
+                .map(found -> new StoredImage(dir + found.getStoreFileName(), found.getThumbnailStatus()))
+                .orElseThrow(() -> new NoSuchElementException());
+        if (image.isSettled())
+            cache.put(id, image);
+        return image;
+    }
+
+    // 캐시에 없는 id의 이미지만 조회하고, 조회 결과로 이미지 id 캐시도 채워서 이어지는 이미지 요청이 DB를 거치지 않게 한다.
+    private Map<Long, List<ImageUrlResponse>> findImages(List<Long> ownerIds,
+                                                         Function<Collection<Long>, List<ImageLookupRepository.Image>> finder,
+                                                         String dir, Cache<Long, StoredImage> imageCache,
+                                                         Cache<Long, List<ImageLookupRepository.Image>> ownerCache) {
+
+        Map<Long, List<ImageLookupRepository.Image>> images = new HashMap<>(ownerCache.getAllPresent(ownerIds));
+        List<Long> missingIds = ownerIds.stream()
+                .filter(ownerId -> !images.containsKey(ownerId))
+                .distinct()
+                .toList();
+
+        if (!missingIds.isEmpty()) {
+            // 이미지가 없는 id도 빈 목록으로 캐싱한다.
+            Map<Long, List<ImageLookupRepository.Image>> found = new HashMap<>();
+            for (Long ownerId : missingIds)
+                found.put(ownerId, new ArrayList<>());
+
+            for (ImageLookupRepository.Image image : finder.apply(missingIds)) {
+                found.get(image.getOwnerId()).add(image);
+                StoredImage storedImage = new StoredImage(dir + image.getStoreFileName(), image.getThumbnailStatus());
+                if (storedImage.isSettled())
+                    imageCache.put(image.getId(), storedImage);
+            }
+
+            found.forEach((ownerId, ownerImages) -> {
+                // 축소본 생성 중인 이미지가 있으면 완료 후 주소가 바뀌므로 캐싱하지 않는다.
+                if (ownerImages.stream().allMatch(image -> image.getThumbnailStatus() != ThumbnailStatus.PENDING))
+                    ownerCache.put(ownerId, List.copyOf(ownerImages));
+            });
+            images.putAll(found);
+        }
+
+        Map<Long, List<ImageUrlResponse>> result = new HashMap<>();
+        images.forEach((ownerId, ownerImages) -> {
+            List<ImageUrlResponse> urls = new ArrayList<>(ownerImages.size());
+            for (ImageLookupRepository.Image image : ownerImages)
+                urls.add(ImageUrlResponse.toDto(image.getId(), dir + image.getStoreFileName(), image.getThumbnailStatus(), imageStore));
+            result.put(ownerId, urls);
+        });
+        return result;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredImage {
+        private String key;
+        private ThumbnailStatus thumbnailStatus;
+
+        // 축소본 생성이 끝나(READY, FAILED) 요청 크기별 키가 더 이상 바뀌지 않는다.
+        public boolean isSettled() {
+            return thumbnailStatus != ThumbnailStatus.PENDING;
+        }
+    }
+}
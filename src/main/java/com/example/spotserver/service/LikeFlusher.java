@@ -0,0 +1,145 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.LikeTarget;
+import com.example.spotserver.event.LikeEvent;
+import com.example.spotserver.repository.jdbc.LikeJdbcRepository;
+import com.example.spotserver.repository.redis.LikeBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Redis에 쌓인 좋아요 변경을 주기적으로 MySQL에 반영한다.
+@Component
+@Slf4j
+public class LikeFlusher {
+
+    // 한 번에 반영할 수 있는 시간보다 충분히 길게 잡는다. (서버가 죽어서 잠금이 남아도 이 시간 뒤엔 다른 서버가 반영)
+    // 반영하는 동안에는 변경 목록을 가져올 때마다 다시 늘린다.
+    private static final long LOCK_TIMEOUT_MILLIS = 60_000;
+    // flushNow()가 다른 서버의 반영이 끝나기를 기다리는 시간
+    private static final long LOCK_WAIT_MILLIS = 10_000;
+    private static final long LOCK_RETRY_MILLIS = 50;
+
+    private LikeBuffer likeBuffer;
+    private LikeJdbcRepository likeJdbcRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private TransactionTemplate newTransactionTemplate;
+
+    @Autowired
+    public LikeFlusher(LikeBuffer likeBuffer, LikeJdbcRepository likeJdbcRepository, ApplicationEventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager) {
+        this.likeBuffer = likeBuffer;
+        this.likeJdbcRepository = likeJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(fixedDelayString = "${spot.like.flush-delay:1000}", initialDelayString = "${spot.like.flush-delay:1000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // like:flushing 이 남아있으므로 다음 주기에 다시 반영된다.
+            log.error("[좋아요 반영] 실패", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        scheduledFlush();
+    }
+
+    /**
+     * 이전 실행에서 남은 변경을 먼저 반영한 뒤 지금까지 쌓인 변경을 반영한다.
+     * 여러 서버가 동시에 반영하지 않도록 Redis 잠금을 잡으며, 잠금을 얻지 못하면 아무것도 하지 않는다.
+     * 호출한 쪽의 트랜잭션이 있으면 그 안에서 반영한다.
+     */
+    public synchronized int flush() {
+
+        String token = likeBuffer.tryLock(LOCK_TIMEOUT_MILLIS);
+        if (token == null)
+            return 0;
+
+        try {
+            return flush(token, false);
+        } finally {
+            likeBuffer.unlock(token);
+        }
+    }
+
+    /**
+     * 반영이 끝나야 다음 작업을 할 수 있는 경우(회원 탈퇴)에 사용한다.
+     * 다른 서버가 반영 중이면 LOCK_WAIT_MILLIS 동안 기다리고, 그래도 잠금을 얻지 못하면 IllegalStateException.
+     * 호출한 쪽의 트랜잭션과 상관없이 새 트랜잭션으로 반영하고 커밋한 뒤에 버퍼를 지운다.
+     * (호출한 쪽이 롤백되어도 반영된 좋아요는 남는다)
+     */
+    public synchronized int flushNow() {
+
+        long deadline = System.currentTimeMillis() + LOCK_WAIT_MILLIS;
+        String token;
+        while ((token = likeBuffer.tryLock(LOCK_TIMEOUT_MILLIS)) == null) {
+            if (System.currentTimeMillis() >= deadline)
+                throw new IllegalStateException("좋아요 반영 잠금을 얻지 못했습니다.");
+            try {
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("좋아요 반영 잠금 대기 중 중단되었습니다.", e);
+            }
+        }
+
+        try {
+            return flush(token, true);
+        } finally {
+            likeBuffer.unlock(token);
+        }
+    }
+
+    private int flush(String token, boolean newTransaction) {
+
+        int total = 0;
+        for (int round = 0; round < 2; round++) {
+            if (!likeBuffer.extendLock(token, LOCK_TIMEOUT_MILLIS))
+                throw new IllegalStateException("좋아요 반영 잠금이 만료되었습니다.");
+
+            List<LikeBuffer.Operation> operations = likeBuffer.beginFlush();
+            if (operations.isEmpty()) {
+                likeBuffer.finishFlush(token);
+                break;
+            }
+
+            if (newTransaction)
+                newTransactionTemplate.executeWithoutResult(status -> likeJdbcRepository.apply(operations));
+            else
+                likeJdbcRepository.apply(operations);
+
+            // 반영 중에 잠금을 잃었으면 like:flushing 은 잠금을 가진 서버가 다시 반영한다.
+            if (!likeBuffer.finishFlush(token))
+                throw new IllegalStateException("좋아요 반영 잠금이 만료되었습니다.");
+            total += operations.size();
+
+            // 좋아요 수가 바뀐 대상의 상세 조회 캐시를 지운다.
+            Map<LikeTarget, Set<Long>> changed = operations.stream()
+                    .collect(Collectors.groupingBy(LikeBuffer.Operation::getTarget,
+                            Collectors.mapping(LikeBuffer.Operation::getTargetId, Collectors.toSet())));
+            changed.forEach((target, targetIds) ->
+                    targetIds.forEach(targetId -> eventPublisher.publishEvent(new LikeEvent(target, targetId))));
+        }
+
+        if (total > 0)
+            log.debug("[좋아요 반영] {}건", total);
+        return total;
+    }
+}
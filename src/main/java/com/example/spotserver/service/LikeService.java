@@ -0,0 +1,139 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.LikeTarget;
+import com.example.spotserver.event.LikeEvent;
+import com.example.spotserver.exception.DuplicateException;
+import com.example.spotserver.exception.ErrorCode;
+import com.example.spotserver.repository.jdbc.LikeJdbcRepository;
+import com.example.spotserver.repository.redis.LikeBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 게시글, 장소, 댓글 좋아요를 처리한다.
+ * spot.like.write-behind 가 켜져 있으면(기본값) Redis 버퍼에 기록하고 LikeFlusher가 주기적으로 DB에 반영하며,
+ * 꺼져 있으면 (대상, 회원) 유니크 키를 이용한 한 번의 INSERT / DELETE 로 바로 반영한다.
+ */
+@Service
+public class LikeService {
+
+    private LikeBuffer likeBuffer;
+    private LikeJdbcRepository likeJdbcRepository;
+    private LikeFlusher likeFlusher;
+    private ApplicationEventPublisher eventPublisher;
+    private TrendingRanking trendingRanking;
+    private boolean writeBehind;
+
+    @Autowired
+    public LikeService(LikeBuffer likeBuffer, LikeJdbcRepository likeJdbcRepository, LikeFlusher likeFlusher,
+                       ApplicationEventPublisher eventPublisher, TrendingRanking trendingRanking,
+                       @Value("${spot.like.write-behind:true}") boolean writeBehind) {
+        this.likeBuffer = likeBuffer;
+        this.likeJdbcRepository = likeJdbcRepository;
+        this.likeFlusher = likeFlusher;
+        this.eventPublisher = eventPublisher;
+        this.trendingRanking = trendingRanking;
+        this.writeBehind = writeBehind;
+    }
+
+    public void addLike(LikeTarget target, Long targetId, Long memberId) throws DuplicateException {
+
+        if (!writeBehind) {
+            // 추가된 행이 없을 때만 중복인지, 대상이 없는지 확인한다.
+            if (likeJdbcRepository.insertLike(target, targetId, memberId) == 0) {
+                if (!likeJdbcRepository.existsTarget(target, targetId))
+                    throw new NoSuchElementException();
+                throw new DuplicateException(ErrorCode.DUPLICATE_LIKE);
+            }
+            eventPublisher.publishEvent(new LikeEvent(target, targetId));
+            trendingRanking.recordLike(target, targetId, true);
+            return;
+        }
+
+        long added = likeBuffer.like(target, targetId, memberId);
+        if (added == LikeBuffer.NOT_LOADED) {
+            load(target, targetId);
+            added = likeBuffer.like(target, targetId, memberId);
+        }
+
+        if (added == LikeBuffer.NOT_LOADED)
+            throw new NoSuchElementException();
+        if (added == 0)
+            throw new DuplicateException(ErrorCode.DUPLICATE_LIKE);
+        trendingRanking.recordLike(target, targetId, true);
+    }
+
+    public void deleteLike(LikeTarget target, Long targetId, Long memberId) {
+
+        if (!writeBehind) {
+            if (likeJdbcRepository.deleteLike(target, targetId, memberId) == 0)
+                throw new NoSuchElementException();
+            eventPublisher.publishEvent(new LikeEvent(target, targetId));
+            trendingRanking.recordLike(target, targetId, false);
+            return;
+        }
+
+        long removed = likeBuffer.unlike(target, targetId, memberId);
+        if (removed == LikeBuffer.NOT_LOADED) {
+            load(target, targetId);
+            removed = likeBuffer.unlike(target, targetId, memberId);
+        }
+
+        if (removed != 1)
+            throw new NoSuchElementException();
+        trendingRanking.recordLike(target, targetId, false);
+    }
+
+    public Long getLikeCount(LikeTarget target, Long targetId) {
+
+        if (!writeBehind)
+            return likeJdbcRepository.findLikeCount(target, targetId)
+                    .orElseThrow(() -> new NoSuchElementException());
+
+        long count = likeBuffer.count(target, targetId);
+        if (count == LikeBuffer.NOT_LOADED) {
+            load(target, targetId);
+            count = likeBuffer.count(target, targetId);
+        }
+
+        if (count == LikeBuffer.NOT_LOADED)
+            throw new NoSuchElementException();
+        return count;
+    }
+
+    public void evict(LikeTarget target, Long targetId) {
+        likeBuffer.evict(target, targetId);
+    }
+
+    /**
+     * 회원 탈퇴 전에 호출한다.
+     * 버퍼에 남은 좋아요를 DB에 먼저 반영해 카운터 감소 대상에 포함시키고, 대상별 SET에서 회원을 뺀다.
+     */
+    public void removeMember(Long memberId) {
+
+        if (!writeBehind)
+            return;
+
+        likeFlusher.flushNow();
+
+        for (LikeTarget target : LikeTarget.values()) {
+            List<Long> targetIds = likeJdbcRepository.findTargetIds(target, memberId);
+            likeBuffer.removeMember(target, targetIds, memberId);
+        }
+    }
+
+    // 대상이 없으면 SET을 만들지 않는다.
+    private void load(LikeTarget target, Long targetId) {
+
+        if (!likeJdbcRepository.existsTarget(target, targetId))
+            throw new NoSuchElementException();
+
+        List<Long> memberIds = likeJdbcRepository.findMemberIds(target, targetId);
+        likeBuffer.load(target, targetId, memberIds);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.spotserver.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// geohash 컬럼 추가 전에 등록된 장소들의 geohash를 채운다.
+@Component
+@Slf4j
+public class LocationGeohashBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private LocationService locationService;
+
+    @Autowired
+    public LocationGeohashBackfill(LocationService locationService) {
+        this.locationService = locationService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        int total = 0;
+        int updated;
+        do {
+            updated = locationService.backfillGeohash(BATCH_SIZE);
+            total += updated;
+        } while (updated == BATCH_SIZE);
+
+        if (total > 0)
+            log.info("[geohash 백필] 장소 {}개 갱신", total);
+    }
+}
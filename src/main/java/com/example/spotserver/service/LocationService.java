@@ -1,24 +1,39 @@
 package com.example.spotserver.service;
 
+import com.example.spotserver.config.cache.CacheNames;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.ApproveRequest;
+import com.example.spotserver.dto.request.ClusterConditionRequest;
 import com.example.spotserver.dto.request.LocationConditionRequest;
 import com.example.spotserver.dto.response.ApproveResponse;
+import com.example.spotserver.dto.response.ClusterResponse;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.LocationSuggestResponse;
 import com.example.spotserver.dto.response.PageResponse;
 import com.example.spotserver.dto.response.PosterResponse;
+import com.example.spotserver.event.LocationEvent;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.ErrorCode;
 import com.example.spotserver.exception.FileException;
-import com.example.spotserver.repository.LocationLikeRepository;
 import com.example.spotserver.repository.LocationRepository;
-import com.example.spotserver.repository.MemberRepository;
+import com.example.spotserver.repository.jdbc.BulkDeleteRepository;
+import com.example.spotserver.repository.jdbc.ImageBlobRepository;
+import com.example.spotserver.repository.jdbc.ImageDeleteOutboxRepository;
+import com.example.spotserver.repository.memory.LocationClusterCache;
+import com.example.spotserver.repository.memory.LocationSpatialIndex;
+import com.example.spotserver.repository.memory.LocationSuggestIndex;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -28,29 +43,141 @@ import java.util.*;
 public class LocationService {
 
     private LocationRepository locationRepository;
-    private LocationLikeRepository locationLikeRepository;
-    private MemberRepository memberRepository;
+    private LikeService likeService;
     private ImageStore imageStore;
+    private LocationSpatialIndex locationSpatialIndex;
+    private LocationClusterCache locationClusterCache;
+    private ApplicationEventPublisher eventPublisher;
+    private ImageDeleteOutboxRepository imageDeleteOutboxRepository;
+    private ImageBlobRepository imageBlobRepository;
+    private TransactionTemplate transactionTemplate;
+    private BulkDeleteRepository bulkDeleteRepository;
+    private ImageUrlResolver imageUrlResolver;
+    private UploadService uploadService;
+    private TrendingRanking trendingRanking;
+    private LocationSuggestIndex locationSuggestIndex;
 
     @Autowired
-    public LocationService(LocationRepository locationRepository, LocationLikeRepository locationLikeRepository, MemberRepository memberRepository, ImageStore imageStore) {
+    public LocationService(LocationRepository locationRepository, LikeService likeService, ImageStore imageStore, LocationSpatialIndex locationSpatialIndex, LocationClusterCache locationClusterCache, ApplicationEventPublisher eventPublisher, ImageDeleteOutboxRepository imageDeleteOutboxRepository, ImageBlobRepository imageBlobRepository, PlatformTransactionManager transactionManager, BulkDeleteRepository bulkDeleteRepository, ImageUrlResolver imageUrlResolver, UploadService uploadService, TrendingRanking trendingRanking, LocationSuggestIndex locationSuggestIndex) {
         this.locationRepository = locationRepository;
-        this.locationLikeRepository = locationLikeRepository;
-        this.memberRepository = memberRepository;
+        this.likeService = likeService;
         this.imageStore = imageStore;
+        this.locationSpatialIndex = locationSpatialIndex;
+        this.locationClusterCache = locationClusterCache;
+        this.eventPublisher = eventPublisher;
+        this.imageDeleteOutboxRepository = imageDeleteOutboxRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkDeleteRepository = bulkDeleteRepository;
+        this.imageUrlResolver = imageUrlResolver;
+        this.uploadService = uploadService;
+        this.trendingRanking = trendingRanking;
+        this.locationSuggestIndex = locationSuggestIndex;
     }
 
     public PageResponse<LocationResponse> searchLocations(Double latitude,
                                                                 Double longitude,
                                                                 LocationConditionRequest conditionRequest) {
 
-        Page<LocationResponse> locationResponses = locationRepository.searchLocations(latitude, longitude, conditionRequest);
+        // 메모리 인덱스는 개수를 세는 비용이 없으므로 count 와 상관없이 전체 개수를 돌려준다.
+        Slice<LocationResponse> locationResponses;
+        if (locationSpatialIndex.supports(conditionRequest))
+            locationResponses = locationSpatialIndex.searchLocations(latitude, longitude, conditionRequest);
+        else
+            locationResponses = locationRepository.searchLocations(latitude, longitude, conditionRequest);
+        imageUrlResolver.fillLocationImages(locationResponses.getContent());
+
         PageResponse<LocationResponse> pageResponse = new PageResponse<>(locationResponses);
         return pageResponse;
     }
 
+    public CursorResponse<LocationResponse> searchLocationsByCursor(Double latitude,
+                                                                    Double longitude,
+                                                                    LocationConditionRequest conditionRequest) throws CursorException {
+
+        Cursor cursor = Cursor.decode(conditionRequest.getCursor());
+        CursorResponse<LocationResponse> cursorResponse;
+        if (locationSpatialIndex.supports(conditionRequest))
+            cursorResponse = locationSpatialIndex.searchLocationsByCursor(latitude, longitude, conditionRequest, cursor);
+        else
+            cursorResponse = locationRepository.searchLocationsByCursor(latitude, longitude, conditionRequest, cursor);
+        imageUrlResolver.fillLocationImages(cursorResponse.getResults());
+        return cursorResponse;
+    }
+
+    public CursorResponse<LocationResponse> searchNearestLocations(Double latitude,
+                                                                   Double longitude,
+                                                                   LocationConditionRequest conditionRequest) throws CursorException {
+
+        int defaultSize = 10;
+        int defaultRadiusMeters = 3000;
+
+        int size = conditionRequest.getSize() == null ? defaultSize : conditionRequest.getSize();
+        int radiusMeters = conditionRequest.getRadiusMeters() == null ? defaultRadiusMeters : conditionRequest.getRadiusMeters();
+
+        Cursor cursor = Cursor.decode(conditionRequest.getCursor());
+        Double lastDistance = cursor == null ? null : cursor.getDoubleKey();
+        Long lastId = cursor == null ? null : cursor.getId();
+
+        List<LocationResponse> locationResponses;
+        if (locationSpatialIndex.supports(conditionRequest))
+            locationResponses = locationSpatialIndex.findNearest(latitude, longitude, radiusMeters, lastDistance, lastId, size + 1);
+        else
+            locationResponses = findNearestFromRepository(latitude, longitude, radiusMeters, lastDistance, lastId, size + 1, conditionRequest);
+
+        CursorResponse<LocationResponse> cursorResponse = CursorResponse.of(locationResponses, size,
+                locationResponse -> Cursor.of(locationResponse.getDistance(), locationResponse.getLocationId()));
+        imageUrlResolver.fillLocationImages(cursorResponse.getResults());
+        return cursorResponse;
+    }
+
+    // 반경을 덮는 사각형을 DB에서 조회한 뒤 거리를 계산해 정렬한다.
+    private List<LocationResponse> findNearestFromRepository(Double latitude, Double longitude, int radiusMeters,
+                                                             Double lastDistance, Long lastId, int limit,
+                                                             LocationConditionRequest conditionRequest) {
+
+        double scale = GeoDistance.scaleDegrees(radiusMeters, latitude);
+        List<LocationResponse> locationResponses = locationRepository.searchLocationsInArea(latitude, longitude, scale,
+                conditionRequest.getApprove(), conditionRequest.getSearch());
+
+        List<LocationResponse> nearest = new ArrayList<>();
+        for (LocationResponse locationResponse : locationResponses) {
+            double distance = GeoDistance.haversine(latitude, longitude, locationResponse.getLatitude(), locationResponse.getLongitude());
+            if (distance > radiusMeters)
+                continue;
+            if (lastDistance != null) {
+                int compare = Double.compare(distance, lastDistance);
+                if (compare < 0 || (compare == 0 && locationResponse.getLocationId() <= lastId))
+                    continue;
+            }
+            locationResponse.setDistance(distance);
+            nearest.add(locationResponse);
+        }
+
+        nearest.sort(Comparator
+                .comparing(LocationResponse::getDistance)
+                .thenComparing(LocationResponse::getLocationId));
+
+        return nearest.size() > limit ? nearest.subList(0, limit) : nearest;
+    }
+
+    public List<ClusterResponse> getClusters(ClusterConditionRequest conditionRequest) {
+
+        List<Double> bbox = conditionRequest.getBbox();
+        double minLongitude = Math.max(-180, Math.min(bbox.get(0), bbox.get(2)));
+        double maxLongitude = Math.min(180, Math.max(bbox.get(0), bbox.get(2)));
+        double minLatitude = Math.max(-90, Math.min(bbox.get(1), bbox.get(3)));
+        double maxLatitude = Math.min(90, Math.max(bbox.get(1), bbox.get(3)));
+
+        return locationClusterCache.getClusters(minLatitude, maxLatitude, minLongitude, maxLongitude, conditionRequest.getZoom());
+    }
+
     public Long addLocation(Location location, List<MultipartFile> files) throws IOException, FileException {
+        return addLocation(location, files, null, null);
+    }
 
+    // imageKeys: memberId 회원이 /uploads/locations 로 발급받아 저장소에 직접 올린 이미지의 키
+    public Long addLocation(Location location, List<MultipartFile> files, List<String> imageKeys, Long memberId) throws IOException, FileException {
 
         if (files != null) {
 
@@ -60,8 +187,16 @@ public class LocationService {
                 if(!supportFile.contains(extension))
                     throw new FileException(ErrorCode.NOT_SUPPORT_FILE);
             }
+        }
+
+        // 직접 올린 이미지를 먼저 확인해서, 잘못된 키면 multipart 이미지를 올리지 않는다.
+        List<LocationImage> imgFiles = new ArrayList<>();
+        if (imageKeys != null && !imageKeys.isEmpty())
+            imgFiles.addAll(uploadService.claimLocationImages(imageKeys, memberId));
+        if (files != null)
+            imgFiles.addAll(imageStore.storeLocationImages(files));
 
-            List<LocationImage> imgFiles = imageStore.storeLocationImages(files);
+        if (!imgFiles.isEmpty()) {
             location.setLocationImages(imgFiles);
 
             for (LocationImage imgFile : imgFiles) {
@@ -69,7 +204,22 @@ public class LocationService {
             }
         }
 
-        Location saveLocation = locationRepository.save(location);
+        Location saveLocation;
+        try {
+            saveLocation = transactionTemplate.execute(status -> {
+                if (location.getLocationImages() != null)
+                    imageStore.acquireLocationImages(location.getLocationImages());
+                return locationRepository.save(location);
+            });
+        } catch (RuntimeException e) {
+            if (location.getLocationImages() != null)
+                imageStore.discardLocationImages(location.getLocationImages());
+            throw e;
+        }
+
+        if (saveLocation.getLocationImages() != null)
+            imageStore.confirmLocationImages(saveLocation.getLocationImages());
+        eventPublisher.publishEvent(new LocationEvent(LocationEvent.Type.ADD, saveLocation.getId(), saveLocation.getLatitude(), saveLocation.getLongitude()));
 
         return saveLocation.getId();
     }
@@ -83,6 +233,7 @@ public class LocationService {
                 .orElseThrow(() -> new NoSuchElementException());
 
         location.setApprove(approve);
+        eventPublisher.publishEvent(new LocationEvent(LocationEvent.Type.APPROVE, locationId, location.getLatitude(), location.getLongitude()));
 
         ApproveResponse approveResponse = new ApproveResponse(locationId, approve);
         return approveResponse;
@@ -94,44 +245,36 @@ public class LocationService {
         Location location = locationRepository.findById(locationId)
                 .orElseThrow(() -> new NoSuchElementException());
 
-        List<Poster> posters = location.getPosters();
-        for (Poster poster : posters) {
-            List<PosterImage> posterImages = poster.getPosterImages();
-            for (PosterImage posterImage : posterImages) {
-                imageStore.deletePosterImage(posterImage);
-            }
-        }
-
-        List<LocationImage> locationImages = location.getLocationImages();
-        for (LocationImage locationImage : locationImages) {
-            imageStore.deleteLocationImage(locationImage);
-        }
+        // 게시글, 댓글, 좋아요, 이미지를 한 번에 지우고, S3 이미지는 커밋 후 ImageDeleteWorker가 지운다.
+        List<String> imageKeys = bulkDeleteRepository.deleteLocation(locationId);
+        imageDeleteOutboxRepository.enqueue(imageBlobRepository.release(imageKeys));
 
-        locationRepository.deleteById(locationId);
+        likeService.evict(LikeTarget.LOCATION, locationId);
+        eventPublisher.publishEvent(new LocationEvent(LocationEvent.Type.DELETE, locationId, location.getLatitude(), location.getLongitude()));
     }
 
+    @Cacheable(cacheNames = CacheNames.LOCATION, key = "#locationId", sync = true)
     public LocationResponse getLocation(Long locationId) {
         LocationResponse locationResponse = locationRepository.getLocationById(locationId)
                 .orElseThrow(() -> new NoSuchElementException());
+        imageUrlResolver.fillLocationImages(List.of(locationResponse));
 
         return locationResponse;
     }
 
-    public List<LocationResponse> getBestLocations() {
-
-        List<LocationResponse> bestLocations = locationRepository.getBestLocations();
+    public List<LocationResponse> getBestLocations(String window) {
+        return trendingRanking.getLocations(TrendingWindow.from(window));
+    }
 
-        return bestLocations;
+    public List<LocationSuggestResponse> suggestLocations(String prefix, int size) {
+        return locationSuggestIndex.suggest(prefix, size);
     }
 
     public Map getLikes(Long locationId) {
 
         Map<String, Object> response = new HashMap();
 
-        Location location = locationRepository.findById(locationId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        Long likeCnt = locationLikeRepository.countByLocation(location);
+        Long likeCnt = likeService.getLikeCount(LikeTarget.LOCATION, locationId);
         response.put("likeCnt", likeCnt);
 
         return response;
@@ -140,44 +283,41 @@ public class LocationService {
     public void addLike(Long locationId,
                         Long memberId) throws DuplicateException {
 
-        Location location = locationRepository.findById(locationId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-
-        if(locationLikeRepository.existsLocationLikeByLocationAndMember(location, member)) {
-            throw new DuplicateException(ErrorCode.DUPLICATE_LIKE);
-        }
-
-        LocationLike locationLike = new LocationLike();
-        locationLike.setLocation(location);
-        locationLike.setMember(member);
-        locationLikeRepository.save(locationLike);
+        likeService.addLike(LikeTarget.LOCATION, locationId, memberId);
+        eventPublisher.publishEvent(new LocationEvent(LocationEvent.Type.LIKE, locationId, null, null));
 
     }
 
     public void deleteLike(Long locationId,
                            Long memberId) {
 
-        Location location = locationRepository.findById(locationId)
-                .orElseThrow(() -> new NoSuchElementException());
+        likeService.deleteLike(LikeTarget.LOCATION, locationId, memberId);
+        eventPublisher.publishEvent(new LocationEvent(LocationEvent.Type.UNLIKE, locationId, null, null));
 
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new NoSuchElementException());
+    }
 
-        LocationLike locationLike = locationLikeRepository.findByLocationAndMember(location, member)
-                .orElseThrow(() -> new NoSuchElementException());
+    @Transactional
+    public int backfillGeohash(int batchSize) {
 
-        locationLikeRepository.delete(locationLike);
+        List<Location> locations = locationRepository.findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull(PageRequest.of(0, batchSize));
+        for (Location location : locations) {
+            location.updateGeohash();
+        }
 
+        return locations.size();
     }
 
-    public PageResponse<LocationResponse> getLikeLocations(Integer page, Long memberId) {
+    public PageResponse<LocationResponse> getLikeLocations(Integer page, Long memberId, CountMode countMode) {
         PageRequest pageRequest = PageRequest.of(page - 1, 5);
-        Page<LocationResponse> likeLocations = locationRepository.getLikeLocations(memberId, pageRequest);
+        Slice<LocationResponse> likeLocations = locationRepository.getLikeLocations(memberId, pageRequest, countMode);
+        imageUrlResolver.fillLocationImages(likeLocations.getContent());
         PageResponse<LocationResponse> pageResponse = new PageResponse<>(likeLocations);
         return pageResponse;
     }
+
+    public CursorResponse<LocationResponse> getLikeLocationsByCursor(String cursor, Long memberId) throws CursorException {
+        CursorResponse<LocationResponse> cursorResponse = locationRepository.getLikeLocationsByCursor(memberId, Cursor.decode(cursor), 5);
+        imageUrlResolver.fillLocationImages(cursorResponse.getResults());
+        return cursorResponse;
+    }
 }
@@ -1,10 +1,10 @@
 package com.example.spotserver.service;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.SignatureVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.example.spotserver.config.cache.CacheNames;
 import com.example.spotserver.config.jwt.JwtProperties;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.LogoutRequest;
@@ -14,15 +14,19 @@ import com.example.spotserver.dto.request.SignUpMember;
 import com.example.spotserver.dto.response.AccessTokenResponse;
 import com.example.spotserver.dto.response.MemberResponse;
 import com.example.spotserver.dto.response.TokenResponse;
+import com.example.spotserver.event.MemberEvent;
 import com.example.spotserver.exception.*;
-import com.example.spotserver.repository.MailCertificationRepository;
-import com.example.spotserver.repository.MemberImageRepository;
-import com.example.spotserver.repository.MemberRepository;
+import com.example.spotserver.repository.*;
+import com.example.spotserver.repository.jdbc.BulkDeleteRepository;
+import com.example.spotserver.repository.jdbc.ImageBlobRepository;
+import com.example.spotserver.repository.jdbc.ImageDeleteOutboxRepository;
 import jakarta.transaction.Transactional;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.http.HttpEntity;
@@ -31,6 +35,8 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -43,24 +49,45 @@ import java.util.concurrent.TimeUnit;
 public class MemberService {
 
     private MemberRepository memberRepository;
+    private PosterRepository posterRepository;
+    private LocationRepository locationRepository;
+    private CommentRepository commentRepository;
+    private LikeService likeService;
+    private ApplicationEventPublisher eventPublisher;
     private MemberImageRepository memberImageRepository;
     private MailCertificationRepository mailCertificationRepository;
     private RedisTemplate<String, Long> redisTemplate;
     private BCryptPasswordEncoder bCryptPasswordEncoder;
     private ImageStore imageStore;
+    private TransactionTemplate transactionTemplate;
+    private ImageDeleteOutboxRepository imageDeleteOutboxRepository;
+    private ImageBlobRepository imageBlobRepository;
+    private BulkDeleteRepository bulkDeleteRepository;
     private Logger loginLogger = LoggerFactory.getLogger("login");
 
     @Autowired
-    public MemberService(MemberRepository memberRepository, MemberImageRepository memberImageRepository, MailCertificationRepository mailCertificationRepository, RedisTemplate redisTemplate, BCryptPasswordEncoder bCryptPasswordEncoder, ImageStore imageStore) {
+    public MemberService(MemberRepository memberRepository, PosterRepository posterRepository, LocationRepository locationRepository, CommentRepository commentRepository, LikeService likeService, MemberImageRepository memberImageRepository, MailCertificationRepository mailCertificationRepository, RedisTemplate redisTemplate, BCryptPasswordEncoder bCryptPasswordEncoder, ImageStore imageStore, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager, ImageDeleteOutboxRepository imageDeleteOutboxRepository, ImageBlobRepository imageBlobRepository, BulkDeleteRepository bulkDeleteRepository) {
         this.memberRepository = memberRepository;
+        this.posterRepository = posterRepository;
+        this.locationRepository = locationRepository;
+        this.commentRepository = commentRepository;
+        this.likeService = likeService;
+        this.eventPublisher = eventPublisher;
         this.memberImageRepository = memberImageRepository;
         this.mailCertificationRepository = mailCertificationRepository;
         this.redisTemplate = redisTemplate;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
         this.imageStore = imageStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.imageDeleteOutboxRepository = imageDeleteOutboxRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.bulkDeleteRepository = bulkDeleteRepository;
     }
 
-    @Transactional(rollbackOn = {FileException.class})
+    /**
+     * 프로필 이미지는 트랜잭션 밖에서 먼저 올리고, 인증 정보 삭제와 회원 저장만 짧은 트랜잭션으로 처리한다.
+     * 저장에 실패하면 올린 이미지를 지운다.
+     */
     public MemberResponse addMember(SignUpMember signUpMember, MultipartFile memberImg) throws DuplicateException, IOException, MailException, FileException {
 
 
@@ -95,14 +122,13 @@ public class MemberService {
                 mailCertificationRepository.delete(mailCertification);
                 throw new MailException(ErrorCode.FAIL_MAIL_TIMEOUT);
             }
-
-            mailCertificationRepository.delete(mailCertification);
         }
 
 
         Member member = signUpMember.toEntity(signUpMember);
         member.setLoginPwd(bCryptPasswordEncoder.encode(member.getLoginPwd()));
 
+        MemberImage memberImage = null;
         if (memberImg != null) {
 
             if(memberImg.getSize() > 1000000) {
@@ -114,12 +140,28 @@ public class MemberService {
             if(!supportFile.contains(extension))
                 throw new FileException(ErrorCode.NOT_SUPPORT_FILE);
 
-            MemberImage memberImage = imageStore.storeMemberImage(memberImg);
+            memberImage = imageStore.storeMemberImage(memberImg);
             memberImage.setMember(member);
             member.setMemberImg(memberImage);
         }
 
-        Member resultMember = memberRepository.save(member);
+        MemberImage newImage = memberImage;
+        Member resultMember;
+        try {
+            resultMember = transactionTemplate.execute(status -> {
+                mailCertificationRepository.delete(mailCertification);
+                if (newImage != null)
+                    imageStore.acquireMemberImage(newImage);
+                return memberRepository.save(member);
+            });
+        } catch (RuntimeException e) {
+            if (memberImage != null)
+                imageStore.discardMemberImage(memberImage);
+            throw e;
+        }
+
+        if (memberImage != null)
+            imageStore.confirmMemberImage(memberImage);
 
         MemberResponse memberResponse = MemberResponse.toDto(resultMember, imageStore);
         return memberResponse;
@@ -128,38 +170,37 @@ public class MemberService {
     @Transactional
     public void deleteMember(Long memberId) {
 
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new NoSuchElementException());
+        // 버퍼에 남은 좋아요를 별도 트랜잭션으로 먼저 커밋한다. 이 트랜잭션의 첫 조회보다 앞서야 반영된 좋아요가 보인다.
+        likeService.removeMember(memberId);
 
-        // 프로필 이미지 삭제
-        MemberImage memberImg = member.getMemberImg();
-        imageStore.deleteMemberImage(memberImg);
+        if (!memberRepository.existsById(memberId))
+            throw new NoSuchElementException();
 
-        // 작성한 게시글 이미지 삭제
-        List<Poster> posters = member.getPosters();
-        for (Poster poster : posters) {
-            for (PosterImage posterImage : poster.getPosterImages()) {
-                imageStore.deletePosterImage(posterImage);
-            }
-        }
+        // 회원의 좋아요, 댓글이 함께 삭제되므로 카운터를 먼저 감소
+        posterRepository.subtractLikeCountByMember(memberId);
+        posterRepository.subtractCommentCountByMember(memberId);
+        locationRepository.subtractLikeCountByMember(memberId);
+        commentRepository.subtractLikeCountByMember(memberId);
 
-        memberRepository.deleteById(memberId);
+        // 프로필, 작성한 게시글 이미지는 커밋 후 ImageDeleteWorker가 지운다.
+        List<String> imageKeys = bulkDeleteRepository.deleteMember(memberId);
+        imageDeleteOutboxRepository.enqueue(imageBlobRepository.release(imageKeys));
+        eventPublisher.publishEvent(new MemberEvent(MemberEvent.Type.DELETE, memberId));
     }
 
     public TokenResponse createToken(Long memberId) {
 
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new NoSuchElementException());
+
         TokenResponse tokenResponse = new TokenResponse();
 
-        String accessToken = JWT.create()
-                .withSubject("AccessToken")
-                .withExpiresAt(new Date(System.currentTimeMillis() + JwtProperties.ACCESS_TOKEN_EXPIRE_TIME * 1000))
-                .withClaim("id", memberId)
-                .sign(Algorithm.HMAC256(JwtProperties.SECRET_KEY));
+        String accessToken = createAccessToken(member);
 
         String refreshToken = JWT.create()
                 .withSubject("RefreshToken")
                 .withExpiresAt(new Date(System.currentTimeMillis() + JwtProperties.REFRESH_TOKEN_EXPIRE_TIME * 1000))
-                .sign(Algorithm.HMAC256(JwtProperties.SECRET_KEY));
+                .sign(JwtProperties.ALGORITHM);
 
         tokenResponse.setAccessToken(accessToken);
         tokenResponse.setAccessExpireIn(JwtProperties.ACCESS_TOKEN_EXPIRE_TIME);
@@ -179,9 +220,7 @@ public class MemberService {
         String refreshToken = refreshRequest.getRefreshToken();
 
         try {
-            JWT.require(Algorithm.HMAC256(JwtProperties.SECRET_KEY))
-                    .build()
-                    .verify(refreshToken);
+            JwtProperties.VERIFIER.verify(refreshToken);
         } catch (Exception e) {
             if (e instanceof TokenExpiredException)
                 throw new AuthenticationException(ErrorCode.JWT_EXPIRED_TOKEN);
@@ -196,11 +235,11 @@ public class MemberService {
             throw new AuthenticationException(ErrorCode.JWT_LOGOUT_TOKEN);
         }
 
-        String accessToken = JWT.create()
-                .withSubject("AccessToken")
-                .withExpiresAt(new Date(System.currentTimeMillis() + (JwtProperties.ACCESS_TOKEN_EXPIRE_TIME * 1000)))
-                .withClaim("id", memberId)
-                .sign(Algorithm.HMAC256(JwtProperties.SECRET_KEY));
+        // 역할, 토큰 버전은 갱신할 때마다 다시 읽는다.
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new AuthenticationException(ErrorCode.JWT_LOGOUT_TOKEN));
+
+        String accessToken = createAccessToken(member);
 
         AccessTokenResponse accessTokenResponse = new AccessTokenResponse();
         accessTokenResponse.setAccessToken(accessToken);
@@ -208,14 +247,39 @@ public class MemberService {
         return accessTokenResponse;
     }
 
+    /**
+     * 필터에서 회원을 조회하지 않도록 id, 역할, 토큰 버전을 클레임에 담는다.
+     * 버전이 무효화된 최소 버전보다 작은 토큰은 필터에서 거부된다. (TokenRevocationStore)
+     */
+    private String createAccessToken(Member member) {
+        return JWT.create()
+                .withSubject("AccessToken")
+                .withExpiresAt(new Date(System.currentTimeMillis() + JwtProperties.ACCESS_TOKEN_EXPIRE_TIME * 1000))
+                .withClaim("id", member.getId())
+                .withClaim("role", member.getRole().name())
+                .withClaim("ver", member.getTokenVersion())
+                .sign(JwtProperties.ALGORITHM);
+    }
+
+    /**
+     * 이미 발급된 접근 토큰을 만료 전에 무효화한다. 역할을 바꾼 뒤 호출해야 바뀐 역할이 바로 적용된다.
+     * 토큰 버전을 올리고, 커밋 후에 이전 버전 토큰이 거부되도록 기록한다.
+     */
+    @Transactional
+    public void revokeTokens(Long memberId) {
+
+        if (memberRepository.increaseTokenVersion(memberId) == 0)
+            throw new NoSuchElementException();
+
+        eventPublisher.publishEvent(new MemberEvent(MemberEvent.Type.REVOKE, memberId));
+    }
+
     public void logout(LogoutRequest logoutRequest) throws AuthenticationException {
 
         String refreshToken = logoutRequest.getRefreshToken();
 
         try {
-            JWT.require(Algorithm.HMAC256(JwtProperties.SECRET_KEY))
-                    .build()
-                    .verify(refreshToken);
+            JwtProperties.VERIFIER.verify(refreshToken);
         } catch (Exception e) {
             if (e instanceof TokenExpiredException)
                 throw new AuthenticationException(ErrorCode.JWT_EXPIRED_TOKEN);
@@ -230,6 +294,7 @@ public class MemberService {
             throw new AuthenticationException(ErrorCode.JWT_LOGOUT_TOKEN);
     }
 
+    @Cacheable(cacheNames = CacheNames.MEMBER, key = "#memberId", sync = true)
     public MemberResponse getMemberInfo(Long memberId) {
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new NoSuchElementException());
@@ -238,42 +303,68 @@ public class MemberService {
         return memberResponse;
     }
 
-    @Transactional
+    /**
+     * 새 프로필 이미지는 트랜잭션 밖에서 먼저 올리고, 회원 정보 변경만 짧은 트랜잭션으로 처리한다.
+     * 이전 이미지는 같은 트랜잭션에서 참조 수를 줄여 outbox 에 넣고, 커밋 후 ImageDeleteWorker가 지운다.
+     */
     public MemberResponse updateMember(MemberUpdateRequest memberUpdateRequest, MultipartFile memberImg, Long memberId) throws DuplicateException, IOException, FileException {
 
-        Member member = memberRepository.findById(memberId)
+        Member findMember = memberRepository.findById(memberId)
                 .orElseThrow(() -> new NoSuchElementException());
 
         if (memberUpdateRequest != null) {
             String name = memberUpdateRequest.getName();
-            if (!name.equals(member.getName())) {
-                if (memberRepository.existsByName(name))
-                    throw new DuplicateException(ErrorCode.DUPLICATE_NAME);
-                else {
-                    member.setName(name);
-                }
-            }
+            if (!name.equals(findMember.getName()) && memberRepository.existsByName(name))
+                throw new DuplicateException(ErrorCode.DUPLICATE_NAME);
         }
 
+        MemberImage memberImage = null;
         if (memberImg != null) {
             String extension = ImageStore.getFileExtension(memberImg.getOriginalFilename());
             List<String> supportFile = new ArrayList<>(Arrays.asList("jpeg", "jpg", "png"));
             if(!supportFile.contains(extension))
                 throw new FileException(ErrorCode.NOT_SUPPORT_FILE);
 
-            MemberImage beforeImg = member.getMemberImg();
-            if (beforeImg != null) {
-                imageStore.deleteMemberImage(beforeImg);
-                member.setMemberImg(null);
-                memberImageRepository.deleteById(beforeImg.getId());
-            }
+            memberImage = imageStore.storeMemberImage(memberImg);
+        }
 
-            MemberImage memberImage = imageStore.storeMemberImage(memberImg);
-            memberImage.setMember(member);
-            member.setMemberImg(memberImage);
-            memberImageRepository.save(memberImage);
+        MemberImage newImage = memberImage;
+        Member member;
+        try {
+            member = transactionTemplate.execute(status -> {
+
+                Member updateMember = memberRepository.findById(memberId)
+                        .orElseThrow(() -> new NoSuchElementException());
+
+                if (memberUpdateRequest != null)
+                    updateMember.setName(memberUpdateRequest.getName());
+
+                if (newImage != null) {
+                    MemberImage beforeImg = updateMember.getMemberImg();
+                    if (beforeImg != null) {
+                        updateMember.setMemberImg(null);
+                        memberImageRepository.deleteById(beforeImg.getId());
+                        imageDeleteOutboxRepository.enqueue(imageBlobRepository.release(List.of(imageStore.getMemberImgKey(beforeImg))));
+                    }
+
+                    imageStore.acquireMemberImage(newImage);
+                    newImage.setMember(updateMember);
+                    updateMember.setMemberImg(newImage);
+                    memberImageRepository.save(newImage);
+                }
+
+                eventPublisher.publishEvent(new MemberEvent(MemberEvent.Type.UPDATE, memberId));
+                return updateMember;
+            });
+        } catch (RuntimeException e) {
+            if (newImage != null)
+                imageStore.discardMemberImage(newImage);
+            throw e;
         }
 
+        if (newImage != null)
+            imageStore.confirmMemberImage(newImage);
+
         return MemberResponse.toDto(member, imageStore);
     }
 
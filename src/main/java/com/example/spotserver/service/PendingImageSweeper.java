@@ -0,0 +1,106 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.ImageStore;
+import com.example.spotserver.repository.jdbc.ImageBlobRepository;
+import com.example.spotserver.repository.redis.PendingUploadRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 업로드 후 오래도록 확정되지 않은 이미지를 정리한다.
+ * 커밋은 되었지만 확정 직전에 서버가 종료된 경우도 있으므로, DB에 남아있는 이미지는 지우지 않고 대기 목록에서만 뺀다.
+ * 같은 내용의 업로드가 재사용하려고 올린 키도 image_blob 에 남아있으면 지우지 않는다.
+ */
+@Component
+@Slf4j
+public class PendingImageSweeper {
+
+    private static final int BATCH_SIZE = 500;
+
+    private PendingUploadRepository pendingUploadRepository;
+    private ImageStore imageStore;
+    private ImageBlobRepository imageBlobRepository;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private Duration pendingTtl;
+
+    @Autowired
+    public PendingImageSweeper(PendingUploadRepository pendingUploadRepository, ImageStore imageStore,
+                               ImageBlobRepository imageBlobRepository, NamedParameterJdbcTemplate jdbcTemplate,
+                               @Value("${spot.s3.pending-ttl:1h}") Duration pendingTtl) {
+        this.pendingUploadRepository = pendingUploadRepository;
+        this.imageStore = imageStore;
+        this.imageBlobRepository = imageBlobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pendingTtl = pendingTtl;
+    }
+
+    @Scheduled(fixedDelayString = "${spot.s3.pending-sweep-delay:600000}", initialDelayString = "${spot.s3.pending-sweep-delay:600000}")
+    public void scheduledSweep() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.error("[이미지 정리] 실패", e);
+        }
+    }
+
+    public int sweep() {
+
+        long uploadedBefore = System.currentTimeMillis() - pendingTtl.toMillis();
+        int deleted = 0;
+
+        while (true) {
+            List<String> keys = pendingUploadRepository.findUploadedBefore(uploadedBefore, BATCH_SIZE);
+            if (keys.isEmpty())
+                break;
+
+            Set<String> referenced = findReferencedKeys(keys);
+            for (String key : keys) {
+                if (referenced.contains(key))
+                    continue;
+                imageStore.deleteObject(key);
+                deleted++;
+            }
+            pendingUploadRepository.remove(keys);
+
+            if (keys.size() < BATCH_SIZE)
+                break;
+        }
+
+        if (deleted > 0)
+            log.info("[이미지 정리] 확정되지 않은 이미지 {}건 삭제", deleted);
+        return deleted;
+    }
+
+    private Set<String> findReferencedKeys(List<String> keys) {
+
+        Map<String, String> tables = Map.of(
+                imageStore.getPosterImgDir(), "poster_image",
+                imageStore.getLocationImgDir(), "location_image",
+                imageStore.getMemberImgDir(), "member_image");
+
+        Set<String> referenced = new HashSet<>(imageBlobRepository.findExisting(keys));
+        for (Map.Entry<String, String> table : tables.entrySet()) {
+
+            String dir = table.getKey();
+            List<String> storeFileNames = keys.stream()
+                    .filter(key -> key.startsWith(dir))
+                    .map(key -> key.substring(dir.length()))
+                    .toList();
+            if (storeFileNames.isEmpty())
+                continue;
+
+            jdbcTemplate.queryForList("SELECT store_file_name FROM " + table.getValue() + " WHERE store_file_name IN (:names)",
+                            new MapSqlParameterSource("names", storeFileNames), String.class)
+                    .forEach(storeFileName -> referenced.add(dir + storeFileName));
+        }
+        return referenced;
+    }
+}
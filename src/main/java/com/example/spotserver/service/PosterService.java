@@ -1,20 +1,32 @@
 package com.example.spotserver.service;
 
+import com.example.spotserver.config.cache.CacheNames;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.PosterConditionRequest;
 import com.example.spotserver.dto.request.PosterRequest;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.PageResponse;
 import com.example.spotserver.dto.response.PosterResponse;
+import com.example.spotserver.event.PosterEvent;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.ErrorCode;
 import com.example.spotserver.exception.FileException;
 import com.example.spotserver.exception.PermissionException;
 import com.example.spotserver.repository.*;
+import com.example.spotserver.repository.jdbc.BulkDeleteRepository;
+import com.example.spotserver.repository.jdbc.ImageBlobRepository;
+import com.example.spotserver.repository.jdbc.ImageDeleteOutboxRepository;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
@@ -22,30 +34,56 @@ import java.io.IOException;
 import java.util.*;
 
 @Service
+@Slf4j
 public class PosterService {
 
     private PosterRepository posterRepository;
-    private PosterLikeRepository posterLikeRepository;
+    private LikeService likeService;
     private LocationRepository locationRepository;
     private PosterImageRepository posterImageRepository;
     private MemberRepository memberRepository;
     private ImageStore imageStore;
+    private TransactionTemplate transactionTemplate;
+    private ImageDeleteOutboxRepository imageDeleteOutboxRepository;
+    private ImageBlobRepository imageBlobRepository;
+    private BulkDeleteRepository bulkDeleteRepository;
+    private ImageUrlResolver imageUrlResolver;
+    private UploadService uploadService;
+    private ApplicationEventPublisher eventPublisher;
+    private TrendingRanking trendingRanking;
 
 
     @Autowired
-    public PosterService(PosterRepository posterRepository, PosterLikeRepository posterLikeRepository, LocationRepository locationRepository, PosterImageRepository posterImageRepository, ImageStore imageStore, MemberRepository memberRepository) {
+    public PosterService(PosterRepository posterRepository, LikeService likeService, LocationRepository locationRepository, PosterImageRepository posterImageRepository, ImageStore imageStore, MemberRepository memberRepository, PlatformTransactionManager transactionManager, ImageDeleteOutboxRepository imageDeleteOutboxRepository, ImageBlobRepository imageBlobRepository, BulkDeleteRepository bulkDeleteRepository, ImageUrlResolver imageUrlResolver, UploadService uploadService, ApplicationEventPublisher eventPublisher, TrendingRanking trendingRanking) {
         this.posterRepository = posterRepository;
-        this.posterLikeRepository = posterLikeRepository;
+        this.likeService = likeService;
         this.locationRepository = locationRepository;
         this.posterImageRepository = posterImageRepository;
         this.imageStore = imageStore;
         this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.imageDeleteOutboxRepository = imageDeleteOutboxRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.bulkDeleteRepository = bulkDeleteRepository;
+        this.imageUrlResolver = imageUrlResolver;
+        this.uploadService = uploadService;
+        this.eventPublisher = eventPublisher;
+        this.trendingRanking = trendingRanking;
     }
 
     public Long addPoster(Poster poster,
                           List<MultipartFile> files,
                           Long locationId,
                           Long memberId) throws IOException, FileException {
+        return addPoster(poster, files, null, locationId, memberId);
+    }
+
+    // imageKeys: /uploads/posters 로 발급받아 저장소에 직접 올린 이미지의 키
+    public Long addPoster(Poster poster,
+                          List<MultipartFile> files,
+                          List<String> imageKeys,
+                          Long locationId,
+                          Long memberId) throws IOException, FileException {
         Location location = locationRepository.findById(locationId)
                 .orElseThrow(() -> new NoSuchElementException());
 
@@ -55,7 +93,6 @@ public class PosterService {
         poster.setWriter(member);
         poster.setLocation(location);
 
-
         if (files != null) {
 
             for (MultipartFile file : files) {
@@ -64,33 +101,69 @@ public class PosterService {
                 if(!supportFile.contains(extension))
                     throw new FileException(ErrorCode.NOT_SUPPORT_FILE);
             }
+        }
+
+        // 직접 올린 이미지를 먼저 확인해서, 잘못된 키면 multipart 이미지를 올리지 않는다.
+        List<PosterImage> imgFiles = new ArrayList<>();
+        if (imageKeys != null && !imageKeys.isEmpty())
+            imgFiles.addAll(uploadService.claimPosterImages(imageKeys, memberId));
+        if (files != null)
+            imgFiles.addAll(imageStore.storePosterImages(files));
 
-            List<PosterImage> imgFiles = imageStore.storePosterImages(files);
+        if (!imgFiles.isEmpty()) {
             poster.setPosterImages(imgFiles);
             for (PosterImage imgFile : imgFiles) {
                 imgFile.setPoster(poster);
             }
         }
 
-        Poster savePoster = posterRepository.save(poster);
+        Poster savePoster;
+        try {
+            savePoster = transactionTemplate.execute(status -> {
+                if (poster.getPosterImages() != null)
+                    imageStore.acquirePosterImages(poster.getPosterImages());
+                Poster saved = posterRepository.save(poster);
+                eventPublisher.publishEvent(new PosterEvent(PosterEvent.Type.ADD, saved.getId()));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            discardPosterImages(poster.getPosterImages());
+            throw e;
+        }
 
+        if (savePoster.getPosterImages() != null)
+            imageStore.confirmPosterImages(savePoster.getPosterImages());
         return savePoster.getId();
     }
 
     public PageResponse<PosterResponse> getLocationPosters(Long locationId, PosterConditionRequest conditionRequest) {
 
-        Page<PosterResponse> posters = posterRepository.searchPosters(locationId, conditionRequest);
+        Slice<PosterResponse> posters = posterRepository.searchPosters(locationId, conditionRequest);
+        imageUrlResolver.fillPosterImages(posters.getContent());
         PageResponse<PosterResponse> pageResponse = new PageResponse<>(posters);
         return pageResponse;
     }
 
+    public CursorResponse<PosterResponse> getLocationPostersByCursor(Long locationId, PosterConditionRequest conditionRequest) throws CursorException {
+        Cursor cursor = Cursor.decode(conditionRequest.getCursor());
+        CursorResponse<PosterResponse> cursorResponse = posterRepository.searchPostersByCursor(locationId, conditionRequest, cursor);
+        imageUrlResolver.fillPosterImages(cursorResponse.getResults());
+        return cursorResponse;
+    }
+
+    @Cacheable(cacheNames = CacheNames.POSTER, key = "#posterId", sync = true)
     public PosterResponse getPoster(Long posterId) {
         PosterResponse posterResponse = posterRepository.getPosterById(posterId)
                 .orElseThrow(() -> new NoSuchElementException());
+        imageUrlResolver.fillPosterImages(List.of(posterResponse));
         return posterResponse;
     }
 
-    @Transactional
+    /**
+     * S3 업로드, 삭제는 트랜잭션 밖에서 한다.
+     * 새 이미지를 먼저 올리고, 짧은 트랜잭션으로 DB를 변경한 뒤, 커밋되면 새 이미지를 확정한다.
+     * 지운 이미지는 같은 트랜잭션에서 outbox 에 넣어 커밋 후 ImageDeleteWorker가 지운다.
+     */
     public void updatePoster(Long posterId,
                              PosterRequest posterRequest,
                              List<MultipartFile> addFiles,
@@ -107,14 +180,35 @@ public class PosterService {
             throw new PermissionException(ErrorCode.FORBIDDEN_CLIENT);
         }
 
-        for (MultipartFile file : addFiles) {
-            String extension = ImageStore.getFileExtension(file.getOriginalFilename());
-            List<String> supportFile = new ArrayList<>(Arrays.asList("jpeg", "jpg", "png"));
-            if(!supportFile.contains(extension))
-                throw new FileException(ErrorCode.NOT_SUPPORT_FILE);
+        if (addFiles != null) {
+            for (MultipartFile file : addFiles) {
+                String extension = ImageStore.getFileExtension(file.getOriginalFilename());
+                List<String> supportFile = new ArrayList<>(Arrays.asList("jpeg", "jpg", "png"));
+                if(!supportFile.contains(extension))
+                    throw new FileException(ErrorCode.NOT_SUPPORT_FILE);
+            }
+        }
+
+        List<PosterImage> imgFiles = addFiles == null ? List.of() : imageStore.storePosterImages(addFiles);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> updatePoster(posterId, posterRequest, imgFiles, deleteFilesId));
+        } catch (RuntimeException e) {
+            discardPosterImages(imgFiles);
+            throw e;
         }
 
+        imageStore.confirmPosterImages(imgFiles);
+    }
+
+    // 트랜잭션 안에서 호출된다. 지운 이미지는 참조 수를 줄이고, 더 이상 쓰이지 않는 키를 outbox 에 넣는다.
+    private void updatePoster(Long posterId, PosterRequest posterRequest,
+                                           List<PosterImage> imgFiles, List<Long> deleteFilesId) {
+
+        Poster poster = posterRepository.findById(posterId)
+                .orElseThrow(() -> new NoSuchElementException());
 
+        List<String> deletedKeys = new ArrayList<>();
         if (deleteFilesId != null) {
 
             for (Long fileId : deleteFilesId) {
@@ -123,20 +217,19 @@ public class PosterService {
                         .orElseThrow(() -> new NoSuchElementException());
 
                 if (poster.getId().equals(posterImage.getPoster().getId())) {
-                    imageStore.deletePosterImage(posterImage);
                     posterImageRepository.deleteById(fileId);
                     poster.getPosterImages().remove(posterImage);
+                    deletedKeys.add(imageStore.getPosterImgKey(posterImage));
                 }
             }
         }
 
         poster.updatePoster(posterRequest);
 
-        if (addFiles != null) {
-            List<PosterImage> imgFiles = imageStore.storePosterImages(addFiles);
-
+        if (!imgFiles.isEmpty()) {
+            imageStore.acquirePosterImages(imgFiles);
             if (poster.getPosterImages() == null)
-                poster.setPosterImages(imgFiles);
+                poster.setPosterImages(new ArrayList<>(imgFiles));
             else
                 poster.getPosterImages().addAll(imgFiles);
 
@@ -145,8 +238,24 @@ public class PosterService {
             }
         }
 
+        imageDeleteOutboxRepository.enqueue(imageBlobRepository.release(deletedKeys));
+        eventPublisher.publishEvent(new PosterEvent(PosterEvent.Type.UPDATE, posterId));
+    }
+
+    // 실패한 요청의 이미지 정리에 사용한다. 실패해도 원래 예외를 던진다. (확정 전 이미지는 PendingImageSweeper가 다시 정리)
+    private void discardPosterImages(List<PosterImage> posterImages) {
+
+        if (posterImages == null)
+            return;
+
+        try {
+            imageStore.discardPosterImages(posterImages);
+        } catch (RuntimeException e) {
+            log.warn("[이미지 삭제] 실패한 요청의 이미지 정리 실패", e);
+        }
     }
 
+    @Transactional
     public void deletePoster(Long posterId, Long memberId) throws PermissionException {
 
         Poster poster = posterRepository.findById(posterId)
@@ -158,87 +267,68 @@ public class PosterService {
         if (!member.getId().equals(poster.getWriter().getId()))
             throw new PermissionException(ErrorCode.FORBIDDEN_CLIENT);
 
-        List<PosterImage> posterImages = poster.getPosterImages();
-        if (posterImages != null) {
-            for (PosterImage posterImage : posterImages) {
-                imageStore.deletePosterImage(posterImage);
-            }
-
-        }
-
-        posterRepository.delete(poster);
+        // 댓글, 좋아요, 이미지를 한 번에 지우고, S3 이미지는 커밋 후 ImageDeleteWorker가 지운다.
+        BulkDeleteRepository.DeletedPosters deletedPosters = bulkDeleteRepository.deletePosters(List.of(posterId));
+        imageDeleteOutboxRepository.enqueue(imageBlobRepository.release(deletedPosters.getImageKeys()));
 
+        likeService.evict(LikeTarget.POSTER, posterId);
+        eventPublisher.publishEvent(new PosterEvent(PosterEvent.Type.DELETE, posterId, deletedPosters.getCommentIds()));
     }
 
     public Map getLikes(Long posterId) {
 
         Map<String, Object> response = new HashMap();
 
-        Poster poster = posterRepository.findById(posterId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        Long likeCnt = posterLikeRepository.countByPoster(poster);
+        Long likeCnt = likeService.getLikeCount(LikeTarget.POSTER, posterId);
         response.put("likeCnt", likeCnt);
 
         return response;
     }
 
     public void addLike(Long posterId, Long memberId) throws DuplicateException {
-
-        Poster poster = posterRepository.findById(posterId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        if (posterLikeRepository.existsPosterLikeByPosterAndMember(poster, member)) {
-            throw new DuplicateException(ErrorCode.DUPLICATE_LIKE);
-        }
-
-        PosterLike posterLike = new PosterLike();
-        posterLike.setPoster(poster);
-        posterLike.setMember(member);
-        posterLikeRepository.save(posterLike);
-
+        likeService.addLike(LikeTarget.POSTER, posterId, memberId);
     }
 
     public void deleteLike(Long posterId, Long memberId) {
-
-        Poster poster = posterRepository.findById(posterId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        PosterLike posterLike = posterLikeRepository.findByPosterAndMember(poster, member)
-                .orElseThrow(() -> new NoSuchElementException());
-
-        posterLikeRepository.delete(posterLike);
-
+        likeService.deleteLike(LikeTarget.POSTER, posterId, memberId);
     }
 
-    public PageResponse<PosterResponse> getLikePosters(Integer page, Long memberId) {
+    public PageResponse<PosterResponse> getLikePosters(Integer page, Long memberId, CountMode countMode) {
         PageRequest pageRequest = PageRequest.of(page-1, 5);
-        Page<PosterResponse> likePosters = posterRepository.getLikePosters(memberId, pageRequest);
+        Slice<PosterResponse> likePosters = posterRepository.getLikePosters(memberId, pageRequest, countMode);
+        imageUrlResolver.fillPosterImages(likePosters.getContent());
         PageResponse<PosterResponse> pageResponse = new PageResponse<>(likePosters);
         return pageResponse;
     }
 
-    public List<PosterResponse> getBestPosters() {
-        List<PosterResponse> bestPosters = posterRepository.getBestPosters();
-        return bestPosters;
+    public CursorResponse<PosterResponse> getLikePostersByCursor(String cursor, Long memberId) throws CursorException {
+        CursorResponse<PosterResponse> cursorResponse = posterRepository.getLikePostersByCursor(memberId, Cursor.decode(cursor), 5);
+        imageUrlResolver.fillPosterImages(cursorResponse.getResults());
+        return cursorResponse;
     }
 
-    public PageResponse<PosterResponse> getWritePosters(Integer page, Long memberId) {
+    public List<PosterResponse> getBestPosters(String window) {
+        return trendingRanking.getPosters(TrendingWindow.from(window));
+    }
+
+    public PageResponse<PosterResponse> getWritePosters(Integer page, Long memberId, CountMode countMode) {
         PageRequest pageRequest = PageRequest.of(page - 1, 5);
-        Page<PosterResponse> writePosters = posterRepository.getWritePosters(memberId, pageRequest);
+        Slice<PosterResponse> writePosters = posterRepository.getWritePosters(memberId, pageRequest, countMode);
+        imageUrlResolver.fillPosterImages(writePosters.getContent());
         PageResponse<PosterResponse> pageResponse = new PageResponse<>(writePosters);
         return pageResponse;
     }
 
-    public PageResponse<PosterResponse> getPostersByWriteComments(Integer page, Long memberId) {
+    public CursorResponse<PosterResponse> getWritePostersByCursor(String cursor, Long memberId) throws CursorException {
+        CursorResponse<PosterResponse> cursorResponse = posterRepository.getWritePostersByCursor(memberId, Cursor.decode(cursor), 5);
+        imageUrlResolver.fillPosterImages(cursorResponse.getResults());
+        return cursorResponse;
+    }
+
+    public PageResponse<PosterResponse> getPostersByWriteComments(Integer page, Long memberId, CountMode countMode) {
         PageRequest pageRequest = PageRequest.of(page - 1, 5);
-        Page<PosterResponse> posters = posterRepository.getPostersByWriteComments(memberId, pageRequest);
+        Slice<PosterResponse> posters = posterRepository.getPostersByWriteComments(memberId, pageRequest, countMode);
+        imageUrlResolver.fillPosterImages(posters.getContent());
         PageResponse<PosterResponse> pageResponse = new PageResponse<>(posters);
         return pageResponse;
     }
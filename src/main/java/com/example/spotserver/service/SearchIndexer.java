@@ -0,0 +1,223 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.LikeTarget;
+import com.example.spotserver.event.LikeEvent;
+import com.example.spotserver.event.LocationEvent;
+import com.example.spotserver.event.MemberEvent;
+import com.example.spotserver.event.PosterEvent;
+import com.example.spotserver.repository.jdbc.SearchDocumentRepository;
+import com.example.spotserver.repository.search.SearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 장소, 게시글이 추가, 수정, 삭제되거나 좋아요 수가 바뀌면 커밋 후에 검색 인덱스(SearchIndex)를 갱신한다.
+ * 인덱스는 서버마다 따로 있으므로 변경을 Redis pub/sub 으로 모든 서버(자신 포함)에 알리고, 알림을 받은 서버가 DB에서 다시 읽어 반영한다.
+ * 알림을 보내지 못하면 이 서버의 인덱스에만 바로 반영한다.
+ * 인덱스가 비어있거나 spot.search.rebuild-on-start 가 켜져 있으면 서버 시작 시 DB 전체로 다시 만든다. (서버가 꺼져있는 동안의 변경 반영)
+ */
+@Component
+@Slf4j
+public class SearchIndexer implements MessageListener {
+
+    private static final String INDEX_CHANNEL = "search:index";
+    private static final int CHUNK_SIZE = 1000;
+
+    private SearchIndex searchIndex;
+    private SearchDocumentRepository searchDocumentRepository;
+    private StringRedisTemplate redisTemplate;
+    private boolean rebuildOnStart;
+
+    // 다시 만드는 동안에는 절반만 채워진 인덱스가 검색되지 않도록 리더를 다시 열지 않는다.
+    private volatile boolean rebuilding = false;
+
+    @Autowired
+    public SearchIndexer(SearchIndex searchIndex, SearchDocumentRepository searchDocumentRepository,
+                         StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                         @Value("${spot.search.rebuild-on-start:false}") boolean rebuildOnStart) {
+        this.searchIndex = searchIndex;
+        this.searchDocumentRepository = searchDocumentRepository;
+        this.redisTemplate = redisTemplate;
+        this.rebuildOnStart = rebuildOnStart;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INDEX_CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!rebuildOnStart && !searchIndex.isEmpty())
+            return;
+        try {
+            int count = rebuild();
+            log.info("[검색 인덱스] 장소, 게시글 {}개 적재", count);
+        } catch (IOException | RuntimeException e) {
+            log.error("[검색 인덱스] 적재 실패", e);
+        }
+    }
+
+    /**
+     * 인덱스를 비우고 DB의 승인된 장소, 모든 게시글로 다시 채운다.
+     * 다시 만드는 중에 바뀐 문서는 드물게 이전 값으로 남을 수 있으며, 그 문서가 다음에 바뀔 때 바로잡힌다.
+     */
+    public synchronized int rebuild() throws IOException {
+
+        rebuilding = true;
+        try {
+            searchIndex.deleteAll();
+
+            int count = 0;
+            long lastId = 0;
+            List<SearchDocumentRepository.LocationDocument> locations;
+            do {
+                locations = searchDocumentRepository.findLocations(lastId, CHUNK_SIZE);
+                for (SearchDocumentRepository.LocationDocument location : locations) {
+                    searchIndex.indexLocation(location);
+                    lastId = location.getId();
+                }
+                count += locations.size();
+            } while (locations.size() == CHUNK_SIZE);
+
+            lastId = 0;
+            List<SearchDocumentRepository.PosterDocument> posters;
+            do {
+                posters = searchDocumentRepository.findPosters(lastId, CHUNK_SIZE);
+                for (SearchDocumentRepository.PosterDocument poster : posters) {
+                    searchIndex.indexPoster(poster);
+                    lastId = poster.getId();
+                }
+                count += posters.size();
+            } while (posters.size() == CHUNK_SIZE);
+
+            searchIndex.commit();
+            return count;
+        } finally {
+            rebuilding = false;
+            searchIndex.refresh();
+        }
+    }
+
+    // 검색 결과에는 최대 spot.search.refresh-delay 만큼 늦게 반영된다.
+    @Scheduled(fixedDelayString = "${spot.search.refresh-delay:1000}", initialDelayString = "${spot.search.refresh-delay:1000}")
+    public void scheduledRefresh() {
+        if (rebuilding)
+            return;
+        try {
+            searchIndex.refresh();
+        } catch (IOException | RuntimeException e) {
+            log.error("[검색 인덱스] 리더 갱신 실패", e);
+        }
+    }
+
+    // 커밋 전에 서버가 종료되면 마지막 커밋 이후의 변경을 잃으므로 주기적으로 커밋한다. (rebuild-on-start 로 복구)
+    // 다시 만드는 중에 커밋하면 절반만 채워진 인덱스가 디스크에 남으므로 건너뛴다. (rebuild 가 끝날 때 커밋)
+    @Scheduled(fixedDelayString = "${spot.search.commit-delay:60000}", initialDelayString = "${spot.search.commit-delay:60000}")
+    public void scheduledCommit() {
+        if (rebuilding)
+            return;
+        try {
+            searchIndex.commit();
+        } catch (IOException | RuntimeException e) {
+            log.error("[검색 인덱스] 커밋 실패", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationEvent(LocationEvent event) {
+        switch (event.getType()) {
+            case ADD, APPROVE -> publish(Change.LOCATION, event.getLocationId());
+            case DELETE -> publish(Change.LOCATION_DELETE, event.getLocationId());
+            // 좋아요 수는 DB에 반영된 뒤의 LikeEvent 로 갱신한다.
+            case LIKE, UNLIKE -> {
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPosterEvent(PosterEvent event) {
+        publish(Change.POSTER, event.getPosterId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeEvent(LikeEvent event) {
+        if (event.getTarget() == LikeTarget.POSTER)
+            publish(Change.POSTER, event.getTargetId());
+        else if (event.getTarget() == LikeTarget.LOCATION)
+            publish(Change.LOCATION, event.getTargetId());
+    }
+
+    // 탈퇴한 회원의 게시글은 한꺼번에 지워진다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberEvent(MemberEvent event) {
+        if (event.getType() == MemberEvent.Type.DELETE)
+            publish(Change.MEMBER_DELETE, event.getMemberId());
+    }
+
+    // 다른 서버(자신 포함)가 보낸 변경 알림
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            String[] parts = body.split(":");
+            apply(Change.valueOf(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            log.warn("[검색 인덱스] 잘못된 변경 알림 무시 {}", body);
+        }
+    }
+
+    private void publish(Change change, Long id) {
+        try {
+            redisTemplate.convertAndSend(INDEX_CHANNEL, change.name() + ":" + id);
+        } catch (RuntimeException e) {
+            log.warn("[검색 인덱스] 변경 알림 실패 {}:{}", change, id, e);
+            apply(change, id);
+        }
+    }
+
+    // DB에서 다시 읽어 반영한다. 없으면(삭제, 승인 취소) 인덱스에서 지운다.
+    private void apply(Change change, Long id) {
+        try {
+            switch (change) {
+                case LOCATION -> {
+                    Optional<SearchDocumentRepository.LocationDocument> location = searchDocumentRepository.findLocation(id);
+                    if (location.isPresent())
+                        searchIndex.indexLocation(location.get());
+                    else
+                        searchIndex.deleteLocation(id);
+                }
+                case LOCATION_DELETE -> {
+                    searchIndex.deleteLocation(id);
+                    searchIndex.deletePostersByLocation(id);
+                }
+                case POSTER -> {
+                    Optional<SearchDocumentRepository.PosterDocument> poster = searchDocumentRepository.findPoster(id);
+                    if (poster.isPresent())
+                        searchIndex.indexPoster(poster.get());
+                    else
+                        searchIndex.deletePoster(id);
+                }
+                case MEMBER_DELETE -> searchIndex.deletePostersByMember(id);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("[검색 인덱스] 반영 실패 {}:{}", change, id, e);
+        }
+    }
+
+    private enum Change {
+        LOCATION, LOCATION_DELETE, POSTER, MEMBER_DELETE
+    }
+}
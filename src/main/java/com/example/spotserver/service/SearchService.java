@@ -0,0 +1,70 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.dto.request.SearchConditionRequest;
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.PosterResponse;
+import com.example.spotserver.dto.response.SearchResponse;
+import com.example.spotserver.repository.LocationRepository;
+import com.example.spotserver.repository.PosterRepository;
+import com.example.spotserver.repository.search.SearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 검색 인덱스(SearchIndex)로 장소, 게시글의 순위를 정하고, 요청한 페이지의 id만 DB에서 읽어 응답을 만든다.
+ * 인덱스 반영이 늦어 DB에서 이미 지워진(승인 취소된) 대상은 결과에서 빠진다.
+ */
+@Service
+public class SearchService {
+
+    private SearchIndex searchIndex;
+    private LocationRepository locationRepository;
+    private PosterRepository posterRepository;
+    private ImageUrlResolver imageUrlResolver;
+
+    @Autowired
+    public SearchService(SearchIndex searchIndex, LocationRepository locationRepository,
+                         PosterRepository posterRepository, ImageUrlResolver imageUrlResolver) {
+        this.searchIndex = searchIndex;
+        this.locationRepository = locationRepository;
+        this.posterRepository = posterRepository;
+        this.imageUrlResolver = imageUrlResolver;
+    }
+
+    public SearchResponse search(SearchConditionRequest conditionRequest) throws IOException {
+
+        int size = conditionRequest.getSize();
+        int offset = (conditionRequest.getPage() - 1) * size;
+
+        List<Long> locationIds = searchIndex.search(SearchIndex.LOCATION, conditionRequest.getQ(),
+                conditionRequest.getLat(), conditionRequest.getLng(), offset, size);
+        List<Long> posterIds = searchIndex.search(SearchIndex.POSTER, conditionRequest.getQ(),
+                conditionRequest.getLat(), conditionRequest.getLng(), offset, size);
+
+        List<LocationResponse> locations = inOrder(locationIds,
+                locationRepository.getApprovedLocationsByIds(locationIds), LocationResponse::getLocationId);
+        List<PosterResponse> posters = inOrder(posterIds,
+                posterRepository.getPostersByIds(posterIds), PosterResponse::getPosterId);
+
+        imageUrlResolver.fillLocationImages(locations);
+        imageUrlResolver.fillPosterImages(posters);
+        return new SearchResponse(locations, posters);
+    }
+
+    // 검색 순위대로 정렬한다.
+    private <T> List<T> inOrder(List<Long> ids, List<T> responses, Function<T, Long> idOf) {
+        Map<Long, T> byId = responses.stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.ImageStore;
+import com.example.spotserver.domain.ImageVariant;
+import com.example.spotserver.domain.ThumbnailStatus;
+import com.example.spotserver.repository.jdbc.ThumbnailJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * 게시글, 장소, 회원 이미지의 축소본(128/512/1280px)을 만든다.
+ * 주기적으로 상태가 PENDING 인 이미지를 찾아 전용 스레드 풀에 넘기며, 상태는 DB에 남으므로 서버가 재시작되어도 이어서 처리한다.
+ * 기존 이미지도 PENDING 으로 시작하므로 별도의 백필 작업 없이 같은 방식으로 처리된다.
+ * 읽을 수 없는 이미지(형식을 모르거나 디코딩 실패)와 원본이 없는 이미지는 바로, 그 밖의 오류는 spot.thumbnail.max-attempts 번 실패하면 FAILED 로 바꿔
+ * 다시 찾지 않는다.
+ */
+@Component
+@Slf4j
+public class ThumbnailGenerator {
+
+    private static final int SCAN_SIZE = 100;
+
+    private ThumbnailJdbcRepository thumbnailJdbcRepository;
+    private ImageStore imageStore;
+    private int maxAttempts;
+
+    private final ThreadPoolExecutor executor;
+
+    // 테이블 -> S3 폴더
+    private final Map<String, String> tables = new LinkedHashMap<>();
+
+    // 테이블별로 마지막으로 넘긴 id. 끝까지 가면 처음부터 다시 찾는다.
+    private final Map<String, Long> lastIds = new ConcurrentHashMap<>();
+
+    // 처리 중인 이미지를 다시 넘기지 않도록 기록한다. (테이블:id)
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ThumbnailGenerator(ThumbnailJdbcRepository thumbnailJdbcRepository, ImageStore imageStore,
+                              @Value("${spot.thumbnail.threads:2}") int threads,
+                              @Value("${spot.thumbnail.queue-size:200}") int queueSize,
+                              @Value("${spot.thumbnail.max-attempts:5}") int maxAttempts) {
+        this.thumbnailJdbcRepository = thumbnailJdbcRepository;
+        this.imageStore = imageStore;
+        this.maxAttempts = maxAttempts;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        tables.put("poster_image", imageStore.getPosterImgDir());
+        tables.put("location_image", imageStore.getLocationImgDir());
+        tables.put("member_image", imageStore.getMemberImgDir());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${spot.thumbnail.scan-delay:10000}", initialDelayString = "${spot.thumbnail.scan-delay:10000}")
+    public void scheduledScan() {
+        try {
+            scan();
+        } catch (RuntimeException e) {
+            log.error("[축소본 생성] 조회 실패", e);
+        }
+    }
+
+    // 큐에 남은 자리만큼만 넘기므로 작업이 밀려도 메모리가 늘어나지 않는다.
+    public void scan() {
+
+        for (Map.Entry<String, String> table : tables.entrySet()) {
+
+            int capacity = Math.min(executor.getQueue().remainingCapacity(), SCAN_SIZE);
+            if (capacity == 0)
+                return;
+
+            String tableName = table.getKey();
+            long lastId = lastIds.getOrDefault(tableName, 0L);
+            List<ThumbnailJdbcRepository.Image> images = thumbnailJdbcRepository.findPending(tableName, lastId, capacity);
+            lastIds.put(tableName, images.size() < capacity ? 0L : images.get(images.size() - 1).getId());
+
+            for (ThumbnailJdbcRepository.Image image : images) {
+                String taskKey = tableName + ":" + image.getId();
+                if (!inFlight.add(taskKey))
+                    continue;
+
+                String key = table.getValue() + image.getStoreFileName();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            generate(tableName, image, key);
+                        } finally {
+                            inFlight.remove(taskKey);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.remove(taskKey);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void generate(String table, ThumbnailJdbcRepository.Image image, String key) {
+        try {
+            ThumbnailStatus status = createVariants(key) ? ThumbnailStatus.READY : ThumbnailStatus.FAILED;
+            thumbnailJdbcRepository.updateStatus(table, image.getId(), status);
+        } catch (NoSuchFileException | IIOException e) {
+            // 원본이 없거나 디코딩할 수 없는 이미지는 다시 시도해도 같으므로 바로 FAILED 로 바꾼다.
+            log.warn("[축소본 생성] 읽을 수 없는 이미지 key={}", key, e);
+            updateStatus(table, image.getId(), ThumbnailStatus.FAILED);
+        } catch (IOException | RuntimeException e) {
+            // 일시적인 오류일 수 있으므로 PENDING 으로 두고 다음 조회 때 다시 시도한다.
+            int attempts = image.getAttempts() + 1;
+            log.warn("[축소본 생성] 실패 key={} attempts={}", key, attempts, e);
+            try {
+                thumbnailJdbcRepository.updateAttempts(table, image.getId(), attempts,
+                        attempts >= maxAttempts ? ThumbnailStatus.FAILED : ThumbnailStatus.PENDING);
+            } catch (RuntimeException updateException) {
+                log.error("[축소본 생성] 실패 횟수 저장 실패 key={}", key, updateException);
+            }
+        }
+    }
+
+    private void updateStatus(String table, Long id, ThumbnailStatus status) {
+        try {
+            thumbnailJdbcRepository.updateStatus(table, id, status);
+        } catch (RuntimeException e) {
+            log.error("[축소본 생성] 상태 저장 실패 table={} id={}", table, id, e);
+        }
+    }
+
+    /**
+     * 원본을 한 번만 내려받아 가장 큰 축소본 크기에 맞춰 줄여서(subsampling) 읽은 뒤, 큰 것부터 차례로 줄여가며 저장한다.
+     * 원본보다 큰 축소본은 원본 크기로 저장한다. 읽을 수 없는 이미지면 false
+     */
+    private boolean createVariants(String key) throws IOException {
+
+        try (InputStream inputStream = imageStore.openObject(key);
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext())
+                return false;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                boolean png = "png".equalsIgnoreCase(reader.getFormatName());
+
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longest / ImageVariant.LARGE.getSize());
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                BufferedImage image = reader.read(0, param);
+
+                List<ImageVariant> variants = new ArrayList<>(Arrays.asList(ImageVariant.values()));
+                Collections.reverse(variants);
+                for (ImageVariant variant : variants) {
+                    image = resize(image, variant.getSize(), png);
+                    imageStore.putObject(imageStore.getVariantKey(key, variant), encode(image, png), png ? "image/png" : "image/jpeg");
+                }
+                return true;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // JPEG 는 알파 채널을 저장할 수 없으므로 RGB 로 그린다.
+    private BufferedImage resize(BufferedImage image, int size, boolean png) {
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int type = png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        double scale = Math.min(1.0, (double) size / Math.max(width, height));
+        if (scale == 1.0 && image.getType() == type)
+            return image;
+
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage resized = new BufferedImage(targetWidth, targetHeight, type);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private byte[] encode(BufferedImage image, boolean png) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, png ? "png" : "jpg", outputStream))
+            throw new IOException("이미지 인코딩 실패");
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.LikeTarget;
+import com.example.spotserver.domain.TrendingWindow;
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.PosterResponse;
+import com.example.spotserver.event.CommentEvent;
+import com.example.spotserver.repository.LocationRepository;
+import com.example.spotserver.repository.PosterRepository;
+import com.example.spotserver.repository.redis.TrendingRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 인기 게시글, 장소 목록을 미리 계산해두고 요청마다 그대로 돌려준다.
+ * 좋아요(1점), 댓글(2점)이 생길 때마다 TrendingRepository 의 시간 버킷에 점수를 더하고,
+ * spot.trending.refresh-delay 마다 기간별 상위 size 개를 다시 계산한다. 목록의 좋아요 수는 그 사이 바뀐 값이 반영되지 않는다.
+ * 최근 점수가 있는 대상이 size 개보다 적으면 누적 좋아요 순(ALL)으로 나머지를 채운다.
+ */
+@Component
+@Slf4j
+public class TrendingRanking {
+
+    private static final double LIKE_SCORE = 1;
+    private static final double COMMENT_SCORE = 2;
+
+    // 삭제되었거나 승인되지 않은 대상을 걸러내도 size 개가 남도록 여유 있게 읽는다.
+    private static final int CANDIDATE_FACTOR = 3;
+    private static final int MAX_PRUNE_ROUNDS = 5;
+
+    private TrendingRepository trendingRepository;
+    private PosterRepository posterRepository;
+    private LocationRepository locationRepository;
+    private ImageUrlResolver imageUrlResolver;
+    private int size;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public TrendingRanking(TrendingRepository trendingRepository, PosterRepository posterRepository,
+                           LocationRepository locationRepository, ImageUrlResolver imageUrlResolver,
+                           @Value("${spot.trending.size:5}") int size) {
+        this.trendingRepository = trendingRepository;
+        this.posterRepository = posterRepository;
+        this.locationRepository = locationRepository;
+        this.imageUrlResolver = imageUrlResolver;
+        this.size = size;
+    }
+
+    // 좋아요가 취소되면 점수를 뺀다. 점수 기록에 실패해도 좋아요 요청은 실패시키지 않는다.
+    public void recordLike(LikeTarget target, Long targetId, boolean liked) {
+
+        if (target == LikeTarget.COMMENT)
+            return;
+
+        try {
+            trendingRepository.increment(target, targetId, liked ? LIKE_SCORE : -LIKE_SCORE);
+        } catch (RuntimeException e) {
+            log.warn("[인기 순위] 점수 기록 실패 target={}, id={}", target, targetId, e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentEvent(CommentEvent event) {
+
+        if (event.getPosterId() == null)
+            return;
+
+        double score = event.getType() == CommentEvent.Type.ADD ? COMMENT_SCORE : -COMMENT_SCORE;
+        try {
+            trendingRepository.increment(LikeTarget.POSTER, event.getPosterId(), score);
+        } catch (RuntimeException e) {
+            log.warn("[인기 순위] 점수 기록 실패 posterId={}", event.getPosterId(), e);
+        }
+    }
+
+    public List<PosterResponse> getPosters(TrendingWindow window) {
+        return current().getPosters().get(window);
+    }
+
+    public List<LocationResponse> getLocations(TrendingWindow window) {
+        return current().getLocations().get(window);
+    }
+
+    @Scheduled(fixedDelayString = "${spot.trending.refresh-delay:60000}", initialDelayString = "${spot.trending.refresh-delay:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // 이전 목록을 그대로 두고 다음 주기에 다시 계산한다.
+            log.error("[인기 순위] 갱신 실패", e);
+        }
+    }
+
+    public synchronized void refresh() {
+
+        Map<TrendingWindow, List<PosterResponse>> posters = new EnumMap<>(TrendingWindow.class);
+        Map<TrendingWindow, List<LocationResponse>> locations = new EnumMap<>(TrendingWindow.class);
+
+        List<PosterResponse> bestPosters = posterRepository.getBestPosters(size);
+        imageUrlResolver.fillPosterImages(bestPosters);
+        posters.put(TrendingWindow.ALL, List.copyOf(bestPosters));
+
+        List<LocationResponse> bestLocations = locationRepository.getBestLocations(size);
+        imageUrlResolver.fillLocationImages(bestLocations);
+        locations.put(TrendingWindow.ALL, List.copyOf(bestLocations));
+
+        for (TrendingWindow window : TrendingWindow.values()) {
+            if (window == TrendingWindow.ALL)
+                continue;
+
+            List<PosterResponse> trendingPosters = rank(LikeTarget.POSTER, window,
+                    posterRepository::getPostersByIds, PosterResponse::getPosterId);
+            imageUrlResolver.fillPosterImages(trendingPosters);
+            posters.put(window, fill(trendingPosters, bestPosters, PosterResponse::getPosterId));
+
+            List<LocationResponse> trendingLocations = rank(LikeTarget.LOCATION, window,
+                    locationRepository::getApprovedLocationsByIds, LocationResponse::getLocationId);
+            imageUrlResolver.fillLocationImages(trendingLocations);
+            locations.put(window, fill(trendingLocations, bestLocations, LocationResponse::getLocationId));
+        }
+
+        snapshot = new Snapshot(posters, locations);
+    }
+
+    // 서버가 뜬 뒤 첫 갱신 전에 요청이 오면 바로 계산한다.
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null)
+            return current;
+
+        synchronized (this) {
+            if (snapshot == null)
+                refresh();
+            return snapshot;
+        }
+    }
+
+    /**
+     * 점수 순으로 대상을 읽어 DB에 있는 것만 남긴다.
+     * DB에서 찾을 수 없는 대상(삭제, 미승인)은 버킷에서 빼고, 남은 대상이 size 개보다 적으면 다시 읽는다.
+     */
+    private <T> List<T> rank(LikeTarget target, TrendingWindow window,
+                             Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+
+        List<T> ranked = new ArrayList<>();
+        for (int round = 0; round < MAX_PRUNE_ROUNDS; round++) {
+
+            List<Long> ids = trendingRepository.findTop(target, window.getWeights(), size * CANDIDATE_FACTOR);
+            Map<Long, T> found = loader.apply(ids).stream()
+                    .collect(Collectors.toMap(idOf, Function.identity()));
+
+            ranked = ids.stream()
+                    .filter(found::containsKey)
+                    .map(found::get)
+                    .limit(size)
+                    .collect(Collectors.toList());
+
+            List<Long> missing = ids.stream()
+                    .filter(id -> !found.containsKey(id))
+                    .toList();
+            if (missing.isEmpty())
+                break;
+
+            trendingRepository.remove(target, missing);
+            if (ranked.size() >= size)
+                break;
+        }
+        return ranked;
+    }
+
+    private <T> List<T> fill(List<T> trending, List<T> best, Function<T, Long> idOf) {
+
+        Map<Long, T> merged = new LinkedHashMap<>();
+        for (T item : trending)
+            merged.put(idOf.apply(item), item);
+        for (T item : best) {
+            if (merged.size() >= size)
+                break;
+            merged.putIfAbsent(idOf.apply(item), item);
+        }
+        return List.copyOf(merged.values());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Snapshot {
+        private Map<TrendingWindow, List<PosterResponse>> posters;
+        private Map<TrendingWindow, List<LocationResponse>> locations;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.spotserver.service;
+
+import com.example.spotserver.domain.ImageStore;
+import com.example.spotserver.domain.LocationImage;
+import com.example.spotserver.domain.PosterImage;
+import com.example.spotserver.dto.request.UploadRequest;
+import com.example.spotserver.dto.response.UploadResponse;
+import com.example.spotserver.exception.ErrorCode;
+import com.example.spotserver.exception.FileException;
+import com.example.spotserver.repository.redis.PendingUploadRepository;
+import com.example.spotserver.repository.redis.UploadTicketRepository;
+import com.example.spotserver.repository.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * 게시글, 장소 이미지를 서버를 거치지 않고 저장소에 바로 올리는 흐름.
+ * 1. 파일마다 키와 PUT URL(presigned)을 발급하고, 키를 대기 목록에 올린다.
+ * 2. 클라이언트가 저장소에 바로 올린다.
+ * 3. 게시글, 장소를 저장할 때 키를 보내면 발급 정보를 꺼내고, HEAD 로 올라간 객체의 크기와 Content-Type 을 확인한다.
+ * 쓰이지 않은 키는 대기 목록에 남아 PendingImageSweeper가 지운다.
+ */
+@Service
+public class UploadService {
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpeg", "image/jpeg",
+            "jpg", "image/jpeg",
+            "png", "image/png");
+
+    private ImageStore imageStore;
+    private UploadTicketRepository uploadTicketRepository;
+    private PendingUploadRepository pendingUploadRepository;
+    private long maxSize;
+    private Duration urlTtl;
+    private Duration ticketTtl;
+
+    // 발급 정보는 PendingImageSweeper가 지우기(spot.s3.pending-ttl) 전에 만료되어야 한다.
+    @Autowired
+    public UploadService(ImageStore imageStore, UploadTicketRepository uploadTicketRepository,
+                         PendingUploadRepository pendingUploadRepository,
+                         @Value("${spot.upload.max-size:10MB}") DataSize maxSize,
+                         @Value("${spot.upload.url-ttl:10m}") Duration urlTtl,
+                         @Value("${spot.upload.ticket-ttl:30m}") Duration ticketTtl) {
+        this.imageStore = imageStore;
+        this.uploadTicketRepository = uploadTicketRepository;
+        this.pendingUploadRepository = pendingUploadRepository;
+        this.maxSize = maxSize.toBytes();
+        this.urlTtl = urlTtl;
+        this.ticketTtl = ticketTtl;
+    }
+
+    public List<UploadResponse> createPosterUploads(UploadRequest uploadRequest, Long memberId) throws FileException {
+        return createUploads(imageStore.getPosterImgDir(), uploadRequest, memberId);
+    }
+
+    public List<UploadResponse> createLocationUploads(UploadRequest uploadRequest, Long memberId) throws FileException {
+        return createUploads(imageStore.getLocationImgDir(), uploadRequest, memberId);
+    }
+
+    /**
+     * 발급받은 키를 게시글 이미지로 바꾼다. 키마다 한 번만 쓸 수 있다.
+     * 반환한 이미지는 multipart 로 올린 이미지와 같이 저장, 확정한다.
+     */
+    public List<PosterImage> claimPosterImages(List<String> keys, Long memberId) throws FileException {
+        return claim(imageStore.getPosterImgDir(), keys, memberId, PosterImage::new);
+    }
+
+    public List<LocationImage> claimLocationImages(List<String> keys, Long memberId) throws FileException {
+        return claim(imageStore.getLocationImgDir(), keys, memberId, LocationImage::new);
+    }
+
+    private List<UploadResponse> createUploads(String dir, UploadRequest uploadRequest, Long memberId) throws FileException {
+
+        for (UploadRequest.UploadFile file : uploadRequest.getFiles()) {
+            String contentType = CONTENT_TYPES.get(ImageStore.getFileExtension(file.getFileName()));
+            if (contentType == null || !contentType.equals(file.getContentType()))
+                throw new FileException(ErrorCode.NOT_SUPPORT_FILE);
+            if (file.getSize() > maxSize)
+                throw new FileException(ErrorCode.FAIL_FILE_SIZE);
+        }
+
+        List<UploadResponse> uploadResponses = new ArrayList<>();
+        for (UploadRequest.UploadFile file : uploadRequest.getFiles()) {
+
+            String key = dir + ImageStore.createStoreFileName(file.getFileName());
+            String url = imageStore.presignPut(key, file.getContentType(), file.getSize(), urlTtl)
+                    .orElseThrow(() -> new FileException(ErrorCode.NOT_SUPPORTED_DIRECT_UPLOAD));
+
+            uploadTicketRepository.save(new UploadTicketRepository.Ticket(key, memberId, file.getSize(), file.getContentType(), file.getFileName()), ticketTtl);
+            pendingUploadRepository.add(key);
+            uploadResponses.add(new UploadResponse(key, url, file.getContentType(), file.getSize()));
+        }
+        return uploadResponses;
+    }
+
+    // 모두 확인한 뒤에 발급 정보를 지우므로, 하나라도 잘못되면 나머지 키는 다시 쓸 수 있다.
+    private <T> List<T> claim(String dir, List<String> keys, Long memberId,
+                              BiFunction<String, String, T> imageFactory) throws FileException {
+
+        if (new HashSet<>(keys).size() != keys.size())
+            throw new FileException(ErrorCode.NOT_VALID_UPLOAD);
+
+        List<UploadTicketRepository.Ticket> tickets = new ArrayList<>();
+        for (String key : keys) {
+
+            UploadTicketRepository.Ticket ticket = uploadTicketRepository.find(key)
+                    .filter(found -> key.startsWith(dir) && found.getMemberId().equals(memberId))
+                    .orElseThrow(() -> new FileException(ErrorCode.NOT_VALID_UPLOAD));
+
+            StoredObject storedObject = imageStore.headObject(key)
+                    .orElseThrow(() -> new FileException(ErrorCode.NOT_UPLOADED_FILE));
+            if (storedObject.getContentLength() != ticket.getContentLength()
+                    || !ticket.getContentType().equals(storedObject.getContentType()))
+                throw new FileException(ErrorCode.NOT_UPLOADED_FILE);
+
+            tickets.add(ticket);
+        }
+
+        List<T> images = new ArrayList<>();
+        for (UploadTicketRepository.Ticket ticket : tickets) {
+            if (!uploadTicketRepository.remove(ticket.getObjectKey()))
+                throw new FileException(ErrorCode.NOT_VALID_UPLOAD);
+            images.add(imageFactory.apply(ticket.getUploadFileName(), ticket.getObjectKey().substring(dir.length())));
+        }
+        return images;
+    }
+}
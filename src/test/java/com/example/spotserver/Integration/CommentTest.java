@@ -1,5 +1,6 @@
 package com.example.spotserver.Integration;
 
+import com.example.spotserver.config.cache.CacheNames;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.CommentConditionRequest;
 import com.example.spotserver.dto.request.CommentRequest;
@@ -9,7 +10,10 @@ import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.ErrorCode;
 import com.example.spotserver.exception.PermissionException;
 import com.example.spotserver.repository.*;
+import com.example.spotserver.repository.jdbc.BulkDeleteRepository;
 import com.example.spotserver.service.CommentService;
+import com.example.spotserver.service.LikeFlusher;
+import com.example.spotserver.service.PosterService;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.assertj.core.api.Assertions;
@@ -18,18 +22,27 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.transaction.TestTransaction;
 
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
-@SpringBootTest
+@SpringBootTest(properties = "spot.like.flush-delay=3600000")
 @Transactional
 public class CommentTest {
 
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private PosterService posterService;
+
+    @Autowired
+    private LikeFlusher likeFlusher;
+
     @Autowired
     private MemberRepository memberRepository;
 
@@ -45,6 +58,12 @@ public class CommentTest {
     @Autowired
     private CommentLikeRepository commentLikeRepository;
 
+    @Autowired
+    private BulkDeleteRepository bulkDeleteRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private EntityManager em;
 
@@ -154,6 +173,73 @@ public class CommentTest {
                 .isNotPresent();
     }
 
+    @Test
+    @DisplayName("게시글 삭제시 그 게시글 댓글의 상세 캐시만 삭제")
+    void deletePosterEvictsCommentCache() throws PermissionException {
+
+        //given
+        Location location = new Location();
+        location.setTitle("장소명");
+        locationRepository.save(location);
+
+        Member member = new Member();
+        member.setName("회원A");
+        memberRepository.save(member);
+
+        Poster deletedPoster = new Poster();
+        deletedPoster.setTitle("지울 게시글");
+        deletedPoster.setLocation(location);
+        deletedPoster.setWriter(member);
+        posterRepository.save(deletedPoster);
+
+        Poster otherPoster = new Poster();
+        otherPoster.setTitle("다른 게시글");
+        otherPoster.setLocation(location);
+        otherPoster.setWriter(member);
+        posterRepository.save(otherPoster);
+
+        Comment deletedComment = new Comment();
+        deletedComment.setPoster(deletedPoster);
+        deletedComment.setWriter(member);
+        deletedComment.setContent("지워질 댓글");
+        commentRepository.save(deletedComment);
+
+        Comment otherComment = new Comment();
+        otherComment.setPoster(otherPoster);
+        otherComment.setWriter(member);
+        otherComment.setContent("남을 댓글");
+        commentRepository.save(otherComment);
+        em.flush();
+        em.clear();
+
+        Cache commentCache = cacheManager.getCache(CacheNames.COMMENT);
+        commentService.getComment(deletedComment.getId());
+        commentService.getComment(otherComment.getId());
+
+        //when
+        posterService.deletePoster(deletedPoster.getId(), member.getId());
+        // 캐시는 커밋 후에 지워진다.
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        //then
+        try {
+            Assertions
+                    .assertThat(commentCache.get(deletedComment.getId()))
+                    .isNull();
+            Assertions
+                    .assertThat(commentCache.get(otherComment.getId()))
+                    .isNotNull();
+        } finally {
+            // 커밋한 데이터와 남은 캐시를 지운다.
+            commentCache.evict(otherComment.getId());
+            TestTransaction.start();
+            TestTransaction.flagForCommit();
+            bulkDeleteRepository.deleteLocation(location.getId());
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
     @Test
     @DisplayName("좋아요 등록")
     void addLike() throws DuplicateException {
@@ -180,6 +266,7 @@ public class CommentTest {
 
         //when
         commentService.addLike(comment.getId(), member.getId());
+        likeFlusher.flush();
 
         //then
         Optional<CommentLike> commentLike = commentLikeRepository.findByCommentAndMember(comment, member);
@@ -256,6 +343,7 @@ public class CommentTest {
 
         //when
         commentService.deleteLike(comment.getId(), member.getId());
+        likeFlusher.flush();
 
         //then
         Optional<CommentLike> findCommentLike = commentLikeRepository.findByCommentAndMember(comment, member);
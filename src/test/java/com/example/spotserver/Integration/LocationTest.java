@@ -1,17 +1,26 @@
 package com.example.spotserver.Integration;
 
 
-import com.amazonaws.services.s3.AmazonS3Client;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.ApproveRequest;
+import com.example.spotserver.dto.request.ClusterConditionRequest;
+import com.example.spotserver.dto.request.LocationConditionRequest;
+import com.example.spotserver.dto.response.ClusterResponse;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.LocationSuggestResponse;
 import com.example.spotserver.dto.response.PageResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.ErrorCode;
 import com.example.spotserver.exception.FileException;
 import com.example.spotserver.exception.MailException;
 import com.example.spotserver.repository.*;
+import com.example.spotserver.repository.memory.LocationSpatialIndex;
+import com.example.spotserver.repository.memory.LocationSuggestIndex;
+import com.example.spotserver.service.ImageDeleteWorker;
 import com.example.spotserver.service.LocationService;
+import com.example.spotserver.service.LikeFlusher;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.assertj.core.api.Assertions;
@@ -20,6 +29,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.transaction.AfterTransaction;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
@@ -30,13 +40,19 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
-@SpringBootTest
+@SpringBootTest(properties = "spot.like.flush-delay=3600000")
 @Transactional
 public class LocationTest {
 
     @Autowired
     private LocationService locationService;
 
+    @Autowired
+    private LikeFlusher likeFlusher;
+
+    @Autowired
+    private ImageDeleteWorker imageDeleteWorker;
+
     @Autowired
     private LocationRepository locationRepository;
 
@@ -68,11 +84,21 @@ public class LocationTest {
     private ImageStore imageStore;
 
     @Autowired
-    private AmazonS3Client amazonS3Client;
+    private LocationSpatialIndex locationSpatialIndex;
+
+    @Autowired
+    private LocationSuggestIndex locationSuggestIndex;
 
     @Autowired
     private EntityManager em;
 
+    // 인덱스를 다시 만든 테스트는 롤백된 장소가 인덱스에 남으므로 롤백 후에 다시 만든다.
+    @AfterTransaction
+    void rebuildIndexes() {
+        locationSpatialIndex.rebuild();
+        locationSuggestIndex.rebuild();
+    }
+
     @Test
     @DisplayName("Location 등록")
     void addLocation() throws IOException, FileException {
@@ -151,6 +177,7 @@ public class LocationTest {
             locationImage.setLocation(location);
             locationImageRepository.save(locationImage);
         }
+        imageStore.confirmLocationImages(locationImages);
 
         Member member = new Member();
         memberRepository.save(member);
@@ -173,6 +200,7 @@ public class LocationTest {
             posterImage.setPoster(poster);
             posterImageRepository.save(posterImage);
         }
+        imageStore.confirmPosterImages(posterImages);
 
         PosterLike posterLike = new PosterLike();
         posterLike.setMember(member);
@@ -193,6 +221,7 @@ public class LocationTest {
         em.clear();
         Long deleteLocationId = location.getId();
         locationService.deleteLocation(deleteLocationId);
+        imageDeleteWorker.drain();
 
         //then
         Assertions
@@ -220,10 +249,10 @@ public class LocationTest {
                 .isNotPresent();
 
         Assertions
-                .assertThat(amazonS3Client.doesObjectExist(imageStore.getBucket(), imageStore.getLocationImgDir() + locationImages.get(0).getStoreFileName()))
+                .assertThat(imageStore.exists(imageStore.getLocationImgDir() + locationImages.get(0).getStoreFileName()))
                 .isFalse();
         Assertions
-                .assertThat(amazonS3Client.doesObjectExist(imageStore.getBucket(), imageStore.getPosterImgDir() + posterImages.get(0).getStoreFileName()))
+                .assertThat(imageStore.exists(imageStore.getPosterImgDir() + posterImages.get(0).getStoreFileName()))
                 .isFalse();
 
     }
@@ -294,6 +323,7 @@ public class LocationTest {
 
         //when
         locationService.addLike(location.getId(), member.getId());
+        likeFlusher.flush();
         em.flush();
         em.clear();
 
@@ -350,6 +380,7 @@ public class LocationTest {
 
         em.clear();
         locationService.deleteLike(location.getId(), member.getId());
+        likeFlusher.flush();
         em.flush();
         em.clear();
 
@@ -409,7 +440,7 @@ public class LocationTest {
         //when
         em.flush();
         em.clear();
-        PageResponse<LocationResponse> likeLocations = locationService.getLikeLocations(1, member.getId());
+        PageResponse<LocationResponse> likeLocations = locationService.getLikeLocations(1, member.getId(), CountMode.EXACT);
 
         //then
         List<LocationResponse> results = likeLocations.getResults();
@@ -418,4 +449,240 @@ public class LocationTest {
                 .isEqualTo(2);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("주위 장소 조회")
+    void searchLocations() {
+
+        //given
+        Location inside = new Location();
+        inside.setTitle("범위 안 장소");
+        inside.setLatitude(35.2415);
+        inside.setLongitude(128.6957);
+        inside.setApprove(false);
+        locationRepository.save(inside);
+
+        Location outside = new Location();
+        outside.setTitle("범위 밖 장소");
+        outside.setLatitude(35.3415);
+        outside.setLongitude(128.6957);
+        outside.setApprove(false);
+        locationRepository.save(outside);
+
+        em.flush();
+        em.clear();
+
+        //when
+        // 미승인 장소는 메모리 인덱스에 없으므로 geohash 접두사 조건으로 DB에서 조회한다.
+        LocationConditionRequest conditionRequest = new LocationConditionRequest();
+        conditionRequest.setScale(0.01);
+        conditionRequest.setApprove(false);
+        PageResponse<LocationResponse> pageResponse = locationService.searchLocations(35.24, 128.69, conditionRequest);
+
+        //then
+        Assertions
+                .assertThat(locationSpatialIndex.supports(conditionRequest))
+                .isFalse();
+        List<Long> locationIds = pageResponse.getResults()
+                .stream()
+                .map(LocationResponse::getLocationId)
+                .toList();
+        Assertions
+                .assertThat(locationIds)
+                .contains(inside.getId())
+                .doesNotContain(outside.getId());
+        Assertions
+                .assertThat(locationRepository.findById(inside.getId()).get().getGeohash())
+                .isEqualTo(GeoHash.encode(35.2415, 128.6957));
+    }
+
+    @Test
+    @DisplayName("메모리 인덱스로 주위 장소 조회")
+    void searchLocationsFromIndex() {
+
+        //given
+        double[][] coordinates = {{-35.2415, -128.6957}, {-35.2450, -128.6900}, {-35.2350, -128.7050}, {-35.3415, -128.6957}};
+        List<Location> locations = new ArrayList<>();
+        for (double[] coordinate : coordinates) {
+            Location location = new Location();
+            location.setTitle("인덱스 장소");
+            location.setLatitude(coordinate[0]);
+            location.setLongitude(coordinate[1]);
+            location.setApprove(true);
+            locations.add(locationRepository.save(location));
+        }
+
+        em.flush();
+        em.clear();
+        locationSpatialIndex.rebuild();
+
+        //when
+        LocationConditionRequest conditionRequest = new LocationConditionRequest();
+        conditionRequest.setScale(0.02);
+        PageResponse<LocationResponse> pageResponse = locationService.searchLocations(-35.24, -128.69, conditionRequest);
+        List<LocationResponse> sqlResults = locationRepository.searchLocations(-35.24, -128.69, conditionRequest).getContent();
+
+        //then
+        Assertions
+                .assertThat(locationSpatialIndex.supports(conditionRequest))
+                .isTrue();
+        Assertions
+                .assertThat(pageResponse.getResults())
+                .extracting(LocationResponse::getLocationId)
+                .contains(locations.get(0).getId(), locations.get(1).getId(), locations.get(2).getId())
+                .doesNotContain(locations.get(3).getId());
+        // 인덱스와 DB 조회 결과가 같아야 한다.
+        Assertions
+                .assertThat(pageResponse.getResults())
+                .extracting(LocationResponse::getLocationId)
+                .containsExactlyInAnyOrderElementsOf(sqlResults.stream().map(LocationResponse::getLocationId).toList());
+    }
+
+    @Test
+    @DisplayName("장소 제목 자동완성")
+    void suggestLocations() {
+
+        //given
+        String[] titles = {"쿼카숲 카페", "쿼카 전망대", "쿼카 미승인"};
+        long[] likeCounts = {3L, 5L, 10L};
+        boolean[] approves = {true, true, false};
+        List<Location> locations = new ArrayList<>();
+        for (int i = 0; i < titles.length; i++) {
+            Location location = new Location();
+            location.setTitle(titles[i]);
+            location.setLatitude(10.0);
+            location.setLongitude(10.0);
+            location.setLikeCount(likeCounts[i]);
+            location.setApprove(approves[i]);
+            locations.add(locationRepository.save(location));
+        }
+
+        em.flush();
+        em.clear();
+        locationSuggestIndex.rebuild();
+
+        //when
+        List<Long> prefixIds = locationService.suggestLocations("쿼카", 10)
+                .stream()
+                .map(LocationSuggestResponse::getLocationId)
+                .toList();
+        List<Long> choseongIds = locationService.suggestLocations("ㅋㅋㅅ", 10)
+                .stream()
+                .map(LocationSuggestResponse::getLocationId)
+                .toList();
+        List<Long> wordIds = locationService.suggestLocations("전망", 10)
+                .stream()
+                .map(LocationSuggestResponse::getLocationId)
+                .toList();
+
+        //then
+        Assertions
+                .assertThat(prefixIds)
+                .containsExactly(locations.get(1).getId(), locations.get(0).getId());
+        Assertions
+                .assertThat(choseongIds)
+                .containsExactly(locations.get(0).getId());
+        Assertions
+                .assertThat(wordIds)
+                .contains(locations.get(1).getId())
+                .doesNotContain(locations.get(0).getId(), locations.get(2).getId());
+    }
+
+    @Test
+    @DisplayName("거리순 장소 조회")
+    void searchNearestLocations() throws CursorException {
+
+        //given
+        List<Location> locations = new ArrayList<>();
+        double[] latitudes = {10.003, 10.001, 10.002, 10.05};
+        for (double latitude : latitudes) {
+            Location location = new Location();
+            location.setTitle("거리순 장소");
+            location.setLatitude(latitude);
+            location.setLongitude(10.0);
+            location.setApprove(true);
+            locations.add(locationRepository.save(location));
+        }
+
+        em.flush();
+        em.clear();
+        locationSpatialIndex.rebuild();
+
+        //when
+        LocationConditionRequest conditionRequest = new LocationConditionRequest();
+        conditionRequest.setSort("distance");
+        conditionRequest.setSize(2);
+        conditionRequest.setRadiusMeters(1000);
+        CursorResponse<LocationResponse> firstPage = locationService.searchNearestLocations(10.0, 10.0, conditionRequest);
+
+        conditionRequest.setCursor(firstPage.getNextCursor());
+        CursorResponse<LocationResponse> secondPage = locationService.searchNearestLocations(10.0, 10.0, conditionRequest);
+
+        //then
+        Assertions
+                .assertThat(firstPage.getResults())
+                .extracting(LocationResponse::getLocationId)
+                .containsExactly(locations.get(1).getId(), locations.get(2).getId());
+        Assertions
+                .assertThat(firstPage.getResults().get(0).getDistance())
+                .isCloseTo(111.2, Assertions.within(1.0));
+        Assertions
+                .assertThat(firstPage.isHasNext())
+                .isTrue();
+
+        Assertions
+                .assertThat(secondPage.getResults())
+                .extracting(LocationResponse::getLocationId)
+                .containsExactly(locations.get(0).getId());
+        Assertions
+                .assertThat(secondPage.isHasNext())
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("장소 클러스터 조회")
+    void getClusters() throws DuplicateException {
+
+        //given
+        double[] longitudes = {-20.0001, -20.0002, -20.0003};
+        List<Location> locations = new ArrayList<>();
+        for (double longitude : longitudes) {
+            Location location = new Location();
+            location.setTitle("클러스터 장소");
+            location.setLatitude(-20.0);
+            location.setLongitude(longitude);
+            location.setApprove(true);
+            locations.add(locationRepository.save(location));
+        }
+
+        Member member = new Member();
+        member.setName("클러스터");
+        memberRepository.save(member);
+
+        locationService.addLike(locations.get(1).getId(), member.getId());
+        likeFlusher.flush();
+
+        em.flush();
+        em.clear();
+        locationSpatialIndex.rebuild();
+
+        //when
+        ClusterConditionRequest conditionRequest = new ClusterConditionRequest();
+        conditionRequest.setBbox(List.of(-20.01, -20.01, -19.99, -19.99));
+        conditionRequest.setZoom(15);
+        List<ClusterResponse> clusters = locationService.getClusters(conditionRequest);
+
+        //then
+        Assertions
+                .assertThat(clusters)
+                .hasSize(1);
+        Assertions
+                .assertThat(clusters.get(0).getCount())
+                .isEqualTo(3);
+        Assertions
+                .assertThat(clusters.get(0).getTopLocationId())
+                .isEqualTo(locations.get(1).getId());
+        Assertions
+                .assertThat(clusters.get(0).getLongitude())
+                .isCloseTo(-20.0002, Assertions.within(0.00001));
+    }
+}
@@ -1,13 +1,14 @@
 package com.example.spotserver.Integration;
 
-import com.amazonaws.services.s3.AmazonS3Client;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.spotserver.config.jwt.JwtProperties;
 import com.example.spotserver.domain.ImageStore;
 import com.example.spotserver.domain.MailCertification;
 import com.example.spotserver.domain.Member;
 import com.example.spotserver.domain.MemberImage;
+import com.example.spotserver.domain.Role;
 import com.example.spotserver.dto.request.LogoutRequest;
 import com.example.spotserver.dto.request.MemberUpdateRequest;
 import com.example.spotserver.dto.request.RefreshRequest;
@@ -37,9 +38,8 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.NoSuchElementException;
-import java.util.Random;
 
-@SpringBootTest
+@SpringBootTest(properties = "spot.like.flush-delay=3600000")
 @Transactional
 public class MemberTest {
 
@@ -62,10 +62,10 @@ public class MemberTest {
     private ImageStore imageStore;
 
     @Autowired
-    private AmazonS3Client amazonS3Client;
+    private RedisTemplate<String, Long> redisTemplate;
 
     @Autowired
-    private RedisTemplate<String, Long> redisTemplate;
+    private ImageDeleteWorker imageDeleteWorker;
 
     @Autowired
     private EntityManager em;
@@ -216,6 +216,7 @@ public class MemberTest {
         MemberImage memberImage = imageStore.storeMemberImage(new MockMultipartFile("memberImg", "upload.jpg", MediaType.IMAGE_JPEG_VALUE, "img".getBytes()));
         memberImage.setMember(member);
         memberImageRepository.save(memberImage);
+        imageStore.confirmMemberImage(memberImage);
         em.flush();
 
         MemberUpdateRequest memberUpdateRequest = new MemberUpdateRequest();
@@ -226,6 +227,7 @@ public class MemberTest {
         //when
         em.clear();
         memberService.updateMember(memberUpdateRequest, mockMultipartFile, member.getId());
+        imageDeleteWorker.drain();
 
         //then
         Member updateMember = memberRepository.findById(member.getId())
@@ -238,10 +240,10 @@ public class MemberTest {
                 .assertThat(updateMember.getMemberImg().getUploadFileName())
                 .isEqualTo(uploadFileName);
         Assertions
-                .assertThat(amazonS3Client.doesObjectExist(imageStore.getBucket(), imageStore.getMemberImgDir() + memberImage.getStoreFileName()))
+                .assertThat(imageStore.exists(imageStore.getMemberImgDir() + memberImage.getStoreFileName()))
                 .isFalse();
         Assertions
-                .assertThat(amazonS3Client.doesObjectExist(imageStore.getBucket(), imageStore.getMemberImgDir() + updateMember.getMemberImg().getStoreFileName()))
+                .assertThat(imageStore.exists(imageStore.getMemberImgDir() + updateMember.getMemberImg().getStoreFileName()))
                 .isTrue();
 
         imageStore.deleteMemberImage(updateMember.getMemberImg());
@@ -261,11 +263,13 @@ public class MemberTest {
         memberImage.setMember(member);
         member.setMemberImg(memberImage);
         memberRepository.save(member);
+        imageStore.confirmMemberImage(memberImage);
         em.flush();
 
         //when
         em.clear();
         memberService.deleteMember(member.getId());
+        imageDeleteWorker.drain();
 
         //then
         Assertions
@@ -275,7 +279,7 @@ public class MemberTest {
                 .assertThat(memberImageRepository.findById(memberImage.getId()))
                 .isNotPresent();
         Assertions
-                .assertThat(amazonS3Client.doesObjectExist(imageStore.getBucket(), imageStore.getMemberImgDir() + memberImage.getStoreFileName()))
+                .assertThat(imageStore.exists(imageStore.getMemberImgDir() + memberImage.getStoreFileName()))
                 .isFalse();
     }
 
@@ -383,7 +387,10 @@ public class MemberTest {
     void createRefreshToken() {
 
         //given
-        Long memberId = new Random().nextLong();
+        Member member = new Member();
+        member.setRole(Role.USER);
+        memberRepository.save(member);
+        Long memberId = member.getId();
 
         //when
         TokenResponse tokenResponse = memberService.createToken(memberId);
@@ -403,7 +410,10 @@ public class MemberTest {
     void refreshToken() throws AuthenticationException {
 
         //given
-        Long memberId = new Random().nextLong();
+        Member member = new Member();
+        member.setRole(Role.USER);
+        memberRepository.save(member);
+        Long memberId = member.getId();
         TokenResponse tokenResponse = memberService.createToken(memberId);
 
         RefreshRequest refreshRequest = new RefreshRequest();
@@ -414,15 +424,19 @@ public class MemberTest {
 
         //then
         String accessToken = accessTokenResponse.getAccessToken();
-        Long id = JWT.require(Algorithm.HMAC256(JwtProperties.SECRET_KEY))
+        DecodedJWT decodedJWT = JWT.require(Algorithm.HMAC256(JwtProperties.SECRET_KEY))
                 .build()
-                .verify(accessToken)
-                .getClaim("id")
-                .asLong();
+                .verify(accessToken);
 
         Assertions
-                .assertThat(id)
+                .assertThat(decodedJWT.getClaim("id").asLong())
                 .isEqualTo(memberId);
+        Assertions
+                .assertThat(decodedJWT.getClaim("role").asString())
+                .isEqualTo(Role.USER.name());
+        Assertions
+                .assertThat(decodedJWT.getClaim("ver").asLong())
+                .isEqualTo(0L);
     }
 
     @Test
@@ -450,7 +464,10 @@ public class MemberTest {
     void logout() throws AuthenticationException {
 
         //given
-        Long memberId = 1L;
+        Member member = new Member();
+        member.setRole(Role.USER);
+        memberRepository.save(member);
+        Long memberId = member.getId();
         TokenResponse tokenResponse = memberService.createToken(memberId);
         String refreshToken = tokenResponse.getRefreshToken();
 
@@ -471,7 +488,10 @@ public class MemberTest {
     void duplicateLogout() throws AuthenticationException {
 
         //given
-        Long memberId = 1L;
+        Member member = new Member();
+        member.setRole(Role.USER);
+        memberRepository.save(member);
+        Long memberId = member.getId();
         TokenResponse tokenResponse = memberService.createToken(memberId);
         String refreshToken = tokenResponse.getRefreshToken();
 
@@ -1,16 +1,25 @@
 package com.example.spotserver.Integration;
 
-import com.amazonaws.services.s3.AmazonS3Client;
+import com.example.spotserver.config.cache.CacheNames;
 import com.example.spotserver.domain.*;
 import com.example.spotserver.dto.request.PosterConditionRequest;
 import com.example.spotserver.dto.request.PosterRequest;
+import com.example.spotserver.dto.request.UploadRequest;
+import com.example.spotserver.dto.response.CursorResponse;
 import com.example.spotserver.dto.response.PageResponse;
 import com.example.spotserver.dto.response.PosterResponse;
+import com.example.spotserver.dto.response.UploadResponse;
+import com.example.spotserver.exception.CursorException;
 import com.example.spotserver.exception.DuplicateException;
 import com.example.spotserver.exception.FileException;
 import com.example.spotserver.exception.PermissionException;
 import com.example.spotserver.repository.*;
+import com.example.spotserver.repository.jdbc.BulkDeleteRepository;
+import com.example.spotserver.service.ImageDeleteWorker;
 import com.example.spotserver.service.PosterService;
+import com.example.spotserver.service.LikeFlusher;
+import com.example.spotserver.service.TrendingRanking;
+import com.example.spotserver.service.UploadService;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.assertj.core.api.Assertions;
@@ -20,25 +29,44 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
-@SpringBootTest
+@SpringBootTest(properties = "spot.like.flush-delay=3600000")
 @Transactional
 public class PosterTest {
 
     @Autowired
     private PosterService posterService;
 
+    @Autowired
+    private LikeFlusher likeFlusher;
+
+    @Autowired
+    private ImageDeleteWorker imageDeleteWorker;
+
+    @Autowired
+    private UploadService uploadService;
+
+    @Autowired
+    private TrendingRanking trendingRanking;
+
     @Autowired
     private MemberRepository memberRepository;
 
@@ -57,14 +85,18 @@ public class PosterTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private BulkDeleteRepository bulkDeleteRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private ImageStore imageStore;
 
     @Autowired
     private EntityManager em;
 
-    @Autowired
-    private AmazonS3Client amazonS3Client;
 
 
     @Test
@@ -118,7 +150,7 @@ public class PosterTest {
 
         for (PosterImage posterImage : posterImages) {
             Assertions
-                    .assertThat(amazonS3Client.doesObjectExist(imageStore.getBucket(), imageStore.getPosterImgDir() + posterImage.getStoreFileName()))
+                    .assertThat(imageStore.exists(imageStore.getPosterImgDir() + posterImage.getStoreFileName()))
                     .isTrue();
         }
 
@@ -128,6 +160,111 @@ public class PosterTest {
 
     }
 
+    @Test
+    @DisplayName("직접 업로드한 이미지로 게시글 작성")
+    void addPosterWithUploadedImages() throws IOException, InterruptedException, FileException {
+
+        //given
+        Location location = new Location();
+        location.setTitle("테스트 장소");
+        locationRepository.save(location);
+
+        Member member = new Member();
+        member.setName("회원");
+        memberRepository.save(member);
+
+        byte[] content = "img".getBytes();
+        UploadRequest.UploadFile uploadFile = new UploadRequest.UploadFile();
+        uploadFile.setFileName("image.jpg");
+        uploadFile.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        uploadFile.setSize((long) content.length);
+        UploadRequest uploadRequest = new UploadRequest();
+        uploadRequest.setFiles(List.of(uploadFile));
+
+        UploadResponse uploadResponse = uploadService.createPosterUploads(uploadRequest, member.getId()).get(0);
+        HttpResponse<Void> putResponse = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(uploadResponse.getUrl()))
+                        .header("Content-Type", uploadResponse.getContentType())
+                        .PUT(HttpRequest.BodyPublishers.ofByteArray(content))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        PosterRequest posterRequest = new PosterRequest();
+        posterRequest.setTitle("게시글 제목");
+        posterRequest.setContent("게시글 내용");
+        Poster poster = PosterRequest.toEntity(posterRequest);
+
+        //when
+        posterService.addPoster(poster, null, List.of(uploadResponse.getKey()), location.getId(), member.getId());
+        em.flush();
+        em.clear();
+
+        //then
+        List<PosterImage> posterImages = posterRepository.findById(poster.getId())
+                .orElseThrow(() -> new NoSuchElementException())
+                .getPosterImages();
+
+        Assertions
+                .assertThat(putResponse.statusCode())
+                .isEqualTo(200);
+        Assertions
+                .assertThat(posterImages)
+                .extracting(imageStore::getPosterImgKey)
+                .containsExactly(uploadResponse.getKey());
+        Assertions
+                .assertThat(posterImages.get(0).getUploadFileName())
+                .isEqualTo(uploadFile.getFileName());
+
+        // 한 번 쓴 키는 다시 쓸 수 없다.
+        Assertions
+                .assertThatThrownBy(() -> posterService.addPoster(PosterRequest.toEntity(posterRequest), null, List.of(uploadResponse.getKey()), location.getId(), member.getId()))
+                .isInstanceOf(FileException.class);
+
+        imageStore.deletePosterImage(posterImages.get(0));
+    }
+
+    @Test
+    @DisplayName("게시글 조회 시 이미지 주소 포함")
+    void getPosterWithImageUrls() throws IOException, FileException {
+
+        //given
+        Location location = new Location();
+        location.setTitle("테스트 장소");
+        locationRepository.save(location);
+
+        Member member = new Member();
+        member.setName("회원");
+        memberRepository.save(member);
+
+        PosterRequest posterRequest = new PosterRequest();
+        posterRequest.setTitle("게시글 제목");
+        posterRequest.setContent("게시글 내용");
+        Poster poster = PosterRequest.toEntity(posterRequest);
+
+        List<MultipartFile> files = new ArrayList<>();
+        files.add(new MockMultipartFile("img1", "image1.jpg", MediaType.IMAGE_JPEG_VALUE, "img".getBytes()));
+        files.add(new MockMultipartFile("img2", "image2.jpg", MediaType.IMAGE_JPEG_VALUE, "img".getBytes()));
+
+        posterService.addPoster(poster, files, location.getId(), member.getId());
+        em.flush();
+        em.clear();
+
+        //when
+        PosterResponse posterResponse = posterService.getPoster(poster.getId());
+
+        //then
+        List<PosterImage> posterImages = posterImageRepository.findByPosterId(poster.getId());
+        Assertions
+                .assertThat(posterResponse.getImages())
+                .extracting(image -> image.getUrl())
+                .containsExactlyElementsOf(posterImages.stream()
+                        .map(posterImage -> imageStore.getUrl(imageStore.getPosterImgKey(posterImage)))
+                        .toList());
+
+        for (PosterImage posterImage : posterImages) {
+            imageStore.deletePosterImage(posterImage);
+        }
+    }
+
     @Test
     @DisplayName("게시글 수정")
     void updatePoster() throws PermissionException, IOException, FileException {
@@ -159,6 +296,7 @@ public class PosterTest {
             posterImage.setPoster(poster);
             posterImageRepository.save(posterImage);
         }
+        imageStore.confirmPosterImages(posterImages);
 
         // 2. 수정될 게시글 정보들
         PosterRequest posterRequest = new PosterRequest();
@@ -177,6 +315,7 @@ public class PosterTest {
         //when
         em.clear();
         posterService.updatePoster(poster.getId(), posterRequest, addFiles, deleteFilesId, member.getId());
+        imageDeleteWorker.drain();
         em.flush();
         em.clear();
 
@@ -192,7 +331,7 @@ public class PosterTest {
                 .assertThat(findPosterImages.contains(posterImages.get(0)))
                 .isFalse();
         Assertions
-                .assertThat(amazonS3Client.doesObjectExist(imageStore.getBucket(), imageStore.getPosterImgDir() + posterImages.get(0).getStoreFileName()))
+                .assertThat(imageStore.exists(imageStore.getPosterImgDir() + posterImages.get(0).getStoreFileName()))
                 .isFalse();
 
         Assertions
@@ -207,6 +346,107 @@ public class PosterTest {
         }
     }
 
+    @Test
+    @DisplayName("게시글 수정시 상세 캐시 삭제")
+    void updatePosterEvictsCache() throws PermissionException, IOException, FileException {
+
+        //given
+        Location location = new Location();
+        location.setTitle("장소");
+        locationRepository.save(location);
+
+        Member member = new Member();
+        member.setName("회원");
+        memberRepository.save(member);
+
+        Poster poster = new Poster();
+        poster.setWriter(member);
+        poster.setLocation(location);
+        poster.setTitle("제목");
+        poster.setContent("내용");
+        posterRepository.save(poster);
+        em.flush();
+        em.clear();
+
+        Cache posterCache = cacheManager.getCache(CacheNames.POSTER);
+        posterService.getPoster(poster.getId());
+        Assertions
+                .assertThat(posterCache.get(poster.getId()))
+                .isNotNull();
+
+        PosterRequest posterRequest = new PosterRequest();
+        posterRequest.setTitle("수정된 제목");
+        posterRequest.setContent("수정된 내용");
+
+        //when
+        posterService.updatePoster(poster.getId(), posterRequest, null, null, member.getId());
+        // 캐시는 커밋 후에 지워진다.
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        //then
+        try {
+            Assertions
+                    .assertThat(posterCache.get(poster.getId()))
+                    .isNull();
+        } finally {
+            // 커밋한 데이터를 지운다.
+            TestTransaction.start();
+            TestTransaction.flagForCommit();
+            bulkDeleteRepository.deleteLocation(location.getId());
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("같은 내용의 이미지는 한 번만 저장")
+    void addPosterWithDuplicateImages() throws IOException, FileException, PermissionException {
+
+        //given
+        Location location = new Location();
+        location.setTitle("테스트 장소");
+        locationRepository.save(location);
+
+        Member member = new Member();
+        member.setName("회원");
+        memberRepository.save(member);
+
+        PosterRequest posterRequest = new PosterRequest();
+        posterRequest.setTitle("게시글 제목");
+        posterRequest.setContent("게시글 내용");
+        Poster poster = PosterRequest.toEntity(posterRequest);
+
+        byte[] content = UUID.randomUUID().toString().getBytes();
+        List<MultipartFile> files = new ArrayList<>();
+        files.add(new MockMultipartFile("img1", "image1.jpg", MediaType.IMAGE_JPEG_VALUE, content));
+        files.add(new MockMultipartFile("img2", "image2.jpg", MediaType.IMAGE_JPEG_VALUE, content));
+
+        //when
+        posterService.addPoster(poster, files, location.getId(), member.getId());
+        em.flush();
+        em.clear();
+
+        List<PosterImage> posterImages = posterRepository.findById(poster.getId())
+                .orElseThrow(() -> new NoSuchElementException())
+                .getPosterImages();
+        String key = imageStore.getPosterImgKey(posterImages.get(0));
+
+        //then
+        Assertions
+                .assertThat(posterImages)
+                .extracting(PosterImage::getStoreFileName)
+                .containsOnly(posterImages.get(0).getStoreFileName());
+        Assertions
+                .assertThat(imageStore.exists(key))
+                .isTrue();
+
+        posterService.deletePoster(poster.getId(), member.getId());
+        imageDeleteWorker.drain();
+        Assertions
+                .assertThat(imageStore.exists(key))
+                .isFalse();
+    }
+
     @Test
     @DisplayName("게시글 좋아요 등록")
     void addLike() throws DuplicateException {
@@ -221,6 +461,7 @@ public class PosterTest {
 
         //when
         posterService.addLike(poster.getId(), member.getId());
+        likeFlusher.flush();
         em.flush();
         em.clear();
 
@@ -248,6 +489,7 @@ public class PosterTest {
 
         //when
         posterService.deleteLike(poster.getId(), member.getId());
+        likeFlusher.flush();
         em.flush();
         em.clear();
 
@@ -287,7 +529,7 @@ public class PosterTest {
         //when
         em.flush();
         em.clear();
-        PageResponse<PosterResponse> likePosters = posterService.getLikePosters(1, member.getId());
+        PageResponse<PosterResponse> likePosters = posterService.getLikePosters(1, member.getId(), CountMode.EXACT);
 
         //then
         List<PosterResponse> results = likePosters.getResults();
@@ -296,6 +538,55 @@ public class PosterTest {
                 .isEqualTo(2);
     }
 
+    @Test
+    @DisplayName("게시글 개수 없이 조회")
+    void getPostersWithoutCount() {
+
+        //given
+        Member writer = new Member();
+        writer.setName("홍길동");
+        memberRepository.save(writer);
+
+        Location newLocation = new Location();
+        locationRepository.save(newLocation);
+
+        int posterCnt = 7;
+        for (int i = 1; i <= posterCnt; i++) {
+            Poster newPoster = new Poster();
+            newPoster.setLocation(newLocation);
+            newPoster.setWriter(writer);
+            newPoster.setTitle(i + "번째 제목");
+            posterRepository.save(newPoster);
+        }
+
+        PosterConditionRequest conditionRequest = new PosterConditionRequest();
+        conditionRequest.setSize(5);
+        conditionRequest.setCount("none");
+
+        //when
+        em.flush();
+        PageInfo firstPage = posterService.getLocationPosters(newLocation.getId(), conditionRequest).getPageInfo();
+        conditionRequest.setPage(2);
+        PageInfo lastPage = posterService.getLocationPosters(newLocation.getId(), conditionRequest).getPageInfo();
+
+        //then
+        Assertions
+                .assertThat(firstPage.getNumberOfElements())
+                .isEqualTo(5L);
+        Assertions
+                .assertThat(firstPage.isHasNext())
+                .isTrue();
+        Assertions
+                .assertThat(firstPage.getTotalElements())
+                .isNull();
+        Assertions
+                .assertThat(lastPage.getNumberOfElements())
+                .isEqualTo(2L);
+        Assertions
+                .assertThat(lastPage.isHasNext())
+                .isFalse();
+    }
+
     @Test
     @DisplayName("게시글 최신순 조회")
     void getPostersByRecent() {
@@ -350,9 +641,58 @@ public class PosterTest {
         }
     }
 
+    @Test
+    @DisplayName("게시글 커서 조회")
+    void getPostersByCursor() throws CursorException {
+
+        //given
+        Member writer = new Member();
+        writer.setName("홍길동");
+        memberRepository.save(writer);
+
+        Location newLocation = new Location();
+        locationRepository.save(newLocation);
+
+        Long posterCnt = 7L;
+        for (int i = 1; i <= posterCnt; i++) {
+            Poster newPoster = new Poster();
+            newPoster.setLocation(newLocation);
+            newPoster.setWriter(writer);
+            newPoster.setTitle(i + "번째 제목");
+            posterRepository.save(newPoster);
+            // 같은 작성 시간이 있어도 id로 순서가 정해지는지 확인
+            newPoster.setRegDate(newPoster.getRegDate().plusHours(i / 2));
+        }
+
+        PosterConditionRequest conditionRequest = new PosterConditionRequest();
+        conditionRequest.setSize(3);
+        conditionRequest.setSort("recent");
+        conditionRequest.setCursor("");
+
+        //when
+        em.flush();
+        List<String> titles = new ArrayList<>();
+        int pageCnt = 0;
+        CursorResponse<PosterResponse> cursorResponse;
+        do {
+            cursorResponse = posterService.getLocationPostersByCursor(newLocation.getId(), conditionRequest);
+            cursorResponse.getResults().forEach(posterResponse -> titles.add(posterResponse.getTitle()));
+            conditionRequest.setCursor(cursorResponse.getNextCursor());
+            pageCnt++;
+        } while (cursorResponse.isHasNext());
+
+        //then
+        Assertions
+                .assertThat(pageCnt)
+                .isEqualTo(3);
+        Assertions
+                .assertThat(titles)
+                .containsExactly("7번째 제목", "6번째 제목", "5번째 제목", "4번째 제목", "3번째 제목", "2번째 제목", "1번째 제목");
+    }
+
     @Test
     @DisplayName("게시글 좋아요순 조회")
-    void getPostersByLike() {
+    void getPostersByLike() throws DuplicateException {
 
         //given
         Member writer = new Member();
@@ -375,13 +715,11 @@ public class PosterTest {
                 Member liker = new Member();
                 memberRepository.save(liker);
 
-                PosterLike posterLike = new PosterLike();
-                posterLike.setMember(liker);
-                posterLike.setPoster(newPoster);
-                posterLikeRepository.save(posterLike);
+                posterService.addLike(newPoster.getId(), liker.getId());
             }
 
         }
+        likeFlusher.flush();
 
         PosterConditionRequest conditionRequest = new PosterConditionRequest();
         Integer page = 1;
@@ -415,6 +753,43 @@ public class PosterTest {
 
     }
 
+    @Test
+    @DisplayName("최근 좋아요가 많은 순으로 인기 게시글 조회")
+    void getBestPostersByDay() throws DuplicateException {
+
+        //given
+        Member writer = new Member();
+        writer.setName("홍길동");
+        memberRepository.save(writer);
+
+        List<Long> posterIds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Poster newPoster = new Poster();
+            newPoster.setWriter(writer);
+            newPoster.setTitle(i + "번째 제목");
+            posterRepository.save(newPoster);
+            posterIds.add(newPoster.getId());
+
+            for (int j = 1; j <= i; j++) {
+                Member liker = new Member();
+                memberRepository.save(liker);
+
+                posterService.addLike(newPoster.getId(), liker.getId());
+            }
+        }
+        em.flush();
+
+        //when
+        trendingRanking.refresh();
+        List<PosterResponse> bestPosters = posterService.getBestPosters("day");
+
+        //then
+        Assertions
+                .assertThat(bestPosters)
+                .extracting(PosterResponse::getPosterId)
+                .startsWith(posterIds.get(2), posterIds.get(1), posterIds.get(0));
+    }
+
     @Test
     @DisplayName("게시글 제목 검색")
     void getPostersBySearchTitle() {
@@ -466,6 +841,73 @@ public class PosterTest {
                 .isEqualTo(search + "번째 제목");
     }
 
+    @Test
+    @DisplayName("FULLTEXT 인덱스로 게시글 검색, 관련도순 정렬")
+    void getPostersByFullTextSearch() {
+
+        //given
+        Member writer = new Member();
+        writer.setName("홍길동");
+        memberRepository.save(writer);
+
+        Location location = new Location();
+        locationRepository.save(location);
+
+        String[][] posters = {
+                {"야경 명소", "야경이 예쁜 야경 맛집"},
+                {"카페", "근처 야경도 볼 만함"},
+                {"카페", "조용한 분위기"}
+        };
+        List<Poster> savedPosters = new ArrayList<>();
+        for (String[] titleAndContent : posters) {
+            Poster poster = new Poster();
+            poster.setLocation(location);
+            poster.setWriter(writer);
+            poster.setTitle(titleAndContent[0]);
+            poster.setContent(titleAndContent[1]);
+            savedPosters.add(posterRepository.save(poster));
+        }
+
+        // FULLTEXT 인덱스는 커밋된 행만 찾으므로 커밋한 뒤 새 트랜잭션에서 조회한다.
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+
+        try {
+            //when
+            String search = "야경";
+            PosterConditionRequest conditionRequest = new PosterConditionRequest();
+            conditionRequest.setPage(1);
+            conditionRequest.setSize(10);
+            conditionRequest.setSearch(search);
+            conditionRequest.setSort("relevance");
+            List<PosterResponse> results = posterService.getLocationPosters(location.getId(), conditionRequest).getResults();
+
+            List<Long> likeIds = em.createQuery(
+                            "select p.id from Poster p where p.location.id = :locationId and (p.title like :pattern or p.content like :pattern)",
+                            Long.class)
+                    .setParameter("locationId", location.getId())
+                    .setParameter("pattern", "%" + search + "%")
+                    .getResultList();
+
+            //then
+            Assertions
+                    .assertThat(results)
+                    .extracting(PosterResponse::getPosterId)
+                    .containsExactlyInAnyOrderElementsOf(likeIds)
+                    .containsExactlyInAnyOrder(savedPosters.get(0).getId(), savedPosters.get(1).getId());
+            // 검색어가 더 많이 나오는 게시글이 먼저 온다.
+            Assertions
+                    .assertThat(results.get(0).getPosterId())
+                    .isEqualTo(savedPosters.get(0).getId());
+        } finally {
+            // 커밋한 데이터를 지운다.
+            TestTransaction.flagForCommit();
+            bulkDeleteRepository.deleteLocation(location.getId());
+            memberRepository.deleteById(writer.getId());
+        }
+    }
+
     @Test
     @DisplayName("게시글 내용 검색")
     void getPostersBySearchContent() {
@@ -543,7 +985,7 @@ public class PosterTest {
         writePoster2.setRegDate(writePoster2.getRegDate().plusHours(1));
 
         //when
-        PageResponse<PosterResponse> writePosters = posterService.getWritePosters(1, member.getId());
+        PageResponse<PosterResponse> writePosters = posterService.getWritePosters(1, member.getId(), CountMode.EXACT);
         List<PosterResponse> results = writePosters.getResults();
         PageInfo pageInfo = writePosters.getPageInfo();
 
@@ -612,7 +1054,7 @@ public class PosterTest {
 
 
         //when
-        PageResponse<PosterResponse> postersByWriteComments = posterService.getPostersByWriteComments(1, member.getId());
+        PageResponse<PosterResponse> postersByWriteComments = posterService.getPostersByWriteComments(1, member.getId(), CountMode.EXACT);
         List<PosterResponse> results = postersByWriteComments.getResults();
 
         //then
@@ -0,0 +1,176 @@
+package com.example.spotserver.Integration;
+
+import com.example.spotserver.domain.Location;
+import com.example.spotserver.dto.request.SearchConditionRequest;
+import com.example.spotserver.dto.response.LocationResponse;
+import com.example.spotserver.dto.response.SearchResponse;
+import com.example.spotserver.event.LocationEvent;
+import com.example.spotserver.repository.LocationRepository;
+import com.example.spotserver.repository.jdbc.SearchDocumentRepository;
+import com.example.spotserver.repository.search.SearchIndex;
+import com.example.spotserver.service.LocationService;
+import com.example.spotserver.service.SearchIndexer;
+import com.example.spotserver.service.SearchService;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@SpringBootTest(properties = "spot.like.flush-delay=3600000")
+@Transactional
+public class SearchTest {
+
+    // 다른 데이터와 겹치지 않는 검색어
+    private static final String KEYWORD = "qwzspot";
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private SearchDocumentRepository searchDocumentRepository;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private List<Long> indexedLocationIds = new ArrayList<>();
+
+    // 테스트 데이터는 롤백되지만 인덱스는 롤백되지 않으므로 직접 지운다.
+    @AfterEach
+    void deleteIndexedLocations() throws IOException {
+        for (Long locationId : indexedLocationIds)
+            searchIndex.deleteLocation(locationId);
+        searchIndex.refresh();
+    }
+
+    @Test
+    @DisplayName("검색어가 포함된 장소 검색")
+    void searchByText() throws IOException {
+
+        //given
+        Location matched = saveLocation(KEYWORD + " 전망대", 37.5, 127.0);
+        Location other = saveLocation("전망대", 37.5, 127.0);
+        index(matched);
+        index(other);
+
+        //when
+        SearchResponse searchResponse = searchService.search(condition(KEYWORD, null, null));
+
+        //then
+        Assertions
+                .assertThat(searchResponse.getLocations())
+                .extracting(LocationResponse::getLocationId)
+                .containsExactly(matched.getId());
+    }
+
+    @Test
+    @DisplayName("가까운 장소부터 검색")
+    void searchByDistance() throws IOException {
+
+        //given
+        Location seoul = saveLocation(KEYWORD + " 전망대", 37.5665, 126.9780);
+        Location busan = saveLocation(KEYWORD + " 전망대", 35.1796, 129.0756);
+        index(seoul);
+        index(busan);
+
+        //when
+        SearchResponse nearSeoul = searchService.search(condition(KEYWORD, 37.5700, 126.9800));
+        SearchResponse nearBusan = searchService.search(condition(KEYWORD, 35.1800, 129.0700));
+
+        //then
+        Assertions
+                .assertThat(nearSeoul.getLocations())
+                .extracting(LocationResponse::getLocationId)
+                .containsExactly(seoul.getId(), busan.getId());
+        Assertions
+                .assertThat(nearBusan.getLocations())
+                .extracting(LocationResponse::getLocationId)
+                .containsExactly(busan.getId(), seoul.getId());
+    }
+
+    @Test
+    @DisplayName("삭제한 장소는 검색되지 않음")
+    void searchAfterDelete() throws IOException, InterruptedException {
+
+        //given
+        Location location = saveLocation(KEYWORD + " 전망대", 37.5, 127.0);
+        index(location);
+        Assertions
+                .assertThat(searchService.search(condition(KEYWORD, null, null)).getLocations())
+                .extracting(LocationResponse::getLocationId)
+                .containsExactly(location.getId());
+
+        //when
+        locationService.deleteLocation(location.getId());
+        // 테스트 트랜잭션은 커밋되지 않으므로 커밋 후에 받을 이벤트를 직접 보낸다.
+        searchIndexer.onLocationEvent(new LocationEvent(LocationEvent.Type.DELETE, location.getId(),
+                location.getLatitude(), location.getLongitude()));
+
+        //then
+        Assertions
+                .assertThat(searchService.search(condition(KEYWORD, null, null)).getLocations())
+                .isEmpty();
+        Assertions
+                .assertThat(awaitLocationIds(KEYWORD, location.getId()))
+                .doesNotContain(location.getId());
+    }
+
+    private Location saveLocation(String title, double latitude, double longitude) {
+        Location location = new Location();
+        location.setTitle(title);
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        location.setApprove(true);
+        locationRepository.save(location);
+        em.flush();
+        return location;
+    }
+
+    // 커밋 전의 데이터는 변경 알림을 받은 쪽에서 읽을 수 없으므로 같은 트랜잭션에서 읽어 색인한다.
+    private void index(Location location) throws IOException {
+        indexedLocationIds.add(location.getId());
+        searchIndex.indexLocation(searchDocumentRepository.findLocation(location.getId())
+                .orElseThrow(() -> new NoSuchElementException()));
+        searchIndex.refresh();
+    }
+
+    // 변경 알림은 Redis pub/sub 으로 받아 반영하므로 removedId 가 빠질 때까지 최대 5초 기다린다.
+    private List<Long> awaitLocationIds(String q, Long removedId) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            searchIndex.refresh();
+            List<Long> ids = searchIndex.search(SearchIndex.LOCATION, q, null, null, 0, 10);
+            if (!ids.contains(removedId) || System.currentTimeMillis() > deadline)
+                return ids;
+            Thread.sleep(50);
+        }
+    }
+
+    private SearchConditionRequest condition(String q, Double lat, Double lng) {
+        SearchConditionRequest conditionRequest = new SearchConditionRequest();
+        conditionRequest.setQ(q);
+        conditionRequest.setLat(lat);
+        conditionRequest.setLng(lng);
+        return conditionRequest;
+    }
+}
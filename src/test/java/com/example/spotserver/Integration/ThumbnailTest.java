@@ -0,0 +1,132 @@
+package com.example.spotserver.Integration;
+
+import com.example.spotserver.domain.ImageStore;
+import com.example.spotserver.domain.ImageVariant;
+import com.example.spotserver.domain.PosterImage;
+import com.example.spotserver.domain.ThumbnailStatus;
+import com.example.spotserver.repository.PosterImageRepository;
+import com.example.spotserver.repository.jdbc.ImageLookupRepository;
+import com.example.spotserver.service.ThumbnailGenerator;
+import jakarta.transaction.Transactional;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@SpringBootTest(properties = "spot.like.flush-delay=3600000")
+@Transactional
+public class ThumbnailTest {
+
+    // JPEG 시작 표시(SOI, APP0) 뒤에 잘못된 데이터가 이어지는 파일. 읽을 수 있는 형식으로 보이지만 디코딩할 수 없다.
+    private static final byte[] BROKEN_JPEG = {
+            (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0x00, 0x10, 'b', 'r', 'o', 'k', 'e', 'n', 0x00, 0x01, 0x02, 0x03
+    };
+
+    @Autowired
+    private ThumbnailGenerator thumbnailGenerator;
+
+    @Autowired
+    private PosterImageRepository posterImageRepository;
+
+    @Autowired
+    private ImageLookupRepository imageLookupRepository;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Test
+    @DisplayName("축소본 생성")
+    void generateThumbnails() throws IOException, InterruptedException {
+
+        //given
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("img1", "image.jpg", MediaType.IMAGE_JPEG_VALUE, jpeg(2000, 1500)),
+                new MockMultipartFile("img2", "broken.jpg", MediaType.IMAGE_JPEG_VALUE, BROKEN_JPEG));
+        List<PosterImage> posterImages = imageStore.storePosterImages(files);
+        posterImageRepository.saveAll(posterImages);
+        imageStore.confirmPosterImages(posterImages);
+
+        // 축소본은 다른 스레드에서 만들고 상태를 바꾸므로 커밋해야 한다.
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        PosterImage image = posterImages.get(0);
+        PosterImage brokenImage = posterImages.get(1);
+        try {
+            //when
+            ThumbnailStatus status = awaitSettled(image.getId());
+            ThumbnailStatus brokenStatus = awaitSettled(brokenImage.getId());
+
+            //then
+            Assertions
+                    .assertThat(status)
+                    .isEqualTo(ThumbnailStatus.READY);
+            Assertions
+                    .assertThat(brokenStatus)
+                    .isEqualTo(ThumbnailStatus.FAILED);
+
+            String key = imageStore.getPosterImgKey(image);
+            for (ImageVariant variant : ImageVariant.values()) {
+                Assertions
+                        .assertThat(imageStore.exists(imageStore.getVariantKey(key, variant)))
+                        .isTrue();
+            }
+            try (InputStream inputStream = imageStore.openObject(imageStore.getVariantKey(key, ImageVariant.SMALL))) {
+                BufferedImage small = ImageIO.read(inputStream);
+                Assertions
+                        .assertThat(Math.max(small.getWidth(), small.getHeight()))
+                        .isEqualTo(ImageVariant.SMALL.getSize());
+            }
+        } finally {
+            // 커밋한 데이터와 이미지를 지운다.
+            TestTransaction.start();
+            TestTransaction.flagForCommit();
+            posterImageRepository.deleteAllById(posterImages.stream().map(PosterImage::getId).toList());
+            for (PosterImage posterImage : posterImages) {
+                imageStore.deletePosterImage(posterImage);
+            }
+        }
+    }
+
+    // 축소본은 스레드 풀에서 만들어지므로 PENDING 이 아닐 때까지 조회를 반복한다. (최대 30초)
+    private ThumbnailStatus awaitSettled(Long posterImageId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            ThumbnailStatus status = imageLookupRepository.findPosterImage(posterImageId)
+                    .orElseThrow(() -> new NoSuchElementException())
+                    .getThumbnailStatus();
+            if (status != ThumbnailStatus.PENDING || System.currentTimeMillis() > deadline)
+                return status;
+            thumbnailGenerator.scan();
+            Thread.sleep(100);
+        }
+    }
+
+    private byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(0, 0, Color.BLUE, width, height, Color.ORANGE));
+            graphics.fillRect(0, 0, width, height);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", outputStream);
+        return outputStream.toByteArray();
+    }
+}
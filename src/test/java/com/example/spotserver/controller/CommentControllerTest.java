@@ -1,5 +1,6 @@
 package com.example.spotserver.controller;
 
+import com.example.spotserver.config.auth.MemberPrincipal;
 import com.example.spotserver.config.auth.PrincipalDetails;
 import com.example.spotserver.domain.Comment;
 import com.example.spotserver.domain.Member;
@@ -65,7 +66,7 @@ class CommentControllerTest {
         principalDetails = mock(PrincipalDetails.class);
 
         when(principalDetails.getMember())
-                .thenReturn(member);
+                .thenReturn(MemberPrincipal.from(member));
 
     }
 
@@ -1,5 +1,6 @@
 package com.example.spotserver.controller;
 
+import com.example.spotserver.config.auth.MemberPrincipal;
 import com.example.spotserver.config.auth.PrincipalDetails;
 import com.example.spotserver.domain.Location;
 import com.example.spotserver.domain.Member;
@@ -68,7 +69,7 @@ public class LocationControllerTest {
         principalDetails = mock(PrincipalDetails.class);
 
         when(principalDetails.getMember())
-                .thenReturn(member);
+                .thenReturn(MemberPrincipal.from(member));
 
     }
 
@@ -105,7 +106,7 @@ public class LocationControllerTest {
         files.add(imgFile1);
         files.add(imgFile2);
 
-        given(locationService.addLocation(location, files))
+        given(locationService.addLocation(location, files, null, member.getId()))
                 .willReturn(locationId);
 
         //when
@@ -117,7 +118,7 @@ public class LocationControllerTest {
 
         //then
         verify(locationService, times(1))
-                .addLocation(location, files);
+                .addLocation(location, files, null, member.getId());
         resultActions
                 .andExpectAll(
                         status().is(HttpStatus.CREATED.value()),
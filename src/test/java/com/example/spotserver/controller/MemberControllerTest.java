@@ -1,5 +1,6 @@
 package com.example.spotserver.controller;
 
+import com.example.spotserver.config.auth.MemberPrincipal;
 import com.example.spotserver.config.auth.PrincipalDetails;
 import com.example.spotserver.config.jwt.JwtProperties;
 import com.example.spotserver.domain.Member;
@@ -263,7 +264,7 @@ class MemberControllerTest {
 
         PrincipalDetails principalDetails = mock(PrincipalDetails.class);
         when(principalDetails.getMember())
-                .thenReturn(member);
+                .thenReturn(MemberPrincipal.from(member));
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(principalDetails, null, principalDetails.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(authentication);
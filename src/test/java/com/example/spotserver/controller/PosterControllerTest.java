@@ -1,5 +1,6 @@
 package com.example.spotserver.controller;
 
+import com.example.spotserver.config.auth.MemberPrincipal;
 import com.example.spotserver.config.auth.PrincipalDetails;
 import com.example.spotserver.domain.Member;
 import com.example.spotserver.domain.Poster;
@@ -74,7 +75,7 @@ class PosterControllerTest {
         principalDetails = mock(PrincipalDetails.class);
 
         when(principalDetails.getMember())
-                .thenReturn(member);
+                .thenReturn(MemberPrincipal.from(member));
 
 
         objectMapper = new ObjectMapper();
@@ -111,7 +112,7 @@ class PosterControllerTest {
         files.add(file2);
 
         Long posterId = 3L;
-        given(posterService.addPoster(poster, files, locationId, member.getId()))
+        given(posterService.addPoster(poster, files, null, locationId, member.getId()))
                 .willReturn(posterId);
 
         //when
@@ -124,7 +125,7 @@ class PosterControllerTest {
 
         //then
         verify(posterService, times(1))
-                .addPoster(poster, files, locationId, member.getId());
+                .addPoster(poster, files, null, locationId, member.getId());
 
         resultActions
                 .andExpectAll(